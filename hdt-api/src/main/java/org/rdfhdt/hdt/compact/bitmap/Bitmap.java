@@ -60,16 +60,16 @@ public interface Bitmap {
     long rank0(long position);
 
     /**
-     * Return the position of the next 1 after position start.
+     * Return the position of the previous 1 before position start (included), scanning the words of the bitmap.
      * @param start start
-	 * @return long
+	 * @return long, -1 if there is no 1 before start
      */
     long selectPrev1(long start);
 
     /**
-     * Return the position of the previous 1 before position start.
+     * Return the position of the next 1 after position start (included), scanning the words of the bitmap.
      * @param start start
-	 * @return long
+	 * @return long, -1 if there is no 1 after start
      */
     long selectNext1(long start);
 
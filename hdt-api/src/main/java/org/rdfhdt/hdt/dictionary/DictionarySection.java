@@ -30,6 +30,8 @@ package org.rdfhdt.hdt.dictionary;
 import java.io.Closeable;
 import java.util.Iterator;
 
+import org.rdfhdt.hdt.exceptions.NotImplementedException;
+
 /**
  * Interface that specifies the basic methods for a dictionary section
  *
@@ -75,4 +77,16 @@ public interface DictionarySection extends Closeable {
 	 */
 	Iterator<? extends CharSequence> getSortedEntries();
 
+	/**
+	 * Find the IDs of the strings starting with a prefix, the entries being sorted, these IDs are contiguous.
+	 *
+	 * @param prefix
+	 * 			the prefix to search
+	 * @return
+	 * 			{firstId, lastId} of the strings starting with the prefix, firstId > lastId if no string starts with it
+	 */
+	default long[] locatePrefixRange(CharSequence prefix) {
+		throw new NotImplementedException("locatePrefixRange");
+	}
+
 }
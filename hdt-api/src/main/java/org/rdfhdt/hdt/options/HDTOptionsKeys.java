@@ -56,6 +56,13 @@ public class HDTOptionsKeys {
 	 */
 	@Key(type = Key.Type.PATH, desc = "Location of the disk generation directory")
 	public static final String LOADER_DISK_LOCATION_KEY = "loader.disk.location";
+	/**
+	 * Key for other directories to spread the chunk and merge files of the {@link org.rdfhdt.hdt.hdt.HDTManager}
+	 * generateHDTDisk methods, separated by {@link java.io.File#pathSeparator}, the other files are written in the
+	 * {@link #LOADER_DISK_LOCATION_KEY} directory. The directories are deleted with it.
+	 */
+	@Key(type = Key.Type.PATH, desc = "Other directories to write the chunks of the disk generation, separated by the path separator")
+	public static final String LOADER_DISK_STRIPE_LOCATIONS_KEY = "loader.disk.stripeLocations";
 	/**
 	 * Key for the location of the future HDT for the {@link org.rdfhdt.hdt.hdt.HDTManager} generateHDTDisk methods,
 	 * this option will create a hdt file after the HDT generation, the returned HDT will be a mapped HDT of the HDT
@@ -86,6 +93,48 @@ public class HDTOptionsKeys {
 	 */
 	@Key(type = Key.Type.BOOLEAN, desc = "specify that the method doesn't have to copy the triple strings between 2 calls to the iterator")
 	public static final String LOADER_DISK_NO_COPY_ITERATOR_KEY = "loader.disk.noCopyIterator";
+	/**
+	 * Key for the triple id mapping of the {@link org.rdfhdt.hdt.hdt.HDTManager} generateHDTDisk methods, the mapping
+	 * from the triple ids to the dictionary ids between the dictionary and the triples steps.
+	 * Value can be {@link #LOADER_DISK_TRIPLE_MAPPER_VALUE_ARRAY} or {@link #LOADER_DISK_TRIPLE_MAPPER_VALUE_SORT}
+	 */
+	@Key(type = Key.Type.ENUM, desc = "Triple id mapping mode")
+	public static final String LOADER_DISK_TRIPLE_MAPPER_KEY = "loader.disk.tripleMapper";
+	/**
+	 * Value for {@link #LOADER_DISK_TRIPLE_MAPPER_KEY}, write the mapping in disk arrays with random writes, fast
+	 * if the arrays fit in the page cache. default config
+	 */
+	@Value(key = LOADER_DISK_TRIPLE_MAPPER_KEY, desc = "write the mapping in disk arrays with random writes, fast if the arrays fit in the page cache. default config")
+	public static final String LOADER_DISK_TRIPLE_MAPPER_VALUE_ARRAY = "array";
+	/**
+	 * Value for {@link #LOADER_DISK_TRIPLE_MAPPER_KEY}, sort the mapping in chunks and merge them, only sequential
+	 * reads and writes, better if the mapping doesn't fit in RAM
+	 */
+	@Value(key = LOADER_DISK_TRIPLE_MAPPER_KEY, desc = "sort the mapping in chunks and merge them, only sequential reads and writes, better if the mapping doesn't fit in RAM")
+	public static final String LOADER_DISK_TRIPLE_MAPPER_VALUE_SORT = "sort";
+	/**
+	 * Key for the {@link org.rdfhdt.hdt.hdt.HDTManager} generateHDTDisk methods, compress the sorted chunks, the
+	 * merged sections and the triple files by blocks with a fast LZ codec, trade CPU time for less temporary I/O,
+	 * default false
+	 */
+	@Key(type = Key.Type.BOOLEAN, desc = "Compress the temporary chunk, section and triple files, default false")
+	public static final String LOADER_DISK_COMPRESS_TEMP_FILES_KEY = "loader.disk.compressTempFiles";
+	/**
+	 * Key for the {@link org.rdfhdt.hdt.hdt.HDTManager} generateHDTDisk methods, reserve the memory of the chunks and
+	 * of the mapping buffers from a budget shared by the JVM instead of using a fixed chunk size, the chunks are
+	 * smaller or wait while the budget is exhausted, to run several generations at the same time. default false
+	 */
+	@Key(type = Key.Type.BOOLEAN, desc = "Reserve the chunk memory from the memory budget shared by the JVM, default false")
+	public static final String LOADER_DISK_MEMORY_BUDGET_KEY = "loader.disk.memoryBudget";
+	/**
+	 * Key for the {@link org.rdfhdt.hdt.hdt.HDTManager} generateHDTDisk methods, keep the working directory after a
+	 * failure and write a manifest after the section compression and the triple sort, a new generation with the same
+	 * {@link #LOADER_DISK_LOCATION_KEY} skips the completed phases. Only the complete compression mode is
+	 * checkpointed and the triple sort checkpoint is only used without {@link #LOADER_DISK_FUTURE_HDT_LOCATION_KEY}.
+	 * The input should be the same. default false
+	 */
+	@Key(type = Key.Type.BOOLEAN, desc = "Keep the working directory to resume an interrupted generation, requires a location, default false")
+	public static final String LOADER_DISK_RESUMABLE_KEY = "loader.disk.resumable";
 
 	/**
 	 * Key for the loading mode of a RDF file for the
@@ -123,12 +172,26 @@ public class HDTOptionsKeys {
 	 */
 	@Key(type = Key.Type.PATH, desc = "Path of the CatTree generation")
 	public static final String LOADER_CATTREE_LOCATION_KEY = "loader.cattree.location";
+	/**
+	 * Key for other directories to spread the generated and merged HDTs of the {@link org.rdfhdt.hdt.hdt.HDTManager}
+	 * catTree methods, separated by {@link java.io.File#pathSeparator}, the other files are written in the
+	 * {@link #LOADER_CATTREE_LOCATION_KEY} directory. The directories are deleted with it.
+	 */
+	@Key(type = Key.Type.PATH, desc = "Other directories to write the HDTs of the CatTree generation, separated by the path separator")
+	public static final String LOADER_CATTREE_STRIPE_LOCATIONS_KEY = "loader.cattree.stripeLocations";
 	/**
 	 * Key to use async version of the {@link org.rdfhdt.hdt.hdt.HDTManager} catTree methods, will run the k-HDTCAT
 	 * algorithm, by default the value is false, boolean value
 	 */
 	@Key(type = Key.Type.BOOLEAN, desc = "Use async version")
 	public static final String LOADER_CATTREE_ASYNC_KEY = "loader.cattree.async";
+	/**
+	 * Key for the {@link org.rdfhdt.hdt.hdt.HDTManager} catTree methods, write a manifest of the generated and merged
+	 * HDTs after each level, a new generation with the same {@link #LOADER_CATTREE_LOCATION_KEY} and the same input
+	 * reuses them and skips the triples already in them. Use the sync algorithm. default false
+	 */
+	@Key(type = Key.Type.BOOLEAN, desc = "Write a manifest after each level to resume an interrupted generation, requires a location, default false")
+	public static final String LOADER_CATTREE_RESUMABLE_KEY = "loader.cattree.resumable";
 	/**
 	 * Same as {@link #LOADER_TYPE_KEY} for loader in the CATTREE method
 	 */
@@ -237,6 +300,13 @@ public class HDTOptionsKeys {
 	@Key(type = Key.Type.STRING, desc = "HDT generation triple order")
 	public static final String TRIPLE_ORDER_KEY = "triplesOrder";
 
+	/**
+	 * Key to use a table of contents file ({@code .toc}) next to the HDT when mapping it, the file is created during
+	 * the first mapping. boolean value, default false
+	 */
+	@Key(type = Key.Type.BOOLEAN, desc = "Use a table of contents file to map the HDT parts in parallel, default false")
+	public static final String LOAD_HDT_TOC_KEY = "loader.hdt.toc";
+
 	/**
 	 * Option to set how the HDTs are loaded in HDTCat/HDTDiff, default {@link #LOAD_HDT_TYPE_VALUE_MAP}
 	 */
@@ -253,6 +323,40 @@ public class HDTOptionsKeys {
 	@Value(key = LOAD_HDT_TYPE_KEY, desc = "map the HDTs")
 	public static final String LOAD_HDT_TYPE_VALUE_MAP = "map";
 
+	/**
+	 * Residency of the shared section of a mapped HDT, {@link #LOAD_HDT_TYPE_VALUE_MAP} to keep it mapped (default)
+	 * or {@link #LOAD_HDT_TYPE_VALUE_LOAD} to read it in memory
+	 */
+	@Key(type = Key.Type.STRING, desc = "Residency of the shared section of a mapped HDT, map (default) or load")
+	public static final String LOAD_HDT_RESIDENCY_SHARED_KEY = "loader.hdt.residency.shared";
+	/**
+	 * Residency of the subjects section of a mapped HDT, see {@link #LOAD_HDT_RESIDENCY_SHARED_KEY}
+	 */
+	@Key(type = Key.Type.STRING, desc = "Residency of the subjects section of a mapped HDT, map (default) or load")
+	public static final String LOAD_HDT_RESIDENCY_SUBJECTS_KEY = "loader.hdt.residency.subjects";
+	/**
+	 * Residency of the predicates section of a mapped HDT, see {@link #LOAD_HDT_RESIDENCY_SHARED_KEY}
+	 */
+	@Key(type = Key.Type.STRING, desc = "Residency of the predicates section of a mapped HDT, map (default) or load")
+	public static final String LOAD_HDT_RESIDENCY_PREDICATES_KEY = "loader.hdt.residency.predicates";
+	/**
+	 * Residency of the objects section(s) of a mapped HDT, see {@link #LOAD_HDT_RESIDENCY_SHARED_KEY}
+	 */
+	@Key(type = Key.Type.STRING, desc = "Residency of the objects sections of a mapped HDT, map (default) or load")
+	public static final String LOAD_HDT_RESIDENCY_OBJECTS_KEY = "loader.hdt.residency.objects";
+	/**
+	 * Residency of the typed literal sections of a mapped multi section HDT, default to the value of
+	 * {@link #LOAD_HDT_RESIDENCY_OBJECTS_KEY}, see {@link #LOAD_HDT_RESIDENCY_SHARED_KEY}
+	 */
+	@Key(type = Key.Type.STRING, desc = "Residency of the typed literal sections of a mapped multi section HDT, map or load, default to the objects residency")
+	public static final String LOAD_HDT_RESIDENCY_TYPED_OBJECTS_KEY = "loader.hdt.residency.objects.typed";
+	/**
+	 * Residency of the sequences of the triples of a mapped HDT, see {@link #LOAD_HDT_RESIDENCY_SHARED_KEY}, the
+	 * bitmaps are always read in memory
+	 */
+	@Key(type = Key.Type.STRING, desc = "Residency of the triples sequences of a mapped HDT, map (default) or load")
+	public static final String LOAD_HDT_RESIDENCY_TRIPLES_KEY = "loader.hdt.residency.triples";
+
 	/**
 	 * Implementation of the temporary dictionary
 	 */
@@ -300,6 +404,53 @@ public class HDTOptionsKeys {
 	@Value(key = DICTIONARY_TYPE_KEY, desc = "Multi section dictionary")
 	public static final String DICTIONARY_TYPE_VALUE_MULTI_OBJECTS = "dictionaryMultiObj";
 
+	/**
+	 * Key to load or create the bloom filters of the dictionary sections when loading or mapping a HDT file, the
+	 * filters are stored next to the HDT in a {@code .bloom} file. boolean value, default false
+	 */
+	@Key(type = Key.Type.BOOLEAN, desc = "Use bloom filters to skip the dictionary sections not containing a string, default false")
+	public static final String DICTIONARY_BLOOM_FILTER_KEY = "dictionary.bloom";
+	/**
+	 * False positive probability of the dictionary bloom filters, only used when the filters are created. double
+	 * value, default 0.01
+	 */
+	@Key(type = Key.Type.DOUBLE, desc = "False positive probability of the dictionary bloom filters, default 0.01")
+	public static final String DICTIONARY_BLOOM_FILTER_FPP_KEY = "dictionary.bloom.fpp";
+
+	/**
+	 * Number of threads used by a MultiHDT to read its files ahead of the consumer, default to the number of
+	 * processors. long value
+	 */
+	@Key(type = Key.Type.NUMBER, desc = "Number of threads used by a MultiHDT to read its files")
+	public static final String MULTI_HDT_THREADS_KEY = "multihdt.threads";
+
+	/**
+	 * Key to cache the strings of the dictionary sections of a loaded or mapped HDT. The predicates and shared
+	 * sections are kept in memory if they are small enough, see {@link #DICTIONARY_CACHE_PRELOAD_KEY}, the other
+	 * sections use a bounded cache, see {@link #DICTIONARY_CACHE_SIZE_KEY}. boolean value, default false
+	 */
+	@Key(type = Key.Type.BOOLEAN, desc = "Cache the strings of the dictionary sections, default false")
+	public static final String DICTIONARY_CACHE_KEY = "dictionary.cache";
+	/**
+	 * Maximum number of strings of the predicates or shared section to keep the whole section in memory with
+	 * {@link #DICTIONARY_CACHE_KEY}. long value, default 100000
+	 */
+	@Key(type = Key.Type.NUMBER, desc = "Maximum number of strings of the predicates/shared sections to keep them in memory, default 100000")
+	public static final String DICTIONARY_CACHE_PRELOAD_KEY = "dictionary.cache.preload";
+	/**
+	 * Number of entries of the bounded cache of a dictionary section with {@link #DICTIONARY_CACHE_KEY}, rounded to
+	 * a power of 2. long value, default 65536
+	 */
+	@Key(type = Key.Type.NUMBER, desc = "Number of entries of the bounded cache of each dictionary section, default 65536")
+	public static final String DICTIONARY_CACHE_SIZE_KEY = "dictionary.cache.size";
+	/**
+	 * Key to build the in-memory value index of the numeric and temporal datatype sections of a multiple section
+	 * dictionary, the index of a section is built the first time a range of values is searched in it. boolean
+	 * value, default false
+	 */
+	@Key(type = Key.Type.BOOLEAN, desc = "Build the value index of the numeric/temporal literal sections on first use, default false")
+	public static final String DICTIONARY_VALUE_INDEX_KEY = "dictionary.valueIndex";
+
 	/**
 	 * Location of the HDTCat temp files
 	 */
@@ -405,6 +556,25 @@ public class HDTOptionsKeys {
 	 */
 	@Key(type = Key.Type.NUMBER, desc = "Size of the file buffers")
 	public static final String BITMAPTRIPLES_DISK_BUFFER_SIZE_KEY = "bitmaptriples.indexmethod.disk.fileBufferSize";
+	/**
+	 * Key to compress the sorted pair chunks of the {@link #BITMAPTRIPLES_INDEX_METHOD_VALUE_DISK} index method by
+	 * blocks with a fast LZ codec, default false
+	 */
+	@Key(type = Key.Type.BOOLEAN, desc = "Compress the temporary pair chunks of the " + BITMAPTRIPLES_INDEX_METHOD_VALUE_DISK + " index method, default false")
+	public static final String BITMAPTRIPLES_DISK_COMPRESS_TEMP_FILES_KEY = "bitmaptriples.indexmethod.disk.compressTempFiles";
+	/**
+	 * Key for other directories to spread the pair chunks of the {@link #BITMAPTRIPLES_INDEX_METHOD_VALUE_DISK} index
+	 * method, separated by {@link java.io.File#pathSeparator}, the sequences are still written in the
+	 * {@link #BITMAPTRIPLES_SEQUENCE_DISK_LOCATION} directory
+	 */
+	@Key(type = Key.Type.PATH, desc = "Other directories to write the pair chunks of the " + BITMAPTRIPLES_INDEX_METHOD_VALUE_DISK + " index method")
+	public static final String BITMAPTRIPLES_DISK_STRIPE_LOCATIONS_KEY = "bitmaptriples.indexmethod.disk.stripeLocations";
+	/**
+	 * Key to reserve the memory of the pair chunks of the {@link #BITMAPTRIPLES_INDEX_METHOD_VALUE_DISK} index method
+	 * from the budget shared by the JVM, default false
+	 */
+	@Key(type = Key.Type.BOOLEAN, desc = "Reserve the pair chunk memory of the " + BITMAPTRIPLES_INDEX_METHOD_VALUE_DISK + " index method from the memory budget shared by the JVM, default false")
+	public static final String BITMAPTRIPLES_DISK_MEMORY_BUDGET_KEY = "bitmaptriples.indexmethod.disk.memoryBudget";
 	/**
 	 * Key for the maximum number of file opened at the same time, should be greater than {@link #BITMAPTRIPLES_DISK_KWAY_KEY},
 	 * 1024 by default
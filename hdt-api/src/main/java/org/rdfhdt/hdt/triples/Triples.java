@@ -28,7 +28,11 @@
 package org.rdfhdt.hdt.triples;
 
 import java.io.Closeable;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
 
+import org.rdfhdt.hdt.enums.ResultEstimationType;
 import org.rdfhdt.hdt.header.Header;
 
 /**
@@ -52,6 +56,35 @@ public interface Triples extends Closeable {
 	 */
 	IteratorTripleID search(TripleID pattern);
 
+	/**
+	 * Iterates over all triples that match the pattern with a spliterator, the implementations supporting it can
+	 * split the results to scan them in parallel, for example with {@link java.util.stream.StreamSupport#stream(Spliterator, boolean)}.
+	 * Unlike {@link #search(TripleID)}, the returned triples aren't reused and can be kept.
+	 * <p>
+	 * The default implementation reads {@link #search(TripleID)} and can only split it by batches.
+	 *
+	 * @param pattern
+	 *            The pattern to match against
+	 * @return Spliterator
+	 */
+	default Spliterator<TripleID> searchSplittable(TripleID pattern) {
+		IteratorTripleID it = search(pattern);
+		boolean exact = it.numResultEstimation() == ResultEstimationType.EXACT;
+		return new Spliterators.AbstractSpliterator<TripleID>(
+				exact ? it.estimatedNumResults() : Long.MAX_VALUE,
+				Spliterator.ORDERED | Spliterator.NONNULL | (exact ? Spliterator.SIZED : 0)
+		) {
+			@Override
+			public boolean tryAdvance(Consumer<? super TripleID> action) {
+				if (!it.hasNext()) {
+					return false;
+				}
+				action.accept(it.next().clone());
+				return true;
+			}
+		};
+	}
+
 	/**
 	 * Returns the total number of triples
 	 *
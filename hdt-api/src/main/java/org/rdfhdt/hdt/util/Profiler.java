@@ -12,7 +12,9 @@ import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -153,6 +155,8 @@ public class Profiler implements AutoCloseable {
 	private Path outputPath;
 	private final long id;
 	private int deep = 0;
+	// JFR events of the sections of each thread, created by the first section recorded by the thread
+	private final ThreadLocal<Deque<ProfilerSectionEvent>> events = new ThreadLocal<>();
 
 	/**
 	 * create a disabled profiler
@@ -222,6 +226,19 @@ public class Profiler implements AutoCloseable {
 	 * @param name the section name
 	 */
 	public void pushSection(String name) {
+		ProfilerSectionEvent event = new ProfilerSectionEvent();
+		if (event.isEnabled()) {
+			Deque<ProfilerSectionEvent> threadEvents = events.get();
+			if (threadEvents == null) {
+				threadEvents = new ArrayDeque<>();
+				events.set(threadEvents);
+			}
+			event.profiler = this.name;
+			event.section = name;
+			event.depth = threadEvents.size();
+			event.begin();
+			threadEvents.push(event);
+		}
 		if (disabled) {
 			return;
 		}
@@ -243,6 +260,14 @@ public class Profiler implements AutoCloseable {
 	 * complete a section
 	 */
 	public void popSection() {
+		Deque<ProfilerSectionEvent> threadEvents = events.get();
+		if (threadEvents != null) {
+			// polled even if the recording is stopped to keep the events of the thread balanced
+			ProfilerSectionEvent event = threadEvents.poll();
+			if (event != null) {
+				event.commit();
+			}
+		}
 		if (disabled) {
 			return;
 		}
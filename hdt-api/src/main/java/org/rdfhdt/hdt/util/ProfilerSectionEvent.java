@@ -0,0 +1,23 @@
+package org.rdfhdt.hdt.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of a {@link Profiler} section, recorded even if the profiler is disabled
+ */
+@Name("org.rdfhdt.hdt.ProfilerSection")
+@Label("Profiler Section")
+@Category({"HDT", "Profiler"})
+@Description("Section of an HDT profiler")
+class ProfilerSectionEvent extends Event {
+	@Label("Profiler")
+	String profiler;
+	@Label("Section")
+	String section;
+	@Label("Depth")
+	int depth;
+}
@@ -26,17 +26,24 @@
  */
 package org.rdfhdt.hdt.tools;
 
+import java.io.IOException;
 import java.io.PrintStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.rdfhdt.hdt.dictionary.DictionaryPrivate;
+import org.rdfhdt.hdt.enums.TripleComponentRole;
 import org.rdfhdt.hdt.hdt.HDT;
 import org.rdfhdt.hdt.hdt.HDTManager;
 import org.rdfhdt.hdt.hdt.HDTVersion;
 import org.rdfhdt.hdt.listener.ProgressListener;
+import org.rdfhdt.hdt.triples.IteratorTripleID;
 import org.rdfhdt.hdt.triples.IteratorTripleString;
+import org.rdfhdt.hdt.triples.TripleID;
 import org.rdfhdt.hdt.triples.TripleString;
+import org.rdfhdt.hdt.util.UnicodeEscape;
+import org.rdfhdt.hdt.util.string.ReplazableString;
 
 import com.beust.jcommander.JCommander;
 import com.beust.jcommander.Parameter;
@@ -68,14 +75,19 @@ public class HDT2RDF implements ProgressListener {
 
 		HDT hdt=HDTManager.mapHDT(hdtInput, this);
 		try {
-			IteratorTripleString it = hdt.search("","","");
-			StringBuilder build = new StringBuilder(1024);
-			while(it.hasNext()) {
-				TripleString triple = it.next();
-				build.delete(0, build.length());
-				triple.dumpNtriple(build);
-				out.print(build);
+			if (hdt.getDictionary() instanceof DictionaryPrivate) {
+				dumpIds(hdt, (DictionaryPrivate) hdt.getDictionary(), out);
+			} else {
+				IteratorTripleString it = hdt.search("","","");
+				StringBuilder build = new StringBuilder(1024);
+				while(it.hasNext()) {
+					TripleString triple = it.next();
+					build.delete(0, build.length());
+					triple.dumpNtriple(build);
+					out.print(build);
+				}
 			}
+			out.flush();
 			if(!rdfOutput.equals("stdout")) {
 				out.close();
 			}
@@ -84,6 +96,65 @@ public class HDT2RDF implements ProgressListener {
 		}
 	}
 
+	/**
+	 * dump the triples from their ids, the strings are extracted into reusable buffers and written as UTF-8 bytes
+	 * without creating a String for each component, the subject and the predicate are only extracted when they
+	 * change.
+	 */
+	private static void dumpIds(HDT hdt, DictionaryPrivate dictionary, PrintStream out) throws IOException {
+		IteratorTripleID it = hdt.getTriples().searchAll();
+		ReplazableString subject = new ReplazableString(64);
+		ReplazableString predicate = new ReplazableString(64);
+		ReplazableString object = new ReplazableString(64);
+		StringBuilder literal = new StringBuilder(1024);
+		long lastSubject = 0;
+		long lastPredicate = 0;
+		while (it.hasNext()) {
+			TripleID triple = it.next();
+			if (triple.getSubject() != lastSubject) {
+				extract(dictionary, triple.getSubject(), TripleComponentRole.SUBJECT, subject);
+				lastSubject = triple.getSubject();
+			}
+			if (triple.getPredicate() != lastPredicate) {
+				extract(dictionary, triple.getPredicate(), TripleComponentRole.PREDICATE, predicate);
+				lastPredicate = triple.getPredicate();
+			}
+			extract(dictionary, triple.getObject(), TripleComponentRole.OBJECT, object);
+
+			writeResource(subject, out);
+			out.write(' ');
+			writeResource(predicate, out);
+			out.write(' ');
+			if (object.length() != 0 && object.charAt(0) == '"') {
+				literal.setLength(0);
+				UnicodeEscape.escapeString(object.toString(), literal);
+				out.write(literal.toString().getBytes(StandardCharsets.UTF_8));
+			} else {
+				writeResource(object, out);
+			}
+			out.write(' ');
+			out.write('.');
+			out.write('\n');
+		}
+	}
+
+	private static void extract(DictionaryPrivate dictionary, long id, TripleComponentRole role, ReplazableString buffer) {
+		if (!dictionary.idToString(id, role, buffer)) {
+			throw new IllegalArgumentException("Can't find the id " + id + " of the role " + role + " in the dictionary");
+		}
+	}
+
+	private static void writeResource(ReplazableString str, PrintStream out) {
+		char c0 = str.length() == 0 ? 0 : str.charAt(0);
+		if (c0 == '_' || c0 == '<') {
+			out.write(str.getBuffer(), 0, str.length());
+		} else {
+			out.write('<');
+			out.write(str.getBuffer(), 0, str.length());
+			out.write('>');
+		}
+	}
+
 	/* (non-Javadoc)
 	 * @see hdt.ProgressListener#notifyProgress(float, java.lang.String)
 	 */
@@ -65,6 +65,16 @@ public class AdjacencyList {
 		return bitmap.selectNext1(pos);
 	}
 
+	/**
+	 * Find the first pos of the list containing the element at globalpos, scanning the bitmap backward
+	 *
+	 * @param globalpos global position of element
+	 * @return first position of the list
+	 */
+	public final long findListStart(long globalpos) {
+		return bitmap.selectPrev1(globalpos - 1) + 1;
+	}
+
 	/**
 	 * Find the last pos of the list x
 	 *
@@ -175,7 +175,25 @@ public class Bitmap64 implements ModifiableBitmap{
 
 	@Override
 	public long selectPrev1(long start) {
-		throw new NotImplementedException();
+		if (start < 0 || words.length == 0)
+			return -1;
+
+		int wordIndex = wordIndex(start);
+		long word;
+		if (wordIndex >= words.length) {
+			wordIndex = words.length - 1;
+			word = words[wordIndex];
+		} else {
+			word = words[wordIndex] & (~0L >>> -(start + 1));
+		}
+
+		while (true) {
+			if (word != 0)
+				return ((long) wordIndex + 1) * W - 1 - Long.numberOfLeadingZeros(word);
+			if (wordIndex-- == 0)
+				return -1;
+			word = words[wordIndex];
+		}
 	}
 	
 	@Override
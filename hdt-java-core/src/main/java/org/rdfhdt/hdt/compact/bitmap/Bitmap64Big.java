@@ -253,7 +253,25 @@ public class Bitmap64Big implements Closeable, ModifiableBitmap {
     }
 
     public long selectPrev1(long start) {
-        throw new NotImplementedException();
+        if (start < 0 || words.length() == 0)
+            return -1;
+
+        long wordIndex = wordIndex(start);
+        long word;
+        if (wordIndex >= words.length()) {
+            wordIndex = words.length() - 1;
+            word = words.get(wordIndex);
+        } else {
+            word = words.get(wordIndex) & (~0L >>> -(start + 1));
+        }
+
+        while (true) {
+            if (word != 0)
+                return (wordIndex + 1) * W - 1 - Long.numberOfLeadingZeros(word);
+            if (wordIndex-- == 0)
+                return -1;
+            word = words.get(wordIndex);
+        }
     }
 
     public long getNumBits() {
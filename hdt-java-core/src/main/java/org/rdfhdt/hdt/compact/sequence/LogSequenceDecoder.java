@@ -0,0 +1,130 @@
+package org.rdfhdt.hdt.compact.sequence;
+
+import java.util.Arrays;
+
+/**
+ * Bulk decoder of the packed words of the log sequences, the words are read once and the elements are extracted
+ * with a running bit offset instead of the division and the one or two word reads of each get.
+ */
+final class LogSequenceDecoder {
+	/**
+	 * reader of the packed words of a sequence
+	 */
+	@FunctionalInterface
+	interface WordReader {
+		long getWord(long index);
+	}
+
+	private LogSequenceDecoder() {
+	}
+
+	/**
+	 * decode consecutive elements
+	 *
+	 * @param words   the packed words
+	 * @param numbits bits per element
+	 * @param start   position of the first element
+	 * @param dst     array to fill, from its index 0
+	 * @param len     number of elements to decode
+	 */
+	static void decode(WordReader words, int numbits, long start, long[] dst, int len) {
+		if (len <= 0) {
+			return;
+		}
+		if (numbits == 0) {
+			Arrays.fill(dst, 0, len, 0L);
+			return;
+		}
+		if (numbits == 64) {
+			for (int i = 0; i < len; i++) {
+				dst[i] = words.getWord(start + i);
+			}
+			return;
+		}
+		long mask = ~0L >>> (64 - numbits);
+		long bitPos = start * numbits;
+		long w = bitPos >>> 6;
+		int j = (int) (bitPos & 63);
+		long word = words.getWord(w);
+		for (int i = 0; i < len; i++) {
+			int nj = j + numbits;
+			if (nj < 64) {
+				dst[i] = (word >>> j) & mask;
+				j = nj;
+			} else if (nj == 64) {
+				dst[i] = word >>> j;
+				j = 0;
+				// don't read after the last word
+				if (i + 1 < len) {
+					word = words.getWord(++w);
+				}
+			} else {
+				long low = word >>> j;
+				word = words.getWord(++w);
+				dst[i] = (low | (word << (64 - j))) & mask;
+				j = nj - 64;
+			}
+		}
+	}
+
+	/**
+	 * decode consecutive elements of an array
+	 *
+	 * @param words   the packed words
+	 * @param numbits bits per element
+	 * @param start   position of the first element
+	 * @param dst     array to fill, from its index 0
+	 * @param len     number of elements to decode
+	 */
+	static void decode(long[] words, int numbits, long start, long[] dst, int len) {
+		if (len <= 0) {
+			return;
+		}
+		if (numbits == 0) {
+			Arrays.fill(dst, 0, len, 0L);
+			return;
+		}
+		if (numbits == 64) {
+			System.arraycopy(words, (int) start, dst, 0, len);
+			return;
+		}
+		long mask = ~0L >>> (64 - numbits);
+		long bitPos = start * numbits;
+		int w = (int) (bitPos >>> 6);
+		int j = (int) (bitPos & 63);
+		long word = words[w];
+		for (int i = 0; i < len; i++) {
+			int nj = j + numbits;
+			if (nj < 64) {
+				dst[i] = (word >>> j) & mask;
+				j = nj;
+			} else if (nj == 64) {
+				dst[i] = word >>> j;
+				j = 0;
+				// don't read after the last word
+				if (i + 1 < len) {
+					word = words[++w];
+				}
+			} else {
+				long low = word >>> j;
+				word = words[++w];
+				dst[i] = (low | (word << (64 - j))) & mask;
+				j = nj - 64;
+			}
+		}
+	}
+
+	/**
+	 * check the range of a decode call
+	 *
+	 * @param start       position of the first element
+	 * @param dst         array to fill
+	 * @param len         number of elements
+	 * @param numElements number of elements of the sequence
+	 */
+	static void checkRange(long start, long[] dst, int len, long numElements) {
+		if (start < 0 || len < 0 || len > dst.length || start + len > numElements) {
+			throw new IndexOutOfBoundsException("Bad range [" + start + ", " + (start + len) + "[ for a sequence of " + numElements + " elements");
+		}
+	}
+}
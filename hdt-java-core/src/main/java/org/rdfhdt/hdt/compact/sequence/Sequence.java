@@ -34,6 +34,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Iterator;
+import java.util.PrimitiveIterator;
 
 /**
  * The array interface represents compact sequences of integers.
@@ -58,6 +59,36 @@ public interface Sequence extends Closeable {
 	 */
 	long get(long position);
 
+	/**
+	 * Decode consecutive elements into an array, faster than calling {@link #get(long)} for each element for the
+	 * implementations reading the packed words only once
+	 *
+	 * @param start
+	 *            The position of the first element
+	 * @param dst
+	 *            The array to fill, from its index 0
+	 * @param len
+	 *            The number of elements to decode
+	 */
+	default void decodeRange(long start, long[] dst, int len) {
+		for (int i = 0; i < len; i++) {
+			dst[i] = get(start + i);
+		}
+	}
+
+	/**
+	 * Iterate over consecutive elements, decoded by blocks with {@link #decodeRange(long, long[], int)}
+	 *
+	 * @param start
+	 *            The position of the first element
+	 * @param end
+	 *            The position after the last element
+	 * @return iterator
+	 */
+	default PrimitiveIterator.OfLong iterator(long start, long end) {
+		return new SequenceBlockIterator(this, start, end);
+	}
+
 	/**
 	 * Gets the total number of elements in the array
 	 *
@@ -0,0 +1,57 @@
+package org.rdfhdt.hdt.compact.sequence;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Iterator over consecutive elements of a {@link Sequence}, the elements are decoded by blocks with
+ * {@link Sequence#decodeRange(long, long[], int)}
+ *
+ * @see Sequence#iterator(long, long)
+ */
+public class SequenceBlockIterator implements PrimitiveIterator.OfLong {
+	/**
+	 * number of elements decoded at once
+	 */
+	public static final int BLOCK_SIZE = 1024;
+	private final Sequence sequence;
+	private final long end;
+	private final long[] buffer;
+	private long position;
+	private int bufferIndex;
+	private int bufferSize;
+
+	/**
+	 * @param sequence the sequence
+	 * @param start    position of the first element
+	 * @param end      position after the last element
+	 */
+	public SequenceBlockIterator(Sequence sequence, long start, long end) {
+		if (start < 0 || start > end || end > sequence.getNumberOfElements()) {
+			throw new IndexOutOfBoundsException("Bad range [" + start + ", " + end + "[ for a sequence of " + sequence.getNumberOfElements() + " elements");
+		}
+		this.sequence = sequence;
+		this.position = start;
+		this.end = end;
+		this.buffer = new long[(int) Math.min(BLOCK_SIZE, end - start)];
+	}
+
+	@Override
+	public boolean hasNext() {
+		return bufferIndex < bufferSize || position < end;
+	}
+
+	@Override
+	public long nextLong() {
+		if (bufferIndex == bufferSize) {
+			if (position >= end) {
+				throw new NoSuchElementException();
+			}
+			bufferSize = (int) Math.min(buffer.length, end - position);
+			sequence.decodeRange(position, buffer, bufferSize);
+			position += bufferSize;
+			bufferIndex = 0;
+		}
+		return buffer[bufferIndex++];
+	}
+}
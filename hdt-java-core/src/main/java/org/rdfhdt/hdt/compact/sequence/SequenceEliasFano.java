@@ -0,0 +1,376 @@
+package org.rdfhdt.hdt.compact.sequence;
+
+import org.rdfhdt.hdt.exceptions.NotImplementedException;
+import org.rdfhdt.hdt.hdt.HDTVocabulary;
+import org.rdfhdt.hdt.listener.ProgressListener;
+import org.rdfhdt.hdt.util.BitUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.stream.LongStream;
+
+/**
+ * Elias-Fano representation of a non-decreasing sequence, read only and in memory.
+ * <p>
+ * Each value is split into its {@code lowBits} lower bits, stored packed, and its upper bits, stored in unary in a
+ * bitmap of about 2 bits per element, for a total of about {@code 2 + log2(max / n)} bits per element instead of the
+ * {@code log2(max)} bits of a {@link SequenceLog64}. The position of every {@value #SAMPLE}-th one and zero of the
+ * upper bitmap is sampled for a constant time {@link #get(long)} and {@link #nextGEQ(long)}.
+ * <p>
+ * The HDT format has no Elias-Fano sequence, the sequence is saved and loaded as a {@link SequenceLog64} with the
+ * number of bits of the sequence it was created from, so it can replace a loaded monotone sequence without changing
+ * the files.
+ */
+public class SequenceEliasFano implements Sequence {
+	private static final int SAMPLE_SHIFT = 8;
+	/**
+	 * number of ones/zeros of the upper bitmap between two samples
+	 */
+	public static final int SAMPLE = 1 << SAMPLE_SHIFT;
+
+	private long numentries;
+	private int numbits;
+	private int lowBits;
+	private long max;
+	private long[] low;
+	private long[] high;
+	private long[] samples1;
+	private long[] samples0;
+
+	/**
+	 * create an empty sequence, to be loaded with {@link #load(InputStream, ProgressListener)}
+	 */
+	public SequenceEliasFano() {
+		init(LongStream.empty().iterator(), 0, 0, 0);
+	}
+
+	/**
+	 * create an Elias-Fano copy of a non-decreasing sequence
+	 *
+	 * @param sequence the sequence
+	 * @throws IllegalArgumentException if the sequence isn't non-decreasing
+	 */
+	public SequenceEliasFano(Sequence sequence) {
+		long n = sequence.getNumberOfElements();
+		init(sequence.iterator(0, n), n, n == 0 ? 0 : sequence.get(n - 1), sequence.sizeOf());
+	}
+
+	/**
+	 * create an Elias-Fano sequence from non-decreasing values
+	 *
+	 * @param values     the values
+	 * @param numentries number of values
+	 * @param max        last value
+	 * @param numbits    number of bits per element when the sequence is saved
+	 * @throws IllegalArgumentException if the values aren't non-decreasing or if their count or maximum is wrong
+	 */
+	public SequenceEliasFano(PrimitiveIterator.OfLong values, long numentries, long max, int numbits) {
+		init(values, numentries, max, numbits);
+	}
+
+	private void init(PrimitiveIterator.OfLong values, long numentries, long max, int numbits) {
+		if (numentries < 0 || max < 0) {
+			throw new IllegalArgumentException("Bad Elias-Fano sequence of " + numentries + " elements up to " + max);
+		}
+		this.numentries = numentries;
+		this.numbits = numbits;
+		this.max = max;
+
+		long universe = max / Math.max(numentries, 1);
+		lowBits = universe == 0 ? 0 : BitUtil.log2(universe) - 1;
+
+		low = new long[toIntSize(SequenceLog64.numWordsFor(lowBits, numentries))];
+		long highBits = numentries + (max >>> lowBits) + 1;
+		high = new long[toIntSize((highBits + 63) >>> 6)];
+		samples1 = new long[toIntSize((numentries + SAMPLE - 1) >>> SAMPLE_SHIFT)];
+		samples0 = new long[toIntSize(((max >>> lowBits) + SAMPLE) >>> SAMPLE_SHIFT)];
+
+		long lowMask = BitUtil.maxVal(lowBits);
+		long last = 0;
+		long bucket = 0;
+		for (long i = 0; i < numentries; i++) {
+			if (!values.hasNext()) {
+				throw new IllegalArgumentException("Only " + i + " elements for an Elias-Fano sequence of " + numentries + " elements");
+			}
+			long value = values.nextLong();
+			if (value < last || value > max) {
+				throw new IllegalArgumentException("The value " + value + " at " + i + " isn't in [" + last + ", " + max + "], the sequence isn't monotone");
+			}
+			last = value;
+
+			if (lowBits != 0) {
+				setLow(i, value & lowMask);
+			}
+			long hi = value >>> lowBits;
+			// sample the zeros ending the buckets before this value
+			for (; bucket < hi; bucket++) {
+				if ((bucket & (SAMPLE - 1)) == 0) {
+					samples0[(int) (bucket >>> SAMPLE_SHIFT)] = bucket + i;
+				}
+			}
+			long pos = hi + i;
+			high[(int) (pos >>> 6)] |= 1L << pos;
+			if ((i & (SAMPLE - 1)) == 0) {
+				samples1[(int) (i >>> SAMPLE_SHIFT)] = pos;
+			}
+		}
+		for (; bucket <= (max >>> lowBits); bucket++) {
+			if ((bucket & (SAMPLE - 1)) == 0) {
+				samples0[(int) (bucket >>> SAMPLE_SHIFT)] = bucket + numentries;
+			}
+		}
+		if (values.hasNext()) {
+			throw new IllegalArgumentException("More than " + numentries + " elements for an Elias-Fano sequence");
+		}
+	}
+
+	private static int toIntSize(long size) {
+		if (size > Integer.MAX_VALUE - 5) {
+			throw new IllegalArgumentException("Needed size exceeds the maximum size of this data structure " + size);
+		}
+		return (int) size;
+	}
+
+	private void setLow(long index, long value) {
+		long bitPos = index * lowBits;
+		int i = (int) (bitPos >>> 6);
+		int j = (int) (bitPos & 63);
+		low[i] |= value << j;
+		if (j + lowBits > 64) {
+			low[i + 1] |= value >>> (64 - j);
+		}
+	}
+
+	private long getLow(long index) {
+		if (lowBits == 0) {
+			return 0;
+		}
+		long bitPos = index * lowBits;
+		int i = (int) (bitPos >>> 6);
+		int j = (int) (bitPos & 63);
+		long value = low[i] >>> j;
+		if (j + lowBits > 64) {
+			value |= low[i + 1] << (64 - j);
+		}
+		return value & BitUtil.maxVal(lowBits);
+	}
+
+	/**
+	 * position of the rank-th set bit of a word
+	 */
+	private static int selectInWord(long word, long rank) {
+		for (long i = 0; i < rank; i++) {
+			word &= word - 1;
+		}
+		return Long.numberOfTrailingZeros(word);
+	}
+
+	/**
+	 * @param index index of the one, 0-based
+	 * @return position of the index-th one of the upper bitmap
+	 */
+	private long select1(long index) {
+		long pos = samples1[(int) (index >>> SAMPLE_SHIFT)];
+		long rank = index & (SAMPLE - 1);
+		int w = (int) (pos >>> 6);
+		long word = high[w] & (~0L << pos);
+		int count;
+		while (rank >= (count = Long.bitCount(word))) {
+			rank -= count;
+			word = high[++w];
+		}
+		return ((long) w << 6) + selectInWord(word, rank);
+	}
+
+	/**
+	 * @param index index of the zero, 0-based
+	 * @return position of the index-th zero of the upper bitmap
+	 */
+	private long select0(long index) {
+		long pos = samples0[(int) (index >>> SAMPLE_SHIFT)];
+		long rank = index & (SAMPLE - 1);
+		int w = (int) (pos >>> 6);
+		long word = ~high[w] & (~0L << pos);
+		int count;
+		while (rank >= (count = Long.bitCount(word))) {
+			rank -= count;
+			word = ~high[++w];
+		}
+		return ((long) w << 6) + selectInWord(word, rank);
+	}
+
+	@Override
+	public long get(long position) {
+		if (position < 0 || position >= numentries) {
+			throw new IndexOutOfBoundsException("Position " + position + " out of a sequence of " + numentries + " elements");
+		}
+		return ((select1(position) - position) << lowBits) | getLow(position);
+	}
+
+	@Override
+	public void decodeRange(long start, long[] dst, int len) {
+		LogSequenceDecoder.checkRange(start, dst, len, numentries);
+		if (len == 0) {
+			return;
+		}
+		LogSequenceDecoder.decode(low, lowBits, start, dst, len);
+		long pos = select1(start);
+		int w = (int) (pos >>> 6);
+		long word = high[w] & (~0L << pos);
+		for (int i = 0; i < len; i++) {
+			while (word == 0) {
+				word = high[++w];
+			}
+			pos = ((long) w << 6) + Long.numberOfTrailingZeros(word);
+			word &= word - 1;
+			dst[i] |= (pos - start - i) << lowBits;
+		}
+	}
+
+	/**
+	 * successor query
+	 *
+	 * @param value the value to search
+	 * @return the index of the first element greater or equal to value, {@link #getNumberOfElements()} if all the
+	 * elements are lower
+	 */
+	public long nextGEQ(long value) {
+		if (numentries == 0 || value > max) {
+			return numentries;
+		}
+		if (value <= 0) {
+			return 0;
+		}
+		long bucket = value >>> lowBits;
+		long pos;
+		long index;
+		if (bucket == 0) {
+			pos = 0;
+			index = 0;
+		} else {
+			// the zero ending the previous bucket, the elements before it are lower
+			pos = select0(bucket - 1) + 1;
+			index = pos - bucket;
+		}
+		int w = (int) (pos >>> 6);
+		long word = high[w] & (~0L << pos);
+		while (true) {
+			while (word == 0) {
+				word = high[++w];
+			}
+			long hi = ((long) w << 6) + Long.numberOfTrailingZeros(word) - index;
+			if (hi > bucket || ((hi << lowBits) | getLow(index)) >= value) {
+				return index;
+			}
+			word &= word - 1;
+			index++;
+		}
+	}
+
+	@Override
+	public void add(Iterator<Long> elements) {
+		throw new NotImplementedException("SequenceEliasFano is read only");
+	}
+
+	@Override
+	public long getNumberOfElements() {
+		return numentries;
+	}
+
+	/**
+	 * @return size of the saved log sequence, see {@link #getRealSize()} for the size in memory
+	 */
+	@Override
+	public long size() {
+		return SequenceLog64.numBytesFor(numbits, numentries);
+	}
+
+	/**
+	 * @return size of the Elias-Fano structure in memory, in bytes
+	 */
+	public long getRealSize() {
+		return 8L * (low.length + high.length + samples1.length + samples0.length);
+	}
+
+	@Override
+	public int sizeOf() {
+		return numbits;
+	}
+
+	@Override
+	public void save(OutputStream output, ProgressListener listener) throws IOException {
+		SequenceLog64Big seq = new SequenceLog64Big(numbits, numentries);
+		try {
+			PrimitiveIterator.OfLong it = iterator(0, numentries);
+			while (it.hasNext()) {
+				seq.append(it.nextLong());
+			}
+			seq.save(output, listener);
+		} finally {
+			seq.close();
+		}
+	}
+
+	@Override
+	public void load(InputStream input, ProgressListener listener) throws IOException {
+		SequenceLog64Big seq = new SequenceLog64Big();
+		try {
+			seq.load(input, listener);
+			long n = seq.getNumberOfElements();
+			init(seq.iterator(0, n), n, n == 0 ? 0 : seq.get(n - 1), seq.sizeOf());
+		} finally {
+			seq.close();
+		}
+	}
+
+	@Override
+	public PrimitiveIterator.OfLong iterator(long start, long end) {
+		if (start < 0 || start > end || end > numentries) {
+			throw new IndexOutOfBoundsException("Bad range [" + start + ", " + end + "[ for a sequence of " + numentries + " elements");
+		}
+		if (start == end) {
+			return new SequenceBlockIterator(this, start, end);
+		}
+		return new PrimitiveIterator.OfLong() {
+			long index = start;
+			long pos = select1(start);
+			int w = (int) (pos >>> 6);
+			long word = high[w] & (~0L << pos);
+
+			@Override
+			public long nextLong() {
+				if (index >= end) {
+					throw new NoSuchElementException();
+				}
+				while (word == 0) {
+					word = high[++w];
+				}
+				long hi = ((long) w << 6) + Long.numberOfTrailingZeros(word) - index;
+				word &= word - 1;
+				return (hi << lowBits) | getLow(index++);
+			}
+
+			@Override
+			public boolean hasNext() {
+				return index < end;
+			}
+		};
+	}
+
+	@Override
+	public String getType() {
+		return HDTVocabulary.SEQ_TYPE_LOG;
+	}
+
+	@Override
+	public void close() throws IOException {
+		low = null;
+		high = null;
+		samples1 = null;
+		samples0 = null;
+	}
+}
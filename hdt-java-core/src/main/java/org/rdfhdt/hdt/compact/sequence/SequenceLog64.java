@@ -225,6 +225,12 @@ public class SequenceLog64 implements DynamicSequence {
 		
 		return getField(data, numbits, position);
 	}
+
+	@Override
+	public void decodeRange(long start, long[] dst, int len) {
+		LogSequenceDecoder.checkRange(start, dst, len, numentries);
+		LogSequenceDecoder.decode(data, numbits, start, dst, len);
+	}
 	
 	@Override
     public void set(long position, long value) {
@@ -207,6 +207,12 @@ public class SequenceLog64Big implements DynamicSequence {
 		
 		return getField(data, numbits, position);
 	}
+
+	@Override
+	public void decodeRange(long start, long[] dst, int len) {
+		LogSequenceDecoder.checkRange(start, dst, len, numentries);
+		LogSequenceDecoder.decode(data::get, numbits, start, dst, len);
+	}
 	
 	@Override
     public void set(long position, long value) {
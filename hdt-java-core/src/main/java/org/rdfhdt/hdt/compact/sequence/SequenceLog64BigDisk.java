@@ -183,6 +183,12 @@ public class SequenceLog64BigDisk implements DynamicSequence, Closeable {
         return getField(data, numbits, position);
     }
 
+    @Override
+    public void decodeRange(long start, long[] dst, int len) {
+        LogSequenceDecoder.checkRange(start, dst, len, numentries);
+        LogSequenceDecoder.decode(data::get, numbits, start, dst, len);
+    }
+
     @Override
     public void set(long position, long value) {
         if (value < 0 || value > maxvalue) {
@@ -210,6 +210,12 @@ public class SequenceLog64Map implements Sequence,Closeable {
         return result;
 	}
 
+	@Override
+	public void decodeRange(long start, long[] dst, int len) {
+		LogSequenceDecoder.checkRange(start, dst, len, numentries);
+		LogSequenceDecoder.decode(this::getWord, numbits, start, dst, len);
+	}
+
 	/* (non-Javadoc)
 	 * @see hdt.triples.array.Stream#getNumberOfElements()
 	 */
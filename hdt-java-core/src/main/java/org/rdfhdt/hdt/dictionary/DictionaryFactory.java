@@ -214,14 +214,26 @@ public class DictionaryFactory {
 	 * @return Dictionary
 	 */
 	public static DictionaryPrivate createDictionary(ControlInfo ci) {
+		return createDictionary(ci, new HDTSpecification());
+	}
+
+	/**
+	 * Creates a dictionary
+	 *
+	 * @param ci   specs to read dictionary
+	 * @param spec options of the dictionary, for example the residency of the mapped sections
+	 * @return Dictionary
+	 */
+	public static DictionaryPrivate createDictionary(ControlInfo ci, HDTOptions spec) {
+		spec = HDTOptions.ofNullable(spec);
 		String name = ci.getFormat();
 		switch (name) {
 			case HDTVocabulary.DICTIONARY_TYPE_FOUR_SECTION:
-				return new FourSectionDictionary(new HDTSpecification());
+				return new FourSectionDictionary(spec);
 			case HDTVocabulary.DICTIONARY_TYPE_FOUR_PSFC_SECTION:
-				return new PSFCFourSectionDictionary(new HDTSpecification());
+				return new PSFCFourSectionDictionary(spec);
 			case HDTVocabulary.DICTIONARY_TYPE_MULT_SECTION:
-				return new MultipleSectionDictionary(new HDTSpecification());
+				return new MultipleSectionDictionary(spec);
 			default:
 				throw new IllegalFormatException("Implementation of dictionary not found for " + name);
 		}
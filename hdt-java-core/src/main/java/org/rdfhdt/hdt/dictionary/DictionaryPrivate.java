@@ -5,9 +5,13 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 
+import org.rdfhdt.hdt.dictionary.impl.DictionaryBloomFilters;
+import org.rdfhdt.hdt.enums.TripleComponentRole;
+import org.rdfhdt.hdt.exceptions.NotImplementedException;
 import org.rdfhdt.hdt.listener.ProgressListener;
 import org.rdfhdt.hdt.options.ControlInfo;
 import org.rdfhdt.hdt.util.io.CountInputStream;
+import org.rdfhdt.hdt.util.string.ReplazableString;
 
 public interface DictionaryPrivate extends Dictionary {
 	/**
@@ -35,4 +39,32 @@ public interface DictionaryPrivate extends Dictionary {
 	 */
 	void save(OutputStream output, ControlInfo ci, ProgressListener listener) throws IOException;
 
+	/**
+	 * Set the bloom filters used by stringToId to skip the sections not containing a string
+	 *
+	 * @param filters the filters, null to remove them
+	 * @see DictionaryBloomFilters#isSupported(Dictionary)
+	 */
+	default void setBloomFilters(DictionaryBloomFilters filters) {
+		throw new NotImplementedException("setBloomFilters");
+	}
+
+	/**
+	 * Same as {@link #idToString(long, TripleComponentRole)}, but the string is written into a reusable buffer, its
+	 * content is only valid until the next call with the same buffer.
+	 *
+	 * @param id     id of the string
+	 * @param role   role of the string
+	 * @param buffer buffer to fill
+	 * @return false if the id doesn't exist, the buffer isn't modified
+	 */
+	default boolean idToString(long id, TripleComponentRole role, ReplazableString buffer) {
+		CharSequence str = idToString(id, role);
+		if (str == null) {
+			return false;
+		}
+		buffer.replace(str);
+		return true;
+	}
+
 }
@@ -5,6 +5,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 
 import org.rdfhdt.hdt.listener.ProgressListener;
+import org.rdfhdt.hdt.util.string.ReplazableString;
 
 public interface DictionarySectionPrivate extends DictionarySection {
 	/**
@@ -29,4 +30,20 @@ public interface DictionarySectionPrivate extends DictionarySection {
 	 * @throws IOException
 	 */
 	void load(InputStream input, ProgressListener listener) throws IOException;
+
+	/**
+	 * Extract a string into a reusable buffer, to read strings without creating a new string for each of them. The
+	 * content of the buffer is replaced.
+	 * @param pos position of the string
+	 * @param buffer buffer to fill
+	 * @return false if the position doesn't exist, the buffer isn't modified
+	 */
+	default boolean extract(long pos, ReplazableString buffer) {
+		CharSequence str = extract(pos);
+		if (str == null) {
+			return false;
+		}
+		buffer.replace(str);
+		return true;
+	}
 }
@@ -31,14 +31,20 @@ import org.rdfhdt.hdt.dictionary.DictionaryPrivate;
 import org.rdfhdt.hdt.dictionary.DictionarySection;
 import org.rdfhdt.hdt.dictionary.DictionarySectionPrivate;
 import org.rdfhdt.hdt.dictionary.TempDictionary;
+import org.rdfhdt.hdt.dictionary.impl.section.CachedDictionarySection;
+import org.rdfhdt.hdt.dictionary.impl.section.DictionarySectionFactory;
 import org.rdfhdt.hdt.enums.DictionarySectionRole;
 import org.rdfhdt.hdt.enums.TripleComponentRole;
 import org.rdfhdt.hdt.exceptions.NotImplementedException;
 import org.rdfhdt.hdt.listener.ProgressListener;
 import org.rdfhdt.hdt.options.HDTOptions;
+import org.rdfhdt.hdt.options.HDTOptionsKeys;
 import org.rdfhdt.hdt.util.string.CompactString;
 import org.rdfhdt.hdt.util.string.DelayedString;
+import org.rdfhdt.hdt.util.string.ReplazableString;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.TreeMap;
 
 /**
@@ -57,6 +63,7 @@ public abstract class BaseDictionary implements DictionaryPrivate {
 	protected DictionarySectionPrivate predicates;
 	protected DictionarySectionPrivate objects;
 	protected DictionarySectionPrivate shared;
+	protected DictionaryBloomFilters bloomFilters;
 	
 	public BaseDictionary(HDTOptions spec) {
 		this.spec = spec;
@@ -111,29 +118,29 @@ public abstract class BaseDictionary implements DictionaryPrivate {
 		long ret=0;
 		switch(position) {
 		case SUBJECT:
-			ret = shared.locate(str);
+			ret = locate(shared, DictionaryBloomFilters.SHARED, str);
 			if(ret!=0) {
 				return getGlobalId(ret, DictionarySectionRole.SHARED);
 			}
-			ret = subjects.locate(str);
+			ret = locate(subjects, DictionaryBloomFilters.SUBJECTS, str);
 			if(ret!=0) {
 				return getGlobalId(ret, DictionarySectionRole.SUBJECT);
 			}
 			return -1;
 		case PREDICATE:
-			ret = predicates.locate(str);
+			ret = locate(predicates, DictionaryBloomFilters.PREDICATES, str);
 			if(ret!=0) {
 				return getGlobalId(ret, DictionarySectionRole.PREDICATE);
 			}
 			return -1;
 		case OBJECT:
 			if(str.charAt(0)!='"') {
-				ret = shared.locate(str);
+				ret = locate(shared, DictionaryBloomFilters.SHARED, str);
 				if(ret!=0) {
 					return getGlobalId(ret, DictionarySectionRole.SHARED);
 				}
 			}
-			ret = objects.locate(str);
+			ret = locate(objects, DictionaryBloomFilters.OBJECTS, str);
 			if(ret!=0) {
 				return getGlobalId(ret, DictionarySectionRole.OBJECT);
 			}
@@ -142,6 +149,57 @@ public abstract class BaseDictionary implements DictionaryPrivate {
 			throw new IllegalArgumentException();
 		}
 	}	
+
+	/**
+	 * @param key residency key of a section
+	 * @return if the section should be read in memory instead of mapped
+	 */
+	protected boolean isLoadResidency(String key) {
+		return HDTOptionsKeys.LOAD_HDT_TYPE_VALUE_LOAD.equals(spec.get(key));
+	}
+
+	private long locate(DictionarySectionPrivate section, String sectionName, CharSequence str) {
+		DictionaryBloomFilters filters = bloomFilters;
+		if(filters!=null && !filters.mightContain(sectionName, str)) {
+			return 0;
+		}
+		return section.locate(str);
+	}
+
+	@Override
+	public void setBloomFilters(DictionaryBloomFilters filters) {
+		this.bloomFilters = filters;
+	}
+
+	/**
+	 * wrap the sections in the caches configured by {@link HDTOptionsKeys#DICTIONARY_CACHE_KEY}, called once the
+	 * sections are loaded or mapped
+	 */
+	protected void createCaches() {
+		shared = DictionarySectionFactory.cache(spec, shared, true);
+		subjects = DictionarySectionFactory.cache(spec, subjects, false);
+		predicates = DictionarySectionFactory.cache(spec, predicates, true);
+		objects = DictionarySectionFactory.cache(spec, objects, false);
+	}
+
+	/**
+	 * @return the cached sections by name ({@link DictionaryBloomFilters#SHARED}...) to read their hit rates, empty
+	 * if {@link HDTOptionsKeys#DICTIONARY_CACHE_KEY} isn't set
+	 */
+	public Map<String, CachedDictionarySection> getCachedSections() {
+		Map<String, CachedDictionarySection> sections = new LinkedHashMap<>();
+		addCachedSection(sections, DictionaryBloomFilters.SHARED, shared);
+		addCachedSection(sections, DictionaryBloomFilters.SUBJECTS, subjects);
+		addCachedSection(sections, DictionaryBloomFilters.PREDICATES, predicates);
+		addCachedSection(sections, DictionaryBloomFilters.OBJECTS, objects);
+		return sections;
+	}
+
+	static void addCachedSection(Map<String, CachedDictionarySection> sections, String name, DictionarySectionPrivate section) {
+		if (section instanceof CachedDictionarySection) {
+			sections.put(name, (CachedDictionarySection) section);
+		}
+	}
 	
 	@Override
 	public long getNumberOfElements() {
@@ -223,6 +281,13 @@ public abstract class BaseDictionary implements DictionaryPrivate {
 		long localId = getLocalId(id, role);
 		return section.extract(localId);
 	}
+
+	@Override
+	public boolean idToString(long id, TripleComponentRole role, ReplazableString buffer) {
+		DictionarySectionPrivate section = getSection(id, role);
+		long localId = getLocalId(id, role);
+		return section.extract(localId, buffer);
+	}
 	@Override
 	public CharSequence dataTypeOfId(long id) {
 		throw new IllegalArgumentException("Method is not applicable on this dictionary");
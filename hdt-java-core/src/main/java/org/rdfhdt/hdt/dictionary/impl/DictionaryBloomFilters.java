@@ -0,0 +1,202 @@
+package org.rdfhdt.hdt.dictionary.impl;
+
+import org.rdfhdt.hdt.compact.integer.VByte;
+import org.rdfhdt.hdt.dictionary.Dictionary;
+import org.rdfhdt.hdt.dictionary.DictionarySection;
+import org.rdfhdt.hdt.exceptions.IllegalFormatException;
+import org.rdfhdt.hdt.listener.ProgressListener;
+import org.rdfhdt.hdt.util.BloomFilter;
+import org.rdfhdt.hdt.util.io.IOUtil;
+import org.rdfhdt.hdt.util.listener.ListenerUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Set of {@link BloomFilter} over the sections of a dictionary, used by the {@code stringToId} methods of the
+ * dictionaries to skip the sections that definitely don't contain a string, without searching the section.
+ *
+ * <p>The filters are usually stored in a sidecar file next to the HDT, with the size and the last modification time of
+ * the HDT file, like the {@link org.rdfhdt.hdt.hdt.impl.HDTTableOfContents}, and the number of elements and the size of
+ * each section to detect a filter set created for another file or another dictionary.</p>
+ *
+ * @see org.rdfhdt.hdt.options.HDTOptionsKeys#DICTIONARY_BLOOM_FILTER_KEY
+ */
+public class DictionaryBloomFilters {
+	/**
+	 * name of the shared section
+	 */
+	public static final String SHARED = "shared";
+	/**
+	 * name of the subjects section
+	 */
+	public static final String SUBJECTS = "subjects";
+	/**
+	 * name of the predicates section
+	 */
+	public static final String PREDICATES = "predicates";
+	/**
+	 * name of the objects section, the objects sections of a {@link MultipleBaseDictionary} are named with
+	 * {@link #objectsSection(CharSequence)}
+	 */
+	public static final String OBJECTS = "objects";
+	/**
+	 * suffix of the filters file of a HDT file
+	 */
+	public static final String FILE_SUFFIX = ".bloom";
+	private static final byte[] MAGIC = "$BL2".getBytes(StandardCharsets.US_ASCII);
+
+	/**
+	 * @param dictionary dictionary
+	 * @return if the dictionary can use a filter set
+	 */
+	public static boolean isSupported(Dictionary dictionary) {
+		return dictionary instanceof BaseDictionary || dictionary instanceof MultipleBaseDictionary;
+	}
+
+	/**
+	 * @param type datatype of the objects section of a {@link MultipleBaseDictionary}
+	 * @return the name of the section
+	 */
+	public static String objectsSection(CharSequence type) {
+		return OBJECTS + ":" + type;
+	}
+
+	private static Map<String, DictionarySection> sections(Dictionary dictionary) {
+		if (!isSupported(dictionary)) {
+			throw new IllegalArgumentException("Can't create bloom filters for the dictionary " + dictionary.getType());
+		}
+		Map<String, DictionarySection> sections = new LinkedHashMap<>();
+		sections.put(SHARED, dictionary.getShared());
+		sections.put(SUBJECTS, dictionary.getSubjects());
+		sections.put(PREDICATES, dictionary.getPredicates());
+		if (dictionary instanceof MultipleBaseDictionary) {
+			for (Map.Entry<? extends CharSequence, DictionarySection> e : dictionary.getAllObjects().entrySet()) {
+				sections.put(objectsSection(e.getKey()), e.getValue());
+			}
+		} else {
+			sections.put(OBJECTS, dictionary.getObjects());
+		}
+		return sections;
+	}
+
+	/**
+	 * create the filters of the sections of a dictionary
+	 *
+	 * @param dictionary dictionary
+	 * @param fpp        false positive probability of each filter
+	 * @param listener   listener
+	 * @return filters
+	 */
+	public static DictionaryBloomFilters create(Dictionary dictionary, double fpp, ProgressListener listener) {
+		DictionaryBloomFilters filters = new DictionaryBloomFilters();
+		long total = dictionary.getNumberOfElements();
+		long count = 0;
+		for (Map.Entry<String, DictionarySection> e : sections(dictionary).entrySet()) {
+			DictionarySection section = e.getValue();
+			BloomFilter filter = BloomFilter.create(section.getNumberOfElements(), fpp);
+			Iterator<? extends CharSequence> it = section.getSortedEntries();
+			while (it.hasNext()) {
+				filter.add(it.next());
+				ListenerUtil.notifyCond(listener, "Creating bloom filters", ++count, total);
+			}
+			filters.sizes.put(e.getKey(), new long[]{section.getNumberOfElements(), section.size()});
+			filters.filters.put(e.getKey(), filter);
+		}
+		return filters;
+	}
+
+	/**
+	 * load filters saved with {@link #save(OutputStream, File)}
+	 *
+	 * @param input      stream
+	 * @param dictionary the dictionary using the filters
+	 * @param hdtFile    the HDT file of the dictionary
+	 * @return filters
+	 * @throws IOException read exception
+	 * @throws IllegalFormatException if the filters weren't created for this version of the file or this dictionary
+	 */
+	public static DictionaryBloomFilters load(InputStream input, Dictionary dictionary, File hdtFile) throws IOException {
+		byte[] magic = IOUtil.readBuffer(input, MAGIC.length, null);
+		if (!Arrays.equals(magic, MAGIC)) {
+			throw new IllegalFormatException("Trying to read bloom filters but the data is not bloom filters");
+		}
+		long fileSize = VByte.decode(input);
+		long lastModified = VByte.decode(input);
+		if (hdtFile.length() != fileSize || hdtFile.lastModified() != lastModified) {
+			throw new IllegalFormatException("The bloom filters weren't created for this version of " + hdtFile);
+		}
+		Map<String, DictionarySection> sections = sections(dictionary);
+		long numSections = VByte.decode(input);
+		if (numSections != sections.size()) {
+			throw new IllegalFormatException("The bloom filters don't have the sections of the dictionary");
+		}
+		DictionaryBloomFilters filters = new DictionaryBloomFilters();
+		for (long i = 0; i < numSections; i++) {
+			String name = new String(IOUtil.readSizedBuffer(input, null), StandardCharsets.UTF_8);
+			long elements = VByte.decode(input);
+			long size = VByte.decode(input);
+			DictionarySection section = sections.get(name);
+			if (section == null || section.getNumberOfElements() != elements || section.size() != size) {
+				throw new IllegalFormatException("The bloom filter of the section " + name + " wasn't created for this dictionary");
+			}
+			filters.sizes.put(name, new long[]{elements, size});
+			filters.filters.put(name, BloomFilter.load(input));
+		}
+		return filters;
+	}
+
+	private final Map<String, BloomFilter> filters = new LinkedHashMap<>();
+	// number of elements and size of each section
+	private final Map<String, long[]> sizes = new LinkedHashMap<>();
+
+	private DictionaryBloomFilters() {
+	}
+
+	/**
+	 * test if a section can contain a string
+	 *
+	 * @param section section name
+	 * @param str     string, as stored in the section
+	 * @return false if the section definitely doesn't contain the string
+	 */
+	public boolean mightContain(String section, CharSequence str) {
+		BloomFilter filter = filters.get(section);
+		return filter == null || filter.mightContain(str);
+	}
+
+	/**
+	 * @return the size of the filters in bytes
+	 */
+	public long size() {
+		return filters.values().stream().mapToLong(BloomFilter::size).sum();
+	}
+
+	/**
+	 * save the filters
+	 *
+	 * @param output  stream
+	 * @param hdtFile the HDT file of the dictionary
+	 * @throws IOException write exception
+	 */
+	public void save(OutputStream output, File hdtFile) throws IOException {
+		output.write(MAGIC);
+		VByte.encode(output, hdtFile.length());
+		VByte.encode(output, hdtFile.lastModified());
+		VByte.encode(output, filters.size());
+		for (Map.Entry<String, BloomFilter> e : filters.entrySet()) {
+			IOUtil.writeSizedBuffer(output, e.getKey().getBytes(StandardCharsets.UTF_8), null);
+			long[] size = sizes.get(e.getKey());
+			VByte.encode(output, size[0]);
+			VByte.encode(output, size[1]);
+			e.getValue().save(output);
+		}
+	}
+}
@@ -45,6 +45,7 @@ import org.rdfhdt.hdt.options.ControlInfo;
 import org.rdfhdt.hdt.options.ControlInfo.Type;
 import org.rdfhdt.hdt.options.ControlInformation;
 import org.rdfhdt.hdt.options.HDTOptions;
+import org.rdfhdt.hdt.options.HDTOptionsKeys;
 import org.rdfhdt.hdt.util.concurrent.ExceptionThread;
 import org.rdfhdt.hdt.util.io.CountInputStream;
 import org.rdfhdt.hdt.util.io.IOUtil;
@@ -133,6 +134,8 @@ public class FourSectionDictionary extends BaseDictionary {
 		subjects = DictionarySectionFactory.loadFrom(input, iListener);
 		predicates = DictionarySectionFactory.loadFrom(input, iListener);
 		objects = DictionarySectionFactory.loadFrom(input, iListener);
+
+		createCaches();
 	}
 
 	@Override
@@ -144,14 +147,12 @@ public class FourSectionDictionary extends BaseDictionary {
 		}
 
 		IntermediateListener iListener = new IntermediateListener(listener);
-		shared = DictionarySectionFactory.loadFrom(in, f, iListener);
-		subjects = DictionarySectionFactory.loadFrom(in, f, iListener);
-		predicates = DictionarySectionFactory.loadFrom(in, f, iListener);
-		objects = DictionarySectionFactory.loadFrom(in, f, iListener);
-
-		// Use cache only for predicates. Preload only up to 100K predicates.
-		// FIXME: DISABLED
-//		predicates = new DictionarySectionCacheAll(predicates, predicates.getNumberOfElements()<100000);
+		shared = DictionarySectionFactory.loadFrom(in, f, isLoadResidency(HDTOptionsKeys.LOAD_HDT_RESIDENCY_SHARED_KEY), iListener);
+		subjects = DictionarySectionFactory.loadFrom(in, f, isLoadResidency(HDTOptionsKeys.LOAD_HDT_RESIDENCY_SUBJECTS_KEY), iListener);
+		predicates = DictionarySectionFactory.loadFrom(in, f, isLoadResidency(HDTOptionsKeys.LOAD_HDT_RESIDENCY_PREDICATES_KEY), iListener);
+		objects = DictionarySectionFactory.loadFrom(in, f, isLoadResidency(HDTOptionsKeys.LOAD_HDT_RESIDENCY_OBJECTS_KEY), iListener);
+
+		createCaches();
 	}
 
 	/* (non-Javadoc)
@@ -131,6 +131,8 @@ public class FourSectionDictionaryBig extends BaseDictionary {
 		subjects = DictionarySectionFactory.loadFrom(input, iListener);
 		predicates = DictionarySectionFactory.loadFrom(input, iListener);
 		objects = DictionarySectionFactory.loadFrom(input, iListener);
+
+		createCaches();
 	}
 	
 	@Override
@@ -147,9 +149,7 @@ public class FourSectionDictionaryBig extends BaseDictionary {
 		predicates = DictionarySectionFactory.loadFrom(in, f, iListener);
 		objects = DictionarySectionFactory.loadFrom(in, f, iListener);
 		
-		// Use cache only for predicates. Preload only up to 100K predicates.
-		// FIXME: DISABLED
-//		predicates = new DictionarySectionCacheAll(predicates, predicates.getNumberOfElements()<100000);
+		createCaches();
 	}
 
 	/* (non-Javadoc)
@@ -0,0 +1,418 @@
+package org.rdfhdt.hdt.dictionary.impl;
+
+import org.rdfhdt.hdt.compact.sequence.SequenceLog64;
+import org.rdfhdt.hdt.dictionary.DictionarySection;
+import org.rdfhdt.hdt.util.BitUtil;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Value ordered index over a datatype section of a {@link MultipleBaseDictionary}.
+ *
+ * <p>Inside a section the ids follow the lexicographic order of the literals, this index keeps the ids of the
+ * section sorted by the value of the literals, so a range of values can be converted into a set of ids without
+ * scanning the whole section.</p>
+ *
+ * <p>The values are stored as doubles (epoch milliseconds for the temporal types), the xsd:float literals are
+ * rounded to a float first, as the SPARQL comparisons do. The searches are conservative:
+ * they can return literals outside the asked range, but never miss a literal inside it. The caller should still
+ * check the exact value if it needs it.</p>
+ */
+public class LiteralValueIndex {
+	private static final String XSD = "http://www.w3.org/2001/XMLSchema#";
+	private static final Set<String> NUMERIC_TYPES = Set.of(
+			"<" + XSD + "integer>",
+			"<" + XSD + "int>",
+			"<" + XSD + "long>",
+			"<" + XSD + "short>",
+			"<" + XSD + "byte>",
+			"<" + XSD + "decimal>",
+			"<" + XSD + "double>",
+			"<" + XSD + "float>"
+	);
+	private static final String FLOAT_TYPE = "<" + XSD + "float>";
+	/**
+	 * xsd:dateTime datatype
+	 */
+	public static final String DATE_TIME_TYPE = "<" + XSD + "dateTime>";
+	/**
+	 * xsd:date datatype
+	 */
+	public static final String DATE_TYPE = "<" + XSD + "date>";
+	/**
+	 * maximum offset of a xsd timezone (14 hours), a literal without timezone is indexed as UTC, so the temporal
+	 * searches are extended by this offset
+	 */
+	private static final long MAX_TIMEZONE_MILLIS = 14L * 60 * 60 * 1000;
+
+	/**
+	 * @param datatype datatype of the section, with the brackets
+	 * @return if the datatype is a numeric type supported by this index
+	 */
+	public static boolean isNumeric(CharSequence datatype) {
+		return datatype != null && NUMERIC_TYPES.contains(datatype.toString());
+	}
+
+	/**
+	 * @param datatype datatype of the section, with the brackets
+	 * @return if the datatype is a temporal type supported by this index
+	 */
+	public static boolean isTemporal(CharSequence datatype) {
+		if (datatype == null) {
+			return false;
+		}
+		String dt = datatype.toString();
+		return DATE_TIME_TYPE.equals(dt) || DATE_TYPE.equals(dt);
+	}
+
+	/**
+	 * @param datatype datatype of the section, with the brackets
+	 * @return if this index can be built for this datatype
+	 */
+	public static boolean isSupported(CharSequence datatype) {
+		return isNumeric(datatype) || isTemporal(datatype);
+	}
+
+	/**
+	 * build the index of a datatype section
+	 *
+	 * @param section  the section, the entries are the literals without their datatype
+	 * @param datatype the datatype of the section, with the brackets
+	 * @param firstId  global id of the first element of the section
+	 * @return index
+	 * @throws IllegalArgumentException if the datatype isn't supported or if the section is too big
+	 */
+	public static LiteralValueIndex build(DictionarySection section, CharSequence datatype, long firstId) {
+		if (!isSupported(datatype)) {
+			throw new IllegalArgumentException("Unsupported datatype for a value index: " + datatype);
+		}
+		long count = section.getNumberOfElements();
+		if (count > Integer.MAX_VALUE - 5) {
+			throw new IllegalArgumentException("Section too big to be indexed: " + count);
+		}
+		boolean temporal = isTemporal(datatype);
+		boolean date = DATE_TYPE.equals(datatype.toString());
+		boolean single = FLOAT_TYPE.equals(datatype.toString());
+
+		int n = (int) count;
+		double[] values = new double[n];
+		int[] order = new int[n];
+		int parsed = 0;
+		long[] unknown = new long[16];
+		int unknownCount = 0;
+
+		Iterator<? extends CharSequence> it = section.getSortedEntries();
+		for (int i = 0; i < n && it.hasNext(); i++) {
+			CharSequence lexical = lexicalForm(it.next());
+			double value;
+			try {
+				if (temporal) {
+					value = date ? parseDate(lexical) : parseDateTime(lexical);
+				} else {
+					value = parseNumber(lexical, single);
+				}
+			} catch (NumberFormatException | DateTimeParseException e) {
+				// can't compute the value, always returned by the searches
+				if (unknownCount == unknown.length) {
+					unknown = Arrays.copyOf(unknown, unknownCount * 2);
+				}
+				unknown[unknownCount++] = i + 1;
+				continue;
+			}
+			if (Double.isNaN(value)) {
+				// NaN isn't comparable, it can't be in a range
+				continue;
+			}
+			values[i] = value;
+			order[parsed++] = i;
+		}
+
+		int[] sorted = Arrays.copyOf(order, parsed);
+		boolean identity = parsed == n && isSorted(values, sorted);
+		if (!identity) {
+			sortByValue(sorted, values);
+		}
+
+		double[] sortedValues = new double[parsed];
+		SequenceLog64 ids = identity ? null : new SequenceLog64(BitUtil.log2(n), parsed);
+		for (int i = 0; i < parsed; i++) {
+			sortedValues[i] = values[sorted[i]];
+			if (ids != null) {
+				ids.append(sorted[i] + 1L);
+			}
+		}
+
+		return new LiteralValueIndex(datatype, firstId, count, sortedValues, ids,
+				Arrays.copyOf(unknown, unknownCount), temporal);
+	}
+
+	private final CharSequence datatype;
+	private final long firstId;
+	private final long numberOfElements;
+	private final double[] values;
+	private final SequenceLog64 ids;
+	private final long[] unknownIds;
+	private final boolean temporal;
+
+	private LiteralValueIndex(CharSequence datatype, long firstId, long numberOfElements, double[] values,
+							  SequenceLog64 ids, long[] unknownIds, boolean temporal) {
+		this.datatype = datatype;
+		this.firstId = firstId;
+		this.numberOfElements = numberOfElements;
+		this.values = values;
+		this.ids = ids;
+		this.unknownIds = unknownIds;
+		this.temporal = temporal;
+	}
+
+	/**
+	 * @return the datatype of the indexed section
+	 */
+	public CharSequence getDatatype() {
+		return datatype;
+	}
+
+	/**
+	 * @return if the indexed section is a temporal section, the values are epoch milliseconds
+	 */
+	public boolean isTemporal() {
+		return temporal;
+	}
+
+	/**
+	 * @return global id of the first element of the section
+	 */
+	public long getFirstId() {
+		return firstId;
+	}
+
+	/**
+	 * @return global id of the last element of the section
+	 */
+	public long getLastId() {
+		return firstId + numberOfElements - 1;
+	}
+
+	/**
+	 * @return number of literals with a value in this index
+	 */
+	public long getNumberOfValues() {
+		return values.length;
+	}
+
+	/**
+	 * @return if the value order is the same as the id order, in that case a value range is an id range
+	 */
+	public boolean isIdOrdered() {
+		return ids == null;
+	}
+
+	/**
+	 * @param position position in value order
+	 * @return value at this position
+	 */
+	public double getValue(long position) {
+		return values[(int) position];
+	}
+
+	/**
+	 * @param position position in value order
+	 * @return global id of the literal at this position
+	 */
+	public long getId(long position) {
+		if (ids == null) {
+			return firstId + position;
+		}
+		return firstId + ids.get(position) - 1;
+	}
+
+	/**
+	 * @param value value
+	 * @return the first position with a value greater or equal to value
+	 */
+	public long lowerBound(double value) {
+		int low = 0;
+		int high = values.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (values[mid] < value) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * @param value value
+	 * @return the first position with a value strictly greater than value
+	 */
+	public long upperBound(double value) {
+		int low = 0;
+		int high = values.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (values[mid] <= value) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * search the positions (in value order) of the literals with a value in [min, max], for a temporal index the
+	 * bounds are epoch milliseconds and the range is extended by the maximum timezone offset.
+	 *
+	 * @param min min value, can be {@link Double#NEGATIVE_INFINITY}
+	 * @param max max value, can be {@link Double#POSITIVE_INFINITY}
+	 * @return [start, end[ positions, use {@link #getId(long)} to get the ids
+	 */
+	public long[] searchPositions(double min, double max) {
+		if (temporal) {
+			min -= MAX_TIMEZONE_MILLIS;
+			max += MAX_TIMEZONE_MILLIS;
+		}
+		long start = lowerBound(min);
+		long end = Math.max(start, upperBound(max));
+		return new long[]{start, end};
+	}
+
+	/**
+	 * search the ids of the literals with a value in [min, max], only usable if {@link #isIdOrdered()} is true
+	 *
+	 * @param min min value
+	 * @param max max value
+	 * @return [firstId, lastId] global id range, lastId &lt; firstId if the range is empty
+	 * @throws IllegalArgumentException if the index isn't id ordered
+	 */
+	public long[] searchIdRange(double min, double max) {
+		if (!isIdOrdered()) {
+			throw new IllegalArgumentException("The section isn't sorted by value");
+		}
+		long[] positions = searchPositions(min, max);
+		return new long[]{firstId + positions[0], firstId + positions[1] - 1};
+	}
+
+	/**
+	 * search the literals with a value in [min, max], the literals with a value not understood by the index are
+	 * also returned.
+	 *
+	 * @param min min value
+	 * @param max max value
+	 * @return bitset, the bit i is set if the id (firstId + i) can be in the range
+	 */
+	public BitSet search(double min, double max) {
+		BitSet set = new BitSet((int) numberOfElements);
+		long[] positions = searchPositions(min, max);
+		if (ids == null) {
+			set.set((int) positions[0], (int) positions[1]);
+		} else {
+			for (long i = positions[0]; i < positions[1]; i++) {
+				set.set((int) (ids.get(i) - 1));
+			}
+		}
+		for (long unknownId : unknownIds) {
+			set.set((int) (unknownId - 1));
+		}
+		return set;
+	}
+
+	private static CharSequence lexicalForm(CharSequence literal) {
+		int len = literal.length();
+		if (len >= 2 && literal.charAt(0) == '"' && literal.charAt(len - 1) == '"') {
+			return literal.subSequence(1, len - 1);
+		}
+		return literal;
+	}
+
+	private static double parseNumber(CharSequence lexical, boolean single) {
+		String str = lexical.toString().trim();
+		switch (str) {
+			case "INF":
+			case "+INF":
+				return Double.POSITIVE_INFINITY;
+			case "-INF":
+				return Double.NEGATIVE_INFINITY;
+			case "NaN":
+				return Double.NaN;
+			default:
+				// a float isn't the nearest double of its lexical form
+				return single ? Float.parseFloat(str) : Double.parseDouble(str);
+		}
+	}
+
+	private static double parseDateTime(CharSequence lexical) {
+		String str = lexical.toString().trim();
+		try {
+			return OffsetDateTime.parse(str).toInstant().toEpochMilli();
+		} catch (DateTimeParseException e) {
+			// no timezone, read as UTC
+			return LocalDateTime.parse(str).toInstant(ZoneOffset.UTC).toEpochMilli();
+		}
+	}
+
+	private static double parseDate(CharSequence lexical) {
+		String str = lexical.toString().trim();
+		int end = str.length();
+		// remove the timezone if any, it is covered by the search extension
+		if (end > 0 && str.charAt(end - 1) == 'Z') {
+			end--;
+		} else if (end > 6 && (str.charAt(end - 6) == '+' || str.charAt(end - 6) == '-') && str.charAt(end - 3) == ':') {
+			end -= 6;
+		}
+		return LocalDate.parse(str.substring(0, end)).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+	}
+
+	private static boolean isSorted(double[] values, int[] order) {
+		for (int i = 1; i < order.length; i++) {
+			if (values[order[i - 1]] > values[order[i]]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * stable bottom-up merge sort of the positions by their values, avoid boxing the positions
+	 */
+	private static void sortByValue(int[] order, double[] values) {
+		int n = order.length;
+		int[] src = order;
+		int[] dst = new int[n];
+		for (int width = 1; width < n; width <<= 1) {
+			for (int low = 0; low < n; low += width << 1) {
+				int mid = Math.min(low + width, n);
+				int high = Math.min(low + (width << 1), n);
+				int i = low;
+				int j = mid;
+				int k = low;
+				while (i < mid && j < high) {
+					dst[k++] = values[src[j]] < values[src[i]] ? src[j++] : src[i++];
+				}
+				while (i < mid) {
+					dst[k++] = src[i++];
+				}
+				while (j < high) {
+					dst[k++] = src[j++];
+				}
+			}
+			int[] tmp = src;
+			src = dst;
+			dst = tmp;
+		}
+		if (src != order) {
+			System.arraycopy(src, 0, order, 0, n);
+		}
+	}
+}
@@ -5,20 +5,26 @@ import org.rdfhdt.hdt.dictionary.DictionaryPrivate;
 import org.rdfhdt.hdt.dictionary.DictionarySection;
 import org.rdfhdt.hdt.dictionary.DictionarySectionPrivate;
 import org.rdfhdt.hdt.dictionary.TempDictionary;
+import org.rdfhdt.hdt.dictionary.impl.section.CachedDictionarySection;
+import org.rdfhdt.hdt.dictionary.impl.section.DictionarySectionFactory;
 import org.rdfhdt.hdt.dictionary.impl.utilCat.SectionUtil;
 import org.rdfhdt.hdt.enums.DictionarySectionRole;
 import org.rdfhdt.hdt.enums.TripleComponentRole;
 import org.rdfhdt.hdt.exceptions.NotImplementedException;
 import org.rdfhdt.hdt.listener.ProgressListener;
 import org.rdfhdt.hdt.options.HDTOptions;
+import org.rdfhdt.hdt.options.HDTOptionsKeys;
 import org.rdfhdt.hdt.util.LiteralsUtils;
 import org.rdfhdt.hdt.util.string.ByteString;
 import org.rdfhdt.hdt.util.string.ByteStringUtil;
+import org.rdfhdt.hdt.util.string.ReplazableString;
 
 import java.util.AbstractMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 public abstract class MultipleBaseDictionary implements DictionaryPrivate {
     protected final HDTOptions spec;
@@ -27,6 +33,8 @@ public abstract class MultipleBaseDictionary implements DictionaryPrivate {
     protected DictionarySectionPrivate predicates;
     protected TreeMap<ByteString,DictionarySectionPrivate> objects;
     protected DictionarySectionPrivate shared;
+    protected DictionaryBloomFilters bloomFilters;
+    private final Map<String, LiteralValueIndex> valueIndexes = new ConcurrentHashMap<>();
 
     public MultipleBaseDictionary(HDTOptions spec) {
         this.spec = spec;
@@ -117,31 +125,31 @@ public abstract class MultipleBaseDictionary implements DictionaryPrivate {
         long ret;
         switch(position) {
             case SUBJECT:
-                ret = shared.locate(str);
+                ret = locate(shared, DictionaryBloomFilters.SHARED, str);
                 if(ret!=0) {
                     return getGlobalId(ret, DictionarySectionRole.SHARED,str);
                 }
-                ret = subjects.locate(str);
+                ret = locate(subjects, DictionaryBloomFilters.SUBJECTS, str);
                 if(ret!=0) {
                     return getGlobalId(ret, DictionarySectionRole.SUBJECT,str);
                 }
                 return -1;
             case PREDICATE:
-                ret = predicates.locate(str);
+                ret = locate(predicates, DictionaryBloomFilters.PREDICATES, str);
                 if(ret!=0) {
                     return getGlobalId(ret, DictionarySectionRole.PREDICATE,str);
                 }
                 return -1;
             case OBJECT:
                 if (str.charAt(0)!='"') {
-                    ret = shared.locate(str);
+                    ret = locate(shared, DictionaryBloomFilters.SHARED, str);
                     if(ret!=0) {
                         return getGlobalId(ret, DictionarySectionRole.SHARED,str);
                     }
                 }
                 DictionarySectionPrivate subSection = getSubSection(str);
                 if (subSection!= null) {
-                    ret = subSection.locate(LiteralsUtils.removeType(str));
+                    ret = locateObject(subSection, str);
                 } else {
                     return -1;
                 }
@@ -154,6 +162,62 @@ public abstract class MultipleBaseDictionary implements DictionaryPrivate {
         }
     }
 
+    /**
+     * @param key residency key of a section
+     * @return if the section should be read in memory instead of mapped
+     */
+    protected boolean isLoadResidency(String key) {
+        return HDTOptionsKeys.LOAD_HDT_TYPE_VALUE_LOAD.equals(spec.get(key));
+    }
+
+    private long locate(DictionarySectionPrivate section, String sectionName, CharSequence str) {
+        DictionaryBloomFilters filters = bloomFilters;
+        if (filters != null && !filters.mightContain(sectionName, str)) {
+            return 0;
+        }
+        return section.locate(str);
+    }
+
+    private long locateObject(DictionarySectionPrivate section, ByteString str) {
+        DictionaryBloomFilters filters = bloomFilters;
+        CharSequence value = LiteralsUtils.removeType(str);
+        if (filters != null && !filters.mightContain(DictionaryBloomFilters.objectsSection(LiteralsUtils.getType(str)), value)) {
+            return 0;
+        }
+        return section.locate(value);
+    }
+
+    @Override
+    public void setBloomFilters(DictionaryBloomFilters filters) {
+        this.bloomFilters = filters;
+    }
+
+    /**
+     * wrap the sections in the caches configured by {@link HDTOptionsKeys#DICTIONARY_CACHE_KEY}, called once the
+     * sections are loaded or mapped
+     */
+    protected void createCaches() {
+        shared = DictionarySectionFactory.cache(spec, shared, true);
+        subjects = DictionarySectionFactory.cache(spec, subjects, false);
+        predicates = DictionarySectionFactory.cache(spec, predicates, true);
+        objects.replaceAll((type, section) -> DictionarySectionFactory.cache(spec, section, false));
+    }
+
+    /**
+     * @return the cached sections by name ({@link DictionaryBloomFilters#SHARED}...) to read their hit rates, empty
+     * if {@link HDTOptionsKeys#DICTIONARY_CACHE_KEY} isn't set
+     */
+    public Map<String, CachedDictionarySection> getCachedSections() {
+        Map<String, CachedDictionarySection> sections = new LinkedHashMap<>();
+        BaseDictionary.addCachedSection(sections, DictionaryBloomFilters.SHARED, shared);
+        BaseDictionary.addCachedSection(sections, DictionaryBloomFilters.SUBJECTS, subjects);
+        BaseDictionary.addCachedSection(sections, DictionaryBloomFilters.PREDICATES, predicates);
+        for (Map.Entry<ByteString, DictionarySectionPrivate> e : objects.entrySet()) {
+            BaseDictionary.addCachedSection(sections, DictionaryBloomFilters.objectsSection(e.getKey()), e.getValue());
+        }
+        return sections;
+    }
+
     private long getNumberObjectsAllSections(){
         // iterate over all subsections in the objects section
         return objects.values().stream().mapToLong(DictionarySection::getNumberOfElements).sum();
@@ -279,6 +343,24 @@ public abstract class MultipleBaseDictionary implements DictionaryPrivate {
             }
         }
     }
+
+    @Override
+    public boolean idToString(long id, TripleComponentRole role, ReplazableString buffer) {
+        AbstractMap.SimpleEntry<CharSequence,DictionarySectionPrivate> section = getSection(id, role);
+        if (section.getValue() == null) {
+            return false;
+        }
+        long localId = getLocalId(id, role);
+        if (!section.getValue().extract(localId, buffer)) {
+            return false;
+        }
+        if (!section.getKey().equals(LiteralsUtils.NO_DATATYPE) && !section.getKey().equals(SectionUtil.SECTION)
+                && !LiteralsUtils.containsLanguage(buffer)) {
+            buffer.appendNoCompact("^^");
+            buffer.appendNoCompact(section.getKey());
+        }
+        return true;
+    }
     private DictionarySectionPrivate getSubSection(ByteString str){
         return objects.get((ByteString) LiteralsUtils.getType(str));
     }
@@ -307,4 +389,26 @@ public abstract class MultipleBaseDictionary implements DictionaryPrivate {
         }
         return new AbstractMap.SimpleEntry<>(0L,0L);
     }
+
+    /**
+     * get the value index of a datatype section, the index is built during the first call for this datatype and
+     * kept with the dictionary
+     *
+     * @param dataType the datatype, with or without the brackets
+     * @return the index, null if the index isn't enabled with {@link HDTOptionsKeys#DICTIONARY_VALUE_INDEX_KEY}, if
+     * the datatype isn't supported by {@link LiteralValueIndex} or if the section doesn't exist
+     */
+    public LiteralValueIndex getValueIndex(CharSequence dataType) {
+        if (!spec.getBoolean(HDTOptionsKeys.DICTIONARY_VALUE_INDEX_KEY, false)) {
+            return null;
+        }
+        ByteString seq = LiteralsUtils.embed(ByteStringUtil.asByteString(dataType));
+        if (!LiteralValueIndex.isSupported(seq) || !objects.containsKey(seq)) {
+            return null;
+        }
+        return valueIndexes.computeIfAbsent(seq.toString(), type -> {
+            long firstId = getDataTypeRange(seq).getKey();
+            return LiteralValueIndex.build(objects.get(seq), type, firstId);
+        });
+    }
 }
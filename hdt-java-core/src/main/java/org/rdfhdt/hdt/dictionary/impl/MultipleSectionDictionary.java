@@ -16,6 +16,7 @@ import org.rdfhdt.hdt.listener.ProgressListener;
 import org.rdfhdt.hdt.options.ControlInfo;
 import org.rdfhdt.hdt.options.ControlInformation;
 import org.rdfhdt.hdt.options.HDTOptions;
+import org.rdfhdt.hdt.options.HDTOptionsKeys;
 import org.rdfhdt.hdt.util.CustomIterator;
 import org.rdfhdt.hdt.util.LiteralsUtils;
 import org.rdfhdt.hdt.util.concurrent.ExceptionThread;
@@ -194,8 +195,12 @@ MultipleSectionDictionary extends MultipleBaseDictionary {
 			byte[] type = IOUtil.readBuffer(input, length, listener);
 			types.add(new CompactString(type));
 		}
+		boolean loadObjects = isLoadResidency(HDTOptionsKeys.LOAD_HDT_RESIDENCY_OBJECTS_KEY);
+		String typedResidency = spec.get(HDTOptionsKeys.LOAD_HDT_RESIDENCY_TYPED_OBJECTS_KEY);
+		boolean loadTyped = typedResidency == null ? loadObjects : HDTOptionsKeys.LOAD_HDT_TYPE_VALUE_LOAD.equals(typedResidency);
 		for (ByteString type : types) {
-			this.objects.put(type, DictionarySectionFactory.loadFrom(input, f, listener));
+			boolean load = LiteralsUtils.isNoDatatype(type) ? loadObjects : loadTyped;
+			this.objects.put(type, DictionarySectionFactory.loadFrom(input, f, load, listener));
 		}
 
 	}
@@ -217,6 +222,8 @@ MultipleSectionDictionary extends MultipleBaseDictionary {
 		predicates = DictionarySectionFactory.loadFrom(input, iListener);
 
 		readLiteralsMap(input, listener);
+
+		createCaches();
 	}
 
 	@Override
@@ -228,15 +235,13 @@ MultipleSectionDictionary extends MultipleBaseDictionary {
 		}
 
 		IntermediateListener iListener = new IntermediateListener(listener);
-		shared = DictionarySectionFactory.loadFrom(in, f, iListener);
-		subjects = DictionarySectionFactory.loadFrom(in, f, iListener);
-		predicates = DictionarySectionFactory.loadFrom(in, f, iListener);
+		shared = DictionarySectionFactory.loadFrom(in, f, isLoadResidency(HDTOptionsKeys.LOAD_HDT_RESIDENCY_SHARED_KEY), iListener);
+		subjects = DictionarySectionFactory.loadFrom(in, f, isLoadResidency(HDTOptionsKeys.LOAD_HDT_RESIDENCY_SUBJECTS_KEY), iListener);
+		predicates = DictionarySectionFactory.loadFrom(in, f, isLoadResidency(HDTOptionsKeys.LOAD_HDT_RESIDENCY_PREDICATES_KEY), iListener);
 
 		mapLiteralsMap(in, f, listener);
 
-		// Use cache only for predicates. Preload only up to 100K predicates.
-		// FIXME: DISABLED
-//		predicates = new DictionarySectionCacheAll(predicates, predicates.getNumberOfElements()<100000);
+		createCaches();
 	}
 
 	@Override
@@ -177,6 +177,8 @@ MultipleSectionDictionaryBig extends MultipleBaseDictionary {
         predicates = DictionarySectionFactory.loadFrom(input, iListener);
 
         readLiteralsMap(input,listener);
+
+        createCaches();
     }
 
     @Override
@@ -194,9 +196,7 @@ MultipleSectionDictionaryBig extends MultipleBaseDictionary {
 
         mapLiteralsMap(in,f,listener);
 
-        // Use cache only for predicates. Preload only up to 100K predicates.
-        // FIXME: DISABLED
-//		predicates = new DictionarySectionCacheAll(predicates, predicates.getNumberOfElements()<100000);
+        createCaches();
     }
 
     @Override
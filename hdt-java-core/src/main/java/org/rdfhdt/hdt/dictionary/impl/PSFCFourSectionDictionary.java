@@ -65,6 +65,16 @@ public class PSFCFourSectionDictionary extends FourSectionDictionary {
         return decode(super.idToString(id, position));
     }
 
+    @Override
+    public boolean idToString(long id, TripleComponentRole position, ReplazableString buffer) {
+        CharSequence str = idToString(id, position);
+        if (str == null) {
+            return false;
+        }
+        buffer.replace(str);
+        return true;
+    }
+
     @Override
     public String getType() {
         return HDTVocabulary.DICTIONARY_TYPE_FOUR_PSFC_SECTION;
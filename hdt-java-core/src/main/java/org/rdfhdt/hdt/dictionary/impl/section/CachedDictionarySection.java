@@ -0,0 +1,34 @@
+package org.rdfhdt.hdt.dictionary.impl.section;
+
+import org.rdfhdt.hdt.dictionary.DictionarySectionPrivate;
+
+/**
+ * DictionarySection caching the strings and ids of another section, with the statistics of its cache.
+ *
+ * @see org.rdfhdt.hdt.options.HDTOptionsKeys#DICTIONARY_CACHE_KEY
+ */
+public interface CachedDictionarySection extends DictionarySectionPrivate {
+	/**
+	 * @return the cached section
+	 */
+	DictionarySectionPrivate getChild();
+
+	/**
+	 * @return number of locate/extract answered by the cache
+	 */
+	long getHits();
+
+	/**
+	 * @return number of locate/extract sent to the cached section
+	 */
+	long getMisses();
+
+	/**
+	 * @return ratio of the locate/extract answered by the cache, 0 if the section wasn't used
+	 */
+	default double getHitRate() {
+		long hits = getHits();
+		long total = hits + getMisses();
+		return total == 0 ? 0 : (double) hits / total;
+	}
+}
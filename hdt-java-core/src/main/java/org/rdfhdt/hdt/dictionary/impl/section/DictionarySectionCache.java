@@ -31,43 +31,54 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.rdfhdt.hdt.dictionary.DictionarySectionPrivate;
 import org.rdfhdt.hdt.dictionary.TempDictionarySection;
 import org.rdfhdt.hdt.listener.ProgressListener;
+import org.rdfhdt.hdt.util.string.ReplazableString;
 
 /**
  * DictionarySection that caches results returned by a child DictionarySection to increase performance.
+ * <p>
+ * The caches are direct mapped tables indexed by a hash of the id or of the string, a new entry replaces the entry
+ * of its slot. The entries are immutable, the tables are shared by the threads without lock.
  * 
  * @author mario.arias
  *
  */
-public class DictionarySectionCache implements DictionarySectionPrivate {
+public class DictionarySectionCache implements CachedDictionarySection {
 	
-	final int CACHE_ENTRIES = 128;
+	public static final int DEFAULT_CACHE_ENTRIES = 1 << 16;
 	private final DictionarySectionPrivate child;
-	
-
-	@SuppressWarnings("serial")
-	final Map<CharSequence, Long> cacheString = new LinkedHashMap<CharSequence,Long>(CACHE_ENTRIES+1, .75F, true) {
-					    // This method is called just after a new entry has been added
-					    public boolean removeEldestEntry(Map.Entry<CharSequence,Long> eldest) {
-					        return size() > CACHE_ENTRIES;
-					    }
-					};
-					
-	@SuppressWarnings("serial")
-	final Map<Long, CharSequence> cacheID = new LinkedHashMap<Long,CharSequence>(CACHE_ENTRIES+1, .75F, true) {
-						// This method is called just after a new entry has been added
-						public boolean removeEldestEntry(Map.Entry<Long,CharSequence> eldest) {
-							return size() > CACHE_ENTRIES;
-						}
-					};
+	private final IdEntry[] cacheID;
+	private final StringEntry[] cacheString;
+	private final int mask;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
 	
 	public DictionarySectionCache(DictionarySectionPrivate child) {
+		this(child, DEFAULT_CACHE_ENTRIES);
+	}
+
+	/**
+	 * @param child   cached section
+	 * @param entries number of entries of each cache, rounded to a power of 2
+	 */
+	public DictionarySectionCache(DictionarySectionPrivate child, int entries) {
 		this.child = child;
+		int capacity = 1;
+		while (capacity < entries && capacity < 1 << 30) {
+			capacity <<= 1;
+		}
+		this.mask = capacity - 1;
+		this.cacheID = new IdEntry[capacity];
+		this.cacheString = new StringEntry[capacity];
+	}
+
+	private static int slot(long value) {
+		long h = value * 0x9E3779B97F4A7C15L;
+		return (int) (h >>> 32);
 	}
 
 	/* (non-Javadoc)
@@ -75,12 +86,17 @@ public class DictionarySectionCache implements DictionarySectionPrivate {
 	 */
 	@Override
 	public long locate(CharSequence s) {
-		Long o = cacheString.get(s);
-		if(o==null) {
-			o = child.locate(s);
-			cacheString.put(s, o);
+		String str = s.toString();
+		int slot = slot(str.hashCode()) & mask;
+		StringEntry entry = cacheString[slot];
+		if (entry != null && entry.str.equals(str)) {
+			hits.increment();
+			return entry.id;
 		}
- 		return o;
+		misses.increment();
+		long id = child.locate(s);
+		cacheString[slot] = new StringEntry(str, id);
+		return id;
 	}
 
 	/* (non-Javadoc)
@@ -88,13 +104,44 @@ public class DictionarySectionCache implements DictionarySectionPrivate {
 	 */
 	@Override
 	public CharSequence extract(long pos) {
-		CharSequence o = cacheID.get(pos);
-		if(o==null) {
-			o = child.extract(pos);
-			cacheID.put(pos, o);
-			//cacheString.put(o, pos);
+		int slot = slot(pos) & mask;
+		IdEntry entry = cacheID[slot];
+		if (entry != null && entry.id == pos) {
+			hits.increment();
+			return entry.str;
+		}
+		misses.increment();
+		CharSequence str = child.extract(pos);
+		if (str != null) {
+			cacheID[slot] = new IdEntry(pos, str);
 		}
- 		return o;
+		return str;
+	}
+
+	@Override
+	public boolean extract(long pos, ReplazableString buffer) {
+		// the buffer extraction is used to read many strings, don't fill the cache with them
+		IdEntry entry = cacheID[slot(pos) & mask];
+		if (entry != null && entry.id == pos) {
+			buffer.replace(entry.str);
+			return true;
+		}
+		return child.extract(pos, buffer);
+	}
+
+	@Override
+	public DictionarySectionPrivate getChild() {
+		return child;
+	}
+
+	@Override
+	public long getHits() {
+		return hits.sum();
+	}
+
+	@Override
+	public long getMisses() {
+		return misses.sum();
 	}
 
 	/* (non-Javadoc)
@@ -121,6 +168,14 @@ public class DictionarySectionCache implements DictionarySectionPrivate {
 		return child.getSortedEntries();
 	}
 
+	/* (non-Javadoc)
+	 * @see hdt.dictionary.DictionarySection#locatePrefixRange(java.lang.CharSequence)
+	 */
+	@Override
+	public long[] locatePrefixRange(CharSequence prefix) {
+		return child.locatePrefixRange(prefix);
+	}
+
 	/* (non-Javadoc)
 	 * @see hdt.dictionary.DictionarySection#save(java.io.OutputStream, hdt.listener.ProgressListener)
 	 */
@@ -152,4 +207,24 @@ public class DictionarySectionCache implements DictionarySectionPrivate {
 	public void close() throws IOException {
 		child.close();
 	}
+
+	private static final class IdEntry {
+		private final long id;
+		private final CharSequence str;
+
+		private IdEntry(long id, CharSequence str) {
+			this.id = id;
+			this.str = str;
+		}
+	}
+
+	private static final class StringEntry {
+		private final String str;
+		private final long id;
+
+		private StringEntry(String str, long id) {
+			this.str = str;
+			this.id = id;
+		}
+	}
 }
@@ -30,44 +30,51 @@ package org.rdfhdt.hdt.dictionary.impl.section;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.HashMap;
 import java.util.Iterator;
-import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.rdfhdt.hdt.dictionary.DictionarySectionPrivate;
 import org.rdfhdt.hdt.dictionary.TempDictionarySection;
 import org.rdfhdt.hdt.listener.ProgressListener;
+import org.rdfhdt.hdt.util.string.ByteString;
+import org.rdfhdt.hdt.util.string.CompactString;
+import org.rdfhdt.hdt.util.string.ReplazableString;
 
 /**
- * DictionarySection that caches results returned by a child DictionarySection to increase performance.
+ * DictionarySection that keeps the strings of a child DictionarySection in memory, for the small sections used by
+ * most of the searches (predicates, shared).
+ * <p>
+ * With preload, all the strings are decoded when the cache is created, in the order of the section, and the ids are
+ * found with a binary search. Without preload, only the extracted strings are kept.
  * 
  * @author mario.arias
  *
  */
-public class DictionarySectionCacheAll implements DictionarySectionPrivate {
+public class DictionarySectionCacheAll implements CachedDictionarySection {
 	
-	final int CACHE_ENTRIES = 128;
 	private final DictionarySectionPrivate child;
 	private final boolean preload;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
 	
-	Map<CharSequence, Long> cacheString;
-	CharSequence [] cacheID; 
-	
+	private CharSequence[] cacheID;
 	
 	public DictionarySectionCacheAll(DictionarySectionPrivate child, boolean preload) {
 		this.child = child;
 		this.preload = preload;
 		
-		cacheString = new HashMap<CharSequence, Long>((int) (child.getNumberOfElements()*2));
-		cacheID = new CharSequence[(int) child.getNumberOfElements()];
+		long numberOfElements = child.getNumberOfElements();
+		if(numberOfElements > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("Too many strings to cache the section: " + numberOfElements);
+		}
+		cacheID = new CharSequence[(int) numberOfElements];
 
 		if(preload) {
 			Iterator <? extends CharSequence> it = child.getSortedEntries();
-			long pos=0;
+			int pos=0;
 			while(it.hasNext()) {
-				cacheID[(int) pos] = it.next();
-				cacheString.put(cacheID[(int) pos], pos);
-				pos++;
+				// copy, the iterator can reuse its strings
+				cacheID[pos++] = new CompactString(it.next());
 			}
 		}
 	}
@@ -77,33 +84,71 @@ public class DictionarySectionCacheAll implements DictionarySectionPrivate {
 	 */
 	@Override
 	public long locate(CharSequence s) {
-		Long o = cacheString.get(s);
-		if(o==null) {
-			o = child.locate(s);
-			cacheString.put(s, o);
+		if(!preload) {
+			misses.increment();
+			return child.locate(s);
 		}
- 		return o;
+		hits.increment();
+		// same byte order as the section
+		ByteString str = ByteString.of(s);
+		int low = 0;
+		int high = cacheID.length - 1;
+		while(low <= high) {
+			int mid = (low + high) >>> 1;
+			int cmp = ((ByteString) cacheID[mid]).compareTo(str);
+			if(cmp < 0) {
+				low = mid + 1;
+			} else if(cmp > 0) {
+				high = mid - 1;
+			} else {
+				return mid + 1;
+			}
+		}
+		return 0;
 	}
 
 	/* (non-Javadoc)
 	 * @see hdt.dictionary.DictionarySection#extract(long)
 	 */
 	@Override
-	public final CharSequence extract(long pos) {
-		if(preload) {
-			return cacheID[(int) (pos-1)];
+	public CharSequence extract(long pos) {
+		if(pos<1 || pos>cacheID.length) {
+			return null;
+		}
+		CharSequence o = cacheID[(int) (pos-1)];
+		if(o==null) {
+			misses.increment();
+			o = child.extract(pos);
+			cacheID[(int) (pos-1)] = o;
 		} else {
-			if(pos==0) {
-				return null;
-			}
-			CharSequence o = cacheID[(int) (pos-1)];
-			if(o==null) {
-				o = child.extract(pos);
-				cacheID[(int) (pos-1)] = o;
-				//cacheString.put(o, pos);
-			}
-			return o;
+			hits.increment();
+		}
+		return o;
+	}
+
+	@Override
+	public boolean extract(long pos, ReplazableString buffer) {
+		CharSequence str = extract(pos);
+		if(str==null) {
+			return false;
 		}
+		buffer.replace(str);
+		return true;
+	}
+
+	@Override
+	public DictionarySectionPrivate getChild() {
+		return child;
+	}
+
+	@Override
+	public long getHits() {
+		return hits.sum();
+	}
+
+	@Override
+	public long getMisses() {
+		return misses.sum();
 	}
 
 	/* (non-Javadoc)
@@ -130,6 +175,14 @@ public class DictionarySectionCacheAll implements DictionarySectionPrivate {
 		return child.getSortedEntries();
 	}
 
+	/* (non-Javadoc)
+	 * @see hdt.dictionary.DictionarySection#locatePrefixRange(java.lang.CharSequence)
+	 */
+	@Override
+	public long[] locatePrefixRange(CharSequence prefix) {
+		return child.locatePrefixRange(prefix);
+	}
+
 	/* (non-Javadoc)
 	 * @see hdt.dictionary.DictionarySection#save(java.io.OutputStream, hdt.listener.ProgressListener)
 	 */
@@ -159,7 +212,6 @@ public class DictionarySectionCacheAll implements DictionarySectionPrivate {
 
 	@Override
 	public void close() throws IOException {
-		cacheString=null;
 		cacheID=null;
 		child.close();
 	}
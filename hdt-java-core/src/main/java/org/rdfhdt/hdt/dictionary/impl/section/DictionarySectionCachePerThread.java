@@ -43,8 +43,9 @@ import org.rdfhdt.hdt.listener.ProgressListener;
  * This one uses one cache per thread, to avoid waits on mutex when having concurrent queries.
  * 
  * @author mario.arias
- *
+ * @deprecated use {@link DictionarySectionCache}, shared by the threads without lock
  */
+@Deprecated
 public class DictionarySectionCachePerThread implements DictionarySectionPrivate {
 	
 	final int CACHE_ENTRIES = 128;
@@ -137,6 +138,14 @@ public class DictionarySectionCachePerThread implements DictionarySectionPrivate
 		return child.getSortedEntries();
 	}
 
+	/* (non-Javadoc)
+	 * @see hdt.dictionary.DictionarySection#locatePrefixRange(java.lang.CharSequence)
+	 */
+	@Override
+	public long[] locatePrefixRange(CharSequence prefix) {
+		return child.locatePrefixRange(prefix);
+	}
+
 	/* (non-Javadoc)
 	 * @see hdt.dictionary.DictionarySection#save(java.io.OutputStream, hdt.listener.ProgressListener)
 	 */
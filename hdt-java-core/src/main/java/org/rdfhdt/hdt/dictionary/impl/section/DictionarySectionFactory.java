@@ -33,6 +33,8 @@ import java.io.InputStream;
 
 import org.rdfhdt.hdt.dictionary.DictionarySectionPrivate;
 import org.rdfhdt.hdt.listener.ProgressListener;
+import org.rdfhdt.hdt.options.HDTOptions;
+import org.rdfhdt.hdt.options.HDTOptionsKeys;
 import org.rdfhdt.hdt.options.HDTSpecification;
 import org.rdfhdt.hdt.util.io.CountInputStream;
 
@@ -72,6 +74,44 @@ public class DictionarySectionFactory {
 		}
 	}
 	
+	/**
+	 * read a section of a mapped file
+	 *
+	 * @param input    stream of the file
+	 * @param f        the file
+	 * @param load     read the section in memory instead of mapping it
+	 * @param listener listener
+	 * @return section
+	 * @throws IOException read exception
+	 */
+	public static DictionarySectionPrivate loadFrom(CountInputStream input, File f, boolean load, ProgressListener listener) throws IOException {
+		if (load) {
+			return loadFrom((InputStream) input, listener);
+		}
+		return loadFrom(input, f, listener);
+	}
+
+	/**
+	 * wrap a section in the cache configured by {@link HDTOptionsKeys#DICTIONARY_CACHE_KEY}
+	 *
+	 * @param spec    options
+	 * @param section section to cache
+	 * @param small   the section is searched by most of the queries (predicates, shared), it is kept in memory if it
+	 *                has less than {@link HDTOptionsKeys#DICTIONARY_CACHE_PRELOAD_KEY} strings
+	 * @return the cached section, or the section if the cache isn't enabled
+	 */
+	public static DictionarySectionPrivate cache(HDTOptions spec, DictionarySectionPrivate section, boolean small) {
+		if (!spec.getBoolean(HDTOptionsKeys.DICTIONARY_CACHE_KEY, false) || section instanceof CachedDictionarySection) {
+			return section;
+		}
+		long preload = spec.getInt(HDTOptionsKeys.DICTIONARY_CACHE_PRELOAD_KEY, 100_000);
+		if (small && section.getNumberOfElements() <= preload) {
+			return new DictionarySectionCacheAll(section, true);
+		}
+		long entries = spec.getInt(HDTOptionsKeys.DICTIONARY_CACHE_SIZE_KEY, DictionarySectionCache.DEFAULT_CACHE_ENTRIES);
+		return new DictionarySectionCache(section, (int) Math.min(entries, 1 << 30));
+	}
+
 	public static DictionarySectionPrivate loadFrom(CountInputStream input, File f, ProgressListener listener) throws IOException {
 		input.mark(64);
 		int dictType = input.read();
@@ -48,6 +48,7 @@ import org.rdfhdt.hdt.util.crc.CRC8;
 import org.rdfhdt.hdt.util.crc.CRCInputStream;
 import org.rdfhdt.hdt.util.crc.CRCOutputStream;
 import org.rdfhdt.hdt.util.io.IOUtil;
+import org.rdfhdt.hdt.util.jfr.DictionarySectionEvent;
 import org.rdfhdt.hdt.util.string.ByteString;
 import org.rdfhdt.hdt.util.string.ByteStringUtil;
 import org.rdfhdt.hdt.util.string.CompactString;
@@ -97,6 +98,8 @@ public class PFCDictionarySection implements DictionarySectionPrivate {
 	}
 
 	public void load(Iterator<? extends CharSequence> it, long numentries, ProgressListener listener) {
+		DictionarySectionEvent event = new DictionarySectionEvent();
+		event.begin();
 		this.blocks = new SequenceLog64(32, numentries/blocksize);
 		this.numstrings = 0;
 		
@@ -143,6 +146,7 @@ public class PFCDictionarySection implements DictionarySectionPrivate {
 		} catch (IOException e) {
 			log.error("Unexpected exception.", e);
 		}
+		event.finish(DictionarySectionEvent.OPERATION_BUILD, getClass().getSimpleName(), numstrings, size());
 	}
 		
 	protected int locateBlock(ByteString str) {
@@ -267,17 +271,79 @@ public class PFCDictionarySection implements DictionarySectionPrivate {
 		return idInBlock;
 	}
 	
+	/**
+	 * Find the ID of the first string greater or equal to str.
+	 * @return the ID, numstrings+1 if all the strings are smaller
+	 */
+	protected long locateLowerBound(ByteString str) {
+		int blocknum = locateBlock(str);
+		if(blocknum>=0) {
+			// Located exactly
+			return ((long) blocknum * blocksize) + 1;
+		}
+		blocknum = -blocknum-2;
+		if(blocknum<0) {
+			// Before the first string
+			return 1;
+		}
+
+		// The first string of the block is smaller, skip the others until str
+		int pos = (int)blocks.get(blocknum);
+		ReplazableString tempString = new ReplazableString();
+		Mutable<Long> delta = new Mutable<>(0L);
+		int idInBlock = 1;
+
+		int slen = ByteStringUtil.strlen(text, pos);
+		tempString.append(text, pos, slen);
+		pos+=slen+1;
+
+		while( (idInBlock<blocksize) && (pos<text.length)) {
+			pos += VByte.decode(text, pos, delta);
+			slen = ByteStringUtil.strlen(text, pos);
+			tempString.replace(delta.getValue().intValue(), text, pos, slen);
+			if(tempString.compareTo(str)>=0) {
+				break;
+			}
+			pos+=slen+1;
+			idInBlock++;
+		}
+		return ((long) blocknum * blocksize) + idInBlock + 1;
+	}
+
+	/* (non-Javadoc)
+	 * @see hdt.dictionary.DictionarySection#locatePrefixRange(java.lang.CharSequence)
+	 */
+	@Override
+	public long[] locatePrefixRange(CharSequence prefix) {
+		if(text==null || blocks==null) {
+			return new long[] {1, 0};
+		}
+		ByteString bprefix = ByteString.of(prefix);
+		long first = locateLowerBound(bprefix);
+		long last = locateLowerBound(ByteStringUtil.prefixUpperBound(bprefix)) - 1;
+		return new long[] {first, last};
+	}
+
 	/* (non-Javadoc)
 	 * @see hdt.dictionary.DictionarySection#extract(int)
 	 */
 	@Override
 	public CharSequence extract(long id) {
-		if(text==null || blocks==null) {
+		ReplazableString tempString = new ReplazableString();
+		if (!extract(id, tempString)) {
 			return null;
 		}
+		return new CompactString(tempString).getDelayed();
+	}
+
+	@Override
+	public boolean extract(long id, ReplazableString tempString) {
+		if(text==null || blocks==null) {
+			return false;
+		}
 		
 		if(id<1 || id>numstrings) {
-			return null;
+			return false;
 		}
 		
 		int block = (int) ((id-1)/blocksize);
@@ -286,8 +352,7 @@ public class PFCDictionarySection implements DictionarySectionPrivate {
  		int len = ByteStringUtil.strlen(text, pos);
 		
 		Mutable<Long> delta = new Mutable<>(0L);
-		ReplazableString tempString = new ReplazableString();
-		tempString.append(text, pos, len);
+		tempString.replace(0, text, pos, len);
 		
 		for(int i=0;i<stringid;i++) {
 			pos+=len+1;
@@ -295,7 +360,7 @@ public class PFCDictionarySection implements DictionarySectionPrivate {
 			len = ByteStringUtil.strlen(text, pos);
 			tempString.replace(delta.getValue().intValue(), text, pos, len);
 		}
-		return new CompactString(tempString).getDelayed();
+		return true;
 	}
 	
 //	private void dumpAll() {
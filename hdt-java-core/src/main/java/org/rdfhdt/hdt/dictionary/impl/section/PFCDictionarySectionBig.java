@@ -52,6 +52,7 @@ import org.rdfhdt.hdt.util.crc.CRC8;
 import org.rdfhdt.hdt.util.crc.CRCInputStream;
 import org.rdfhdt.hdt.util.crc.CRCOutputStream;
 import org.rdfhdt.hdt.util.io.BigByteBuffer;
+import org.rdfhdt.hdt.util.jfr.DictionarySectionEvent;
 import org.rdfhdt.hdt.util.string.ByteString;
 import org.rdfhdt.hdt.util.string.ByteStringUtil;
 import org.rdfhdt.hdt.util.string.CompactString;
@@ -104,6 +105,8 @@ public class PFCDictionarySectionBig implements DictionarySectionPrivate {
 	}
 	
 	public void load(Iterator<? extends CharSequence> it, long numentries, ProgressListener listener)  {		
+		DictionarySectionEvent event = new DictionarySectionEvent();
+		event.begin();
 		
 		this.blocks = new SequenceLog64Big(64, numentries/blocksize);
 		this.numstrings = 0;
@@ -219,6 +222,7 @@ public class PFCDictionarySectionBig implements DictionarySectionPrivate {
 				log.error("Unexpected exception.", e);
 			}
 		}
+		event.finish(DictionarySectionEvent.OPERATION_BUILD, getClass().getSimpleName(), numstrings, size());
 	}
 	
 	
@@ -337,14 +341,75 @@ public class PFCDictionarySectionBig implements DictionarySectionPrivate {
 		return idInBlock;
 	}
 
+	/**
+	 * Find the ID of the first string greater or equal to str.
+	 * @return the ID, numstrings+1 if all the strings are smaller
+	 */
+	protected long locateLowerBound(ByteString str) {
+		long blocknum = locateBlock(str);
+		if(blocknum>=0) {
+			// Located exactly
+			return (blocknum*blocksize)+1;
+		}
+		blocknum = -blocknum-2;
+		if(blocknum<0) {
+			// Before the first string
+			return 1;
+		}
+
+		// The first string of the block is smaller, skip the others until str
+		ReplazableString tempString = new ReplazableString();
+		Mutable<Long> delta = new Mutable<>(0L);
+		long idInBlock = 1;
+
+		BigByteBuffer block = data[(int) (blocknum/BLOCK_PER_BUFFER)];
+		long pos = (blocks.get(blocknum)-posFirst[(int) (blocknum/BLOCK_PER_BUFFER)]);
+
+		int slen = (int) ByteStringUtil.strlen(block, pos);
+		tempString.append(block, pos, slen);
+		pos+=slen+1;
+
+		while( (idInBlock<blocksize) && (pos<block.size())) {
+			pos += VByte.decode(block, pos, delta);
+			slen = (int) ByteStringUtil.strlen(block, pos);
+			tempString.replace(delta.getValue().intValue(), block, pos, slen);
+			if(tempString.compareTo(str)>=0) {
+				break;
+			}
+			pos+=slen+1;
+			idInBlock++;
+		}
+		return (blocknum*blocksize)+idInBlock+1;
+	}
+
+	/* (non-Javadoc)
+	 * @see hdt.dictionary.DictionarySection#locatePrefixRange(java.lang.CharSequence)
+	 */
+	@Override
+	public long[] locatePrefixRange(CharSequence prefix) {
+		ByteString bprefix = ByteString.of(prefix);
+		long first = locateLowerBound(bprefix);
+		long last = locateLowerBound(ByteStringUtil.prefixUpperBound(bprefix)) - 1;
+		return new long[] {first, last};
+	}
+
 	/* (non-Javadoc)
 	 * @see hdt.dictionary.DictionarySection#extract(int)
 	 */
 	@Override
 	public CharSequence extract(long id) {
+		ReplazableString tempString = new ReplazableString();
+		if (!extract(id, tempString)) {
+			return null;
+		}
+		return new CompactString(tempString).getDelayed();
+	}
+
+	@Override
+	public boolean extract(long id, ReplazableString tempString) {
 		
 		if(id<1 || id>numstrings) {
-			return null;
+			return false;
 		}
 		
 		// Locate block
@@ -358,8 +423,7 @@ public class PFCDictionarySectionBig implements DictionarySectionPrivate {
  		int len = (int) ByteStringUtil.strlen(block, pos);
 		
 		Mutable<Long> delta = new Mutable<>(0L);
-		ReplazableString tempString = new ReplazableString();
-		tempString.append(block, pos, len);
+		tempString.replace(0, block, pos, len);
 		
 		// Copy strings until we find our's.
 		for(long i=0;i<nstring;i++) {
@@ -368,7 +432,7 @@ public class PFCDictionarySectionBig implements DictionarySectionPrivate {
 			len = (int) ByteStringUtil.strlen(block, pos);
 			tempString.replace(delta.getValue().intValue(), block, pos, len);
 		}
-		return new CompactString(tempString).getDelayed();
+		return true;
 	}
 
 	/* (non-Javadoc)
@@ -256,18 +256,81 @@ public class PFCDictionarySectionMap implements DictionarySectionPrivate,Closeab
 			return 0;
 		}
 	}
-	
+
+	/**
+	 * Find the ID of the first string greater or equal to str.
+	 * @return the ID, numstrings+1 if all the strings are smaller
+	 */
+	protected long locateLowerBound(ByteString str) {
+		long blocknum = locateBlock(str);
+		if(blocknum>=0) {
+			// Located exactly
+			return (blocknum*blocksize)+1;
+		}
+		blocknum = -blocknum-2;
+		if(blocknum<0) {
+			// Before the first string
+			return 1;
+		}
+
+		// The first string of the block is smaller, skip the others until str
+		ReplazableString tempString = new ReplazableString();
+		long idInBlock = 1;
+
+		BigMappedByteBuffer buffer = buffers[(int) (blocknum/BLOCKS_PER_BYTEBUFFER)].duplicate();
+		buffer.position(blocks.get(blocknum)-posFirst[(int) (blocknum/BLOCKS_PER_BYTEBUFFER)]);
+
+		try {
+			tempString.replace(buffer, 0);
+
+			while( (idInBlock<blocksize) && buffer.hasRemaining()) {
+				long delta = VByte.decode(buffer);
+				tempString.replace(buffer, (int) delta);
+				if(tempString.compareTo(str)>=0) {
+					break;
+				}
+				idInBlock++;
+			}
+		} catch (IOException e) {
+			throw new RuntimeException("Can't read the block " + blocknum, e);
+		}
+		return (blocknum*blocksize)+idInBlock+1;
+	}
+
+	/* (non-Javadoc)
+	 * @see hdt.dictionary.DictionarySection#locatePrefixRange(java.lang.CharSequence)
+	 */
+	@Override
+	public long[] locatePrefixRange(CharSequence prefix) {
+		if(buffers==null || blocks==null) {
+			return new long[] {1, 0};
+		}
+		ByteString bprefix = ByteString.of(prefix);
+		long first = locateLowerBound(bprefix);
+		long last = locateLowerBound(ByteStringUtil.prefixUpperBound(bprefix)) - 1;
+		return new long[] {first, last};
+	}
+
 	/* (non-Javadoc)
 	 * @see hdt.dictionary.DictionarySection#extract(int)
 	 */
 	@Override
 	public CharSequence extract(long id) {
-		if(buffers==null || blocks==null) {
+		ReplazableString tempString = new ReplazableString();
+		if (!extract(id, tempString)) {
 			return null;
 		}
+		return new CompactString(tempString).getDelayed();
+	}
+
+	@Override
+	public boolean extract(long id, ReplazableString tempString) {
+		if(buffers==null || blocks==null) {
+			return false;
+		}
 		
 		if(id<1 || id>numstrings) {
-			return null;
+			return false;
 		}
 		
 		long block = (id-1)/blocksize;
@@ -275,7 +338,6 @@ public class PFCDictionarySectionMap implements DictionarySectionPrivate,Closeab
 		buffer.position(blocks.get(block)-posFirst[(int) (block/BLOCKS_PER_BYTEBUFFER)]);
 		
 		try {
-			ReplazableString tempString = new ReplazableString();
 			tempString.replace(buffer,0);
 
 			long stringid = (id-1)%blocksize;
@@ -283,10 +345,10 @@ public class PFCDictionarySectionMap implements DictionarySectionPrivate,Closeab
 				long delta = VByte.decode(buffer);
 				tempString.replace(buffer, (int) delta);
 			}
-			return new CompactString(tempString).getDelayed();
+			return true;
 		} catch (IOException e) {
 			log.error("Unexpected exception.", e);
-			return null;
+			return false;
 		}
 	}
 
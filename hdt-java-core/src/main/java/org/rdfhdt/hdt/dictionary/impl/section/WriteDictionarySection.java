@@ -14,6 +14,7 @@ import org.rdfhdt.hdt.util.crc.CRCOutputStream;
 import org.rdfhdt.hdt.util.io.CloseSuppressPath;
 import org.rdfhdt.hdt.util.io.CountOutputStream;
 import org.rdfhdt.hdt.util.io.IOUtil;
+import org.rdfhdt.hdt.util.jfr.DictionarySectionEvent;
 import org.rdfhdt.hdt.util.listener.ListenerUtil;
 import org.rdfhdt.hdt.util.string.ByteString;
 import org.rdfhdt.hdt.util.string.ByteStringUtil;
@@ -58,6 +59,8 @@ public class WriteDictionarySection implements DictionarySectionPrivate {
 	}
 
 	public void load(Iterator<? extends CharSequence> it, long count, ProgressListener plistener) {
+		DictionarySectionEvent event = new DictionarySectionEvent();
+		event.begin();
 		MultiThreadListener listener = ListenerUtil.multiThreadListener(plistener);
 		long block = count < 10 ? 1 : count / 10;
 		long currentCount = 0;
@@ -102,6 +105,7 @@ public class WriteDictionarySection implements DictionarySectionPrivate {
 		if (numberElements % 100_000 == 0) {
 			listener.notifyProgress(100, "Completed section filling");
 		}
+		event.finish(DictionarySectionEvent.OPERATION_BUILD, getClass().getSimpleName(), numberElements, byteoutSize);
 	}
 
 	@Override
@@ -1,5 +1,6 @@
 package org.rdfhdt.hdt.hdt;
 
+import org.apache.commons.io.input.CloseShieldInputStream;
 import org.rdfhdt.hdt.compact.bitmap.Bitmap;
 import org.rdfhdt.hdt.dictionary.impl.MultipleSectionDictionary;
 import org.rdfhdt.hdt.dictionary.impl.kcat.KCatImpl;
@@ -12,6 +13,7 @@ import org.rdfhdt.hdt.hdt.impl.HDTImpl;
 import org.rdfhdt.hdt.hdt.impl.TempHDTImporterOnePass;
 import org.rdfhdt.hdt.hdt.impl.TempHDTImporterTwoPass;
 import org.rdfhdt.hdt.hdt.impl.diskimport.CatTreeImpl;
+import org.rdfhdt.hdt.hdt.impl.diskimport.InputFingerprintIterator;
 import org.rdfhdt.hdt.hdt.writer.TripleWriterHDT;
 import org.rdfhdt.hdt.header.HeaderUtil;
 import org.rdfhdt.hdt.iterator.utils.FluxStopTripleStringIterator;
@@ -187,12 +189,11 @@ public class HDTManagerImpl extends HDTManager {
 
 	@Override
 	public HDT doGenerateHDT(InputStream fileStream, String baseURI, RDFNotation rdfNotation, CompressionType compressionType, HDTOptions hdtFormat, ProgressListener listener) throws IOException {
-		// uncompress the stream if required
-		fileStream = IOUtil.asUncompressed(fileStream, compressionType);
 		// create a parser for this rdf stream
 		RDFParserCallback parser = RDFParserFactory.getParserCallback(rdfNotation);
-		// read the stream as triples
-		try (PipedCopyIterator<TripleString> iterator = RDFParserFactory.readAsIterator(parser, fileStream, baseURI, true, rdfNotation)) {
+		// uncompress the stream if required, closed to stop the decompression thread, the caller closes fileStream
+		try (InputStream uncompressed = IOUtil.asUncompressed(CloseShieldInputStream.wrap(fileStream), compressionType);
+			 PipedCopyIterator<TripleString> iterator = RDFParserFactory.readAsIterator(parser, uncompressed, baseURI, true, rdfNotation)) {
 			return doGenerateHDT(iterator, baseURI, hdtFormat, listener);
 		}
 	}
@@ -248,20 +249,29 @@ public class HDTManagerImpl extends HDTManager {
 
 	@Override
 	public HDT doGenerateHDTDisk(String rdfFileName, String baseURI, RDFNotation rdfNotation, CompressionType compressionType, HDTOptions hdtFormat, ProgressListener listener) throws IOException, ParserException {
-		// read this file as stream, do not compress to allow the compressionType to be different from the file extension
-		try (InputStream stream = IOUtil.getFileInputStream(rdfFileName, false)) {
-			return doGenerateHDTDisk(stream, baseURI, rdfNotation, compressionType, hdtFormat, listener);
+		// read this file with the compressionType, it can be different from the file extension, the local files are
+		// decompressed in parallel when their format allows it
+		try (InputStream stream = IOUtil.getFileInputStream(rdfFileName, compressionType)) {
+			// the resumable generation checks the file identity
+			Path inputFile = hdtFormat.getBoolean(HDTOptionsKeys.LOADER_DISK_RESUMABLE_KEY) ? InputFingerprintIterator.localFile(rdfFileName) : null;
+			return doGenerateHDTDisk(stream, inputFile, baseURI, rdfNotation, CompressionType.NONE, hdtFormat, listener);
 		}
 	}
 
 	@Override
 	public HDT doGenerateHDTDisk(InputStream fileStream, String baseURI, RDFNotation rdfNotation, CompressionType compressionType, HDTOptions hdtFormat, ProgressListener listener) throws IOException, ParserException {
-		// uncompress the stream if required
-		fileStream = IOUtil.asUncompressed(fileStream, compressionType);
+		return doGenerateHDTDisk(fileStream, null, baseURI, rdfNotation, compressionType, hdtFormat, listener);
+	}
+
+	private HDT doGenerateHDTDisk(InputStream fileStream, Path inputFile, String baseURI, RDFNotation rdfNotation, CompressionType compressionType, HDTOptions hdtFormat, ProgressListener listener) throws IOException, ParserException {
 		// create a parser for this rdf stream
 		RDFParserCallback parser = RDFParserFactory.getParserCallback(rdfNotation, hdtFormat);
-		// read the stream as triples
-		try (PipedCopyIterator<TripleString> iterator = RDFParserFactory.readAsIterator(parser, fileStream, baseURI, true, rdfNotation)) {
+		// uncompress the stream if required, closed to stop the decompression thread, the caller closes fileStream
+		try (InputStream uncompressed = IOUtil.asUncompressed(CloseShieldInputStream.wrap(fileStream), compressionType);
+			 PipedCopyIterator<TripleString> iterator = RDFParserFactory.readAsIterator(parser, uncompressed, baseURI, true, rdfNotation)) {
+			if (inputFile != null) {
+				return doGenerateHDTDisk0(new InputFingerprintIterator(iterator, inputFile), true, baseURI, hdtFormat, listener);
+			}
 			return doGenerateHDTDisk0(iterator, true, baseURI, hdtFormat, listener);
 		}
 	}
@@ -369,14 +379,23 @@ public class HDTManagerImpl extends HDTManager {
 	@Override
 	protected HDT doHDTCatTree(RDFFluxStop fluxStop, HDTSupplier supplier, String filename, String baseURI, RDFNotation rdfNotation, HDTOptions hdtFormat, ProgressListener listener) throws IOException, ParserException {
 		try (InputStream is = IOUtil.getFileInputStream(filename)) {
-			return doHDTCatTree(fluxStop, supplier, is, baseURI, rdfNotation, hdtFormat, listener);
+			// the resumable generation checks the file identity
+			Path inputFile = hdtFormat.getBoolean(HDTOptionsKeys.LOADER_CATTREE_RESUMABLE_KEY) ? InputFingerprintIterator.localFile(filename) : null;
+			return doHDTCatTree(fluxStop, supplier, is, inputFile, baseURI, rdfNotation, hdtFormat, listener);
 		}
 	}
 
 	@Override
 	protected HDT doHDTCatTree(RDFFluxStop fluxStop, HDTSupplier supplier, InputStream stream, String baseURI, RDFNotation rdfNotation, HDTOptions hdtFormat, ProgressListener listener) throws IOException, ParserException {
+		return doHDTCatTree(fluxStop, supplier, stream, null, baseURI, rdfNotation, hdtFormat, listener);
+	}
+
+	private HDT doHDTCatTree(RDFFluxStop fluxStop, HDTSupplier supplier, InputStream stream, Path inputFile, String baseURI, RDFNotation rdfNotation, HDTOptions hdtFormat, ProgressListener listener) throws IOException, ParserException {
 		RDFParserCallback parser = RDFParserFactory.getParserCallback(rdfNotation, hdtFormat);
 		try (PipedCopyIterator<TripleString> iterator = RDFParserFactory.readAsIterator(parser, stream, baseURI, true, rdfNotation)) {
+			if (inputFile != null) {
+				return doHDTCatTree(fluxStop, supplier, new InputFingerprintIterator(iterator, inputFile), baseURI, hdtFormat, listener);
+			}
 			return doHDTCatTree(fluxStop, supplier, iterator, baseURI, hdtFormat, listener);
 		}
 	}
@@ -8,17 +8,27 @@ import org.rdfhdt.hdt.exceptions.ParserException;
 import org.rdfhdt.hdt.hdt.HDT;
 import org.rdfhdt.hdt.hdt.HDTManager;
 import org.rdfhdt.hdt.hdt.HDTVocabulary;
+import org.rdfhdt.hdt.hdt.impl.diskimport.ArrayCompressTripleMapper;
 import org.rdfhdt.hdt.hdt.impl.diskimport.CompressTripleMapper;
 import org.rdfhdt.hdt.hdt.impl.diskimport.CompressionResult;
+import org.rdfhdt.hdt.hdt.impl.diskimport.CompressionResultFile;
+import org.rdfhdt.hdt.hdt.impl.diskimport.InputFingerprintIterator;
 import org.rdfhdt.hdt.hdt.impl.diskimport.MapOnCallHDT;
+import org.rdfhdt.hdt.hdt.impl.diskimport.ResumeManifest;
+import org.rdfhdt.hdt.hdt.impl.diskimport.SectionCompressor;
+import org.rdfhdt.hdt.hdt.impl.diskimport.SortCompressTripleMapper;
 import org.rdfhdt.hdt.hdt.impl.diskimport.TripleCompressionResult;
+import org.rdfhdt.hdt.hdt.impl.diskimport.TripleCompressionResultFile;
 import org.rdfhdt.hdt.header.HeaderPrivate;
 import org.rdfhdt.hdt.iterator.utils.AsyncIteratorFetcher;
 import org.rdfhdt.hdt.listener.MultiThreadListener;
 import org.rdfhdt.hdt.listener.ProgressListener;
+import org.rdfhdt.hdt.options.ControlInfo;
+import org.rdfhdt.hdt.options.ControlInformation;
 import org.rdfhdt.hdt.options.HDTOptions;
 import org.rdfhdt.hdt.options.HDTOptionsKeys;
 import org.rdfhdt.hdt.triples.TempTriples;
+import org.rdfhdt.hdt.triples.TripleID;
 import org.rdfhdt.hdt.triples.TripleString;
 import org.rdfhdt.hdt.triples.TriplesPrivate;
 import org.rdfhdt.hdt.util.BitUtil;
@@ -26,6 +36,7 @@ import org.rdfhdt.hdt.util.Profiler;
 import org.rdfhdt.hdt.util.StringUtil;
 import org.rdfhdt.hdt.util.concurrent.ExceptionThread;
 import org.rdfhdt.hdt.util.concurrent.KWayMerger;
+import org.rdfhdt.hdt.util.concurrent.MemoryBudget;
 import org.rdfhdt.hdt.util.io.CloseSuppressPath;
 import org.rdfhdt.hdt.util.io.compress.MapCompressTripleMerger;
 import org.rdfhdt.hdt.util.io.compress.TripleGenerator;
@@ -34,6 +45,8 @@ import org.rdfhdt.hdt.util.listener.ListenerUtil;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Iterator;
@@ -55,13 +68,34 @@ public class HDTDiskImporter implements Closeable {
 	 * @return a theoretical maximum amount of memory the JVM will attempt to use
 	 */
 	static long getMaxChunkSize(int workers) {
-		return (long) (getAvailableMemory() * 0.85 / (1.5 * 3 * workers));
+		return (long) (getAvailableMemory() * 0.85 / (SectionCompressor.CHUNK_MEMORY_FACTOR * workers));
 	}
 
+	// resume manifest keys
+	private static final String RESUME_PHASE = "phase";
+	private static final String RESUME_PHASE_SECTIONS = "sections";
+	private static final String RESUME_PHASE_TRIPLES = "triples";
+	private static final String RESUME_SECTIONS = "sections.location";
+	private static final String RESUME_TRIPLES = "triples.location";
+	private static final String RESUME_TRIPLE_COUNT = "tripleCount";
+	private static final String RESUME_RAW_SIZE = "rawSize";
+	private static final String RESUME_DICTIONARY_TYPE = "dictionary.type";
+	private static final String RESUME_ORDER = "triples.order";
+	private static final String RESUME_COMPRESS_TEMP_FILES = "compressTempFiles";
+	private static final String RESUME_BASE_URI = "baseURI";
+	private static final String RESUME_CHUNK_SIZE = "chunkSize";
+	private static final String RESUME_INPUT = "input.fingerprint";
+	private static final String RESUME_INPUT_COUNT = "input.count";
+	private static final String RESUME_DICTIONARY_FILE = "dictionary.resume";
+
 	// configs
 	private final HDTOptions hdtFormat;
 	private final MultiThreadListener listener;
 	private final String compressMode;
+	private final String tripleMapperMode;
+	private final boolean compressTempFiles;
+	private final MemoryBudget memoryBudget;
+	private final boolean resumable;
 	private final String futureHDTLocation;
 	private final Path futureHDTLocationPath;
 	private final CloseSuppressPath basePath;
@@ -73,15 +107,23 @@ public class HDTDiskImporter implements Closeable {
 	private final boolean debugHDTBuilding;
 	private final Profiler profiler;
 	private final HDTBase<? extends HeaderPrivate, ? extends DictionaryPrivate, ? extends TriplesPrivate> hdt;
+	private final ResumeManifest manifest;
+	private final String baseURI;
 	private long rawSize;
+	// input of a resumable generation
+	private InputFingerprintIterator input;
+	// sections kept until the triples are checkpointed, resumable mode only
+	private CompressionResult sectionsResult;
 
 	// component status
 	private boolean dict = false;
 	private boolean header = false;
 	private boolean triples = false;
+	private boolean completed = false;
 
 	public HDTDiskImporter(HDTOptions hdtFormat, ProgressListener progressListener, String baseURI) throws IOException {
 		this.hdtFormat = hdtFormat;
+		this.baseURI = baseURI;
 		listener = ListenerUtil.multiThreadListener(progressListener);
 		// load config
 
@@ -90,6 +132,17 @@ public class HDTDiskImporter implements Closeable {
 				HDTOptionsKeys.LOADER_DISK_COMPRESSION_MODE_KEY,
 				HDTOptionsKeys.LOADER_DISK_COMPRESSION_MODE_VALUE_COMPLETE
 		); // see CompressionResult
+		// mapping of the triple ids between the dictionary and the triples
+		tripleMapperMode = hdtFormat.get(
+				HDTOptionsKeys.LOADER_DISK_TRIPLE_MAPPER_KEY,
+				HDTOptionsKeys.LOADER_DISK_TRIPLE_MAPPER_VALUE_ARRAY
+		);
+		// compress the temporary chunk files
+		compressTempFiles = hdtFormat.getBoolean(HDTOptionsKeys.LOADER_DISK_COMPRESS_TEMP_FILES_KEY);
+		// reserve the chunk memory from the budget shared by the JVM
+		memoryBudget = hdtFormat.getBoolean(HDTOptionsKeys.LOADER_DISK_MEMORY_BUDGET_KEY) ? MemoryBudget.getDefault() : null;
+		// keep the working directory and a manifest of the completed phases to resume the generation
+		resumable = hdtFormat.getBoolean(HDTOptionsKeys.LOADER_DISK_RESUMABLE_KEY);
 		// worker for compression tasks
 		workers = (int) hdtFormat.getInt(
 				HDTOptionsKeys.LOADER_DISK_COMPRESSION_WORKER_KEY,
@@ -102,7 +155,9 @@ public class HDTDiskImporter implements Closeable {
 		// maximum size of a chunk
 		chunkSize = hdtFormat.getInt(
 				HDTOptionsKeys.LOADER_DISK_CHUNK_SIZE_KEY,
-				() -> getMaxChunkSize(this.workers)
+				() -> memoryBudget == null
+						? getMaxChunkSize(this.workers)
+						: (long) (memoryBudget.getCapacity() / (SectionCompressor.CHUNK_MEMORY_FACTOR * this.workers))
 		);
 		if (chunkSize < 0) {
 			throw new IllegalArgumentException("Negative chunk size!");
@@ -142,11 +197,16 @@ public class HDTDiskImporter implements Closeable {
 		profiler = Profiler.createOrLoadSubSection("doGenerateHDTDisk", hdtFormat, true);
 		try {
 			if (baseNameOpt == null || baseNameOpt.isEmpty()) {
+				if (resumable) {
+					throw new IllegalArgumentException("A resumable generation requires a location, see " + HDTOptionsKeys.LOADER_DISK_LOCATION_KEY);
+				}
 				basePath = CloseSuppressPath.of(Files.createTempDirectory("hdt-java-generate-disk"));
 			} else {
-				basePath = CloseSuppressPath.of(baseNameOpt);
+				basePath = CloseSuppressPath.ofLocations(baseNameOpt, hdtFormat.get(HDTOptionsKeys.LOADER_DISK_STRIPE_LOCATIONS_KEY));
+			}
+			if (!resumable) {
+				basePath.closeWithDeleteRecurse();
 			}
-			basePath.closeWithDeleteRecurse();
 			mapHDT = futureHDTLocation != null && !futureHDTLocation.isEmpty();
 			// debug the build strategy
 			debugHDTBuilding = hdtFormat.getBoolean("debug.disk.build");
@@ -162,6 +222,20 @@ public class HDTDiskImporter implements Closeable {
 				hdt = new WriteHDTImpl(hdtFormat, basePath.resolve("maphdt"), bufferSize);
 			}
 			hdt.setBaseUri(baseURI);
+
+			if (resumable) {
+				manifest = ResumeManifest.of(basePath.getJavaPath());
+				// the checkpoints can't be used with another config
+				if (!manifest.matches(RESUME_DICTIONARY_TYPE, hdt.getDictionary().getType())
+						|| !manifest.matches(RESUME_ORDER, hdt.getTriples().getOrder())
+						|| !manifest.matches(RESUME_COMPRESS_TEMP_FILES, compressTempFiles)
+						|| !manifest.matches(RESUME_BASE_URI, baseURI)
+						|| !manifest.matches(RESUME_CHUNK_SIZE, getConfiguredChunkSize())) {
+					resetManifest(null);
+				}
+			} else {
+				manifest = null;
+			}
 		} catch (Throwable t) {
 			try {
 				throw t;
@@ -171,6 +245,80 @@ public class HDTDiskImporter implements Closeable {
 		}
 	}
 
+	/**
+	 * @return the chunk size of the config, null if computed from the available memory
+	 */
+	private String getConfiguredChunkSize() {
+		return hdtFormat.get(HDTOptionsKeys.LOADER_DISK_CHUNK_SIZE_KEY);
+	}
+
+	/**
+	 * drop the checkpoints of the manifest and write the current config
+	 *
+	 * @param input the fingerprint of the input, null if it isn't read yet
+	 * @throws IOException can't write the manifest
+	 */
+	private void resetManifest(String input) throws IOException {
+		manifest.clear();
+		manifest.set(RESUME_DICTIONARY_TYPE, hdt.getDictionary().getType())
+				.set(RESUME_ORDER, hdt.getTriples().getOrder())
+				.set(RESUME_COMPRESS_TEMP_FILES, compressTempFiles)
+				.set(RESUME_BASE_URI, baseURI)
+				.set(RESUME_CHUNK_SIZE, getConfiguredChunkSize());
+		if (input != null) {
+			manifest.set(RESUME_INPUT, input);
+		}
+		manifest.save();
+	}
+
+	/**
+	 * check the input of a resumable generation, the checkpoints of another input are dropped
+	 *
+	 * @param iterator the input
+	 * @return the iterator to read the input
+	 * @throws IOException can't write the manifest
+	 */
+	private Iterator<TripleString> checkInput(Iterator<TripleString> iterator) throws IOException {
+		if (manifest == null || iterator == input) {
+			return iterator;
+		}
+		if (iterator instanceof InputFingerprintIterator) {
+			// fingerprint of a file input
+			input = (InputFingerprintIterator) iterator;
+		} else {
+			input = new InputFingerprintIterator(iterator);
+		}
+		if (!manifest.matches(RESUME_INPUT, input.getFingerprint())) {
+			if (manifest.get(RESUME_INPUT) != null) {
+				listener.notifyProgress(0, "The input has changed, the checkpoints are dropped");
+			}
+			resetManifest(input.getFingerprint());
+		}
+		return input;
+	}
+
+	/**
+	 * check the triple count of an iterator input before reusing a checkpoint, the fingerprint of the first triples
+	 * can't show a change after them, the input is read until its end
+	 *
+	 * @throws IOException              can't write the manifest
+	 * @throws IllegalArgumentException if the count isn't the count of the checkpoint, the checkpoints are dropped
+	 */
+	private void checkInputCount() throws IOException {
+		if (input.isFileInput()) {
+			// the fingerprint contains the size and the modification time of the file
+			return;
+		}
+		listener.notifyProgress(0, "Read the input to check its size against the checkpoint");
+		long count = input.readAll();
+		String expected = manifest.get(RESUME_INPUT_COUNT);
+		if (!manifest.matches(RESUME_INPUT_COUNT, count)) {
+			resetManifest(input.getFingerprint());
+			throw new IllegalArgumentException("The input has " + count + " triples instead of " + expected
+					+ " when the checkpoints were created, the checkpoints are dropped, restart the generation");
+		}
+	}
+
 	/**
 	 * create the Dictonary of the HDT
 	 *
@@ -181,6 +329,7 @@ public class HDTDiskImporter implements Closeable {
 		if (this.dict) {
 			throw new IllegalArgumentException("Dictionary already built! Use another importer instance!");
 		}
+		iterator = checkInput(iterator);
 		listener.notifyProgress(0, "Sorting sections with chunk of size: " + StringUtil.humanReadableByteCount(chunkSize, true) + "B with " + ways + "ways and " + workers + " worker(s)");
 
 		AsyncIteratorFetcher<TripleString> source = new AsyncIteratorFetcher<>(iterator);
@@ -188,14 +337,20 @@ public class HDTDiskImporter implements Closeable {
 		profiler.pushSection("section compression");
 		CompressionResult compressionResult;
 		try {
-			compressionResult = DictionaryFactory.createSectionCompressor(
+			SectionCompressor compressor = DictionaryFactory.createSectionCompressor(
 					hdtFormat,
-					basePath.resolve("sectionCompression"),
+					basePath.resolve("sectionCompression").compressed(compressTempFiles),
 					source,
 					listener,
 					bufferSize,
 					chunkSize, 1 << ways,
-					hdtFormat.getBoolean("debug.disk.slow.stream2")).compress(workers, compressMode);
+					hdtFormat.getBoolean("debug.disk.slow.stream2"))
+					.withMemoryBudget(memoryBudget);
+			compressionResult = resumeSections(compressor);
+			if (compressionResult == null) {
+				compressionResult = compressor.compress(workers, compressMode);
+				checkpointSections(compressionResult);
+			}
 		} catch (KWayMerger.KWayMergerException | InterruptedException e) {
 			throw new ParserException(e);
 		}
@@ -207,7 +362,7 @@ public class HDTDiskImporter implements Closeable {
 		profiler.pushSection("dictionary write");
 		// create sections and triple mapping
 		DictionaryPrivate dictionary = hdt.getDictionary();
-		CompressTripleMapper mapper = new CompressTripleMapper(basePath, compressionResult.getTripleCount(), chunkSize);
+		CompressTripleMapper mapper = createTripleMapper(compressionResult.getTripleCount());
 		try (CompressFourSectionDictionary modifiableDictionary = new CompressFourSectionDictionary(compressionResult, mapper, listener, debugHDTBuilding)) {
 			dictionary.loadAsync(modifiableDictionary, listener);
 		} catch (InterruptedException e) {
@@ -216,7 +371,12 @@ public class HDTDiskImporter implements Closeable {
 		profiler.popSection();
 
 		// complete the mapper with the shared count and delete compression data
-		compressionResult.delete();
+		if (resumable) {
+			// keep the sections until the next checkpoint
+			sectionsResult = compressionResult;
+		} else {
+			compressionResult.delete();
+		}
 		rawSize = compressionResult.getRawSize();
 		mapper.setShared(dictionary.getNshared());
 
@@ -224,6 +384,18 @@ public class HDTDiskImporter implements Closeable {
 		return mapper;
 	}
 
+	private CompressTripleMapper createTripleMapper(long tripleCount) throws IOException {
+		switch (tripleMapperMode) {
+			case "":
+			case HDTOptionsKeys.LOADER_DISK_TRIPLE_MAPPER_VALUE_ARRAY:
+				return new ArrayCompressTripleMapper(basePath, tripleCount, chunkSize);
+			case HDTOptionsKeys.LOADER_DISK_TRIPLE_MAPPER_VALUE_SORT:
+				return new SortCompressTripleMapper(basePath.compressed(compressTempFiles), tripleCount, chunkSize, 1 << ways, bufferSize, memoryBudget);
+			default:
+				throw new IllegalArgumentException("Unknown triple mapper mode: " + tripleMapperMode);
+		}
+	}
+
 	/**
 	 * create the Triples of the HDT
 	 *
@@ -237,19 +409,30 @@ public class HDTDiskImporter implements Closeable {
 		listener.notifyProgress(40, "Create mapped and sort triple file");
 		// create mapped triples file
 		TripleCompressionResult tripleCompressionResult;
-		TriplesPrivate triples = hdt.getTriples();
-		TripleComponentOrder order = triples.getOrder();
+		TripleComponentOrder order = hdt.getTriples().getOrder();
 		profiler.pushSection("triple compression/map");
 		try {
+			AsyncIteratorFetcher<TripleID> source;
+			ArrayCompressTripleMapper workerMapper;
+			if (mapper instanceof ArrayCompressTripleMapper) {
+				// random reads in the map arrays, done by the workers in parallel
+				workerMapper = (ArrayCompressTripleMapper) mapper;
+				source = new AsyncIteratorFetcher<>(new TripleGenerator(mapper.getTripleCount()));
+			} else {
+				// sequential read of the sorted maps
+				workerMapper = null;
+				source = new AsyncIteratorFetcher<>(mapper.mapTriples().asIterator());
+			}
 			MapCompressTripleMerger tripleMapper = new MapCompressTripleMerger(
-					basePath.resolve("tripleMapper"),
-					new AsyncIteratorFetcher<>(new TripleGenerator(mapper.getTripleCount())),
-					mapper,
+					basePath.resolve("tripleMapper").compressed(compressTempFiles),
+					source,
 					listener,
 					order,
 					bufferSize,
 					chunkSize,
-					1 << ways);
+					1 << ways)
+					.withMemoryBudget(memoryBudget)
+					.withMapper(workerMapper);
 			tripleCompressionResult = tripleMapper.merge(workers, compressMode);
 		} catch (KWayMerger.KWayMergerException | InterruptedException e) {
 			throw new ParserException(e);
@@ -257,6 +440,22 @@ public class HDTDiskImporter implements Closeable {
 		profiler.popSection();
 		listener.unregisterAllThreads();
 
+		if (resumable) {
+			try {
+				checkpointTriples(tripleCompressionResult);
+			} catch (Throwable t) {
+				try {
+					throw t;
+				} finally {
+					tripleCompressionResult.close();
+				}
+			}
+		}
+
+		loadTriples(tripleCompressionResult, mapper);
+	}
+
+	private void loadTriples(TripleCompressionResult tripleCompressionResult, CompressTripleMapper mapper) throws IOException {
 		profiler.pushSection("bit triple creation");
 		try {
 			// create bit triples and load the triples
@@ -265,11 +464,13 @@ public class HDTDiskImporter implements Closeable {
 			il.setRange(80, 90);
 			il.setPrefix("Create bit triples: ");
 			il.notifyProgress(0, "create triples");
-			triples.load(tempTriples, il);
+			hdt.getTriples().load(tempTriples, il);
 			tempTriples.close();
 
 			// completed the triples, delete the mapper
-			mapper.delete();
+			if (mapper != null) {
+				mapper.delete();
+			}
 		} finally {
 			tripleCompressionResult.close();
 		}
@@ -278,6 +479,111 @@ public class HDTDiskImporter implements Closeable {
 		this.triples = true;
 	}
 
+	/**
+	 * write the sections checkpoint, only the complete compression mode can be resumed
+	 */
+	private void checkpointSections(CompressionResult compressionResult) throws IOException {
+		if (!resumable || !(compressionResult instanceof CompressionResultFile)) {
+			return;
+		}
+		CloseSuppressPath sections = ((CompressionResultFile) compressionResult).getSections().getRoot();
+		manifest.set(RESUME_PHASE, RESUME_PHASE_SECTIONS)
+				.set(RESUME_SECTIONS, sections.getJavaPath().toAbsolutePath())
+				.set(RESUME_INPUT_COUNT, input.getCount())
+				.set(RESUME_TRIPLE_COUNT, compressionResult.getTripleCount())
+				.set(RESUME_RAW_SIZE, compressionResult.getRawSize())
+				.save();
+	}
+
+	/**
+	 * open the sections of the checkpoint if any
+	 *
+	 * @return the sections, null if the generation can't be resumed from the sections
+	 */
+	private CompressionResult resumeSections(SectionCompressor compressor) throws IOException {
+		if (!resumable || !manifest.matches(RESUME_PHASE, RESUME_PHASE_SECTIONS)) {
+			return null;
+		}
+		Path sections = Path.of(manifest.get(RESUME_SECTIONS));
+		if (!Files.exists(sections.resolve("subject"))
+				|| !Files.exists(sections.resolve("predicate"))
+				|| !Files.exists(sections.resolve("object"))) {
+			listener.notifyProgress(0, "Missing sections checkpoint files, restart the generation");
+			manifest.remove(RESUME_PHASE).save();
+			return null;
+		}
+		checkInputCount();
+		listener.notifyProgress(10, "Resume from the sections checkpoint " + sections);
+		return compressor.openResult(
+				CloseSuppressPath.of(sections).compressed(compressTempFiles),
+				manifest.getLong(RESUME_TRIPLE_COUNT),
+				manifest.getLong(RESUME_RAW_SIZE)
+		);
+	}
+
+	/**
+	 * write the dictionary and the triples checkpoint, the dictionary of a mapped HDT can't be reloaded, so only the
+	 * in memory HDT with the complete compression mode can be resumed
+	 */
+	private void checkpointTriples(TripleCompressionResult tripleCompressionResult) throws IOException {
+		if (!mapHDT && tripleCompressionResult instanceof TripleCompressionResultFile) {
+			profiler.pushSection("triples checkpoint");
+			try (OutputStream os = basePath.resolve(RESUME_DICTIONARY_FILE).openOutputStream(bufferSize)) {
+				hdt.getDictionary().save(os, new ControlInformation(), listener);
+			}
+			CloseSuppressPath triplesPath = ((TripleCompressionResultFile) tripleCompressionResult).keepFile().getTriplesPath();
+			manifest.set(RESUME_PHASE, RESUME_PHASE_TRIPLES)
+					.set(RESUME_TRIPLES, triplesPath.getJavaPath().toAbsolutePath())
+					.set(RESUME_TRIPLE_COUNT, tripleCompressionResult.getTripleCount())
+					.set(RESUME_RAW_SIZE, rawSize)
+					.remove(RESUME_SECTIONS)
+					.save();
+			profiler.popSection();
+		}
+		// the sections aren't required anymore
+		if (sectionsResult != null) {
+			sectionsResult.delete();
+			sectionsResult = null;
+		}
+	}
+
+	/**
+	 * load the dictionary and the triples of the checkpoint if any
+	 *
+	 * @return if the dictionary and the triples were loaded
+	 */
+	private boolean resumeTriples() throws IOException {
+		if (!resumable || !manifest.matches(RESUME_PHASE, RESUME_PHASE_TRIPLES)) {
+			return false;
+		}
+		CloseSuppressPath dictionaryPath = basePath.resolve(RESUME_DICTIONARY_FILE);
+		Path triplesPath = Path.of(manifest.get(RESUME_TRIPLES));
+		if (!Files.exists(dictionaryPath) || !Files.exists(triplesPath)) {
+			listener.notifyProgress(0, "Missing triples checkpoint files, restart the generation");
+			manifest.remove(RESUME_PHASE).save();
+			return false;
+		}
+		checkInputCount();
+		listener.notifyProgress(40, "Resume from the triples checkpoint " + triplesPath);
+		profiler.pushSection("dictionary resume");
+		try (InputStream is = dictionaryPath.openInputStream(bufferSize)) {
+			ControlInfo ci = new ControlInformation();
+			ci.load(is);
+			hdt.getDictionary().load(is, ci, listener);
+		}
+		profiler.popSection();
+		rawSize = manifest.getLong(RESUME_RAW_SIZE);
+		this.dict = true;
+
+		loadTriples(new TripleCompressionResultFile(
+				manifest.getLong(RESUME_TRIPLE_COUNT),
+				CloseSuppressPath.of(triplesPath).compressed(compressTempFiles),
+				hdt.getTriples().getOrder(),
+				bufferSize
+		).keepFile(), null);
+		return true;
+	}
+
 	/**
 	 * create the Header of the HDT
 	 *
@@ -316,6 +622,11 @@ public class HDTDiskImporter implements Closeable {
 		if (!this.header) {
 			throw new IllegalArgumentException("Header missing, can't create HDT");
 		}
+		// the working directory can be deleted
+		completed = true;
+		if (resumable) {
+			basePath.closeWithDeleteRecurse();
+		}
 		// return the HDT
 		if (mapHDT) {
 			profiler.pushSection("map to hdt");
@@ -350,9 +661,12 @@ public class HDTDiskImporter implements Closeable {
 	 * @throws java.lang.IllegalArgumentException is a component is missing
 	 */
 	public HDT runAllSteps(Iterator<TripleString> iterator) throws IOException, ParserException {
-		// compress the triples into sections and compressed triples
-		CompressTripleMapper mapper = compressDictionary(iterator);
-		compressTriples(mapper);
+		iterator = checkInput(iterator);
+		// resume from the triples checkpoint or compress the triples into sections and compressed triples
+		if (!resumeTriples()) {
+			CompressTripleMapper mapper = compressDictionary(iterator);
+			compressTriples(mapper);
+		}
 		createHeader();
 
 		return convertToHDT();
@@ -366,7 +680,10 @@ public class HDTDiskImporter implements Closeable {
 			listener.notifyProgress(100, "Clearing disk");
 		} finally {
 			try {
-				basePath.close();
+				// keep the working directory of an uncompleted resumable generation
+				if (!resumable || completed) {
+					basePath.close();
+				}
 			} finally {
 				profiler.close();
 			}
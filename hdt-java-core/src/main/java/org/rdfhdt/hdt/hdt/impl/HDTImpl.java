@@ -37,12 +37,15 @@ import org.rdfhdt.hdt.dictionary.DictionaryFactory;
 import org.rdfhdt.hdt.dictionary.DictionaryPrivate;
 import org.rdfhdt.hdt.dictionary.DictionarySection;
 import org.rdfhdt.hdt.dictionary.TempDictionary;
+import org.rdfhdt.hdt.dictionary.impl.DictionaryBloomFilters;
 import org.rdfhdt.hdt.dictionary.impl.FourSectionDictionary;
 import org.rdfhdt.hdt.dictionary.impl.FourSectionDictionaryBig;
 import org.rdfhdt.hdt.dictionary.impl.FourSectionDictionaryCat;
 import org.rdfhdt.hdt.dictionary.impl.MultipleSectionDictionary;
 import org.rdfhdt.hdt.dictionary.impl.MultipleSectionDictionaryBig;
 import org.rdfhdt.hdt.dictionary.impl.MultipleSectionDictionaryCat;
+import org.rdfhdt.hdt.dictionary.impl.section.PFCDictionarySectionMap;
+import org.rdfhdt.hdt.enums.CompressionType;
 import org.rdfhdt.hdt.enums.ResultEstimationType;
 import org.rdfhdt.hdt.enums.TripleComponentRole;
 import org.rdfhdt.hdt.exceptions.IllegalFormatException;
@@ -79,8 +82,12 @@ import org.rdfhdt.hdt.triples.impl.BitmapTriplesIteratorMapDiff;
 import org.rdfhdt.hdt.util.LiteralsUtils;
 import org.rdfhdt.hdt.util.Profiler;
 import org.rdfhdt.hdt.util.StopWatch;
+import org.rdfhdt.hdt.util.concurrent.ExceptionThread;
+import org.rdfhdt.hdt.util.concurrent.SyncListener;
 import org.rdfhdt.hdt.util.io.CountInputStream;
 import org.rdfhdt.hdt.util.io.IOUtil;
+import org.rdfhdt.hdt.util.io.ParallelDecompressInputStream;
+import org.rdfhdt.hdt.util.jfr.HDTSectionLoadEvent;
 import org.rdfhdt.hdt.util.listener.IntermediateListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -95,9 +102,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Map;
-import java.util.zip.GZIPInputStream;
 
 /**
  * Basic implementation of HDT interface
@@ -133,28 +140,37 @@ public class HDTImpl extends HDTBase<HeaderPrivate, DictionaryPrivate, TriplesPr
 		}
 
 		// Load header
+		HDTSectionLoadEvent event = new HDTSectionLoadEvent();
+		event.begin();
 		ci.clear();
 		ci.load(input);
 		iListener.setRange(0, 5);
 		header = HeaderFactory.createHeader(ci);
 		header.load(input, ci, iListener);
+		event.finish(HDTSectionLoadEvent.OPERATION_LOAD, "header", null);
 
 		// Set base URI.
 		this.baseUri = header.getBaseURI().toString();
 
 		// Load dictionary
+		event = new HDTSectionLoadEvent();
+		event.begin();
 		ci.clear();
 		ci.load(input);
 		iListener.setRange(5, 60);
-		dictionary = DictionaryFactory.createDictionary(ci);
+		dictionary = DictionaryFactory.createDictionary(ci, spec);
 		dictionary.load(input, ci, iListener);
+		event.finish(HDTSectionLoadEvent.OPERATION_LOAD, "dictionary", null);
 
 		// Load Triples
+		event = new HDTSectionLoadEvent();
+		event.begin();
 		ci.clear();
 		ci.load(input);
 		iListener.setRange(60, 100);
 		triples = TriplesFactory.createTriples(ci);
 		triples.load(input, ci, iListener);
+		event.finish(HDTSectionLoadEvent.OPERATION_LOAD, "triples", null);
 		
 		isClosed=false;
 	}
@@ -163,7 +179,7 @@ public class HDTImpl extends HDTBase<HeaderPrivate, DictionaryPrivate, TriplesPr
 	public void loadFromHDT(String hdtFileName, ProgressListener listener)	throws IOException {
 		InputStream in;
 		if(hdtFileName.endsWith(".gz")) {
-			in = new BufferedInputStream(new GZIPInputStream(new FileInputStream(hdtFileName)));
+			in = new BufferedInputStream(ParallelDecompressInputStream.open(Path.of(hdtFileName), CompressionType.GZIP));
 		} else {
 			in = new CountInputStream(new BufferedInputStream(new FileInputStream(hdtFileName)));
 		}
@@ -171,6 +187,7 @@ public class HDTImpl extends HDTBase<HeaderPrivate, DictionaryPrivate, TriplesPr
 		in.close();
 
 		this.hdtFileName = hdtFileName;
+		loadOrCreateBloomFilters(listener);
 		
 		isClosed=false;
 	}
@@ -195,6 +212,13 @@ public class HDTImpl extends HDTBase<HeaderPrivate, DictionaryPrivate, TriplesPr
 			}
 		}
 
+		boolean useToc = spec.getBoolean(HDTOptionsKeys.LOAD_HDT_TOC_KEY, false);
+		if (useToc && mapFromTableOfContents(f, listener)) {
+			loadOrCreateBloomFilters(listener);
+			isClosed=false;
+			return;
+		}
+
 		input = new CountInputStream(new BufferedInputStream(new FileInputStream(hdtFileName)));
 
 		ControlInfo ci = new ControlInformation();
@@ -209,11 +233,15 @@ public class HDTImpl extends HDTBase<HeaderPrivate, DictionaryPrivate, TriplesPr
 		}
 
 		// Load header
+		long headerOffset = input.getTotalBytes();
+		HDTSectionLoadEvent event = new HDTSectionLoadEvent();
+		event.begin();
 		ci.clear();
 		ci.load(input);
 		iListener.setRange(0, 5);
 		header = HeaderFactory.createHeader(ci);
 		header.load(input, ci, iListener);
+		event.finish(HDTSectionLoadEvent.OPERATION_LOAD, "header", f);
 
 		// Set base URI.
 		this.baseUri = header.getBaseURI().toString();
@@ -222,29 +250,165 @@ public class HDTImpl extends HDTBase<HeaderPrivate, DictionaryPrivate, TriplesPr
 		}
 
 		// Load dictionary
+		long dictionaryOffset = input.getTotalBytes();
+		event = new HDTSectionLoadEvent();
+		event.begin();
 		ci.clear();
 		input.mark(1024);
 		ci.load(input);
 		input.reset();
 		iListener.setRange(5, 60);
-		dictionary = DictionaryFactory.createDictionary(ci);
+		dictionary = DictionaryFactory.createDictionary(ci, spec);
 		dictionary.mapFromFile(input, f, iListener);
+		event.finish(HDTSectionLoadEvent.OPERATION_MAP, "dictionary", f);
 
 		// Load Triples
+		long triplesOffset = input.getTotalBytes();
+		event = new HDTSectionLoadEvent();
+		event.begin();
 		ci.clear();
 		input.mark(1024);
 		ci.load(input);
 		input.reset();
 		iListener.setRange(60, 100);
-		triples = TriplesFactory.createTriples(ci);
+		triples = TriplesFactory.createTriples(ci, spec);
 		triples.mapFromFile(input, f, iListener);
+		event.finish(HDTSectionLoadEvent.OPERATION_MAP, "triples", f);
+		long end = input.getTotalBytes();
 
 		// Close the file used to keep track of positions.
 		input.close();
+
+		if (useToc) {
+			try {
+				HDTTableOfContents toc = new HDTTableOfContents(f);
+				toc.addEntry(HDTTableOfContents.HEADER, headerOffset, dictionaryOffset - headerOffset);
+				toc.addEntry(HDTTableOfContents.DICTIONARY, dictionaryOffset, triplesOffset - dictionaryOffset);
+				toc.addEntry(HDTTableOfContents.TRIPLES, triplesOffset, end - triplesOffset);
+				toc.save(f);
+			} catch (IOException e) {
+				log.warn("Error writing the table of contents of {}", f, e);
+			}
+		}
+
+		loadOrCreateBloomFilters(listener);
 		
 		isClosed=false;
 	}
 
+	/**
+	 * Map the HDT parts from the offsets of its {@link HDTTableOfContents}, the dictionary and the triples are
+	 * mapped at the same time.
+	 *
+	 * @return false if the file has no valid table of contents, the HDT should be mapped with a sequential scan
+	 */
+	private boolean mapFromTableOfContents(File f, ProgressListener listener) throws IOException {
+		HDTTableOfContents toc;
+		try {
+			toc = HDTTableOfContents.load(f);
+		} catch (FileNotFoundException e) {
+			return false;
+		} catch (IOException | IllegalFormatException e) {
+			log.warn("Can't read the table of contents of {}, scanning the file", f, e);
+			return false;
+		}
+
+		ProgressListener syncListener = SyncListener.of(listener);
+		try {
+			HDTSectionLoadEvent headerEvent = new HDTSectionLoadEvent();
+			headerEvent.begin();
+			try (CountInputStream in = toc.open(f, HDTTableOfContents.HEADER)) {
+				ControlInfo ci = new ControlInformation();
+				ci.load(in);
+				header = HeaderFactory.createHeader(ci);
+				header.load(in, ci, new IntermediateListener(syncListener, 0, 5));
+			}
+			headerEvent.finish(HDTSectionLoadEvent.OPERATION_LOAD, "header", f);
+			this.baseUri = header.getBaseURI().toString();
+			if (baseUri.isEmpty()) {
+				log.error("Empty base uri!");
+			}
+
+			new ExceptionThread(() -> {
+				HDTSectionLoadEvent event = new HDTSectionLoadEvent();
+				event.begin();
+				try (CountInputStream in = toc.open(f, HDTTableOfContents.DICTIONARY)) {
+					ControlInfo ci = new ControlInformation();
+					in.mark(1024);
+					ci.load(in);
+					in.reset();
+					dictionary = DictionaryFactory.createDictionary(ci, spec);
+					dictionary.mapFromFile(in, f, new IntermediateListener(syncListener, 5, 60));
+				}
+				event.finish(HDTSectionLoadEvent.OPERATION_MAP, "dictionary", f);
+			}, "HDTMapDictionary").attach(new ExceptionThread(() -> {
+				HDTSectionLoadEvent event = new HDTSectionLoadEvent();
+				event.begin();
+				try (CountInputStream in = toc.open(f, HDTTableOfContents.TRIPLES)) {
+					ControlInfo ci = new ControlInformation();
+					in.mark(1024);
+					ci.load(in);
+					in.reset();
+					triples = TriplesFactory.createTriples(ci, spec);
+					triples.mapFromFile(in, f, new IntermediateListener(syncListener, 60, 100));
+				}
+				event.finish(HDTSectionLoadEvent.OPERATION_MAP, "triples", f);
+			}, "HDTMapTriples")).startAll().joinAndCrashIfRequired();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while mapping " + f, e);
+		} catch (RuntimeException | IOException e) {
+			log.warn("Can't map {} with its table of contents, scanning the file", f, e);
+			IOUtil.closeQuietly(dictionary);
+			IOUtil.closeQuietly(triples);
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Load the bloom filters of the dictionary from the {@link DictionaryBloomFilters#FILE_SUFFIX} file of the HDT,
+	 * or create and save them if the file doesn't exist or is invalid. Only done if
+	 * {@link HDTOptionsKeys#DICTIONARY_BLOOM_FILTER_KEY} is set.
+	 */
+	private void loadOrCreateBloomFilters(ProgressListener listener) {
+		if (!spec.getBoolean(HDTOptionsKeys.DICTIONARY_BLOOM_FILTER_KEY, false)) {
+			return;
+		}
+		if (!DictionaryBloomFilters.isSupported(dictionary)) {
+			log.warn("Bloom filters aren't supported by the dictionary {}", dictionary.getType());
+			return;
+		}
+		File hdtFile = new File(hdtFileName);
+		String filtersName = hdtFileName + DictionaryBloomFilters.FILE_SUFFIX;
+		try (InputStream in = new BufferedInputStream(new FileInputStream(filtersName))) {
+			dictionary.setBloomFilters(DictionaryBloomFilters.load(in, dictionary, hdtFile));
+			return;
+		} catch (FileNotFoundException e) {
+			// no filters, create them
+		} catch (IOException | IllegalFormatException e) {
+			log.warn("Error reading {}, generating new bloom filters", filtersName, e);
+			// don't keep stale filters if the new ones can't be written
+			try {
+				Files.deleteIfExists(Path.of(filtersName));
+			} catch (IOException e2) {
+				log.warn("Can't delete the bloom filters file {}", filtersName, e2);
+			}
+		}
+
+		StopWatch st = new StopWatch();
+		double fpp = spec.getDouble(HDTOptionsKeys.DICTIONARY_BLOOM_FILTER_FPP_KEY, 0.01);
+		DictionaryBloomFilters filters = DictionaryBloomFilters.create(dictionary, fpp, listener);
+		dictionary.setBloomFilters(filters);
+
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(filtersName))) {
+			filters.save(out, hdtFile);
+			log.info("Bloom filters generated and saved in {}", st.stopAndShow());
+		} catch (IOException e) {
+			log.warn("Error writing bloom filters file {}", filtersName, e);
+		}
+	}
+
 	/*
 	 * (non-Javadoc)
 	 *
@@ -304,7 +468,7 @@ public class HDTImpl extends HDTBase<HeaderPrivate, DictionaryPrivate, TriplesPr
 			};
 		}
 
-		if(isMapped) {
+		if(isMapped && isDictionaryMapped()) {
 			try {
 				if(dictionary instanceof MultipleSectionDictionary){
 					return new DictionaryTranslateIteratorBuffer(triples.search(triple), (MultipleSectionDictionary) dictionary, subject, predicate, object);
@@ -466,6 +630,27 @@ public class HDTImpl extends HDTBase<HeaderPrivate, DictionaryPrivate, TriplesPr
 		return isClosed;
 	}
 
+	/**
+	 * @return if all the sections of the dictionary are mapped, the buffered translate iterator can't read the
+	 * sections loaded in memory with the {@link HDTOptionsKeys#LOAD_HDT_RESIDENCY_SHARED_KEY} keys
+	 */
+	private boolean isDictionaryMapped() {
+		if (!(dictionary.getShared() instanceof PFCDictionarySectionMap)
+				|| !(dictionary.getSubjects() instanceof PFCDictionarySectionMap)
+				|| !(dictionary.getPredicates() instanceof PFCDictionarySectionMap)) {
+			return false;
+		}
+		if (dictionary instanceof MultipleSectionDictionary) {
+			for (DictionarySection section : dictionary.getAllObjects().values()) {
+				if (!(section instanceof PFCDictionarySectionMap)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		return dictionary.getObjects() instanceof PFCDictionarySectionMap;
+	}
+
 	public boolean isMapped() {
 		return isMapped;
 	}
@@ -0,0 +1,207 @@
+package org.rdfhdt.hdt.hdt.impl;
+
+import org.rdfhdt.hdt.compact.integer.VByte;
+import org.rdfhdt.hdt.exceptions.CRCException;
+import org.rdfhdt.hdt.exceptions.IllegalFormatException;
+import org.rdfhdt.hdt.util.crc.CRC32;
+import org.rdfhdt.hdt.util.crc.CRCInputStream;
+import org.rdfhdt.hdt.util.crc.CRCOutputStream;
+import org.rdfhdt.hdt.util.io.CountInputStream;
+import org.rdfhdt.hdt.util.io.IOUtil;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Table of contents of an HDT file, the offset and the length of each part of the file (header, dictionary and
+ * triples), stored in a sidecar file next to the HDT.
+ * <p>
+ * It is written after a first sequential scan of the file and allows {@link HDTImpl#mapFromHDT(File, long,
+ * org.rdfhdt.hdt.listener.ProgressListener)} to open each part directly from its offset and in parallel. The size
+ * and the modification time of the HDT file are stored to detect a table of another version of the file.
+ *
+ * @see org.rdfhdt.hdt.options.HDTOptionsKeys#LOAD_HDT_TOC_KEY
+ */
+public class HDTTableOfContents {
+	/**
+	 * suffix of the table of contents file of an HDT file
+	 */
+	public static final String FILE_SUFFIX = ".toc";
+	/**
+	 * header part, from its control information
+	 */
+	public static final String HEADER = "header";
+	/**
+	 * dictionary part, from its control information
+	 */
+	public static final String DICTIONARY = "dictionary";
+	/**
+	 * triples part, from its control information
+	 */
+	public static final String TRIPLES = "triples";
+	private static final byte[] MAGIC = "$TOC".getBytes(StandardCharsets.US_ASCII);
+
+	/**
+	 * @param hdtFile the HDT file
+	 * @return the table of contents file of an HDT file
+	 */
+	public static File getFile(File hdtFile) {
+		return new File(hdtFile.getPath() + FILE_SUFFIX);
+	}
+
+	/**
+	 * load the table of contents of an HDT file
+	 *
+	 * @param hdtFile the HDT file
+	 * @return table of contents
+	 * @throws IOException            read exception or no table of contents
+	 * @throws IllegalFormatException if the table of contents wasn't created for this version of the file
+	 */
+	public static HDTTableOfContents load(File hdtFile) throws IOException {
+		try (InputStream input = new BufferedInputStream(new FileInputStream(getFile(hdtFile)))) {
+			CRCInputStream in = new CRCInputStream(input, new CRC32());
+			byte[] magic = IOUtil.readBuffer(in, MAGIC.length, null);
+			if (!Arrays.equals(magic, MAGIC)) {
+				throw new IllegalFormatException("Trying to read a table of contents but the data is not a table of contents");
+			}
+			HDTTableOfContents toc = new HDTTableOfContents(VByte.decode(in), VByte.decode(in));
+			long numEntries = VByte.decode(in);
+			for (long i = 0; i < numEntries; i++) {
+				String name = new String(IOUtil.readSizedBuffer(in, null), StandardCharsets.UTF_8);
+				toc.addEntry(name, VByte.decode(in), VByte.decode(in));
+			}
+			if (!in.readCRCAndCheck()) {
+				throw new CRCException("CRC Error while reading the table of contents.");
+			}
+			if (!toc.isValidFor(hdtFile)) {
+				throw new IllegalFormatException("The table of contents wasn't created for this version of " + hdtFile);
+			}
+			return toc;
+		}
+	}
+
+	private final long fileSize;
+	private final long lastModified;
+	// name -> {offset, length}
+	private final Map<String, long[]> entries = new LinkedHashMap<>();
+
+	/**
+	 * create an empty table of contents for the current version of an HDT file
+	 *
+	 * @param hdtFile the HDT file
+	 */
+	public HDTTableOfContents(File hdtFile) {
+		this(hdtFile.length(), hdtFile.lastModified());
+	}
+
+	private HDTTableOfContents(long fileSize, long lastModified) {
+		this.fileSize = fileSize;
+		this.lastModified = lastModified;
+	}
+
+	/**
+	 * @param hdtFile the HDT file
+	 * @return if this table of contents was created for the current version of the file
+	 */
+	public boolean isValidFor(File hdtFile) {
+		return hdtFile.length() == fileSize && hdtFile.lastModified() == lastModified;
+	}
+
+	/**
+	 * add a part of the file
+	 *
+	 * @param name   name of the part
+	 * @param offset offset of the part in the file
+	 * @param length length of the part in bytes
+	 */
+	public void addEntry(String name, long offset, long length) {
+		if (offset < 0 || length < 0 || offset + length > fileSize) {
+			throw new IllegalFormatException("Bad table of contents entry " + name + " [" + offset + ", " + length + "]");
+		}
+		entries.put(name, new long[]{offset, length});
+	}
+
+	/**
+	 * @param name name of the part
+	 * @return if the table contains this part
+	 */
+	public boolean hasEntry(String name) {
+		return entries.containsKey(name);
+	}
+
+	private long[] getEntry(String name) {
+		long[] entry = entries.get(name);
+		if (entry == null) {
+			throw new IllegalArgumentException("No entry " + name + " in the table of contents");
+		}
+		return entry;
+	}
+
+	/**
+	 * @param name name of the part
+	 * @return offset of the part in the file
+	 */
+	public long getOffset(String name) {
+		return getEntry(name)[0];
+	}
+
+	/**
+	 * @param name name of the part
+	 * @return length of the part in bytes
+	 */
+	public long getLength(String name) {
+		return getEntry(name)[1];
+	}
+
+	/**
+	 * open a stream of the HDT file starting at a part, the {@link CountInputStream#getTotalBytes()} of the stream
+	 * is the offset in the file, as required by the mapped sections
+	 *
+	 * @param hdtFile the HDT file
+	 * @param name    name of the part
+	 * @return stream
+	 * @throws IOException can't open or skip the file
+	 */
+	public CountInputStream open(File hdtFile, String name) throws IOException {
+		CountInputStream in = new CountInputStream(new BufferedInputStream(new FileInputStream(hdtFile)));
+		try {
+			IOUtil.skip(in, getOffset(name));
+		} catch (Throwable t) {
+			IOUtil.closeQuietly(in);
+			throw t;
+		}
+		return in;
+	}
+
+	/**
+	 * save the table of contents next to the HDT file
+	 *
+	 * @param hdtFile the HDT file
+	 * @throws IOException write exception
+	 */
+	public void save(File hdtFile) throws IOException {
+		try (OutputStream output = new BufferedOutputStream(new FileOutputStream(getFile(hdtFile)))) {
+			CRCOutputStream out = new CRCOutputStream(output, new CRC32());
+			out.write(MAGIC);
+			VByte.encode(out, fileSize);
+			VByte.encode(out, lastModified);
+			VByte.encode(out, entries.size());
+			for (Map.Entry<String, long[]> e : entries.entrySet()) {
+				IOUtil.writeSizedBuffer(out, e.getKey().getBytes(StandardCharsets.UTF_8), null);
+				VByte.encode(out, e.getValue()[0]);
+				VByte.encode(out, e.getValue()[1]);
+			}
+			out.writeCRC();
+		}
+	}
+}
@@ -0,0 +1,422 @@
+package org.rdfhdt.hdt.hdt.impl;
+
+import org.rdfhdt.hdt.dictionary.Dictionary;
+import org.rdfhdt.hdt.enums.ResultEstimationType;
+import org.rdfhdt.hdt.enums.TripleComponentRole;
+import org.rdfhdt.hdt.exceptions.NotFoundException;
+import org.rdfhdt.hdt.exceptions.NotImplementedException;
+import org.rdfhdt.hdt.hdt.HDT;
+import org.rdfhdt.hdt.hdt.HDTManager;
+import org.rdfhdt.hdt.iterator.utils.PipedCopyIterator;
+import org.rdfhdt.hdt.options.HDTOptions;
+import org.rdfhdt.hdt.options.HDTOptionsKeys;
+import org.rdfhdt.hdt.rdf.RDFAccess;
+import org.rdfhdt.hdt.triples.IteratorTripleString;
+import org.rdfhdt.hdt.triples.TripleID;
+import org.rdfhdt.hdt.triples.TripleString;
+import org.rdfhdt.hdt.util.io.IOUtil;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Union of several HDT files searched as one RDF graph.
+ * <p>
+ * Each file keeps the set of its predicates and uses the bloom filters of its dictionary if they are enabled with
+ * {@link HDTOptionsKeys#DICTIONARY_BLOOM_FILTER_KEY}, a pattern is only sent to the files able to match it. The
+ * results are deduplicated, a triple is returned by the first file containing it.
+ * <p>
+ * The matching files are read and deduplicated in parallel by batches of {@link #BATCH_SIZE} triples on a thread pool
+ * ({@link HDTOptionsKeys#MULTI_HDT_THREADS_KEY}), ahead of the consumer of the iterator. A batch task never waits for
+ * the consumer and a batch not started by the pool is read by the consumer, so an iterator doesn't need to be
+ * closed and the searches can be nested.
+ */
+public class MultiHDT implements RDFAccess, Closeable {
+	/**
+	 * number of triples read from a file by a batch task
+	 */
+	public static final int BATCH_SIZE = 1024;
+
+	private static class Member {
+		private final HDT hdt;
+		// predicate -> id
+		private final Map<String, Long> predicates = new HashMap<>();
+
+		private Member(HDT hdt) {
+			this.hdt = hdt;
+			Dictionary dictionary = hdt.getDictionary();
+			Iterator<? extends CharSequence> it = dictionary.getPredicates().getSortedEntries();
+			while (it.hasNext()) {
+				CharSequence predicate = it.next();
+				predicates.put(predicate.toString(), dictionary.stringToId(predicate, TripleComponentRole.PREDICATE));
+			}
+		}
+
+		/**
+		 * @return false if this file can't contain a triple matching the pattern
+		 */
+		private boolean mightMatch(CharSequence subject, CharSequence predicate, CharSequence object) {
+			if (!isEmpty(predicate) && !predicates.containsKey(predicate.toString())) {
+				return false;
+			}
+			Dictionary dictionary = hdt.getDictionary();
+			return (isEmpty(subject) || dictionary.stringToId(subject, TripleComponentRole.SUBJECT) > 0)
+					&& (isEmpty(object) || dictionary.stringToId(object, TripleComponentRole.OBJECT) > 0);
+		}
+	}
+
+	private static boolean isEmpty(CharSequence seq) {
+		return seq == null || seq.length() == 0;
+	}
+
+	private final List<Member> members;
+	private final int threads;
+	private final ExecutorService executor;
+
+	/**
+	 * map HDT files into a union
+	 *
+	 * @param files the HDT files, the order is used to select the file returning a duplicated triple
+	 * @param spec  options to map the files, {@link HDTOptionsKeys#MULTI_HDT_THREADS_KEY} for the number of read
+	 *              threads
+	 * @throws IOException can't map a file
+	 */
+	public MultiHDT(List<Path> files, HDTOptions spec) throws IOException {
+		spec = HDTOptions.ofNullable(spec);
+		List<Member> members = new ArrayList<>(files.size());
+		try {
+			for (Path file : files) {
+				members.add(new Member(HDTManager.mapHDT(file, null, spec)));
+			}
+		} catch (Throwable t) {
+			try {
+				IOUtil.closeAll(members.stream().map(m -> m.hdt).toArray(Closeable[]::new));
+			} catch (Throwable t2) {
+				t.addSuppressed(t2);
+			}
+			throw t;
+		}
+		this.members = Collections.unmodifiableList(members);
+
+		threads = (int) Math.max(1, spec.getInt(HDTOptionsKeys.MULTI_HDT_THREADS_KEY, Runtime.getRuntime()::availableProcessors));
+		AtomicInteger threadId = new AtomicInteger();
+		executor = Executors.newFixedThreadPool(threads, r -> {
+			Thread thread = new Thread(r, "MultiHDTRead-" + threadId.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * @return the number of HDT files
+	 */
+	public int getNumberOfFiles() {
+		return members.size();
+	}
+
+	/**
+	 * @param index file index
+	 * @return the HDT of a file
+	 */
+	public HDT getHDT(int index) {
+		return members.get(index).hdt;
+	}
+
+	/**
+	 * @param subject   subject or "" for any
+	 * @param predicate predicate or "" for any
+	 * @param object    object or "" for any
+	 * @return the indexes of the files that can contain triples matching the pattern
+	 */
+	public List<Integer> getCandidates(CharSequence subject, CharSequence predicate, CharSequence object) {
+		List<Integer> candidates = new ArrayList<>();
+		for (int i = 0; i < members.size(); i++) {
+			if (members.get(i).mightMatch(subject, predicate, object)) {
+				candidates.add(i);
+			}
+		}
+		return candidates;
+	}
+
+	@Override
+	public IteratorTripleString search(CharSequence subject, CharSequence predicate, CharSequence object) throws NotFoundException {
+		List<Integer> candidates = getCandidates(subject, predicate, object);
+		if (candidates.size() == 1) {
+			// no duplicate, no thread
+			return members.get(candidates.get(0)).hdt.search(subject, predicate, object);
+		}
+		return new UnionIterator(candidates, subject, predicate, object);
+	}
+
+	@Override
+	public void close() throws IOException {
+		// the pending batches are read by the consumers
+		executor.shutdownNow();
+		IOUtil.closeAll(members.stream().map(m -> m.hdt).toArray(Closeable[]::new));
+	}
+
+	/**
+	 * iterator returning the triples of the candidate files in the order of the files, the next files are read
+	 * ahead by the pool
+	 */
+	private class UnionIterator implements IteratorTripleString {
+		private final List<Integer> candidates;
+		private final CharSequence subject;
+		private final CharSequence predicate;
+		private final CharSequence object;
+		private FileReader[] readers;
+		private int index;
+		private List<TripleString> batch;
+		private int batchIndex;
+		private TripleString next;
+
+		private UnionIterator(List<Integer> candidates, CharSequence subject, CharSequence predicate, CharSequence object) {
+			this.candidates = candidates;
+			this.subject = subject;
+			this.predicate = predicate;
+			this.object = object;
+			start();
+		}
+
+		private void start() {
+			readers = new FileReader[candidates.size()];
+			index = 0;
+			batch = null;
+			next = null;
+			startReaders();
+		}
+
+		/**
+		 * start the readers of the current file and of the next files, one per thread
+		 */
+		private void startReaders() {
+			int end = Math.min(readers.length, index + threads);
+			for (int i = index; i < end; i++) {
+				if (readers[i] == null) {
+					readers[i] = new FileReader(i);
+					readers[i].prefetch();
+				}
+			}
+		}
+
+		private IteratorTripleString search(int candidate) {
+			try {
+				return members.get(candidates.get(candidate)).hdt.search(subject, predicate, object);
+			} catch (NotFoundException e) {
+				// a term isn't in this file
+				return null;
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (next != null) {
+				return true;
+			}
+			while (true) {
+				if (batch != null && batchIndex < batch.size()) {
+					next = batch.get(batchIndex++);
+					return true;
+				}
+				if (index == readers.length) {
+					return false;
+				}
+				FileReader reader = readers[index];
+				if (reader.isDone()) {
+					readers[index++] = null;
+					batch = null;
+					startReaders();
+					continue;
+				}
+				batch = reader.take();
+				batchIndex = 0;
+			}
+		}
+
+		@Override
+		public TripleString next() {
+			if (!hasNext()) {
+				return null;
+			}
+			TripleString triple = next;
+			next = null;
+			return triple;
+		}
+
+		@Override
+		public void goToStart() {
+			// new readers, the goToStart of the HDT iterators doesn't always reset the buffered triples, the batches
+			// of the previous readers are dropped
+			start();
+		}
+
+		@Override
+		public long estimatedNumResults() {
+			long count = 0;
+			for (int i = 0; i < candidates.size(); i++) {
+				IteratorTripleString it = search(i);
+				if (it != null) {
+					count += it.estimatedNumResults();
+				}
+			}
+			return count;
+		}
+
+		@Override
+		public ResultEstimationType numResultEstimation() {
+			// the duplicates are removed
+			return ResultEstimationType.UP_TO;
+		}
+
+		@Override
+		public long getLastTriplePosition() {
+			throw new NotImplementedException("getLastTriplePosition on a MultiHDT");
+		}
+
+		/**
+		 * reader of a candidate file, only one batch of the reader is read at the same time
+		 */
+		private class FileReader {
+			private final int candidate;
+			private final TripleID lookup = new TripleID();
+			// earlier candidates containing the last subject and the id of the subject in each of them
+			private final int[] owners;
+			private final long[] ownerSubjectIds;
+			private int numOwners;
+			private String lastSubject;
+			private IteratorTripleString it;
+			private boolean last;
+			private boolean done;
+			private FutureTask<List<TripleString>> pending;
+
+			private FileReader(int candidate) {
+				this.candidate = candidate;
+				owners = new int[candidate];
+				ownerSubjectIds = new long[candidate];
+			}
+
+			private void prefetch() {
+				pending = new FutureTask<>(this::readBatch);
+				try {
+					executor.execute(pending);
+				} catch (RejectedExecutionException e) {
+					// closed pool, read by the consumer
+				}
+			}
+
+			/**
+			 * @return true if all the batches were taken
+			 */
+			private boolean isDone() {
+				return done;
+			}
+
+			/**
+			 * @return the next batch, read by this thread if the pool didn't start it
+			 */
+			private List<TripleString> take() {
+				FutureTask<List<TripleString>> task = pending;
+				// no-op if the task was already started by the pool
+				task.run();
+				List<TripleString> triples;
+				try {
+					triples = task.get();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new PipedCopyIterator.PipedIteratorException("Interrupted while reading a file", e);
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof RuntimeException) {
+						throw (RuntimeException) cause;
+					}
+					if (cause instanceof Error) {
+						throw (Error) cause;
+					}
+					throw new PipedCopyIterator.PipedIteratorException("Can't read a file", cause);
+				}
+				// the fields written by the task are visible after get()
+				if (last) {
+					done = true;
+					pending = null;
+				} else {
+					prefetch();
+				}
+				return triples;
+			}
+
+			/**
+			 * read the next {@link #BATCH_SIZE} triples of the file and keep the ones not in an earlier candidate
+			 */
+			private List<TripleString> readBatch() {
+				List<TripleString> triples = new ArrayList<>();
+				if (it == null) {
+					it = search(candidate);
+					if (it == null) {
+						last = true;
+						return triples;
+					}
+				}
+				for (int i = 0; i < BATCH_SIZE && it.hasNext(); i++) {
+					TripleString triple = it.next();
+					if (isFirstOwner(triple)) {
+						triples.add(triple);
+					}
+				}
+				last = !it.hasNext();
+				return triples;
+			}
+
+			/**
+			 * @return true if the triple isn't in the candidate files before this one
+			 */
+			private boolean isFirstOwner(TripleString triple) {
+				if (candidate == 0) {
+					return true;
+				}
+				// the triples of a subject are returned together, the earlier candidates containing the subject
+				// are only searched when the subject changes
+				CharSequence tripleSubject = triple.getSubject();
+				if (lastSubject == null || !lastSubject.contentEquals(tripleSubject)) {
+					lastSubject = tripleSubject.toString();
+					numOwners = 0;
+					for (int i = 0; i < candidate; i++) {
+						long s = members.get(candidates.get(i)).hdt.getDictionary().stringToId(tripleSubject, TripleComponentRole.SUBJECT);
+						if (s > 0) {
+							owners[numOwners] = i;
+							ownerSubjectIds[numOwners++] = s;
+						}
+					}
+				}
+				for (int i = 0; i < numOwners; i++) {
+					Member member = members.get(candidates.get(owners[i]));
+					Long p = member.predicates.get(triple.getPredicate().toString());
+					if (p == null) {
+						continue;
+					}
+					long o = member.hdt.getDictionary().stringToId(triple.getObject(), TripleComponentRole.OBJECT);
+					if (o <= 0) {
+						continue;
+					}
+					lookup.setAll(ownerSubjectIds[i], p, o);
+					if (member.hdt.getTriples().search(lookup).hasNext()) {
+						return false;
+					}
+				}
+				return true;
+			}
+		}
+	}
+}
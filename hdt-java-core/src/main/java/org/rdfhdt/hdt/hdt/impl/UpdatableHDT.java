@@ -0,0 +1,686 @@
+package org.rdfhdt.hdt.hdt.impl;
+
+import org.rdfhdt.hdt.compact.bitmap.Bitmap;
+import org.rdfhdt.hdt.compact.bitmap.Bitmap64Big;
+import org.rdfhdt.hdt.compact.bitmap.BitmapFactory;
+import org.rdfhdt.hdt.dictionary.impl.DictionaryBloomFilters;
+import org.rdfhdt.hdt.enums.ResultEstimationType;
+import org.rdfhdt.hdt.exceptions.NotFoundException;
+import org.rdfhdt.hdt.exceptions.NotImplementedException;
+import org.rdfhdt.hdt.exceptions.ParserException;
+import org.rdfhdt.hdt.hdt.HDT;
+import org.rdfhdt.hdt.hdt.HDTManager;
+import org.rdfhdt.hdt.listener.ProgressListener;
+import org.rdfhdt.hdt.options.HDTOptions;
+import org.rdfhdt.hdt.options.HDTOptionsKeys;
+import org.rdfhdt.hdt.options.HideHDTOptions;
+import org.rdfhdt.hdt.triples.IteratorTripleString;
+import org.rdfhdt.hdt.triples.TripleString;
+import org.rdfhdt.hdt.unsafe.MemoryUtils;
+import org.rdfhdt.hdt.util.io.CountInputStream;
+import org.rdfhdt.hdt.util.io.IOUtil;
+import org.rdfhdt.hdt.util.string.ByteString;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.ref.Cleaner;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * HDT accepting updates, the base HDT stays read-only, the added triples are kept in a sorted delta and the
+ * deleted triples are marked in a bitmap over the triple positions of the base HDT.
+ * <p>
+ * The searches merge the base HDT with the delta, {@link #compact(ProgressListener)} writes the base, the delta
+ * and the deletes into a new HDT with {@link HDTManager#diffBitCatHDT(List, List, HDTOptions, ProgressListener)}
+ * and replaces the base file. The updates made during the compaction are replayed on the new base.
+ * <p>
+ * The updates are appended to a log next to the HDT file ({@link #DELTA_LOG_SUFFIX}) before being applied, the log
+ * is replayed on the base when the HDT is opened and is rewritten after a compaction.
+ * <p>
+ * The iterators keep a reference on the base they read, a base replaced by a compaction is closed when its last
+ * iterator is consumed or garbage collected.
+ */
+public class UpdatableHDT implements Closeable {
+	/**
+	 * suffix of the update log file, next to the HDT file
+	 */
+	public static final String DELTA_LOG_SUFFIX = ".delta";
+
+	private static final Comparator<TripleString> TRIPLE_COMPARATOR = Comparator
+			.comparing((TripleString t) -> (ByteString) t.getSubject())
+			.thenComparing(t -> (ByteString) t.getPredicate())
+			.thenComparing(t -> (ByteString) t.getObject());
+
+	/**
+	 * base HDT with the count of its users, this HDT and the iterators reading it
+	 */
+	private static class BaseRef {
+		final HDT hdt;
+		private int refs = 1;
+
+		BaseRef(HDT hdt) {
+			this.hdt = hdt;
+		}
+
+		/**
+		 * @return false if the base was already closed
+		 */
+		synchronized boolean acquire() {
+			if (refs == 0) {
+				return false;
+			}
+			refs++;
+			return true;
+		}
+
+		/**
+		 * release a reference, the base is closed with the last one
+		 */
+		void release() {
+			boolean close;
+			synchronized (this) {
+				close = --refs == 0;
+			}
+			if (close) {
+				IOUtil.closeQuietly(hdt);
+			}
+		}
+	}
+
+	private static class Update {
+		final TripleString triple;
+		final boolean add;
+
+		Update(TripleString triple, boolean add) {
+			this.triple = triple;
+			this.add = add;
+		}
+	}
+
+	private final Path hdtFile;
+	private final Path logFile;
+	private final HDTOptions spec;
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final ReentrantLock compactionLock = new ReentrantLock();
+	private BaseRef base;
+	private NavigableSet<TripleString> delta = new TreeSet<>(TRIPLE_COMPARATOR);
+	private Bitmap64Big deleted;
+	private long deletedCount;
+	// updates since the start of the current compaction, null if no compaction is running
+	private List<Update> pending;
+	private FileOutputStream logFileStream;
+	private DataOutputStream log;
+
+	/**
+	 * map an HDT file to update it
+	 *
+	 * @param hdtFile the HDT file, replaced during the compactions
+	 * @param spec    options used to map the HDT and to create the compacted HDT
+	 * @throws IOException can't map the HDT
+	 */
+	public UpdatableHDT(Path hdtFile, HDTOptions spec) throws IOException {
+		this.hdtFile = hdtFile;
+		this.spec = HDTOptions.ofNullable(spec);
+		this.logFile = hdtFile.resolveSibling(hdtFile.getFileName() + DELTA_LOG_SUFFIX);
+		this.base = new BaseRef(HDTManager.mapHDT(hdtFile, null, this.spec));
+		try {
+			this.deleted = Bitmap64Big.memory(base.hdt.getTriples().getNumberOfElements());
+			replayLog();
+			openLog();
+		} catch (Throwable t) {
+			try {
+				IOUtil.closeAll(base.hdt, deleted, log);
+			} catch (Throwable t2) {
+				t.addSuppressed(t2);
+			}
+			throw t;
+		}
+	}
+
+	/**
+	 * apply the updates of the log on the base, a record truncated by a crash is removed from the log
+	 */
+	private void replayLog() throws IOException {
+		if (!Files.exists(logFile)) {
+			return;
+		}
+		long validSize = 0;
+		try (CountInputStream count = new CountInputStream(new BufferedInputStream(Files.newInputStream(logFile)));
+			 DataInputStream input = new DataInputStream(count)) {
+			while (true) {
+				int op = input.read();
+				if (op == -1) {
+					break;
+				}
+				TripleString triple;
+				try {
+					triple = new TripleString(readTerm(input), readTerm(input), readTerm(input));
+				} catch (EOFException e) {
+					break;
+				}
+				if (op == 1) {
+					applyAdd(triple);
+				} else if (op == 0) {
+					applyRemove(triple);
+				} else {
+					throw new IOException("Bad update in the log " + logFile + ": " + op);
+				}
+				validSize = count.getTotalBytes();
+			}
+		}
+		if (validSize != Files.size(logFile)) {
+			try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.WRITE)) {
+				channel.truncate(validSize);
+			}
+		}
+	}
+
+	private static ByteString readTerm(DataInputStream input) throws IOException {
+		byte[] buffer = new byte[input.readInt()];
+		input.readFully(buffer);
+		return ByteString.of(new String(buffer, StandardCharsets.UTF_8));
+	}
+
+	private static void writeTerm(DataOutputStream output, CharSequence term) throws IOException {
+		byte[] buffer = term.toString().getBytes(StandardCharsets.UTF_8);
+		output.writeInt(buffer.length);
+		output.write(buffer);
+	}
+
+	private void openLog() throws IOException {
+		logFileStream = new FileOutputStream(logFile.toFile(), true);
+		log = new DataOutputStream(new BufferedOutputStream(logFileStream));
+	}
+
+	private static void writeUpdate(DataOutputStream output, TripleString triple, boolean add) throws IOException {
+		output.write(add ? 1 : 0);
+		writeTerm(output, triple.getSubject());
+		writeTerm(output, triple.getPredicate());
+		writeTerm(output, triple.getObject());
+	}
+
+	/**
+	 * append an update to the log, flushed to the file before the update is applied
+	 */
+	private void writeLog(TripleString triple, boolean add) {
+		try {
+			writeUpdate(log, triple, add);
+			log.flush();
+		} catch (IOException e) {
+			throw new IllegalStateException("Can't write the update log " + logFile, e);
+		}
+	}
+
+	private static TripleString triple(CharSequence subject, CharSequence predicate, CharSequence object) {
+		return new TripleString(ByteString.of(subject).copy(), ByteString.of(predicate).copy(), ByteString.of(object).copy());
+	}
+
+	private static boolean match(TripleString triple, TripleString pattern) {
+		return (pattern.getSubject().length() == 0 || ((ByteString) pattern.getSubject()).compareTo((ByteString) triple.getSubject()) == 0)
+				&& (pattern.getPredicate().length() == 0 || ((ByteString) pattern.getPredicate()).compareTo((ByteString) triple.getPredicate()) == 0)
+				&& (pattern.getObject().length() == 0 || ((ByteString) pattern.getObject()).compareTo((ByteString) triple.getObject()) == 0);
+	}
+
+	/**
+	 * @return position of the triple in the base HDT, -1 if the base doesn't contain it
+	 */
+	private long basePosition(TripleString triple) {
+		try {
+			IteratorTripleString it = base.hdt.search(triple.getSubject(), triple.getPredicate(), triple.getObject());
+			if (!it.hasNext()) {
+				return -1;
+			}
+			it.next();
+			return it.getLastTriplePosition();
+		} catch (NotFoundException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * add a triple
+	 *
+	 * @param subject   subject
+	 * @param predicate predicate
+	 * @param object    object
+	 * @return true if the triple wasn't already in this HDT
+	 */
+	public boolean add(CharSequence subject, CharSequence predicate, CharSequence object) {
+		TripleString triple = triple(subject, predicate, object);
+		if (triple.hasEmpty()) {
+			throw new IllegalArgumentException("Can't add a triple with an empty component: " + triple);
+		}
+		lock.writeLock().lock();
+		try {
+			writeLog(triple, true);
+			if (pending != null) {
+				pending.add(new Update(triple, true));
+			}
+			return applyAdd(triple);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * remove a triple
+	 *
+	 * @param subject   subject
+	 * @param predicate predicate
+	 * @param object    object
+	 * @return true if the triple was in this HDT
+	 */
+	public boolean remove(CharSequence subject, CharSequence predicate, CharSequence object) {
+		TripleString triple = triple(subject, predicate, object);
+		if (triple.hasEmpty()) {
+			// an empty component would be a wildcard in the base search
+			throw new IllegalArgumentException("Can't remove a triple with an empty component: " + triple);
+		}
+		lock.writeLock().lock();
+		try {
+			writeLog(triple, false);
+			if (pending != null) {
+				pending.add(new Update(triple, false));
+			}
+			return applyRemove(triple);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private boolean applyAdd(TripleString triple) {
+		long position = basePosition(triple);
+		if (position < 0) {
+			return delta.add(triple);
+		}
+		if (deleted.access(position)) {
+			deleted.set(position, false);
+			deletedCount--;
+			return true;
+		}
+		return false;
+	}
+
+	private boolean applyRemove(TripleString triple) {
+		if (delta.remove(triple)) {
+			return true;
+		}
+		long position = basePosition(triple);
+		if (position < 0 || deleted.access(position)) {
+			return false;
+		}
+		deleted.set(position, true);
+		deletedCount++;
+		return true;
+	}
+
+	/**
+	 * search a triple pattern, the base HDT is read during the iteration, the delta is read during this call
+	 *
+	 * @param subject   subject or "" for any
+	 * @param predicate predicate or "" for any
+	 * @param object    object or "" for any
+	 * @return iterator
+	 * @throws NotFoundException see {@link HDT#search(CharSequence, CharSequence, CharSequence)}
+	 */
+	public IteratorTripleString search(CharSequence subject, CharSequence predicate, CharSequence object) throws NotFoundException {
+		TripleString pattern = new TripleString(ByteString.of(subject), ByteString.of(predicate), ByteString.of(object));
+		lock.readLock().lock();
+		try {
+			List<TripleString> deltaMatches = new ArrayList<>();
+			NavigableSet<TripleString> candidates;
+			if (pattern.getSubject().length() != 0) {
+				// the delta is sorted by subject
+				candidates = delta.tailSet(new TripleString(pattern.getSubject(), ByteString.empty(), ByteString.empty()), true);
+			} else {
+				candidates = delta;
+			}
+			for (TripleString triple : candidates) {
+				if (pattern.getSubject().length() != 0 && ((ByteString) pattern.getSubject()).compareTo((ByteString) triple.getSubject()) != 0) {
+					break;
+				}
+				if (match(triple, pattern)) {
+					deltaMatches.add(triple);
+				}
+			}
+			if (!base.acquire()) {
+				throw new IllegalStateException("This HDT is closed");
+			}
+			IteratorTripleString baseIt;
+			try {
+				baseIt = base.hdt.search(subject, predicate, object);
+			} catch (Throwable t) {
+				base.release();
+				throw t;
+			}
+			return new MergeIterator(base, baseIt, lock.readLock(), deleted, deletedCount != 0, deltaMatches);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return the number of triples added and not in the base HDT
+	 */
+	public long getDeltaSize() {
+		lock.readLock().lock();
+		try {
+			return delta.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return the number of triples of the base HDT deleted
+	 */
+	public long getDeletedCount() {
+		lock.readLock().lock();
+		try {
+			return deletedCount;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return the number of triples
+	 */
+	public long getNumberOfElements() {
+		lock.readLock().lock();
+		try {
+			return base.hdt.getTriples().getNumberOfElements() - deletedCount + delta.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return the base HDT, without the updates since the last compaction, closed by the next compaction
+	 */
+	public HDT getBase() {
+		return base.hdt;
+	}
+
+	/**
+	 * write the updates into a new base HDT, the searches and the updates can be done during the compaction, only
+	 * one compaction can run at the same time
+	 *
+	 * @param listener listener
+	 * @return false if there was nothing to compact
+	 * @throws IOException     io exception while creating the new HDT
+	 * @throws ParserException can't create the delta HDT
+	 */
+	public boolean compact(ProgressListener listener) throws IOException, ParserException {
+		compactionLock.lock();
+		try {
+			ProgressListener pl = ProgressListener.ofNullable(listener);
+			List<TripleString> deltaSnapshot;
+			Bitmap64Big deletedSnapshot;
+			long numTriples;
+			lock.writeLock().lock();
+			try {
+				if (delta.isEmpty() && deletedCount == 0) {
+					return false;
+				}
+				deltaSnapshot = new ArrayList<>(delta);
+				numTriples = base.hdt.getTriples().getNumberOfElements();
+				deletedSnapshot = Bitmap64Big.memory(numTriples);
+				for (long i = deleted.selectNext1(0); i != -1; i = deleted.selectNext1(i + 1)) {
+					deletedSnapshot.set(i, true);
+				}
+				pending = new ArrayList<>();
+			} finally {
+				lock.writeLock().unlock();
+			}
+
+			Path workDir = Files.createTempDirectory(hdtFile.toAbsolutePath().getParent(), "compact");
+			try {
+				Path newHdt = workDir.resolve("new.hdt");
+				List<String> files = new ArrayList<>();
+				files.add(hdtFile.toAbsolutePath().toString());
+				List<Bitmap> deleteBitmaps = new ArrayList<>();
+				deleteBitmaps.add(deletedSnapshot);
+
+				if (!deltaSnapshot.isEmpty()) {
+					Path deltaHdt = workDir.resolve("delta.hdt");
+					pl.notifyProgress(0, "create delta hdt with " + deltaSnapshot.size() + " triples");
+					try (HDT hdt = HDTManager.generateHDT(deltaSnapshot.iterator(), base.hdt.getBaseURI(), spec, pl)) {
+						hdt.saveToHDT(deltaHdt.toAbsolutePath().toString(), pl);
+					}
+					files.add(deltaHdt.toAbsolutePath().toString());
+					deleteBitmaps.add(BitmapFactory.empty());
+				}
+
+				HideHDTOptions catSpec = new HideHDTOptions(spec);
+				catSpec.overrideValue(HDTOptionsKeys.HDTCAT_LOCATION, workDir.resolve("cat").toAbsolutePath());
+				catSpec.overrideValue(HDTOptionsKeys.HDTCAT_FUTURE_LOCATION, newHdt.toAbsolutePath());
+
+				pl.notifyProgress(10, "cat the base hdt and the delta");
+				HDTManager.diffBitCatHDT(files, deleteBitmaps, catSpec, pl).close();
+
+				lock.writeLock().lock();
+				try {
+					// a crash between the two moves replays the previous log on the new base, it gives the same
+					// triples because an update only depends on the last update of the same triple
+					Files.move(newHdt, hdtFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+					rewriteLog(workDir.resolve("new" + DELTA_LOG_SUFFIX));
+					// the bloom filters of the previous base
+					Files.deleteIfExists(hdtFile.resolveSibling(hdtFile.getFileName() + DictionaryBloomFilters.FILE_SUFFIX));
+					BaseRef oldBase = base;
+					base = new BaseRef(HDTManager.mapHDT(hdtFile, null, spec));
+					// closed after the iterators still reading it
+					oldBase.release();
+					// the previous bitmap isn't closed, it can be read by the iterators of the previous base and is
+					// freed with its cleaner
+					delta = new TreeSet<>(TRIPLE_COMPARATOR);
+					deleted = Bitmap64Big.memory(base.hdt.getTriples().getNumberOfElements());
+					deletedCount = 0;
+
+					// replay the updates made during the compaction
+					for (Update update : pending) {
+						if (update.add) {
+							applyAdd(update.triple);
+						} else {
+							applyRemove(update.triple);
+						}
+					}
+				} finally {
+					lock.writeLock().unlock();
+				}
+				return true;
+			} finally {
+				lock.writeLock().lock();
+				try {
+					pending = null;
+				} finally {
+					lock.writeLock().unlock();
+				}
+				IOUtil.closeQuietly(deletedSnapshot);
+				IOUtil.deleteDirRecurse(workDir);
+			}
+		} finally {
+			compactionLock.unlock();
+		}
+	}
+
+	/**
+	 * replace the log with the updates made during the compaction
+	 */
+	private void rewriteLog(Path tmpLog) throws IOException {
+		log.close();
+		try (FileOutputStream stream = new FileOutputStream(tmpLog.toFile());
+			 DataOutputStream output = new DataOutputStream(new BufferedOutputStream(stream))) {
+			for (Update update : pending) {
+				writeUpdate(output, update.triple, update.add);
+			}
+			output.flush();
+			stream.getFD().sync();
+		}
+		Files.move(tmpLog, logFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		openLog();
+	}
+
+	/**
+	 * sync the update log to the disk
+	 *
+	 * @throws IOException can't sync the log
+	 */
+	public void sync() throws IOException {
+		lock.writeLock().lock();
+		try {
+			log.flush();
+			logFileStream.getFD().sync();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		lock.writeLock().lock();
+		try {
+			try {
+				sync();
+			} finally {
+				try {
+					IOUtil.closeAll(deleted, log);
+				} finally {
+					// the base is closed after the iterators still reading it
+					base.release();
+				}
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private static class MergeIterator implements IteratorTripleString {
+		private final BaseRef base;
+		private final IteratorTripleString baseIt;
+		private final Lock readLock;
+		private final Bitmap64Big deleted;
+		private final boolean hasDeletes;
+		private final List<TripleString> deltaMatches;
+		private int deltaIndex;
+		private boolean inDelta;
+		private boolean lastInDelta;
+		private TripleString next;
+		private boolean nextInDelta;
+		// release of the base reference, null once released
+		private Cleaner.Cleanable baseRelease;
+
+		MergeIterator(BaseRef base, IteratorTripleString baseIt, Lock readLock, Bitmap64Big deleted, boolean hasDeletes, List<TripleString> deltaMatches) {
+			this.base = base;
+			this.baseIt = baseIt;
+			this.readLock = readLock;
+			this.deleted = deleted;
+			this.hasDeletes = hasDeletes;
+			this.deltaMatches = deltaMatches;
+			// the action only references the base, an abandoned iterator releases it when collected
+			baseRelease = MemoryUtils.getCleaner().register(this, base::release);
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (next != null) {
+				return true;
+			}
+			while (!inDelta && baseIt.hasNext()) {
+				TripleString triple = baseIt.next();
+				if (!hasDeletes || !isDeleted(baseIt.getLastTriplePosition())) {
+					next = triple;
+					nextInDelta = false;
+					return true;
+				}
+			}
+			if (!inDelta) {
+				inDelta = true;
+				// the base isn't read anymore
+				baseRelease.clean();
+				baseRelease = null;
+			}
+			if (deltaIndex < deltaMatches.size()) {
+				next = deltaMatches.get(deltaIndex++);
+				nextInDelta = true;
+				return true;
+			}
+			return false;
+		}
+
+		private boolean isDeleted(long position) {
+			// the bitmap is updated by the deletes
+			readLock.lock();
+			try {
+				return deleted.access(position);
+			} finally {
+				readLock.unlock();
+			}
+		}
+
+		@Override
+		public TripleString next() {
+			if (!hasNext()) {
+				return null;
+			}
+			TripleString triple = next;
+			lastInDelta = nextInDelta;
+			next = null;
+			return triple;
+		}
+
+		@Override
+		public void goToStart() {
+			if (baseRelease == null) {
+				if (!base.acquire()) {
+					throw new IllegalStateException("The base of this iterator was closed");
+				}
+				baseRelease = MemoryUtils.getCleaner().register(this, base::release);
+			}
+			baseIt.goToStart();
+			deltaIndex = 0;
+			inDelta = false;
+			next = null;
+		}
+
+		@Override
+		public long estimatedNumResults() {
+			return baseIt.estimatedNumResults() + deltaMatches.size();
+		}
+
+		@Override
+		public ResultEstimationType numResultEstimation() {
+			if (hasDeletes) {
+				return ResultEstimationType.UP_TO;
+			}
+			return baseIt.numResultEstimation();
+		}
+
+		@Override
+		public long getLastTriplePosition() {
+			if (lastInDelta) {
+				throw new NotImplementedException("getLastTriplePosition on a delta triple");
+			}
+			return baseIt.getLastTriplePosition();
+		}
+	}
+}
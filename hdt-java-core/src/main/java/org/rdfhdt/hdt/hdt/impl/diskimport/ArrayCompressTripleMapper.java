@@ -0,0 +1,163 @@
+package org.rdfhdt.hdt.hdt.impl.diskimport;
+
+import org.rdfhdt.hdt.compact.sequence.SequenceLog64BigDisk;
+import org.rdfhdt.hdt.iterator.utils.ExceptionIterator;
+import org.rdfhdt.hdt.triples.TripleID;
+import org.rdfhdt.hdt.util.BitUtil;
+import org.rdfhdt.hdt.util.disk.LongArray;
+import org.rdfhdt.hdt.util.io.CloseSuppressPath;
+import org.rdfhdt.hdt.util.io.IOUtil;
+import org.rdfhdt.hdt.util.io.compress.CompressUtil;
+import org.rdfhdt.hdt.util.io.compress.TripleGenerator;
+import org.rdfhdt.hdt.util.io.compress.WriteLongArrayBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+/**
+ * Map a compress triple file to long array map files
+ *
+ * @author Antoine Willerval
+ * @see SortCompressTripleMapper
+ */
+public class ArrayCompressTripleMapper implements CompressTripleMapper {
+	private static final Logger log = LoggerFactory.getLogger(ArrayCompressTripleMapper.class);
+	private final WriteLongArrayBuffer subjects;
+	private final WriteLongArrayBuffer predicates;
+	private final WriteLongArrayBuffer objects;
+	private final CloseSuppressPath locationSubjects;
+	private final CloseSuppressPath locationPredicates;
+	private final CloseSuppressPath locationObjects;
+	private long shared = -1;
+	private final long tripleCount;
+
+	public ArrayCompressTripleMapper(CloseSuppressPath location, long tripleCount, long chunkSize) {
+		this.tripleCount = tripleCount;
+		locationSubjects = location.resolve("map_subjects");
+		locationPredicates = location.resolve("map_predicates");
+		locationObjects = location.resolve("map_objects");
+		int numbits = BitUtil.log2(tripleCount + 2) + CompressUtil.INDEX_SHIFT;
+		int maxElement = (int) Math.min(chunkSize / Long.BYTES / 3, Integer.MAX_VALUE - 5);
+		subjects =
+				new WriteLongArrayBuffer(
+						new SequenceLog64BigDisk(locationSubjects.toAbsolutePath().toString(), numbits, tripleCount + 2, true),
+						tripleCount, maxElement);
+		predicates =
+				new WriteLongArrayBuffer(new SequenceLog64BigDisk(locationPredicates.toAbsolutePath().toString(), numbits, tripleCount + 2, true),
+						tripleCount, maxElement);
+		objects =
+				new WriteLongArrayBuffer(new SequenceLog64BigDisk(locationObjects.toAbsolutePath().toString(), numbits, tripleCount + 2, true),
+						tripleCount, maxElement);
+	}
+
+	@Override
+	public void delete() {
+		try {
+			IOUtil.closeAll(subjects, predicates, objects);
+		} catch (IOException e) {
+			log.warn("Can't close triple map array", e);
+		}
+		try {
+			IOUtil.closeAll(locationSubjects, locationPredicates, locationObjects);
+		} catch (IOException e) {
+			log.warn("Can't delete triple map array files", e);
+		}
+	}
+
+	@Override
+	public void onSubject(long preMapId, long newMapId) {
+		assert preMapId > 0;
+		assert newMapId >= CompressUtil.getHeaderId(1);
+		subjects.set(preMapId, newMapId);
+	}
+
+	@Override
+	public void onPredicate(long preMapId, long newMapId) {
+		assert preMapId > 0;
+		assert newMapId >= CompressUtil.getHeaderId(1);
+		predicates.set(preMapId, newMapId);
+	}
+
+	@Override
+	public void onObject(long preMapId, long newMapId) {
+		assert preMapId > 0;
+		assert newMapId >= CompressUtil.getHeaderId(1);
+		objects.set(preMapId, newMapId);
+	}
+
+	@Override
+	public void setShared(long shared) {
+		this.shared = shared;
+		subjects.free();
+		predicates.free();
+		objects.free();
+	}
+
+	private void checkShared() {
+		if (this.shared < 0) {
+			throw new IllegalArgumentException("Shared not set!");
+		}
+	}
+
+	/**
+	 * extract the map id of a subject
+	 *
+	 * @param id id
+	 * @return new id
+	 */
+	public long extractSubject(long id) {
+		return extract(subjects, id);
+	}
+
+	/**
+	 * extract the map id of a predicate
+	 *
+	 * @param id id
+	 * @return new id
+	 */
+	public long extractPredicate(long id) {
+		return extract(predicates, id) - shared;
+	}
+
+	/**
+	 * extract the map id of a object
+	 *
+	 * @param id id
+	 * @return new id
+	 */
+	public long extractObjects(long id) {
+		return extract(objects, id);
+	}
+
+	private long extract(LongArray array, long id) {
+		checkShared();
+		// compute shared if required
+		return CompressUtil.computeSharedNode(array.get(id), shared);
+	}
+
+	/**
+	 * map a triple, can be called by several threads
+	 *
+	 * @param triple triple of the compress triple file
+	 * @return mapped triple
+	 */
+	public TripleID mapTriple(TripleID triple) {
+		return new TripleID(
+				extractSubject(triple.getSubject()),
+				extractPredicate(triple.getPredicate()),
+				extractObjects(triple.getObject())
+		);
+	}
+
+	@Override
+	public ExceptionIterator<TripleID, IOException> mapTriples() {
+		checkShared();
+		return ExceptionIterator.<TripleID, IOException>of(new TripleGenerator(tripleCount)).map(this::mapTriple);
+	}
+
+	@Override
+	public long getTripleCount() {
+		return tripleCount;
+	}
+}
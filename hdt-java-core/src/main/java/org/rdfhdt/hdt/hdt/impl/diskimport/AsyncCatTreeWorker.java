@@ -14,6 +14,7 @@ import org.rdfhdt.hdt.triples.TripleString;
 import org.rdfhdt.hdt.util.Profiler;
 import org.rdfhdt.hdt.util.concurrent.ExceptionThread;
 import org.rdfhdt.hdt.util.concurrent.HeightTree;
+import org.rdfhdt.hdt.util.io.CloseSuppressPath;
 import org.rdfhdt.hdt.util.listener.PrefixListener;
 
 import java.io.Closeable;
@@ -38,7 +39,7 @@ public class AsyncCatTreeWorker implements Closeable {
 	private final Profiler profiler;
 	private final HeightTree<CatTreeImpl.HDTFile> tree = new HeightTree<>();
 	private boolean endread;
-	private final Path hdtStore;
+	private final List<CloseSuppressPath> hdtStores;
 	private final Path hdtCatLocationPath;
 	private HDT hdt;
 
@@ -52,10 +53,11 @@ public class AsyncCatTreeWorker implements Closeable {
 		this.catProfiler = Profiler.createOrLoadSubSection("asynccatloader", impl.getHdtFormat(), false, true);
 		profiler = impl.getProfiler();
 
-		hdtStore = impl.getBasePath().resolve("hdt-store");
+		CloseSuppressPath hdtStore = impl.getBasePath().resolve("hdt-store");
+		hdtStores = hdtStore.getStripes();
 		hdtCatLocationPath = impl.getBasePath().resolve("cat");
 
-		Files.createDirectories(hdtStore);
+		hdtStore.mkdirs();
 		Files.createDirectories(hdtCatLocationPath);
 
 		this.mergeThread = new ExceptionThread(this::runMergeThread, "CatTreeMergeThread")
@@ -99,7 +101,7 @@ public class AsyncCatTreeWorker implements Closeable {
 			gen++;
 			profiler.pushSection("generateHDT #" + gen);
 			PrefixListener il = PrefixListener.of("gen#" + gen, listener);
-			Path hdtLocation = hdtStore.resolve("hdt-" + gen + ".hdt");
+			Path hdtLocation = CatTreeImpl.getStoreLocation(hdtStores, "hdt-", gen);
 			// help memory flooding algorithm
 			System.gc();
 			supplier.doGenerateHDT(it, baseURI, impl.getHdtFormat(), il, hdtLocation);
@@ -148,7 +150,7 @@ public class AsyncCatTreeWorker implements Closeable {
 			cat++;
 			profiler.pushSection("catHDT #" + cat);
 			PrefixListener ilc = PrefixListener.of("cat#" + cat, listener);
-			Path hdtCatFileLocation = hdtStore.resolve("hdtcat-" + cat + ".hdt");
+			Path hdtCatFileLocation = CatTreeImpl.getStoreLocation(hdtStores, "hdtcat-", cat);
 
 			// override the value to create the cat into hdtCatFileLocation
 			spec.overrideValue(HDTOptionsKeys.LOADER_CATTREE_FUTURE_HDT_LOCATION_KEY, hdtCatFileLocation.toAbsolutePath());
@@ -190,7 +192,7 @@ public class AsyncCatTreeWorker implements Closeable {
 			cat++;
 			profiler.pushSection("catHDT #" + cat);
 			PrefixListener ilc = PrefixListener.of("cat#" + cat, listener);
-			Path hdtCatFileLocation = hdtStore.resolve("hdtcat-" + cat + ".hdt");
+			Path hdtCatFileLocation = CatTreeImpl.getStoreLocation(hdtStores, "hdtcat-", cat);
 
 			// override the value to create the cat into hdtCatFileLocation
 			spec.overrideValue(HDTOptionsKeys.LOADER_CATTREE_FUTURE_HDT_LOCATION_KEY, hdtCatFileLocation.toAbsolutePath());
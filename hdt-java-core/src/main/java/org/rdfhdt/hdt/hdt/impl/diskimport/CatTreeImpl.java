@@ -12,6 +12,7 @@ import org.rdfhdt.hdt.options.HideHDTOptions;
 import org.rdfhdt.hdt.rdf.RDFFluxStop;
 import org.rdfhdt.hdt.triples.TripleString;
 import org.rdfhdt.hdt.util.Profiler;
+import org.rdfhdt.hdt.util.io.CloseSuppressPath;
 import org.rdfhdt.hdt.util.io.Closer;
 import org.rdfhdt.hdt.util.listener.PrefixListener;
 
@@ -31,13 +32,26 @@ import java.util.stream.Collectors;
  * @author Antoine Willerval
  */
 public class CatTreeImpl implements Closeable {
+    // resume manifest keys
+    private static final String RESUME_GEN = "gen";
+    private static final String RESUME_CAT = "cat";
+    private static final String RESUME_TRIPLES = "triples";
+    private static final String RESUME_END = "end";
+    private static final String RESUME_FILES = "files";
+    private static final String RESUME_FILE = "file.";
+    private static final String RESUME_BASE_URI = "baseURI";
+    private static final String RESUME_FLUX_STOP = "fluxStop";
+    private static final String RESUME_KCAT = "kcat";
+    private static final String RESUME_INPUT = "input.fingerprint";
+
     private final HideHDTOptions hdtFormat;
     private final int kHDTCat;
-    private final Path basePath;
+    private final CloseSuppressPath basePath;
     private final Path futureHDTLocation;
     private final Closer closer = Closer.of();
     private final Profiler profiler;
     private final boolean async;
+    private final boolean resumable;
 
     /**
      * create implementation
@@ -58,11 +72,15 @@ public class CatTreeImpl implements Closeable {
             }
 
             String baseNameOpt = hdtFormat.get(HDTOptionsKeys.LOADER_CATTREE_LOCATION_KEY);
+            resumable = hdtFormat.getBoolean(HDTOptionsKeys.LOADER_CATTREE_RESUMABLE_KEY);
 
             if (baseNameOpt == null || baseNameOpt.isEmpty()) {
-                basePath = Files.createTempDirectory("hdt-java-cat-tree");
+                if (resumable) {
+                    throw new IllegalArgumentException("A resumable generation requires a location, see " + HDTOptionsKeys.LOADER_CATTREE_LOCATION_KEY);
+                }
+                basePath = CloseSuppressPath.of(Files.createTempDirectory("hdt-java-cat-tree"));
             } else {
-                basePath = Path.of(baseNameOpt);
+                basePath = CloseSuppressPath.ofLocations(baseNameOpt, hdtFormat.get(HDTOptionsKeys.LOADER_CATTREE_STRIPE_LOCATIONS_KEY));
             }
 
 
@@ -169,7 +187,8 @@ public class CatTreeImpl implements Closeable {
      * @throws ParserException parsing exception returned by the hdt supplier
      */
     public HDT doGeneration(RDFFluxStop fluxStop, HDTSupplier supplier, Iterator<TripleString> iterator, String baseURI, ProgressListener listener) throws IOException, ParserException {
-        if (async && kHDTCat > 1) {
+        // the async algorithm can't be resumed
+        if (async && kHDTCat > 1 && !resumable) {
             return doGenerationAsync(fluxStop, supplier, iterator, baseURI, listener);
         } else {
             return doGenerationSync(fluxStop, supplier, iterator, baseURI, listener);
@@ -208,27 +227,83 @@ public class CatTreeImpl implements Closeable {
      * @throws ParserException parsing exception returned by the hdt supplier
      */
     public HDT doGenerationSync(RDFFluxStop fluxStop, HDTSupplier supplier, Iterator<TripleString> iterator, String baseURI, ProgressListener listener) throws IOException, ParserException {
-        FluxStopTripleStringIterator it = new FluxStopTripleStringIterator(iterator, fluxStop);
-
         List<HDTFile> files = new ArrayList<>();
 
         long gen = 0;
         long cat = 0;
+        long skipped = 0;
+        boolean end = false;
 
-        Path hdtStore = basePath.resolve("hdt-store");
+        CloseSuppressPath hdtStore = basePath.resolve("hdt-store");
+        List<CloseSuppressPath> hdtStores = hdtStore.getStripes();
         Path hdtCatLocationPath = basePath.resolve("cat");
         String hdtCatLocation = hdtCatLocationPath.toAbsolutePath().toString();
 
-        Files.createDirectories(hdtStore);
+        hdtStore.mkdirs();
         Files.createDirectories(hdtCatLocationPath);
 
+        ResumeManifest manifest = null;
+        InputFingerprintIterator input = null;
+        if (resumable) {
+            manifest = ResumeManifest.of(basePath.getJavaPath());
+            if (iterator instanceof InputFingerprintIterator) {
+                // fingerprint of a file input
+                input = (InputFingerprintIterator) iterator;
+            } else {
+                input = new InputFingerprintIterator(iterator);
+            }
+            iterator = input;
+            // the HDTs of another input or config can't be used
+            boolean sameInput = manifest.matches(RESUME_BASE_URI, baseURI)
+                    && manifest.matches(RESUME_FLUX_STOP, fluxStop.asConfig())
+                    && manifest.matches(RESUME_KCAT, kHDTCat)
+                    && manifest.matches(RESUME_INPUT, input.getFingerprint());
+            if (sameInput && resumeFiles(manifest, files)) {
+                gen = manifest.getLong(RESUME_GEN);
+                cat = manifest.getLong(RESUME_CAT);
+                skipped = manifest.getLong(RESUME_TRIPLES);
+                end = manifest.matches(RESUME_END, true);
+                listener.notifyProgress(0, "Resume after " + gen + " generated HDT(s)");
+            } else {
+                if (!sameInput && !manifest.isEmpty()) {
+                    listener.notifyProgress(0, "The input or the config has changed, the generated HDTs are dropped");
+                }
+                manifest.clear();
+                manifest.set(RESUME_BASE_URI, baseURI)
+                        .set(RESUME_FLUX_STOP, fluxStop.asConfig())
+                        .set(RESUME_KCAT, kHDTCat)
+                        .set(RESUME_INPUT, input.getFingerprint())
+                        .save();
+            }
+        }
+        // the first triples of an iterator input can't show a change after them, the whole input is read to check
+        // its count before using the generated HDTs
+        boolean checkCount = input != null && !input.isFileInput();
+        if (!end || checkCount) {
+            // skip the triples already in the resumed HDTs
+            for (long i = 0; i < skipped; i++) {
+                if (!iterator.hasNext()) {
+                    manifest.clear();
+                    throw new IOException("The input is smaller than the resumed generation, the generated HDTs are dropped");
+                }
+                iterator.next();
+            }
+        }
+        if (end && checkCount && iterator.hasNext()) {
+            manifest.clear();
+            throw new IOException("The input is bigger than the resumed generation, the generated HDTs are dropped");
+        }
+        FluxStopTripleStringIterator it = new FluxStopTripleStringIterator(iterator, fluxStop);
+        // merged HDTs to delete after the next manifest
+        List<Path> merged = new ArrayList<>();
+
         boolean nextFile;
-        do {
+        while (!end) {
             // generate the hdt
             gen++;
             profiler.pushSection("generateHDT #" + gen);
             PrefixListener il = PrefixListener.of("gen#" + gen, listener);
-            Path hdtLocation = hdtStore.resolve("hdt-" + gen + ".hdt");
+            Path hdtLocation = getStoreLocation(hdtStores, "hdt-", gen);
             // help memory flooding algorithm
             System.gc();
             supplier.doGenerateHDT(it, baseURI, hdtFormat, il, hdtLocation);
@@ -245,7 +320,7 @@ public class CatTreeImpl implements Closeable {
                     cat++;
                     profiler.pushSection("catHDT #" + cat);
                     PrefixListener ilc = PrefixListener.of("cat#" + cat, listener);
-                    Path hdtCatFileLocation = hdtStore.resolve("hdtcat-" + cat + ".hdt");
+                    Path hdtCatFileLocation = getStoreLocation(hdtStores, "hdtcat-", cat);
                     try (HDT abcat = HDTManager.catHDT(
                             hdtCatLocation,
                             lastHDTFile.getHdtFile().toAbsolutePath().toString(),
@@ -255,8 +330,8 @@ public class CatTreeImpl implements Closeable {
                     }
                     ilc.clearThreads();
                     // delete previous chunks
-                    Files.delete(lastHDTFile.getHdtFile());
-                    Files.delete(hdtFile.getHdtFile());
+                    deleteMerged(merged, lastHDTFile.getHdtFile());
+                    deleteMerged(merged, hdtFile.getHdtFile());
                     // note the new hdt file and the number of chunks
                     hdtFile = new HDTFile(hdtCatFileLocation, lastHDTFile.getChunks() + hdtFile.getChunks());
 
@@ -270,7 +345,7 @@ public class CatTreeImpl implements Closeable {
                     cat++;
                     profiler.pushSection("catHDT #" + cat);
                     PrefixListener ilc = PrefixListener.of("cat#" + cat, listener);
-                    Path hdtCatFileLocation = hdtStore.resolve("hdtcat-" + cat + ".hdt");
+                    Path hdtCatFileLocation = getStoreLocation(hdtStores, "hdtcat-", cat);
 
                     assert nextHDTs.size() > 1;
 
@@ -290,7 +365,7 @@ public class CatTreeImpl implements Closeable {
 
                     // delete previous chunks
                     for (HDTFile nextHDT : nextHDTs) {
-                        Files.delete(nextHDT.getHdtFile());
+                        deleteMerged(merged, nextHDT.getHdtFile());
                     }
                     // note the new hdt file and the number of chunks
                     long chunks = nextHDTs.stream().mapToLong(HDTFile::getChunks).sum();
@@ -301,7 +376,27 @@ public class CatTreeImpl implements Closeable {
             }
             assert nextFile || files.isEmpty() : "no data remaining, but contains files";
             files.add(hdtFile);
-        } while (nextFile);
+            end = !nextFile;
+
+            if (manifest != null) {
+                // checkpoint the level and delete the HDTs which aren't in the manifest anymore
+                manifest.set(RESUME_GEN, gen)
+                        .set(RESUME_CAT, cat)
+                        .set(RESUME_TRIPLES, skipped + it.getCount())
+                        .set(RESUME_END, end)
+                        .set(RESUME_FILES, files.size());
+                for (int i = 0; i < files.size(); i++) {
+                    HDTFile file = files.get(i);
+                    manifest.set(RESUME_FILE + i + ".location", file.getHdtFile().toAbsolutePath())
+                            .set(RESUME_FILE + i + ".chunks", file.getChunks());
+                }
+                manifest.save();
+                for (Path file : merged) {
+                    Files.delete(file);
+                }
+                merged.clear();
+            }
+        }
 
         listener.notifyProgress(100, "done, loading HDT");
 
@@ -324,11 +419,54 @@ public class CatTreeImpl implements Closeable {
             return HDTManager.loadHDT(hdtFile.toAbsolutePath().toString());
         } finally {
             Files.deleteIfExists(hdtFile);
+            if (manifest != null) {
+                manifest.clear();
+            }
             profiler.stop();
             profiler.writeProfiling();
         }
     }
 
+    /**
+     * delete a merged HDT, with a resumable generation, the HDT is deleted after the next manifest
+     *
+     * @param merged  the HDTs to delete after the next manifest
+     * @param hdtFile the HDT to delete
+     * @throws IOException delete exception
+     */
+    private void deleteMerged(List<Path> merged, Path hdtFile) throws IOException {
+        if (resumable) {
+            merged.add(hdtFile);
+        } else {
+            Files.delete(hdtFile);
+        }
+    }
+
+    /**
+     * read the HDTs of a manifest
+     *
+     * @param manifest the manifest
+     * @param files    the list to fill with the HDTs
+     * @return if the manifest contains a level with all its HDTs
+     * @throws IOException read exception
+     */
+    private static boolean resumeFiles(ResumeManifest manifest, List<HDTFile> files) throws IOException {
+        if (manifest.get(RESUME_FILES) == null) {
+            return false;
+        }
+        long count = manifest.getLong(RESUME_FILES);
+        List<HDTFile> resumed = new ArrayList<>();
+        for (long i = 0; i < count; i++) {
+            String location = manifest.get(RESUME_FILE + i + ".location");
+            if (location == null || !Files.exists(Path.of(location))) {
+                return false;
+            }
+            resumed.add(new HDTFile(Path.of(location), manifest.getLong(RESUME_FILE + i + ".chunks")));
+        }
+        files.addAll(resumed);
+        return true;
+    }
+
     public HideHDTOptions getHdtFormat() {
         return hdtFormat;
     }
@@ -345,10 +483,22 @@ public class CatTreeImpl implements Closeable {
         return kHDTCat;
     }
 
-    public Path getBasePath() {
+    public CloseSuppressPath getBasePath() {
         return basePath;
     }
 
+    /**
+     * get the location of an HDT of the store, the HDTs are spread over the stripes of the store
+     *
+     * @param hdtStores the stripes of the store, see {@link CloseSuppressPath#getStripes()}
+     * @param prefix    the prefix of the HDT file name
+     * @param id        the id of the HDT
+     * @return location
+     */
+    static Path getStoreLocation(List<CloseSuppressPath> hdtStores, String prefix, long id) {
+        return hdtStores.get((int) (id % hdtStores.size())).resolve(prefix + id + ".hdt").getJavaPath();
+    }
+
     @Override
     public void close() throws IOException {
         closer.close();
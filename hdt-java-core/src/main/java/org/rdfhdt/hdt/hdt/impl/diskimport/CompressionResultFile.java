@@ -28,6 +28,13 @@ public class CompressionResultFile implements CompressionResult {
 		this.sections = sections;
 	}
 
+	/**
+	 * @return the pre-sections files
+	 */
+	public SectionCompressor.TripleFile getSections() {
+		return sections;
+	}
+
 	@Override
 	public long getTripleCount() {
 		return tripleCount;
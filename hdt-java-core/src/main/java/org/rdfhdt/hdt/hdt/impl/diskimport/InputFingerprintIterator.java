@@ -0,0 +1,163 @@
+package org.rdfhdt.hdt.hdt.impl.diskimport;
+
+import org.rdfhdt.hdt.triples.TripleString;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.zip.CRC32;
+
+/**
+ * Iterator reading the first triples of an input to compute a fingerprint of it, the read triples are returned
+ * before the rest of the input. Used to check that a resumable generation is resumed with the same input.
+ * <p>
+ * The fingerprint of a file input also contains the size and the last modification time of the file. The first
+ * triples of an iterator input can't show a change after them, so the number of triples returned by this iterator
+ * ({@link #getCount()}) should be compared with the count of the checkpoint before reusing it.
+ *
+ * @see ResumeManifest
+ */
+public class InputFingerprintIterator implements Iterator<TripleString> {
+	/**
+	 * default number of triples read to compute the fingerprint
+	 */
+	public static final int DEFAULT_HEAD_SIZE = 1024;
+
+	private final Iterator<TripleString> iterator;
+	private final List<TripleString> head;
+	private final String fingerprint;
+	private final boolean fileInput;
+	private int index;
+	private long count;
+
+	/**
+	 * read the first {@link #DEFAULT_HEAD_SIZE} triples of an input
+	 *
+	 * @param iterator the input
+	 */
+	public InputFingerprintIterator(Iterator<TripleString> iterator) {
+		this(iterator, DEFAULT_HEAD_SIZE);
+	}
+
+	/**
+	 * read the first triples of an input
+	 *
+	 * @param iterator the input
+	 * @param headSize the number of triples to read
+	 */
+	public InputFingerprintIterator(Iterator<TripleString> iterator, int headSize) {
+		this(iterator, headSize, null);
+	}
+
+	/**
+	 * read the first {@link #DEFAULT_HEAD_SIZE} triples of a file input
+	 *
+	 * @param iterator  the triples of the file
+	 * @param inputFile the file, its size and its last modification time are added to the fingerprint
+	 * @throws IOException can't read the attributes of the file
+	 */
+	public InputFingerprintIterator(Iterator<TripleString> iterator, Path inputFile) throws IOException {
+		this(iterator, DEFAULT_HEAD_SIZE, fileIdentity(inputFile));
+	}
+
+	private InputFingerprintIterator(Iterator<TripleString> iterator, int headSize, String fileIdentity) {
+		this.iterator = iterator;
+		this.fileInput = fileIdentity != null;
+		head = new ArrayList<>();
+		CRC32 crc = new CRC32();
+		while (head.size() < headSize && iterator.hasNext()) {
+			// copy the triple, the iterator can reuse it
+			TripleString triple = iterator.next().tripleToString();
+			update(crc, triple.getSubject());
+			update(crc, triple.getPredicate());
+			update(crc, triple.getObject());
+			head.add(triple);
+		}
+		String headFingerprint = head.size() + ":" + Long.toHexString(crc.getValue());
+		fingerprint = fileInput ? fileIdentity + ":" + headFingerprint : headFingerprint;
+	}
+
+	private static String fileIdentity(Path file) throws IOException {
+		return Files.size(file) + ":" + Files.getLastModifiedTime(file).toMillis();
+	}
+
+	/**
+	 * @param name name of the input
+	 * @return the local file of the input, null if the name isn't a local file
+	 */
+	public static Path localFile(String name) {
+		try {
+			Path file = Path.of(name);
+			return Files.isRegularFile(file) ? file : null;
+		} catch (InvalidPathException e) {
+			// url
+			return null;
+		}
+	}
+
+	private static void update(CRC32 crc, CharSequence component) {
+		crc.update(component.toString().getBytes(StandardCharsets.UTF_8));
+		// separator to avoid collisions between the components
+		crc.update(0);
+	}
+
+	/**
+	 * @return the fingerprint of the input, the number of read triples and their CRC32, after the size and the
+	 * last modification time of a file input
+	 */
+	public String getFingerprint() {
+		return fingerprint;
+	}
+
+	/**
+	 * @return if the fingerprint contains the identity of the input file, a checkpoint can then be reused without
+	 * reading the whole input
+	 */
+	public boolean isFileInput() {
+		return fileInput;
+	}
+
+	/**
+	 * @return the number of triples returned by this iterator
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * read the remaining triples of the input
+	 *
+	 * @return the number of triples of the input
+	 */
+	public long readAll() {
+		while (hasNext()) {
+			next();
+		}
+		return count;
+	}
+
+	@Override
+	public boolean hasNext() {
+		return index < head.size() || iterator.hasNext();
+	}
+
+	@Override
+	public TripleString next() {
+		if (index < head.size()) {
+			count++;
+			// release the triple
+			return head.set(index++, null);
+		}
+		if (!iterator.hasNext()) {
+			throw new NoSuchElementException();
+		}
+		count++;
+		return iterator.next();
+	}
+}
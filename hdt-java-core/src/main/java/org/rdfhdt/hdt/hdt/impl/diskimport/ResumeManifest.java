@@ -0,0 +1,142 @@
+package org.rdfhdt.hdt.hdt.impl.diskimport;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * Manifest of a resumable generation, store the state of the completed phases in a properties file of the working
+ * directory. The file is synced and replaced atomically by {@link #save()}, a crash keeps the previous state.
+ *
+ * @see org.rdfhdt.hdt.options.HDTOptionsKeys#LOADER_DISK_RESUMABLE_KEY
+ * @see org.rdfhdt.hdt.options.HDTOptionsKeys#LOADER_CATTREE_RESUMABLE_KEY
+ */
+public class ResumeManifest {
+	/**
+	 * name of the manifest file in the working directory
+	 */
+	public static final String FILE_NAME = "resume.properties";
+
+	/**
+	 * read the manifest of a working directory
+	 *
+	 * @param directory the working directory
+	 * @return manifest, empty if the directory doesn't contain a manifest
+	 * @throws IOException can't read the manifest
+	 */
+	public static ResumeManifest of(Path directory) throws IOException {
+		ResumeManifest manifest = new ResumeManifest(directory.resolve(FILE_NAME));
+		if (Files.exists(manifest.file)) {
+			try (InputStream is = Files.newInputStream(manifest.file)) {
+				manifest.properties.load(is);
+			}
+		}
+		return manifest;
+	}
+
+	private final Path file;
+	private final Properties properties = new Properties();
+
+	private ResumeManifest(Path file) {
+		this.file = file;
+	}
+
+	/**
+	 * @return if the manifest doesn't contain any state
+	 */
+	public boolean isEmpty() {
+		return properties.isEmpty();
+	}
+
+	/**
+	 * @param key the key
+	 * @return the value, null if not defined
+	 */
+	public String get(String key) {
+		return properties.getProperty(key);
+	}
+
+	/**
+	 * @param key the key
+	 * @return the value as a long
+	 * @throws IOException if the value isn't defined or isn't a long
+	 */
+	public long getLong(String key) throws IOException {
+		String value = get(key);
+		if (value == null) {
+			throw new IOException("Missing key in the resume manifest: " + key);
+		}
+		try {
+			return Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			throw new IOException("Bad value in the resume manifest for the key " + key + ": " + value, e);
+		}
+	}
+
+	/**
+	 * @param key   the key
+	 * @param value the value
+	 * @return if the manifest contains this value
+	 */
+	public boolean matches(String key, Object value) {
+		return Objects.equals(get(key), String.valueOf(value));
+	}
+
+	/**
+	 * set a value, {@link #save()} should be called to write it
+	 *
+	 * @param key   the key
+	 * @param value the value
+	 * @return this
+	 */
+	public ResumeManifest set(String key, Object value) {
+		properties.setProperty(key, String.valueOf(value));
+		return this;
+	}
+
+	/**
+	 * remove a value, {@link #save()} should be called to write it
+	 *
+	 * @param key the key
+	 * @return this
+	 */
+	public ResumeManifest remove(String key) {
+		properties.remove(key);
+		return this;
+	}
+
+	/**
+	 * write the manifest, replace the previous one atomically
+	 *
+	 * @throws IOException can't write the manifest
+	 */
+	public void save() throws IOException {
+		Path tmp = file.resolveSibling(FILE_NAME + ".tmp");
+		try (FileOutputStream os = new FileOutputStream(tmp.toFile())) {
+			properties.store(os, "resume manifest");
+			// the manifest should be on the disk before the phase is considered done
+			os.getFD().sync();
+		}
+		try {
+			Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * remove all the values and delete the manifest file
+	 *
+	 * @throws IOException can't delete the manifest
+	 */
+	public void clear() throws IOException {
+		properties.clear();
+		Files.deleteIfExists(file);
+	}
+}
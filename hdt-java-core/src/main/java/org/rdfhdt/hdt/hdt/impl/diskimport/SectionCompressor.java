@@ -1,20 +1,22 @@
 package org.rdfhdt.hdt.hdt.impl.diskimport;
 
 import org.rdfhdt.hdt.iterator.utils.AsyncIteratorFetcher;
+import org.rdfhdt.hdt.iterator.utils.ExceptionIterator;
 import org.rdfhdt.hdt.iterator.utils.SizeFetcher;
 import org.rdfhdt.hdt.listener.MultiThreadListener;
-import org.rdfhdt.hdt.triples.IndexedNode;
 import org.rdfhdt.hdt.triples.TripleString;
-import org.rdfhdt.hdt.util.ParallelSortableArrayList;
+import org.rdfhdt.hdt.util.IndexedNodeArena;
 import org.rdfhdt.hdt.util.concurrent.ExceptionFunction;
 import org.rdfhdt.hdt.util.concurrent.ExceptionSupplier;
 import org.rdfhdt.hdt.util.concurrent.ExceptionThread;
 import org.rdfhdt.hdt.util.concurrent.KWayMerger;
+import org.rdfhdt.hdt.util.concurrent.MemoryBudget;
 import org.rdfhdt.hdt.util.io.CloseSuppressPath;
 import org.rdfhdt.hdt.util.io.IOUtil;
 import org.rdfhdt.hdt.util.io.compress.CompressNodeMergeIterator;
 import org.rdfhdt.hdt.util.io.compress.CompressNodeReader;
 import org.rdfhdt.hdt.util.io.compress.CompressUtil;
+import org.rdfhdt.hdt.util.jfr.DictionarySectionEvent;
 import org.rdfhdt.hdt.util.listener.IntermediateListener;
 import org.rdfhdt.hdt.util.string.ByteString;
 import org.rdfhdt.hdt.util.string.CompactString;
@@ -40,6 +42,10 @@ import java.util.function.Supplier;
  */
 public class SectionCompressor implements KWayMerger.KWayMergerImpl<TripleString, SizeFetcher<TripleString>> {
 	private static final Logger log = LoggerFactory.getLogger(SectionCompressor.class);
+	/**
+	 * estimation of the memory used by a chunk divided by its size
+	 */
+	public static final double CHUNK_MEMORY_FACTOR = 1.5 * 3;
 
 	private final CloseSuppressPath baseFileName;
 	private final AsyncIteratorFetcher<TripleString> source;
@@ -50,6 +56,7 @@ public class SectionCompressor implements KWayMerger.KWayMergerImpl<TripleString
 	private final long chunkSize;
 	private final int k;
 	private final boolean debugSleepKwayDict;
+	private MemoryBudget memoryBudget;
 
 	public SectionCompressor(CloseSuppressPath baseFileName, AsyncIteratorFetcher<TripleString> source, MultiThreadListener listener, int bufferSize, long chunkSize, int k, boolean debugSleepKwayDict) {
 		this.source = source;
@@ -61,6 +68,17 @@ public class SectionCompressor implements KWayMerger.KWayMergerImpl<TripleString
 		this.debugSleepKwayDict = debugSleepKwayDict;
 	}
 
+	/**
+	 * reserve the memory of the chunks from a budget while merging with workers
+	 *
+	 * @param memoryBudget the budget, null to use fixed chunk sizes
+	 * @return this
+	 */
+	public SectionCompressor withMemoryBudget(MemoryBudget memoryBudget) {
+		this.memoryBudget = memoryBudget;
+		return this;
+	}
+
 	/*
 	 * FIXME: create a factory and override these methods with the hdt spec
 	 */
@@ -109,6 +127,9 @@ public class SectionCompressor implements KWayMerger.KWayMergerImpl<TripleString
 	public CompressionResult compressToFile(int workers) throws IOException, InterruptedException, KWayMerger.KWayMergerException {
 		// force to create the first file
 		KWayMerger<TripleString, SizeFetcher<TripleString>> merger = new KWayMerger<>(baseFileName, source, this, Math.max(1, workers - 1), k);
+		if (memoryBudget != null) {
+			merger.withMemoryBudget(memoryBudget, chunkSize, CHUNK_MEMORY_FACTOR);
+		}
 		merger.start();
 		// wait for the workers to merge the sections and create the triples
 		Optional<CloseSuppressPath> sections = merger.waitResult();
@@ -118,6 +139,19 @@ public class SectionCompressor implements KWayMerger.KWayMergerImpl<TripleString
 		return new CompressionResultFile(triples.get(), ntRawSize.get(), new TripleFile(sections.get(), false));
 	}
 
+	/**
+	 * open the pre-sections files of a previous {@link #compressToFile(int)} call, used to resume a generation
+	 *
+	 * @param sections    the directory of the pre-sections files, see {@link TripleFile#getRoot()}
+	 * @param tripleCount the number of triples
+	 * @param ntRawSize   the raw size of the triples
+	 * @return compression result
+	 * @throws IOException can't open the files
+	 */
+	public CompressionResult openResult(CloseSuppressPath sections, long tripleCount, long ntRawSize) throws IOException {
+		return new CompressionResultFile(tripleCount, ntRawSize, new TripleFile(sections, false));
+	}
+
 	/**
 	 * Compress the stream into multiple pre-sections files and merge them on the fly
 	 *
@@ -183,9 +217,9 @@ public class SectionCompressor implements KWayMerger.KWayMergerImpl<TripleString
 
 		listener.notifyProgress(0, "start reading triples");
 
-		ParallelSortableArrayList<IndexedNode> subjects = new ParallelSortableArrayList<>(IndexedNode[].class);
-		ParallelSortableArrayList<IndexedNode> predicates = new ParallelSortableArrayList<>(IndexedNode[].class);
-		ParallelSortableArrayList<IndexedNode> objects = new ParallelSortableArrayList<>(IndexedNode[].class);
+		IndexedNodeArena subjects = new IndexedNodeArena();
+		IndexedNodeArena predicates = new IndexedNodeArena();
+		IndexedNodeArena objects = new IndexedNodeArena();
 
 		listener.notifyProgress(10, "reading triples " + triples.get());
 		TripleString next;
@@ -202,33 +236,16 @@ public class SectionCompressor implements KWayMerger.KWayMergerImpl<TripleString
 			// load the map triple and write it in the writer
 			long tripleID = triples.incrementAndGet();
 
-			// get indexed mapped char sequence
-			IndexedNode subjectNode = new IndexedNode(
-					convertSubject(next.getSubject()),
-					tripleID
-			);
-			subjects.add(subjectNode);
-
-			// get indexed mapped char sequence
-			IndexedNode predicateNode = new IndexedNode(
-					convertPredicate(next.getPredicate()),
-					tripleID
-			);
-			predicates.add(predicateNode);
-
-			// get indexed mapped char sequence
-			IndexedNode objectNode = new IndexedNode(
-					convertObject(next.getObject()),
-					tripleID
-			);
-			objects.add(objectNode);
-
+			// get indexed mapped char sequence, the bytes are copied into the arenas
+			subjects.add(convertSubject(next.getSubject()), tripleID);
+			predicates.add(convertPredicate(next.getPredicate()), tripleID);
+			objects.add(convertObject(next.getObject()), tripleID);
 
 			if (tripleID % 100_000 == 0) {
 				listener.notifyProgress(10, "reading triples " + tripleID);
 			}
 			// too much ram allowed?
-			if (subjects.size() == Integer.MAX_VALUE - 6) {
+			if (subjects.isFull()) {
 				break;
 			}
 		}
@@ -243,22 +260,19 @@ public class SectionCompressor implements KWayMerger.KWayMergerImpl<TripleString
 				il.setPrefix("creating subjects section " + sections.root.getFileName() + ": ");
 				il.notifyProgress(0, "sorting");
 				try (OutputStream stream = sections.openWSubject()) {
-					subjects.parallelSort(IndexedNode::compareTo);
-					CompressUtil.writeCompressedSection(subjects, stream, il);
+					writeSection(subjects, stream, il);
 				}
 				il.setRange(80, 90);
 				il.setPrefix("creating predicates section " + sections.root.getFileName() + ": ");
 				il.notifyProgress(0, "sorting");
 				try (OutputStream stream = sections.openWPredicate()) {
-					predicates.parallelSort(IndexedNode::compareTo);
-					CompressUtil.writeCompressedSection(predicates, stream, il);
+					writeSection(predicates, stream, il);
 				}
 				il.setRange(90, 100);
 				il.setPrefix("creating objects section " + sections.root.getFileName() + ": ");
 				il.notifyProgress(0, "sorting");
 				try (OutputStream stream = sections.openWObject()) {
-					objects.parallelSort(IndexedNode::compareTo);
-					CompressUtil.writeCompressedSection(objects, stream, il);
+					writeSection(objects, stream, il);
 				}
 			} finally {
 				subjects.clear();
@@ -271,6 +285,13 @@ public class SectionCompressor implements KWayMerger.KWayMergerImpl<TripleString
 		}
 	}
 
+	private static void writeSection(IndexedNodeArena nodes, OutputStream stream, IntermediateListener il) throws IOException {
+		nodes.parallelSort();
+		CompressUtil.writeCompressedSection(ExceptionIterator.of(nodes.iterator()), nodes.size(), stream, il);
+		// release the memory of the section before sorting the next one
+		nodes.clear();
+	}
+
 	@Override
 	public void mergeChunks(List<CloseSuppressPath> inputs, CloseSuppressPath output) throws KWayMerger.KWayMergerException {
 		TripleFile sections;
@@ -291,7 +312,12 @@ public class SectionCompressor implements KWayMerger.KWayMergerImpl<TripleString
 
 	@Override
 	public SizeFetcher<TripleString> newStopFlux(Supplier<TripleString> flux) {
-		return SizeFetcher.ofTripleString(flux, chunkSize);
+		return newStopFlux(flux, chunkSize);
+	}
+
+	@Override
+	public SizeFetcher<TripleString> newStopFlux(Supplier<TripleString> flux, long maxSize) {
+		return SizeFetcher.ofTripleString(flux, maxSize);
 	}
 
 	/**
@@ -326,6 +352,13 @@ public class SectionCompressor implements KWayMerger.KWayMergerImpl<TripleString
 			root.close();
 		}
 
+		/**
+		 * @return the directory of the files
+		 */
+		public CloseSuppressPath getRoot() {
+			return root;
+		}
+
 		/**
 		 * @return open a write stream to the subject file
 		 * @throws IOException can't open the stream
@@ -438,6 +471,8 @@ public class SectionCompressor implements KWayMerger.KWayMergerImpl<TripleString
 			}
 			il.setPrefix("merging " + section + " section " + root.getFileName() + ": ");
 			il.notifyProgress(0, "merging section");
+			DictionarySectionEvent event = new DictionarySectionEvent();
+			event.begin();
 
 			// readers to create the merge tree
 			CompressNodeReader[] readers = new CompressNodeReader[triples.size()];
@@ -455,6 +490,7 @@ public class SectionCompressor implements KWayMerger.KWayMergerImpl<TripleString
 				try (OutputStream output = openW.get()) { // IndexNodeDeltaMergeExceptionIterator
 					CompressUtil.writeCompressedSection(CompressNodeMergeIterator.buildOfTree(readers), size, output, il);
 				}
+				event.finish(DictionarySectionEvent.OPERATION_MERGE, section, size, 0);
 			} finally {
 				if (async) {
 					listener.unregisterThread(Thread.currentThread().getName());
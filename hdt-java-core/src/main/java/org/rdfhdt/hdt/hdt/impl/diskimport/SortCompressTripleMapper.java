@@ -0,0 +1,321 @@
+package org.rdfhdt.hdt.hdt.impl.diskimport;
+
+import org.rdfhdt.hdt.iterator.utils.ExceptionIterator;
+import org.rdfhdt.hdt.triples.TripleID;
+import org.rdfhdt.hdt.util.ParallelSortableArrayList;
+import org.rdfhdt.hdt.util.concurrent.MemoryBudget;
+import org.rdfhdt.hdt.util.io.CloseSuppressPath;
+import org.rdfhdt.hdt.util.io.IOUtil;
+import org.rdfhdt.hdt.util.io.compress.CompressUtil;
+import org.rdfhdt.hdt.util.io.compress.Pair;
+import org.rdfhdt.hdt.util.io.compress.PairMergeIterator;
+import org.rdfhdt.hdt.util.io.compress.PairReader;
+import org.rdfhdt.hdt.util.io.compress.PairWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Map a compress triple file with sorted files, the (triple id, new id) pairs are sorted by chunks and merged by
+ * triple id, the mapping is only read and written sequentially, unlike {@link ArrayCompressTripleMapper}.
+ * <p>
+ * The pairs are stored in {@link Pair}, the triple id in {@link Pair#predicatePosition} and the new id in
+ * {@link Pair#object}.
+ */
+public class SortCompressTripleMapper implements CompressTripleMapper {
+	private static final Logger log = LoggerFactory.getLogger(SortCompressTripleMapper.class);
+	private static final Comparator<Pair> TRIPLE_ID_COMPARATOR = Comparator.comparingLong(p -> p.predicatePosition);
+	/**
+	 * estimated size of a buffered pair in memory
+	 */
+	private static final long PAIR_SIZE = 64;
+
+	private final MappingRuns subjects;
+	private final MappingRuns predicates;
+	private final MappingRuns objects;
+	private final long tripleCount;
+	private long shared = -1;
+	private final List<PairReader> readers = new ArrayList<>();
+	private final MemoryBudget.Reservation reservation;
+
+	/**
+	 * create the mapper
+	 *
+	 * @param location   the directory to write the mapping
+	 * @param tripleCount the number of triples
+	 * @param chunkSize  the maximum memory used to buffer the pairs
+	 * @param k          the maximum number of files to merge at the same time
+	 * @param bufferSize the size of the file buffers
+	 * @param memoryBudget budget to reserve the buffer memory until the mapping is complete, null to use chunkSize
+	 * @throws IOException can't create the directories
+	 */
+	public SortCompressTripleMapper(CloseSuppressPath location, long tripleCount, long chunkSize, int k, int bufferSize, MemoryBudget memoryBudget) throws IOException {
+		this.tripleCount = tripleCount;
+		long bufferMemory = chunkSize;
+		if (memoryBudget != null) {
+			try {
+				reservation = memoryBudget.reserve(Math.max(1, chunkSize / 4), Math.max(1, chunkSize));
+			} catch (InterruptedException e) {
+				throw new IOException("Interrupted while reserving the mapping memory", e);
+			}
+			bufferMemory = reservation.getSize();
+		} else {
+			reservation = null;
+		}
+		int maxElement = (int) Math.max(16, Math.min(bufferMemory / PAIR_SIZE / 3, Integer.MAX_VALUE - 5));
+		int ways = Math.max(2, k);
+		subjects = new MappingRuns(location.resolve("map_subjects"), maxElement, ways, bufferSize);
+		predicates = new MappingRuns(location.resolve("map_predicates"), maxElement, ways, bufferSize);
+		objects = new MappingRuns(location.resolve("map_objects"), maxElement, ways, bufferSize);
+	}
+
+	@Override
+	public void onSubject(long preMapId, long newMapId) {
+		assert preMapId > 0;
+		assert newMapId >= CompressUtil.getHeaderId(1);
+		subjects.add(preMapId, newMapId);
+	}
+
+	@Override
+	public void onPredicate(long preMapId, long newMapId) {
+		assert preMapId > 0;
+		assert newMapId >= CompressUtil.getHeaderId(1);
+		predicates.add(preMapId, newMapId);
+	}
+
+	@Override
+	public void onObject(long preMapId, long newMapId) {
+		assert preMapId > 0;
+		assert newMapId >= CompressUtil.getHeaderId(1);
+		objects.add(preMapId, newMapId);
+	}
+
+	@Override
+	public void setShared(long shared) {
+		this.shared = shared;
+	}
+
+	@Override
+	public ExceptionIterator<TripleID, IOException> mapTriples() throws IOException {
+		if (this.shared < 0) {
+			throw new IllegalArgumentException("Shared not set!");
+		}
+		PairReader subjectReader = subjects.complete();
+		readers.add(subjectReader);
+		PairReader predicateReader = predicates.complete();
+		readers.add(predicateReader);
+		PairReader objectReader = objects.complete();
+		readers.add(objectReader);
+		// the buffers are released
+		releaseMemory();
+
+		return new ExceptionIterator<>() {
+			private long tripleId;
+
+			@Override
+			public boolean hasNext() {
+				return tripleId < tripleCount;
+			}
+
+			@Override
+			public TripleID next() throws IOException {
+				tripleId++;
+				return new TripleID(
+						read(subjectReader, tripleId),
+						read(predicateReader, tripleId) - shared,
+						read(objectReader, tripleId)
+				);
+			}
+
+			@Override
+			public long getSize() {
+				return tripleCount;
+			}
+		};
+	}
+
+	private void releaseMemory() {
+		if (reservation != null) {
+			reservation.close();
+		}
+	}
+
+	private long read(PairReader reader, long tripleId) throws IOException {
+		if (!reader.hasNext()) {
+			throw new IOException("No mapping for the triple " + tripleId);
+		}
+		Pair pair = reader.next();
+		if (pair.predicatePosition != tripleId) {
+			throw new IOException("Bad mapping order, read triple " + pair.predicatePosition + " instead of " + tripleId);
+		}
+		// compute shared if required
+		return CompressUtil.computeSharedNode(pair.object, shared);
+	}
+
+	@Override
+	public void delete() {
+		releaseMemory();
+		try {
+			IOUtil.closeAll(readers);
+		} catch (IOException e) {
+			log.warn("Can't close triple map readers", e);
+		}
+		try {
+			IOUtil.closeAll(subjects, predicates, objects);
+		} catch (IOException e) {
+			log.warn("Can't delete triple map files", e);
+		}
+	}
+
+	@Override
+	public long getTripleCount() {
+		return tripleCount;
+	}
+
+	/**
+	 * sorted runs of the mapping of one triple component, the runs are merged by levels of k runs and written
+	 * round-robin over the stripes of the root
+	 */
+	private static class MappingRuns implements Closeable {
+		private final CloseSuppressPath root;
+		private final List<CloseSuppressPath> stripes;
+		private final int maxElement;
+		private final int k;
+		private final int bufferSize;
+		private final List<List<CloseSuppressPath>> levels = new ArrayList<>();
+		private ParallelSortableArrayList<Pair> buffer;
+		private long runId;
+
+		private MappingRuns(CloseSuppressPath root, int maxElement, int k, int bufferSize) throws IOException {
+			this.root = root;
+			this.maxElement = maxElement;
+			this.k = k;
+			this.bufferSize = bufferSize;
+			root.closeWithDeleteRecurse();
+			root.mkdirs();
+			stripes = root.getStripes();
+		}
+
+		synchronized void add(long tripleId, long newId) {
+			if (buffer == null) {
+				buffer = new ParallelSortableArrayList<>(Pair[].class);
+			}
+			Pair pair = new Pair();
+			pair.setAll(tripleId, newId, 0);
+			buffer.add(pair);
+			if (buffer.size() >= maxElement) {
+				try {
+					flush();
+				} catch (IOException e) {
+					throw new RuntimeException("Can't write triple map run", e);
+				}
+			}
+		}
+
+		private CloseSuppressPath nextRun() {
+			long id = runId++;
+			return stripes.get((int) (id % stripes.size())).resolve("run" + id);
+		}
+
+		/**
+		 * write the buffer into a new sorted run
+		 */
+		private void flush() throws IOException {
+			if (buffer == null || buffer.isEmpty()) {
+				return;
+			}
+			buffer.parallelSort(TRIPLE_ID_COMPARATOR);
+			CloseSuppressPath run = nextRun();
+			try (PairWriter writer = new PairWriter(run.openOutputStream(bufferSize), buffer.size())) {
+				for (Pair pair : buffer) {
+					writer.append(pair);
+				}
+			}
+			buffer.clear();
+			addRun(0, run);
+		}
+
+		private void addRun(int level, CloseSuppressPath run) throws IOException {
+			while (levels.size() <= level) {
+				levels.add(new ArrayList<>());
+			}
+			List<CloseSuppressPath> runs = levels.get(level);
+			runs.add(run);
+			if (runs.size() >= k) {
+				CloseSuppressPath merged = merge(runs);
+				runs.clear();
+				addRun(level + 1, merged);
+			}
+		}
+
+		/**
+		 * merge runs into one run and delete them
+		 *
+		 * @param runs the runs
+		 * @return the merged run
+		 */
+		private CloseSuppressPath merge(List<CloseSuppressPath> runs) throws IOException {
+			PairReader[] readers = new PairReader[runs.size()];
+			CloseSuppressPath output = nextRun();
+			try {
+				long size = 0;
+				for (int i = 0; i < readers.length; i++) {
+					readers[i] = new PairReader(runs.get(i).openInputStream(bufferSize));
+					size += readers[i].getSize();
+				}
+				try (PairWriter writer = new PairWriter(output.openOutputStream(bufferSize), size)) {
+					ExceptionIterator<Pair, IOException> it = PairMergeIterator.buildOfTree(readers, TRIPLE_ID_COMPARATOR);
+					while (it.hasNext()) {
+						writer.append(it.next());
+					}
+				}
+			} finally {
+				IOUtil.closeAll(readers);
+			}
+			IOUtil.closeAll(runs);
+			return output;
+		}
+
+		/**
+		 * write the remaining pairs and merge all the runs
+		 *
+		 * @return reader of the complete mapping
+		 */
+		synchronized PairReader complete() throws IOException {
+			flush();
+			buffer = null;
+			List<CloseSuppressPath> runs = new ArrayList<>();
+			levels.forEach(runs::addAll);
+			levels.clear();
+			while (runs.size() > 1) {
+				List<CloseSuppressPath> merged = runs.subList(0, Math.min(k, runs.size()));
+				CloseSuppressPath run = merge(merged);
+				merged.clear();
+				runs.add(run);
+			}
+			if (runs.isEmpty()) {
+				CloseSuppressPath run = nextRun();
+				new PairWriter(run.openOutputStream(bufferSize), 0).close();
+				runs.add(run);
+			}
+			levels.add(runs);
+			return new PairReader(runs.get(0).openInputStream(bufferSize));
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				for (List<CloseSuppressPath> runs : levels) {
+					IOUtil.closeAll(runs);
+				}
+			} finally {
+				root.close();
+			}
+		}
+	}
+}
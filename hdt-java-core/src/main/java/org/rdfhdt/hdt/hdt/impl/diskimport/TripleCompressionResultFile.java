@@ -19,6 +19,7 @@ public class TripleCompressionResultFile implements TripleCompressionResult {
 	private final CompressTripleReader reader;
 	private final TripleComponentOrder order;
 	private final CloseSuppressPath triples;
+	private boolean keepFile;
 
 	public TripleCompressionResultFile(long tripleCount, CloseSuppressPath triples, TripleComponentOrder order, int bufferSize) throws IOException {
 		this.tripleCount = tripleCount;
@@ -27,6 +28,23 @@ public class TripleCompressionResultFile implements TripleCompressionResult {
 		this.triples = triples;
 	}
 
+	/**
+	 * keep the file of the compressed triples after the close, used to resume a generation
+	 *
+	 * @return this
+	 */
+	public TripleCompressionResultFile keepFile() {
+		keepFile = true;
+		return this;
+	}
+
+	/**
+	 * @return the file of the compressed triples
+	 */
+	public CloseSuppressPath getTriplesPath() {
+		return triples;
+	}
+
 	@Override
 	public TempTriples getTriples() {
 		return new OneReadTempTriples(reader.asIterator(), order, tripleCount);
@@ -39,6 +57,10 @@ public class TripleCompressionResultFile implements TripleCompressionResult {
 
 	@Override
 	public void close() throws IOException {
-		IOUtil.closeAll(reader, triples);
+		if (keepFile) {
+			reader.close();
+		} else {
+			IOUtil.closeAll(reader, triples);
+		}
 	}
 }
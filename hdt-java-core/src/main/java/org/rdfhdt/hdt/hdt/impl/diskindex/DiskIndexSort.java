@@ -6,6 +6,7 @@ import org.rdfhdt.hdt.iterator.utils.SizeFetcher;
 import org.rdfhdt.hdt.listener.MultiThreadListener;
 import org.rdfhdt.hdt.util.ParallelSortableArrayList;
 import org.rdfhdt.hdt.util.concurrent.KWayMerger;
+import org.rdfhdt.hdt.util.concurrent.MemoryBudget;
 import org.rdfhdt.hdt.util.io.CloseSuppressPath;
 import org.rdfhdt.hdt.util.io.IOUtil;
 import org.rdfhdt.hdt.util.io.compress.Pair;
@@ -27,6 +28,10 @@ import java.util.function.Supplier;
  * @author Antoine Willerval
  */
 public class DiskIndexSort implements KWayMerger.KWayMergerImpl<Pair, SizeFetcher<Pair>> {
+    /**
+     * estimation of the memory used by a chunk divided by its size
+     */
+    public static final double CHUNK_MEMORY_FACTOR = 3;
     private final CloseSuppressPath baseFileName;
     private final AsyncIteratorFetcher<Pair> source;
     private final MultiThreadListener listener;
@@ -35,6 +40,7 @@ public class DiskIndexSort implements KWayMerger.KWayMergerImpl<Pair, SizeFetche
     private final int k;
     private final Comparator<Pair> comparator;
     private final AtomicLong read = new AtomicLong();
+    private MemoryBudget memoryBudget;
 
     public DiskIndexSort(CloseSuppressPath baseFileName, AsyncIteratorFetcher<Pair> source, MultiThreadListener listener, int bufferSize, long chunkSize, int k, Comparator<Pair> comparator) {
         this.source = source;
@@ -46,6 +52,17 @@ public class DiskIndexSort implements KWayMerger.KWayMergerImpl<Pair, SizeFetche
         this.comparator = comparator;
     }
 
+    /**
+     * reserve the memory of the chunks from a budget
+     *
+     * @param memoryBudget the budget, null to use fixed chunk sizes
+     * @return this
+     */
+    public DiskIndexSort withMemoryBudget(MemoryBudget memoryBudget) {
+        this.memoryBudget = memoryBudget;
+        return this;
+    }
+
     @Override
     public void createChunk(SizeFetcher<Pair> flux, CloseSuppressPath output) throws KWayMerger.KWayMergerException {
         ParallelSortableArrayList<Pair> pairs = new ParallelSortableArrayList<>(Pair[].class);
@@ -122,7 +139,12 @@ public class DiskIndexSort implements KWayMerger.KWayMergerImpl<Pair, SizeFetche
 
     @Override
     public SizeFetcher<Pair> newStopFlux(Supplier<Pair> flux) {
-        return SizeFetcher.of(flux, p -> 3 * Long.BYTES, chunkSize);
+        return newStopFlux(flux, chunkSize);
+    }
+
+    @Override
+    public SizeFetcher<Pair> newStopFlux(Supplier<Pair> flux, long maxSize) {
+        return SizeFetcher.of(flux, p -> 3 * Long.BYTES, maxSize);
     }
 
     /**
@@ -138,6 +160,9 @@ public class DiskIndexSort implements KWayMerger.KWayMergerImpl<Pair, SizeFetche
         listener.notifyProgress(0, "Pair sort asked in " + baseFileName.toAbsolutePath());
         // force to create the first file
         KWayMerger<Pair, SizeFetcher<Pair>> merger = new KWayMerger<>(baseFileName, source, this, Math.max(1, workers - 1), k);
+        if (memoryBudget != null) {
+            merger.withMemoryBudget(memoryBudget, chunkSize, CHUNK_MEMORY_FACTOR);
+        }
         merger.start();
         // wait for the workers to merge the sections and create the triples
         Optional<CloseSuppressPath> sections = merger.waitResult();
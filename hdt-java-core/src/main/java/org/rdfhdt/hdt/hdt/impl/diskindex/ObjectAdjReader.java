@@ -5,15 +5,22 @@ import org.rdfhdt.hdt.compact.sequence.Sequence;
 import org.rdfhdt.hdt.iterator.utils.FetcherIterator;
 import org.rdfhdt.hdt.util.io.compress.Pair;
 
+import java.util.PrimitiveIterator;
+
 public class ObjectAdjReader extends FetcherIterator<Pair> {
     private final Sequence seqZ, seqY;
     private final Bitmap bitmapZ;
+    private final PrimitiveIterator.OfLong itZ;
     private long indexY, indexZ;
+    // last position of the current list of Z
+    private long lastZ = -1;
+    private long predicate;
 
     public ObjectAdjReader(Sequence seqZ, Sequence seqY, Bitmap bitmapZ) {
         this.seqZ = seqZ;
         this.seqY = seqY;
         this.bitmapZ = bitmapZ;
+        this.itZ = seqZ.iterator(0, seqZ.getNumberOfElements());
     }
 
     @Override
@@ -22,16 +29,22 @@ public class ObjectAdjReader extends FetcherIterator<Pair> {
             return null;
         }
 
+        if (indexZ > lastZ) {
+            // start of a new list, find its end with one scan of the bitmap
+            if (lastZ != -1) {
+                indexY++;
+            }
+            lastZ = bitmapZ.selectNext1(indexZ);
+            predicate = seqY.get(indexY);
+        }
+
         Pair pair = new Pair();
         // create a pair object
-        pair.object = seqZ.get(indexZ);
+        pair.object = itZ.nextLong();
         pair.predicatePosition = indexY;
-        pair.predicate = seqY.get(indexY);
+        pair.predicate = predicate;
 
-        // shift to the next predicate if required
-        if (bitmapZ.access(indexZ++)) {
-            indexY++;
-        }
+        indexZ++;
         return pair;
     }
 }
@@ -11,6 +11,7 @@ public class FluxStopTripleStringIterator implements Iterator<TripleString> {
 	private final Iterator<TripleString> iterator;
 	private final RDFFluxStop fluxStop;
 	private boolean stop;
+	private long count;
 
 	public FluxStopTripleStringIterator(Iterator<TripleString> iterator, RDFFluxStop fluxStop) {
 		this.iterator = iterator;
@@ -58,8 +59,16 @@ public class FluxStopTripleStringIterator implements Iterator<TripleString> {
 			return next;
 		} finally {
 			next = null;
+			count++;
 		}
 	}
 
+	/**
+	 * @return the number of triples returned by this iterator
+	 */
+	public long getCount() {
+		return count;
+	}
+
 
 }
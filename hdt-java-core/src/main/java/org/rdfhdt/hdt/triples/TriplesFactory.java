@@ -89,12 +89,26 @@ public class TriplesFactory {
 	 * @return Triples
 	 */
 	public static TriplesPrivate createTriples(ControlInfo ci) throws IOException {
+		return createTriples(ci, new HDTSpecification());
+	}
+
+	/**
+	 * Creates a new Triples based on a ControlInformation
+	 *
+	 * @param ci
+	 *            The ControlInfo to read
+	 * @param spec
+	 *            options of the triples, for example the residency of the mapped sequences
+	 * @return Triples
+	 */
+	public static TriplesPrivate createTriples(ControlInfo ci, HDTOptions spec) throws IOException {
+		spec = HDTOptions.ofNullable(spec);
 		String format = ci.getFormat();
 		
 		if(HDTVocabulary.TRIPLES_TYPE_TRIPLESLIST.equals(format)) {
-			return new TriplesList(new HDTSpecification());
+			return new TriplesList(spec);
 		} else if(HDTVocabulary.TRIPLES_TYPE_BITMAP.equals(format)) {
-			return new BitmapTriples();
+			return new BitmapTriples(spec);
 		} else {
 			throw new IllegalArgumentException("No implementation for Triples type: "+format);
 		}
@@ -36,6 +36,7 @@ import org.rdfhdt.hdt.compact.sequence.SequenceLog64;
 import org.rdfhdt.hdt.compact.sequence.SequenceLog64Big;
 import org.rdfhdt.hdt.compact.sequence.SequenceLog64BigDisk;
 import org.rdfhdt.hdt.dictionary.Dictionary;
+import org.rdfhdt.hdt.enums.ResultEstimationType;
 import org.rdfhdt.hdt.enums.TripleComponentOrder;
 import org.rdfhdt.hdt.exceptions.IllegalFormatException;
 import org.rdfhdt.hdt.hdt.HDTVocabulary;
@@ -57,11 +58,14 @@ import org.rdfhdt.hdt.triples.TriplesPrivate;
 import org.rdfhdt.hdt.util.BitUtil;
 import org.rdfhdt.hdt.util.StopWatch;
 import org.rdfhdt.hdt.util.concurrent.KWayMerger;
+import org.rdfhdt.hdt.util.concurrent.MemoryBudget;
 import org.rdfhdt.hdt.util.io.CloseSuppressPath;
 import org.rdfhdt.hdt.util.io.Closer;
 import org.rdfhdt.hdt.util.io.CountInputStream;
 import org.rdfhdt.hdt.util.io.IOUtil;
 import org.rdfhdt.hdt.util.io.compress.Pair;
+import org.rdfhdt.hdt.util.jfr.IndexStepEvent;
+import org.rdfhdt.hdt.util.jfr.TripleSearchEvent;
 import org.rdfhdt.hdt.util.listener.IntermediateListener;
 import org.rdfhdt.hdt.util.listener.ListenerUtil;
 import org.slf4j.Logger;
@@ -73,6 +77,9 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
 
 /**
  * @author mario.arias
@@ -94,6 +101,8 @@ public class BitmapTriples implements TriplesPrivate {
 	boolean diskSequence;
 	boolean diskSubIndex;
 	CreateOnUsePath diskSequenceLocation;
+	// read the sequences in memory in mapFromFile
+	boolean loadMappedSequences;
 
 	private boolean isClosed;
 
@@ -110,6 +119,7 @@ public class BitmapTriples implements TriplesPrivate {
 		}
 
 		loadDiskSequence(spec);
+		loadMappedSequences = HDTOptionsKeys.LOAD_HDT_TYPE_VALUE_LOAD.equals(spec.get(HDTOptionsKeys.LOAD_HDT_RESIDENCY_TRIPLES_KEY));
 
 		bitmapY = BitmapFactory.createBitmap(spec.get(HDTOptionsKeys.BITMAPTRIPLES_BITMAP_Y));
 		bitmapZ = BitmapFactory.createBitmap(spec.get(HDTOptionsKeys.BITMAPTRIPLES_BITMAP_Z));
@@ -285,6 +295,10 @@ public class BitmapTriples implements TriplesPrivate {
 	 */
 	@Override
 	public SuppliableIteratorTripleID search(TripleID pattern) {
+		return TripleSearchEvent.track(pattern, searchIterator(pattern));
+	}
+
+	private SuppliableIteratorTripleID searchIterator(TripleID pattern) {
 		if(isClosed) {
 			throw new IllegalStateException("Cannot search on BitmapTriples if it's already closed");
 		}
@@ -330,6 +344,50 @@ public class BitmapTriples implements TriplesPrivate {
 
 	}
 
+	/**
+	 * search the pattern with a spliterator, the ?P? patterns with the predicate index are split by occurrences of
+	 * the predicate and the patterns with a contiguous range of results are split by position with
+	 * {@link IteratorTripleID#goTo(long)}, the other patterns are read sequentially.
+	 *
+	 * @param pattern the pattern to match against
+	 * @return spliterator
+	 */
+	@Override
+	public Spliterator<TripleID> searchSplittable(TripleID pattern) {
+		if(isClosed) {
+			throw new IllegalStateException("Cannot search on BitmapTriples if it's already closed");
+		}
+
+		if (getNumberOfElements() == 0 || pattern.isNoMatch()) {
+			return Spliterators.emptySpliterator();
+		}
+
+		TripleID searchPattern = new TripleID(pattern);
+		TripleID reorderedPat = new TripleID(pattern);
+		TripleOrderConvert.swapComponentOrder(reorderedPat, TripleComponentOrder.SPO, order);
+
+		if (predicateIndex != null && reorderedPat.getPatternString().equals("?P?")) {
+			long patY = reorderedPat.getPredicate();
+			long occurrences = predicateIndex.getNumOcurrences(patY);
+			long estimatedSize = predicateCount != null ? predicateCount.get(patY - 1) : occurrences;
+			return new BitmapTriplesSpliterator(
+					(start, end) -> new BitmapTriplesIteratorYFOQ(this, searchPattern, start + 1, end),
+					0, occurrences, estimatedSize
+			);
+		}
+
+		SuppliableIteratorTripleID it = searchIterator(searchPattern);
+		if (!it.canGoTo() || it.numResultEstimation() != ResultEstimationType.EXACT) {
+			return TriplesPrivate.super.searchSplittable(searchPattern);
+		}
+
+		return new BitmapTriplesSpliterator((start, end) -> {
+			SuppliableIteratorTripleID partIt = searchIterator(searchPattern);
+			partIt.goTo(start);
+			return partIt;
+		}, 0, it.estimatedNumResults());
+	}
+
 	/* (non-Javadoc)
 	 * @see hdt.triples.Triples#searchAll()
 	 */
@@ -433,8 +491,16 @@ public class BitmapTriples implements TriplesPrivate {
 		bitmapZ = BitmapFactory.createBitmap(input);
 		bitmapZ.load(input, iListener);
 		
-		seqY = SequenceFactory.createStream(input, f);
-		seqZ = SequenceFactory.createStream(input, f);
+		if (loadMappedSequences) {
+			seqY = SequenceFactory.createStream(input);
+			seqY.load(input, iListener);
+
+			seqZ = SequenceFactory.createStream(input);
+			seqZ.load(input, iListener);
+		} else {
+			seqY = SequenceFactory.createStream(input, f);
+			seqZ = SequenceFactory.createStream(input, f);
+		}
 		
 		adjY = new AdjacencyList(seqY, bitmapY);
 		adjZ = new AdjacencyList(seqZ, bitmapZ);
@@ -490,7 +556,7 @@ public class BitmapTriples implements TriplesPrivate {
 	}
 
 	static long getMaxChunkSizeDiskIndex(int workers) {
-		return (long) (HDTDiskImporter.getAvailableMemory() * 0.85 / (3L * workers));
+		return (long) (HDTDiskImporter.getAvailableMemory() * 0.85 / (DiskIndexSort.CHUNK_MEMORY_FACTOR * workers));
 	}
 
 	private void createIndexObjectDisk(HDTOptions spec, Dictionary dictionary, ProgressListener plistener) throws IOException {
@@ -511,9 +577,12 @@ public class BitmapTriples implements TriplesPrivate {
 		if (workers <= 0) {
 			throw new IllegalArgumentException("Number of workers should be positive!");
 		}
+		MemoryBudget memoryBudget = spec.getBoolean(HDTOptionsKeys.BITMAPTRIPLES_DISK_MEMORY_BUDGET_KEY) ? MemoryBudget.getDefault() : null;
 		long chunkSize = spec.getInt(
 				HDTOptionsKeys.BITMAPTRIPLES_DISK_CHUNK_SIZE_KEY,
-				() -> getMaxChunkSizeDiskIndex(workers)
+				() -> memoryBudget == null
+						? getMaxChunkSizeDiskIndex(workers)
+						: (long) (memoryBudget.getCapacity() / (DiskIndexSort.CHUNK_MEMORY_FACTOR * workers))
 		);
 		if (chunkSize < 0) {
 			throw new IllegalArgumentException("Negative chunk size!");
@@ -546,16 +615,22 @@ public class BitmapTriples implements TriplesPrivate {
 			bufferSize = (int) bufferSizeLong;
 		}
 
+		boolean compressTempFiles = spec.getBoolean(HDTOptionsKeys.BITMAPTRIPLES_DISK_COMPRESS_TEMP_FILES_KEY);
+		CloseSuppressPath chunkLocation = CloseSuppressPath.ofLocations(
+				diskLocation.toString(),
+				spec.get(HDTOptionsKeys.BITMAPTRIPLES_DISK_STRIPE_LOCATIONS_KEY)
+		);
+
 		// start the indexing
 		DiskIndexSort sort = new DiskIndexSort(
-				CloseSuppressPath.of(diskLocation).resolve("chunks"),
+				chunkLocation.resolve("chunks").compressed(compressTempFiles),
 				new AsyncIteratorFetcher<>(new ObjectAdjReader(seqZ, seqY, bitmapZ)),
 				listener,
 				bufferSize,
 				chunkSize,
 				k,
 				Comparator.<Pair>comparingLong(p -> p.object).thenComparingLong(p -> p.predicate)
-		);
+		).withMemoryBudget(memoryBudget);
 
 		// Serialize
 		DynamicSequence indexZ = null;
@@ -629,9 +704,10 @@ public class BitmapTriples implements TriplesPrivate {
 			long size = Math.max(seqY.getNumberOfElements(), 1);
 			long block = size < 10 ? 1 : size / 10;
 
+			PrimitiveIterator.OfLong itY = seqY.iterator(0, seqY.getNumberOfElements());
 			for (long i = 0; i < seqY.getNumberOfElements(); i++) {
 				// Read value
-				long val = seqY.get(i);
+				long val = itY.nextLong();
 
 				if (i % block == 0) {
 					listener.notifyProgress(i / (block / 10f), "writing predCount " + i + "/" + size);
@@ -677,8 +753,9 @@ public class BitmapTriples implements TriplesPrivate {
 
 		try {
 			try (DynamicSequence objectCount = createSequence64(diskLocation, "objectCount", BitUtil.log2(seqZ.getNumberOfElements()), numReservedObjects)) {
+				PrimitiveIterator.OfLong itZ = seqZ.iterator(0, seqZ.getNumberOfElements());
 				for (long i = 0; i < seqZ.getNumberOfElements(); i++) {
-					long val = seqZ.get(i);
+					long val = itZ.nextLong();
 					if (val == 0) {
 						throw new RuntimeException("ERROR: There is a zero value in the Z level.");
 					}
@@ -718,8 +795,9 @@ public class BitmapTriples implements TriplesPrivate {
 			try (DynamicSequence objectInsertedCount = createSequence64(diskLocation, "objectInsertedCount", BitUtil.log2(maxCount), numDifferentObjects)) {
 				objectInsertedCount.resize(numDifferentObjects);
 
+				PrimitiveIterator.OfLong itZ = seqZ.iterator(0, seqZ.getNumberOfElements());
 				for (long i = 0; i < seqZ.getNumberOfElements(); i++) {
-					long objectValue = seqZ.get(i);
+					long objectValue = itZ.nextLong();
 					long posY = i > 0 ? bitmapZ.rank1(i - 1) : 0;
 
 					long insertBase = objectValue == 1 ? 0 : bitmapIndex.select1(objectValue - 1) + 1;
@@ -798,9 +876,10 @@ public class BitmapTriples implements TriplesPrivate {
 
 			// Count predicates
 			predCount = createSequence64(diskLocation, "predCount", BitUtil.log2(seqY.getNumberOfElements()), 0);
+			PrimitiveIterator.OfLong itY = seqY.iterator(0, seqY.getNumberOfElements());
 			for (long i = 0; i < seqY.getNumberOfElements(); i++) {
 				// Read value
-				long val = seqY.get(i);
+				long val = itY.nextLong();
 
 				// Grow if necessary
 				if (predCount.getNumberOfElements() < val) {
@@ -854,12 +933,13 @@ public class BitmapTriples implements TriplesPrivate {
 		System.out.println("Generating HDT Index for ?PO, and ??O queries.");
 		// Generate lists
 		long total=seqZ.getNumberOfElements();
+		PrimitiveIterator.OfLong itZ = seqZ.iterator(0, total);
 		for(long i=0;i<total;i++) {
 			Pair pair = new Pair();
 			pair.positionY = (int)adjZ.findListIndex(i);
 			pair.valueY = (int) seqY.get(pair.positionY);
 			
-			long valueZ = seqZ.get(i);
+			long valueZ = itZ.nextLong();
 
 			if(list.size()<=(int)valueZ) {
 				list.ensureCapacity((int)valueZ);
@@ -912,9 +992,10 @@ public class BitmapTriples implements TriplesPrivate {
 		
 		// Count predicates
 		SequenceLog64 predCount = new SequenceLog64(BitUtil.log2(seqY.getNumberOfElements()));
+		PrimitiveIterator.OfLong itY = seqY.iterator(0, seqY.getNumberOfElements());
 		for(long i=0;i<seqY.getNumberOfElements(); i++) {
 			// Read value
-			long val = seqY.get(i);
+			long val = itY.nextLong();
 
 			// Grow if necessary
 			if(predCount.getNumberOfElements()<val) {
@@ -939,6 +1020,8 @@ public class BitmapTriples implements TriplesPrivate {
 		loadDiskSequence(specIndex);
 		
 		String indexMethod = specIndex.get(HDTOptionsKeys.BITMAPTRIPLES_INDEX_METHOD_KEY, HDTOptionsKeys.BITMAPTRIPLES_INDEX_METHOD_VALUE_RECOMMENDED);
+		IndexStepEvent objectEvent = new IndexStepEvent();
+		objectEvent.begin();
 		switch (indexMethod) {
 			case HDTOptionsKeys.BITMAPTRIPLES_INDEX_METHOD_VALUE_RECOMMENDED:
 			case HDTOptionsKeys.BITMAPTRIPLES_INDEX_METHOD_VALUE_OPTIMIZED:
@@ -953,10 +1036,14 @@ public class BitmapTriples implements TriplesPrivate {
 			default:
 				throw new IllegalArgumentException("Unknown INDEXING METHOD: " + indexMethod);
 		}
+		objectEvent.finish("object index", indexMethod, getNumberOfElements());
 
 		predicateIndex = new PredicateIndexArray(this);
 		if (!specIndex.getBoolean("debug.bitmaptriples.ignorePredicateIndex", false)) {
+			IndexStepEvent predicateEvent = new IndexStepEvent();
+			predicateEvent.begin();
 			predicateIndex.generate(listener, specIndex, dictionary);
+			predicateEvent.finish("predicate index", indexMethod, getNumberOfElements());
 		} else {
 			System.err.println("WARNING!!! PREDICATE INDEX IGNORED, THE INDEX WON'T BE COMPLETED!");
 		}
@@ -114,7 +114,7 @@ public class BitmapTriplesIterator implements SuppliableIteratorTripleID {
 					} else {
 						// S P ?
 						minZ = adjZ.find(minY);
-						maxZ = adjZ.last(minY) + 1;
+						maxZ = adjZ.findNext(minZ) + 1;
 					}
 				}
 
@@ -122,7 +122,7 @@ public class BitmapTriplesIterator implements SuppliableIteratorTripleID {
 				// S ? X
 				minY = adjY.find(patX - 1);
 				minZ = adjZ.find(minY);
-				maxY = adjY.last(patX - 1) + 1;
+				maxY = adjY.findNext(minY) + 1;
 				maxZ = adjZ.find(maxY);
 			}
 			x = patX;
@@ -192,14 +192,18 @@ public class BitmapTriplesIterator implements SuppliableIteratorTripleID {
 	public TripleID previous() {
 		posZ--;
 
-		posY = adjZ.findListIndex(posZ);
-
 		z = adjZ.get(posZ);
-		y = adjY.get(posY);
-		x = adjY.findListIndex(posY)+1;
+		if (posZ < adjZ.findListStart(nextZ - 1)) {
+			// posZ is the last element of the previous list
+			posY--;
+			y = adjY.get(posY);
+			nextZ = posZ + 1;
 
-		nextY = adjY.last(x - 1) + 1;
-		nextZ = adjZ.last(posY) + 1;
+			if (posY < adjY.findListStart(nextY - 1)) {
+				x--;
+				nextY = posY + 1;
+			}
+		}
 
 		updateOutput();
 
@@ -220,8 +224,8 @@ public class BitmapTriplesIterator implements SuppliableIteratorTripleID {
         y = adjY.get(posY);
         x = adjY.findListIndex(posY)+1;
 
-		nextY = adjY.last(x - 1) + 1;
-		nextZ = adjZ.last(posY) + 1;
+		nextY = adjY.findNext(posY) + 1;
+		nextZ = adjZ.findNext(posZ) + 1;
 	}
 
 	/*
@@ -254,7 +258,11 @@ public class BitmapTriplesIterator implements SuppliableIteratorTripleID {
 	 */
 	@Override
 	public boolean canGoTo() {
-		return pattern.isEmpty();
+		// the results of ???, S??, SP? and SPO are the contiguous range [minZ, maxZ[, S?O is filtered
+		if (patX == 0) {
+			return patY == 0 && patZ == 0;
+		}
+		return patY != 0 || patZ == 0;
 	}
 
 	/*
@@ -268,19 +276,19 @@ public class BitmapTriplesIterator implements SuppliableIteratorTripleID {
 			throw new IllegalAccessError("Cannot goto on this bitmaptriples pattern");
 		}
 
-		if (pos >= adjZ.getNumberOfElements()) {
+		if (pos < 0 || minZ + pos >= maxZ) {
 			throw new ArrayIndexOutOfBoundsException("Cannot goTo beyond last triple");
 		}
 
-		posZ = pos;
+		posZ = minZ + pos;
 		posY = adjZ.findListIndex(posZ);
 
 		z = adjZ.get(posZ);
 		y = adjY.get(posY);
 		x = adjY.findListIndex(posY)+1;
 
-		nextY = adjY.last(x - 1) + 1;
-		nextZ = adjZ.last(posY) + 1;
+		nextY = adjY.findNext(posY) + 1;
+		nextZ = adjZ.findNext(posZ) + 1;
 	}
 
 	/*
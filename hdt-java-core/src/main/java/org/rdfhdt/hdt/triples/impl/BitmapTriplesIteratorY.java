@@ -99,7 +99,7 @@ public class BitmapTriplesIteratorY implements SuppliableIteratorTripleID {
 			nextY = adjY.findNextAppearance(nextY+1, patY);
 			
 			posZ = prevZ = adjZ.find(posY);
-			nextZ = adjZ.last(posY); 
+			nextZ = adjZ.findNext(prevZ); 
 			
 			x = adjY.findListIndex(posY)+1;
 			y = adjY.get(posY);
@@ -135,7 +135,7 @@ public class BitmapTriplesIteratorY implements SuppliableIteratorTripleID {
 			prevY = adjY.findPreviousAppearance(prevY-1, patY);
 
 			posZ = prevZ = adjZ.find(posY);
-			nextZ = adjZ.last(posY); 
+			nextZ = adjZ.findNext(prevZ); 
 			
 			x = adjY.findListIndex(posY)+1;
 			y = adjY.get(posY);
@@ -160,7 +160,7 @@ public class BitmapTriplesIteratorY implements SuppliableIteratorTripleID {
 		nextY = adjY.findNextAppearance(posY+1, patY);
 		
 		posZ = prevZ = adjZ.find(posY);
-		nextZ = adjZ.last(posY);
+		nextZ = adjZ.findNext(prevZ);
 		
 		x = adjY.findListIndex(posY)+1;
 		y = adjY.get(posY);
@@ -57,10 +57,23 @@ public class BitmapTriplesIteratorYFOQ implements SuppliableIteratorTripleID {
 		private long x, y, z;
 		
 		private final long numOccurrences;
+	private final long firstOccurrence;
 	private long numOccurrence;
 	private final long predBase;
 		
 		public BitmapTriplesIteratorYFOQ(BitmapTriples triples, TripleID pattern) {
+			this(triples, pattern, 1, Long.MAX_VALUE);
+		}
+
+		/**
+		 * iterate over a range of the occurrences of the predicate in the predicate index
+		 *
+		 * @param triples         the triples
+		 * @param pattern         the ?P? pattern
+		 * @param firstOccurrence the first occurrence to read, starting at 1
+		 * @param lastOccurrence  the last occurrence to read (inclusive), bounded by the number of occurrences
+		 */
+		public BitmapTriplesIteratorYFOQ(BitmapTriples triples, TripleID pattern, long firstOccurrence, long lastOccurrence) {
 			this.triples = triples;
 			TripleID pattern1 = new TripleID(pattern);
 			this.returnTriple = new TripleID();
@@ -74,7 +87,8 @@ public class BitmapTriplesIteratorYFOQ implements SuppliableIteratorTripleID {
 			adjY = new AdjacencyList(triples.getSeqY(), triples.getBitmapY());
 			adjZ = new AdjacencyList(triples.getSeqZ(), triples.getBitmapZ());
 			
-			numOccurrences = triples.predicateIndex.getNumOcurrences(patY);
+			numOccurrences = Math.min(lastOccurrence, triples.predicateIndex.getNumOcurrences(patY));
+			this.firstOccurrence = firstOccurrence;
 			predBase = triples.predicateIndex.getBase(patY);
 			maxZ = triples.adjZ.getNumberOfElements();
 			
@@ -106,7 +120,7 @@ public class BitmapTriplesIteratorYFOQ implements SuppliableIteratorTripleID {
 				posY = triples.predicateIndex.getOccurrence(predBase, numOccurrence);
 				
 				posZ = prevZ = adjZ.find(posY);
-				nextZ = adjZ.last(posY); 
+				nextZ = adjZ.findNext(prevZ); 
 				
 				x = adjY.findListIndex(posY)+1;
 				y = adjY.get(posY);
@@ -127,7 +141,7 @@ public class BitmapTriplesIteratorYFOQ implements SuppliableIteratorTripleID {
 		 */
 		@Override
 		public boolean hasPrevious() {
-			return numOccurrence>1 || posZ>=prevZ;
+			return numOccurrence>firstOccurrence || posZ>=prevZ;
 		}
 
 		/* (non-Javadoc)
@@ -140,7 +154,7 @@ public class BitmapTriplesIteratorYFOQ implements SuppliableIteratorTripleID {
 				posY = triples.predicateIndex.getOccurrence(predBase, numOccurrence);
 
 				prevZ = adjZ.find(posY);
-				posZ = nextZ = adjZ.last(posY); 
+				posZ = nextZ = adjZ.findNext(prevZ); 
 				
 				x = adjY.findListIndex(posY)+1;
 				y = adjY.get(posY);
@@ -160,11 +174,11 @@ public class BitmapTriplesIteratorYFOQ implements SuppliableIteratorTripleID {
 		 */
 		@Override
 		public void goToStart() {
-			numOccurrence = 1;
+			numOccurrence = firstOccurrence;
 			posY = triples.predicateIndex.getOccurrence(predBase, numOccurrence);
 			
 			posZ = prevZ = adjZ.find(posY);
-			nextZ = adjZ.last(posY);
+			nextZ = adjZ.findNext(prevZ);
 			
 			x = adjY.findListIndex(posY)+1;
 			y = adjY.get(posY);
@@ -0,0 +1,118 @@
+package org.rdfhdt.hdt.triples.impl;
+
+import org.rdfhdt.hdt.triples.TripleID;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over a range [start, end[ of a {@link BitmapTriples} search, a split gives the first half of the range
+ * to a new spliterator, each part creates its own iterator with a {@link RangeIteratorFactory} so the parts can be
+ * scanned by different threads.
+ *
+ * @see BitmapTriples#searchSplittable(TripleID)
+ */
+public class BitmapTriplesSpliterator implements Spliterator<TripleID> {
+	/**
+	 * factory to create the iterator of a part of the range
+	 */
+	@FunctionalInterface
+	public interface RangeIteratorFactory {
+		/**
+		 * create the iterator of a part
+		 *
+		 * @param start start of the part (inclusive)
+		 * @param end   end of the part (exclusive)
+		 * @return iterator
+		 */
+		Iterator<TripleID> create(long start, long end);
+	}
+
+	private final RangeIteratorFactory factory;
+	private final boolean sized;
+	private long start;
+	private final long end;
+	private long estimatedSize;
+	private Iterator<TripleID> iterator;
+
+	/**
+	 * create a spliterator where each position of the range is a result, the iterator of a part is read for
+	 * end - start results
+	 *
+	 * @param factory the part iterator factory
+	 * @param start   start of the range (inclusive)
+	 * @param end     end of the range (exclusive)
+	 */
+	public BitmapTriplesSpliterator(RangeIteratorFactory factory, long start, long end) {
+		this(factory, start, end, end - start, true);
+	}
+
+	/**
+	 * create a spliterator where a position of the range can have any number of results, the iterator of a part is
+	 * read until its end
+	 *
+	 * @param factory       the part iterator factory
+	 * @param start         start of the range (inclusive)
+	 * @param end           end of the range (exclusive)
+	 * @param estimatedSize estimated number of results in the range
+	 */
+	public BitmapTriplesSpliterator(RangeIteratorFactory factory, long start, long end, long estimatedSize) {
+		this(factory, start, end, estimatedSize, false);
+	}
+
+	private BitmapTriplesSpliterator(RangeIteratorFactory factory, long start, long end, long estimatedSize, boolean sized) {
+		this.factory = factory;
+		this.start = start;
+		this.end = end;
+		this.estimatedSize = estimatedSize;
+		this.sized = sized;
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super TripleID> action) {
+		if (iterator == null) {
+			if (start >= end) {
+				return false;
+			}
+			iterator = factory.create(start, end);
+		}
+		if (sized ? estimatedSize == 0 : !iterator.hasNext()) {
+			return false;
+		}
+		if (sized) {
+			estimatedSize--;
+		}
+		// the iterators are reusing their triple
+		action.accept(new TripleID(iterator.next()));
+		return true;
+	}
+
+	@Override
+	public Spliterator<TripleID> trySplit() {
+		if (iterator != null || end - start < 2) {
+			// already reading this part
+			return null;
+		}
+		long mid = start + (end - start) / 2;
+		long prefixSize = sized ? mid - start : estimatedSize / 2;
+		BitmapTriplesSpliterator prefix = new BitmapTriplesSpliterator(factory, start, mid, prefixSize, sized);
+		start = mid;
+		estimatedSize -= prefixSize;
+		return prefix;
+	}
+
+	@Override
+	public long estimateSize() {
+		return estimatedSize;
+	}
+
+	@Override
+	public int characteristics() {
+		int characteristics = ORDERED | NONNULL | IMMUTABLE;
+		if (sized) {
+			characteristics |= SIZED | SUBSIZED;
+		}
+		return characteristics;
+	}
+}
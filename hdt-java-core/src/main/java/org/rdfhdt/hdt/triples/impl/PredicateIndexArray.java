@@ -6,10 +6,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Path;
+import java.util.PrimitiveIterator;
 
 import org.rdfhdt.hdt.compact.bitmap.Bitmap;
+import org.rdfhdt.hdt.compact.bitmap.Bitmap375Big;
 import org.rdfhdt.hdt.compact.bitmap.BitmapFactory;
-import org.rdfhdt.hdt.compact.bitmap.ModifiableBitmap;
 import org.rdfhdt.hdt.compact.sequence.*;
 import org.rdfhdt.hdt.dictionary.Dictionary;
 import org.rdfhdt.hdt.listener.ProgressListener;
@@ -29,23 +30,72 @@ class PredicateIndexArray implements PredicateIndex {
 
 	BitmapTriples triples;
 	Sequence array;
-	Bitmap bitmap;
+	// position of the last occurrence of each predicate, the ones of the predicate bitmap, the bitmap itself is only
+	// rebuilt to be saved
+	SequenceEliasFano ends;
+	long numbits;
 
 	public PredicateIndexArray(BitmapTriples triples) {
 		this.triples = triples;
 	}
 
+	/**
+	 * same as the select1 of the predicate bitmap
+	 */
+	private long select1(long rank) {
+		if (rank <= 0) {
+			return -1;
+		}
+		if (rank > ends.getNumberOfElements()) {
+			return numbits;
+		}
+		return ends.get(rank - 1);
+	}
+
+	private void setBitmap(Bitmap bitmap) {
+		long ones = bitmap.countOnes();
+		PrimitiveIterator.OfLong it = new PrimitiveIterator.OfLong() {
+			long next = bitmap.selectNext1(0);
+
+			@Override
+			public long nextLong() {
+				long current = next;
+				next = bitmap.selectNext1(current + 1);
+				return current;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return next != -1;
+			}
+		};
+		long max = ones == 0 ? 0 : bitmap.selectPrev1(bitmap.getNumBits() - 1);
+		this.ends = new SequenceEliasFano(it, ones, max, BitUtil.log2(max));
+		this.numbits = bitmap.getNumBits();
+	}
+
+	private Path getDiskLocation() {
+		if (!triples.isUsingDiskSequence()) {
+			return null;
+		}
+		try {
+			return triples.getDiskSequenceLocation().createOrGetPath();
+		} catch (IOException e) {
+			throw new RuntimeException("Can't create disk sequence", e);
+		}
+	}
+
 	@Override
     public long getBase(long pred) {
 		if(pred<=1) {
 			return 0;
 		}
-		return bitmap.select1(pred-1)+1;
+		return select1(pred-1)+1;
 	}
 
 	@Override
 	public long getNumOcurrences(long pred) {
-		return bitmap.select1(pred)-bitmap.select1(pred-1);
+		return select1(pred)-select1(pred-1);
 	}
 
 	@Override
@@ -55,8 +105,9 @@ class PredicateIndexArray implements PredicateIndex {
 
 	@Override
 	public void load(InputStream input) throws IOException {
-		bitmap = BitmapFactory.createBitmap(input);
+		Bitmap bitmap = BitmapFactory.createBitmap(input);
 		bitmap.load(input, null);
+		setBitmap(bitmap);
 
 		array = SequenceFactory.createStream(input);
 		array.load(input, null);
@@ -64,7 +115,13 @@ class PredicateIndexArray implements PredicateIndex {
 
 	@Override
 	public void save(OutputStream out) throws IOException {
-		bitmap.save(out, null);
+		try (Bitmap375Big bitmap = triples.createBitmap375(getDiskLocation(), "predicateIndexSaveBitmap", numbits)) {
+			PrimitiveIterator.OfLong it = ends.iterator(0, ends.getNumberOfElements());
+			while (it.hasNext()) {
+				bitmap.set(it.nextLong(), true);
+			}
+			bitmap.save(out, null);
+		}
 		array.save(out, null);
 	}
 
@@ -73,17 +130,8 @@ class PredicateIndexArray implements PredicateIndex {
 		IntermediateListener iListener = new IntermediateListener(listener);
 		StopWatch st = new StopWatch();
 
-		Path diskLocation;
-		if (triples.isUsingDiskSequence()) {
-			try {
-				diskLocation = triples.getDiskSequenceLocation().createOrGetPath();
-			} catch (IOException e) {
-				throw new RuntimeException("Can't create disk sequence", e);
-			}
-		} else {
-			diskLocation = null;
-		}
-		ModifiableBitmap bitmap;
+		Path diskLocation = getDiskLocation();
+		Bitmap375Big bitmap;
 
 		DynamicSequence predCount = triples.createSequence64(diskLocation, "predicateIndexPredCount", BitUtil.log2(triples.getSeqY().getNumberOfElements()), triples.getSeqY().getNumberOfElements());
 		try {
@@ -161,18 +209,20 @@ class PredicateIndexArray implements PredicateIndex {
 			}
 		}
 		try {
-			Closer.closeAll(this.array, this.bitmap);
+			Closer.closeAll(this.array, this.ends);
 		} catch (IOException ignore) {
 		}
 	    this.array = array;
-	    this.bitmap = bitmap;
+	    setBitmap(bitmap);
+	    IOUtil.closeQuietly(bitmap);
         log.info("Count predicates in {}", st.stopAndShow());
 	}
 
 	@Override
 	public void mapIndex(CountInputStream input, File f, ProgressListener listener) throws IOException {
-		bitmap = BitmapFactory.createBitmap(input);
+		Bitmap bitmap = BitmapFactory.createBitmap(input);
 		bitmap.load(input, null);
+		setBitmap(bitmap);
 
 		array = new SequenceLog64Map(input, f);
 	}
@@ -182,10 +232,10 @@ class PredicateIndexArray implements PredicateIndex {
 		try {
 			Closer.closeAll(
 				array,
-				bitmap
+				ends
 			);
 		} finally {
-			bitmap=null;
+			ends=null;
 			array=null;
 		}
 	}
@@ -0,0 +1,197 @@
+package org.rdfhdt.hdt.util;
+
+import org.rdfhdt.hdt.compact.integer.VByte;
+import org.rdfhdt.hdt.exceptions.CRCException;
+import org.rdfhdt.hdt.exceptions.IllegalFormatException;
+import org.rdfhdt.hdt.util.crc.CRC32;
+import org.rdfhdt.hdt.util.crc.CRC8;
+import org.rdfhdt.hdt.util.crc.CRCInputStream;
+import org.rdfhdt.hdt.util.crc.CRCOutputStream;
+import org.rdfhdt.hdt.util.io.IOUtil;
+import org.rdfhdt.hdt.util.string.ByteString;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Blocked Bloom filter over byte strings, all the bits of a string are in the same block of 512 bits, so a
+ * {@link #mightContain(CharSequence)} call reads only one cache line of the filter.
+ *
+ * <p>The filter can return false positives, but never false negatives: a false return means that the string was
+ * never added.</p>
+ */
+public class BloomFilter {
+	private static final int BLOCK_BITS = 512;
+	private static final int BLOCK_WORDS = BLOCK_BITS / Long.SIZE;
+	private static final int MAX_HASHES = 16;
+	private static final byte TYPE_BLOCKED = 1;
+
+	/**
+	 * create a filter for a number of elements
+	 *
+	 * @param expectedElements number of elements to add
+	 * @param fpp              expected false positive probability, between 0 and 1 (excluded)
+	 * @return filter
+	 */
+	public static BloomFilter create(long expectedElements, double fpp) {
+		if (fpp <= 0 || fpp >= 1) {
+			throw new IllegalArgumentException("fpp should be between 0 and 1: " + fpp);
+		}
+		long n = Math.max(1, expectedElements);
+		double ln2 = Math.log(2);
+		long bits = (long) Math.ceil(-n * Math.log(fpp) / (ln2 * ln2));
+		long numBlocks = Math.max(1, (bits + BLOCK_BITS - 1) / BLOCK_BITS);
+		if (numBlocks > (Integer.MAX_VALUE - BLOCK_WORDS) / BLOCK_WORDS) {
+			numBlocks = (Integer.MAX_VALUE - BLOCK_WORDS) / BLOCK_WORDS;
+		}
+		int numHashes = (int) Math.round((double) numBlocks * BLOCK_BITS / n * ln2);
+		return new BloomFilter((int) numBlocks, Math.max(1, Math.min(MAX_HASHES, numHashes)));
+	}
+
+	private final long[] words;
+	private final int numBlocks;
+	private final int numHashes;
+
+	private BloomFilter(int numBlocks, int numHashes) {
+		this.numBlocks = numBlocks;
+		this.numHashes = numHashes;
+		this.words = new long[numBlocks * BLOCK_WORDS];
+	}
+
+	private static long mix(long h) {
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	private static long hash(ByteString str) {
+		// FNV-1a
+		byte[] buffer = str.getBuffer();
+		int length = str.length();
+		long h = 0xcbf29ce484222325L;
+		for (int i = 0; i < length; i++) {
+			h ^= buffer[i] & 0xFF;
+			h *= 0x100000001b3L;
+		}
+		return mix(h);
+	}
+
+	/**
+	 * add a string to the filter
+	 *
+	 * @param str the string
+	 */
+	public void add(CharSequence str) {
+		long h = hash(ByteString.of(str));
+		int block = (int) Long.remainderUnsigned(h, numBlocks) * BLOCK_WORDS;
+		long h2 = mix(h);
+		int g = (int) h2;
+		int d = (int) (h2 >>> 32) | 1;
+		for (int i = 0; i < numHashes; i++) {
+			int bit = (g + i * d) & (BLOCK_BITS - 1);
+			words[block + (bit >>> 6)] |= 1L << bit;
+		}
+	}
+
+	/**
+	 * test if a string can be in the filter
+	 *
+	 * @param str the string
+	 * @return false if the string was never added, true if it might have been
+	 */
+	public boolean mightContain(CharSequence str) {
+		long h = hash(ByteString.of(str));
+		int block = (int) Long.remainderUnsigned(h, numBlocks) * BLOCK_WORDS;
+		long h2 = mix(h);
+		int g = (int) h2;
+		int d = (int) (h2 >>> 32) | 1;
+		for (int i = 0; i < numHashes; i++) {
+			int bit = (g + i * d) & (BLOCK_BITS - 1);
+			if ((words[block + (bit >>> 6)] & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the size of the filter in bytes
+	 */
+	public long size() {
+		return (long) words.length * Long.BYTES;
+	}
+
+	/**
+	 * @return the number of hash functions
+	 */
+	public int getNumberOfHashes() {
+		return numHashes;
+	}
+
+	/**
+	 * save the filter
+	 *
+	 * @param output stream
+	 * @throws IOException write exception
+	 */
+	public void save(OutputStream output) throws IOException {
+		CRCOutputStream out = new CRCOutputStream(output, new CRC8());
+
+		out.write(TYPE_BLOCKED);
+		out.write(numHashes);
+		VByte.encode(out, numBlocks);
+
+		out.writeCRC();
+
+		out.setCRC(new CRC32());
+
+		for (long word : words) {
+			IOUtil.writeLong(out, word);
+		}
+
+		out.writeCRC();
+	}
+
+	/**
+	 * load a filter saved with {@link #save(OutputStream)}
+	 *
+	 * @param input stream
+	 * @return filter
+	 * @throws IOException read exception
+	 */
+	@SuppressWarnings("resource")
+	public static BloomFilter load(InputStream input) throws IOException {
+		CRCInputStream in = new CRCInputStream(input, new CRC8());
+
+		int type = in.read();
+		if (type != TYPE_BLOCKED) {
+			throw new IllegalFormatException("Trying to read a BloomFilter but the data is not a BloomFilter");
+		}
+		int numHashes = in.read();
+		long numBlocks = VByte.decode(in);
+
+		if (!in.readCRCAndCheck()) {
+			throw new CRCException("CRC Error while reading BloomFilter header.");
+		}
+
+		if (numHashes < 1 || numHashes > MAX_HASHES || numBlocks < 1 || numBlocks > Integer.MAX_VALUE / BLOCK_WORDS) {
+			throw new IllegalFormatException("Bad BloomFilter header");
+		}
+
+		in.setCRC(new CRC32());
+
+		BloomFilter filter = new BloomFilter((int) numBlocks, numHashes);
+		for (int i = 0; i < filter.words.length; i++) {
+			filter.words[i] = IOUtil.readLong(in);
+		}
+
+		if (!in.readCRCAndCheck()) {
+			throw new CRCException("CRC Error while reading BloomFilter data.");
+		}
+		return filter;
+	}
+}
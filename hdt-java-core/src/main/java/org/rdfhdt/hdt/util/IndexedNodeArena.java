@@ -0,0 +1,433 @@
+package org.rdfhdt.hdt.util;
+
+import org.rdfhdt.hdt.triples.IndexedNode;
+import org.rdfhdt.hdt.util.string.ByteString;
+import org.rdfhdt.hdt.util.string.ReplazableString;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Append-only list of indexed nodes storing the bytes of the nodes in large byte pages instead of one
+ * {@link IndexedNode} and one {@link ByteString} per node. Each node is described by 2 packed longs, the position of
+ * the node in the pages and its index, the length of the node is written before its bytes.
+ * <p>
+ * The nodes are sorted with a parallel multikey quicksort on the bytes, the order is the same as
+ * {@link ByteString#compareTo(ByteString)}, the equal nodes are sorted by index.
+ */
+public class IndexedNodeArena {
+	/**
+	 * maximum number of nodes in an arena
+	 */
+	public static final int MAX_SIZE = (Integer.MAX_VALUE - 8) / 2;
+	/**
+	 * default size of a page, a node bigger than a page is stored in its own page
+	 */
+	public static final int DEFAULT_PAGE_SIZE = 1 << 20;
+	private static final int INSERTION_SORT_THRESHOLD = 16;
+	private static final int PARALLEL_SORT_THRESHOLD = 1 << 13;
+
+	private final int pageSize;
+	private byte[][] pages = new byte[16][];
+	private int pageCount;
+	private int pageUsed;
+	private long allocated;
+	/**
+	 * 2 longs per node: (page &lt;&lt; 32 | offset in the page) and the index of the node
+	 */
+	private long[] nodes = new long[32];
+	private int size;
+	private long bytes;
+
+	public IndexedNodeArena() {
+		this(DEFAULT_PAGE_SIZE);
+	}
+
+	public IndexedNodeArena(int pageSize) {
+		if (pageSize < Integer.BYTES) {
+			throw new IllegalArgumentException("page size too small: " + pageSize);
+		}
+		this.pageSize = pageSize;
+	}
+
+	/**
+	 * add a node to the arena, the bytes of the node are copied
+	 *
+	 * @param node  the node
+	 * @param index the index of the node
+	 * @throws IllegalArgumentException if the arena is full
+	 */
+	public void add(ByteString node, long index) {
+		add(node.getBuffer(), 0, node.length(), index);
+	}
+
+	/**
+	 * add a node to the arena, the bytes of the node are copied
+	 *
+	 * @param buffer the buffer containing the node
+	 * @param offset the offset of the node in the buffer
+	 * @param length the length of the node
+	 * @param index  the index of the node
+	 * @throws IllegalArgumentException if the arena is full
+	 */
+	public void add(byte[] buffer, int offset, int length, long index) {
+		if (size == MAX_SIZE) {
+			throw new IllegalArgumentException("The arena is full: " + size + " nodes");
+		}
+		int required = length + Integer.BYTES;
+		if (pageCount == 0 || pageUsed + required > pages[pageCount - 1].length) {
+			if (pageCount == pages.length) {
+				pages = Arrays.copyOf(pages, pageCount * 2);
+			}
+			pages[pageCount++] = new byte[Math.max(pageSize, required)];
+			allocated += pages[pageCount - 1].length;
+			pageUsed = 0;
+		}
+		byte[] page = pages[pageCount - 1];
+		int start = pageUsed;
+		page[start] = (byte) (length >>> 24);
+		page[start + 1] = (byte) (length >>> 16);
+		page[start + 2] = (byte) (length >>> 8);
+		page[start + 3] = (byte) length;
+		System.arraycopy(buffer, offset, page, start + Integer.BYTES, length);
+		pageUsed += required;
+		bytes += required;
+
+		if (size * 2 == nodes.length) {
+			nodes = Arrays.copyOf(nodes, (int) Math.min(MAX_SIZE * 2L, (long) (nodes.length * ParallelSortableArrayList.GROW_FACTOR) & ~1L));
+		}
+		nodes[size * 2] = ((long) (pageCount - 1) << 32) | start;
+		nodes[size * 2 + 1] = index;
+		size++;
+	}
+
+	/**
+	 * @return the number of nodes in the arena
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return if the arena can't accept more nodes
+	 */
+	public boolean isFull() {
+		return size == MAX_SIZE;
+	}
+
+	/**
+	 * @return an estimation of the memory used by the arena, in bytes
+	 */
+	public long getMemoryUsage() {
+		return allocated + (long) nodes.length * Long.BYTES;
+	}
+
+	/**
+	 * @return the number of bytes written in the pages, including the node lengths
+	 */
+	public long getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * remove all the nodes and release the memory
+	 */
+	public void clear() {
+		pages = new byte[16][];
+		pageCount = 0;
+		pageUsed = 0;
+		allocated = 0;
+		nodes = new long[32];
+		size = 0;
+		bytes = 0;
+	}
+
+	/**
+	 * get the index of a node
+	 *
+	 * @param node the node id
+	 * @return index
+	 */
+	public long getIndex(int node) {
+		return nodes[node * 2 + 1];
+	}
+
+	/**
+	 * get a copy of a node
+	 *
+	 * @param node the node id
+	 * @return node
+	 */
+	public ByteString getNode(int node) {
+		ReplazableString str = new ReplazableString();
+		readNode(node, str);
+		return str;
+	}
+
+	private void readNode(int node, ReplazableString str) {
+		long pointer = nodes[node * 2];
+		byte[] page = pages[(int) (pointer >>> 32)];
+		int start = (int) pointer;
+		str.replace(0, page, start + Integer.BYTES, length(page, start));
+	}
+
+	private static int length(byte[] page, int start) {
+		return ((page[start] & 0xFF) << 24)
+				| ((page[start + 1] & 0xFF) << 16)
+				| ((page[start + 2] & 0xFF) << 8)
+				| (page[start + 3] & 0xFF);
+	}
+
+	/**
+	 * @param node  the node id
+	 * @param depth the position in the node
+	 * @return the unsigned byte of the node at this depth, -1 after the end of the node
+	 */
+	private int byteAt(int node, int depth) {
+		long pointer = nodes[node * 2];
+		byte[] page = pages[(int) (pointer >>> 32)];
+		int start = (int) pointer;
+		if (depth >= length(page, start)) {
+			return -1;
+		}
+		return page[start + Integer.BYTES + depth] & 0xFF;
+	}
+
+	private int compare(int node1, int node2, int depth) {
+		long pointer1 = nodes[node1 * 2];
+		long pointer2 = nodes[node2 * 2];
+		byte[] page1 = pages[(int) (pointer1 >>> 32)];
+		byte[] page2 = pages[(int) (pointer2 >>> 32)];
+		int start1 = (int) pointer1;
+		int start2 = (int) pointer2;
+		int length1 = length(page1, start1);
+		int length2 = length(page2, start2);
+		return Arrays.compareUnsigned(
+				page1, start1 + Integer.BYTES + depth, start1 + Integer.BYTES + length1,
+				page2, start2 + Integer.BYTES + depth, start2 + Integer.BYTES + length2
+		);
+	}
+
+	private void swap(int node1, int node2) {
+		int i1 = node1 * 2;
+		int i2 = node2 * 2;
+		long pointer = nodes[i1];
+		long index = nodes[i1 + 1];
+		nodes[i1] = nodes[i2];
+		nodes[i1 + 1] = nodes[i2 + 1];
+		nodes[i2] = pointer;
+		nodes[i2 + 1] = index;
+	}
+
+	/**
+	 * sort the nodes of the arena in parallel
+	 */
+	public void parallelSort() {
+		if (size < PARALLEL_SORT_THRESHOLD) {
+			sort(0, size, 0);
+		} else {
+			ForkJoinPool.commonPool().invoke(new SortTask(0, size, 0));
+		}
+	}
+
+	/**
+	 * sort the nodes of the arena with the current thread
+	 */
+	public void sort() {
+		sort(0, size, 0);
+	}
+
+	private void sort(int lo, int hi, int depth) {
+		while (hi - lo > 1) {
+			if (hi - lo < INSERTION_SORT_THRESHOLD) {
+				insertionSort(lo, hi, depth);
+				return;
+			}
+			long bounds = partition(lo, hi, depth);
+			int lt = (int) (bounds >>> 32);
+			int gt = (int) bounds;
+			sort(lo, lt, depth);
+			sort(gt, hi, depth);
+			if (byteAt(lt, depth) == -1) {
+				// the nodes in the middle are equal
+				sortByIndex(lt, gt);
+				return;
+			}
+			lo = lt;
+			hi = gt;
+			depth++;
+		}
+	}
+
+	private void insertionSort(int lo, int hi, int depth) {
+		for (int i = lo + 1; i < hi; i++) {
+			for (int j = i; j > lo && compareNodeIndex(j - 1, j, depth) > 0; j--) {
+				swap(j - 1, j);
+			}
+		}
+	}
+
+	private int compareNodeIndex(int node1, int node2, int depth) {
+		int c = compare(node1, node2, depth);
+		if (c != 0) {
+			return c;
+		}
+		return Long.compare(getIndex(node1), getIndex(node2));
+	}
+
+	/**
+	 * sort equal nodes by index
+	 */
+	private void sortByIndex(int lo, int hi) {
+		while (hi - lo > INSERTION_SORT_THRESHOLD) {
+			long pivot = getIndex((lo + hi) >>> 1);
+			int i = lo;
+			int j = hi - 1;
+			while (i <= j) {
+				while (getIndex(i) < pivot) {
+					i++;
+				}
+				while (getIndex(j) > pivot) {
+					j--;
+				}
+				if (i <= j) {
+					swap(i++, j--);
+				}
+			}
+			// recursion on the smaller part
+			if (j - lo < hi - i) {
+				sortByIndex(lo, j + 1);
+				lo = i;
+			} else {
+				sortByIndex(i, hi);
+				hi = j + 1;
+			}
+		}
+		for (int i = lo + 1; i < hi; i++) {
+			for (int j = i; j > lo && getIndex(j - 1) > getIndex(j); j--) {
+				swap(j - 1, j);
+			}
+		}
+	}
+
+	/**
+	 * 3-way partition of the nodes with the byte at a depth
+	 *
+	 * @return (lt &lt;&lt; 32 | gt), the nodes in [lt, gt[ are equal to the pivot at this depth
+	 */
+	private long partition(int lo, int hi, int depth) {
+		// median of 3 as pivot
+		int mid = (lo + hi) >>> 1;
+		int a = byteAt(lo, depth);
+		int b = byteAt(mid, depth);
+		int c = byteAt(hi - 1, depth);
+		int pivot;
+		if (a < b) {
+			pivot = b < c ? mid : (a < c ? hi - 1 : lo);
+		} else {
+			pivot = a < c ? lo : (b < c ? hi - 1 : mid);
+		}
+		swap(lo, pivot);
+		int v = byteAt(lo, depth);
+		int lt = lo;
+		int gt = hi - 1;
+		int i = lo + 1;
+		while (i <= gt) {
+			int t = byteAt(i, depth);
+			if (t < v) {
+				swap(lt++, i++);
+			} else if (t > v) {
+				swap(i, gt--);
+			} else {
+				i++;
+			}
+		}
+		return ((long) lt << 32) | (gt + 1);
+	}
+
+	private class SortTask extends RecursiveAction {
+		private final int lo;
+		private final int hi;
+		private final int depth;
+
+		private SortTask(int lo, int hi, int depth) {
+			this.lo = lo;
+			this.hi = hi;
+			this.depth = depth;
+		}
+
+		@Override
+		protected void compute() {
+			int lo = this.lo;
+			int hi = this.hi;
+			int depth = this.depth;
+			List<SortTask> forked = new ArrayList<>();
+			try {
+				// the equal nodes are sorted by this task at the next depth, like the sequential sort, to avoid a
+				// task per byte of a long shared prefix
+				while (hi - lo >= PARALLEL_SORT_THRESHOLD) {
+					long bounds = partition(lo, hi, depth);
+					int lt = (int) (bounds >>> 32);
+					int gt = (int) bounds;
+					fork(forked, lo, lt, depth);
+					fork(forked, gt, hi, depth);
+					if (byteAt(lt, depth) == -1) {
+						sortByIndex(lt, gt);
+						return;
+					}
+					lo = lt;
+					hi = gt;
+					depth++;
+				}
+				sort(lo, hi, depth);
+			} finally {
+				for (SortTask task : forked) {
+					task.join();
+				}
+			}
+		}
+
+		private void fork(List<SortTask> forked, int lo, int hi, int depth) {
+			if (hi - lo > 1) {
+				SortTask task = new SortTask(lo, hi, depth);
+				task.fork();
+				forked.add(task);
+			}
+		}
+	}
+
+	/**
+	 * iterator over the nodes of the arena, the returned {@link IndexedNode} and its node are reused between
+	 * the calls to next
+	 *
+	 * @return iterator
+	 */
+	public Iterator<IndexedNode> iterator() {
+		return new Iterator<>() {
+			private final ReplazableString str = new ReplazableString();
+			private final IndexedNode node = new IndexedNode(str, 0);
+			private int next;
+
+			@Override
+			public boolean hasNext() {
+				return next < size;
+			}
+
+			@Override
+			public IndexedNode next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				readNode(next, str);
+				node.setIndex(getIndex(next));
+				next++;
+				return node;
+			}
+		};
+	}
+}
@@ -3,6 +3,7 @@ package org.rdfhdt.hdt.util.concurrent;
 import org.rdfhdt.hdt.iterator.utils.AsyncIteratorFetcher;
 import org.rdfhdt.hdt.util.io.CloseSuppressPath;
 import org.rdfhdt.hdt.util.io.IOUtil;
+import org.rdfhdt.hdt.util.jfr.KWayMergeEvent;
 
 import java.io.IOException;
 import java.util.List;
@@ -27,24 +28,27 @@ public class KWayMerger<E, S extends Supplier<E>> {
     private final KWayMergerImpl<E, S> impl;
     private final Worker[] workers;
     private final AtomicLong pathId = new AtomicLong();
-    private final CloseSuppressPath workLocation;
+    private final List<CloseSuppressPath> workLocations;
     private final Lock dataLock = new ReentrantLock();
     private boolean started;
     private boolean end;
     private final HeightTree<Chunk> chunks = new HeightTree<>();
     private Throwable throwable;
+    private MemoryBudget memoryBudget;
+    private long chunkSize;
+    private double chunkMemoryFactor;
 
     /**
      * kwaymerger
      *
-     * @param workLocation location to store the chunks
+     * @param workLocation location to store the chunks, the chunks are spread over its stripes
      * @param syncSupplier the element supplier
      * @param impl         implementation of {@link KWayMergerImpl} to create/handle the chunks
      * @param workers      the number of workers
      * @param k            the k in the k-way merge
      */
     public KWayMerger(CloseSuppressPath workLocation, AsyncIteratorFetcher<E> syncSupplier, KWayMergerImpl<E, S> impl, int workers, int k) throws KWayMergerException {
-        this.workLocation = workLocation;
+        this.workLocations = workLocation.getStripes();
         this.iteratorFetcher = syncSupplier;
         this.impl = impl;
         this.k = k;
@@ -62,6 +66,25 @@ public class KWayMerger<E, S extends Supplier<E>> {
         }
     }
 
+    /**
+     * reserve the memory of the chunks from a memory budget before creating them, if the budget is exhausted, the
+     * workers create smaller chunks or wait for the memory. Should be called before {@link #start()}.
+     *
+     * @param memoryBudget      the budget
+     * @param chunkSize         the maximum size of a chunk, the size given to the stop fluxes
+     * @param chunkMemoryFactor the memory used by a chunk divided by its size
+     * @return this
+     */
+    public KWayMerger<E, S> withMemoryBudget(MemoryBudget memoryBudget, long chunkSize, double chunkMemoryFactor) {
+        if (chunkSize <= 0 || chunkMemoryFactor <= 0) {
+            throw new IllegalArgumentException("chunk size and memory factor should be positive!");
+        }
+        this.memoryBudget = memoryBudget;
+        this.chunkSize = chunkSize;
+        this.chunkMemoryFactor = chunkMemoryFactor;
+        return this;
+    }
+
     /**
      * start all the workers
      */
@@ -158,13 +181,47 @@ public class KWayMerger<E, S extends Supplier<E>> {
          * @throws KWayMergerException any exception returned by this method's implementation
          */
         S newStopFlux(Supplier<E> flux) throws KWayMergerException;
+
+        /**
+         * create a flux from another one to tell when to stop, with a maximum size, used when the chunk memory is
+         * reserved with {@link #withMemoryBudget(MemoryBudget, long, double)}
+         *
+         * @param flux    the flux
+         * @param maxSize the maximum size of the chunk
+         * @return the new flux
+         * @throws KWayMergerException any exception returned by this method's implementation
+         */
+        default S newStopFlux(Supplier<E> flux, long maxSize) throws KWayMergerException {
+            return newStopFlux(flux);
+        }
     }
 
     /**
-     * @return a unique path into the work location
+     * @return a unique path into the work locations, round-robin over the stripes
      */
     private CloseSuppressPath getPath() {
-        return workLocation.resolve("f-" + pathId.incrementAndGet());
+        long id = pathId.incrementAndGet();
+        return workLocations.get((int) (id % workLocations.size())).resolve("f-" + id);
+    }
+
+    /**
+     * get a unique path for a merge output, if possible in a stripe without the inputs to read and write on
+     * different devices
+     *
+     * @param inputs the merge inputs
+     * @return a unique path into the work locations
+     */
+    private CloseSuppressPath getPath(List<CloseSuppressPath> inputs) {
+        long id = pathId.incrementAndGet();
+        int count = workLocations.size();
+        int start = (int) (id % count);
+        for (int i = 0; i < count; i++) {
+            CloseSuppressPath location = workLocations.get((start + i) % count);
+            if (inputs.stream().noneMatch(input -> input.startsWith(location))) {
+                return location.resolve("f-" + id);
+            }
+        }
+        return workLocations.get(start).resolve("f-" + id);
     }
 
     /**
@@ -205,10 +262,13 @@ public class KWayMerger<E, S extends Supplier<E>> {
 
         @Override
         public void run() throws KWayMergerException {
+            KWayMergeEvent event = new KWayMergeEvent();
+            event.begin();
             int chunk = chunks.stream().mapToInt(Chunk::getHeight).max().orElseThrow() + 1;
-            CloseSuppressPath mergec = getPath();
             List<CloseSuppressPath> paths = chunks.stream().map(Chunk::getPath).collect(Collectors.toUnmodifiableList());
+            CloseSuppressPath mergec = getPath(paths);
             impl.mergeChunks(paths, mergec);
+            event.finish(KWayMergeEvent.TASK_MERGE, impl.getClass(), paths.size(), chunk);
             try {
                 IOUtil.closeAll(paths);
             } catch (IOException e) {
@@ -227,9 +287,28 @@ public class KWayMerger<E, S extends Supplier<E>> {
 
         @Override
         public void run() throws KWayMergerException {
+            KWayMergeEvent event = new KWayMergeEvent();
+            event.begin();
             CloseSuppressPath chunk = getPath();
-            S flux = impl.newStopFlux(iteratorFetcher);
-            impl.createChunk(flux, chunk);
+            if (memoryBudget == null) {
+                S flux = impl.newStopFlux(iteratorFetcher);
+                impl.createChunk(flux, chunk);
+            } else {
+                long chunkMemory = Math.max(1, (long) (chunkSize * chunkMemoryFactor));
+                MemoryBudget.Reservation reservation;
+                try {
+                    // a quarter of a chunk at least to avoid too many small chunks
+                    reservation = memoryBudget.reserve(Math.max(1, chunkMemory / 4), chunkMemory);
+                } catch (InterruptedException e) {
+                    throw new KWayMergerException("Interrupted while reserving the chunk memory", e);
+                }
+                try (reservation) {
+                    long size = Math.max(1, (long) (reservation.getSize() / chunkMemoryFactor));
+                    S flux = impl.newStopFlux(iteratorFetcher, size);
+                    impl.createChunk(flux, chunk);
+                }
+            }
+            event.finish(KWayMergeEvent.TASK_CHUNK, impl.getClass(), 0, 1);
             dataLock.lock();
             try {
                 end = iteratorFetcher.isEnd();
@@ -0,0 +1,128 @@
+package org.rdfhdt.hdt.util.concurrent;
+
+import java.io.Closeable;
+
+/**
+ * Memory budget shared by the disk generation phases, a phase reserves the memory before allocating its buffers and
+ * release it after, a reservation waits while the budget is exhausted.
+ * <p>
+ * The {@link #getDefault()} budget is shared by all the generations of the JVM, so concurrent generations can use
+ * the memory without running out of it.
+ */
+public class MemoryBudget {
+	private static final MemoryBudget DEFAULT = new MemoryBudget((long) (Runtime.getRuntime().maxMemory() * 0.85));
+
+	/**
+	 * @return the budget shared by the JVM, 85% of the maximum memory by default
+	 */
+	public static MemoryBudget getDefault() {
+		return DEFAULT;
+	}
+
+	private long capacity;
+	private long used;
+
+	/**
+	 * create a budget
+	 *
+	 * @param capacity the memory of the budget
+	 */
+	public MemoryBudget(long capacity) {
+		setCapacity(capacity);
+	}
+
+	/**
+	 * set the memory of the budget, the current reservations aren't changed
+	 *
+	 * @param capacity the memory of the budget
+	 */
+	public synchronized void setCapacity(long capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("The capacity should be positive: " + capacity);
+		}
+		this.capacity = capacity;
+		notifyAll();
+	}
+
+	/**
+	 * @return the memory of the budget
+	 */
+	public synchronized long getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * @return the reserved memory
+	 */
+	public synchronized long getUsed() {
+		return used;
+	}
+
+	/**
+	 * @return the memory which can be reserved without waiting
+	 */
+	public synchronized long getAvailable() {
+		return Math.max(0, capacity - used);
+	}
+
+	/**
+	 * reserve memory, wait until at least minSize bytes are available and reserve up to maxSize bytes. If minSize is
+	 * above the capacity, wait for an empty budget.
+	 *
+	 * @param minSize the minimum size to reserve
+	 * @param maxSize the maximum size to reserve
+	 * @return the reservation, to close to release the memory
+	 * @throws InterruptedException interruption while waiting for the memory
+	 */
+	public synchronized Reservation reserve(long minSize, long maxSize) throws InterruptedException {
+		if (minSize <= 0 || maxSize < minSize) {
+			throw new IllegalArgumentException("Bad reservation size: [" + minSize + ", " + maxSize + "]");
+		}
+		while (true) {
+			long min = Math.min(minSize, capacity);
+			long available = capacity - used;
+			if (available >= min) {
+				long size = Math.min(maxSize, available);
+				used += size;
+				return new Reservation(size);
+			}
+			wait();
+		}
+	}
+
+	private synchronized void release(long size) {
+		used -= size;
+		notifyAll();
+	}
+
+	/**
+	 * memory reserved from a {@link MemoryBudget}
+	 */
+	public class Reservation implements Closeable {
+		private final long size;
+		private boolean released;
+
+		private Reservation(long size) {
+			this.size = size;
+		}
+
+		/**
+		 * @return the reserved size
+		 */
+		public long getSize() {
+			return size;
+		}
+
+		/**
+		 * release the memory
+		 */
+		@Override
+		public void close() {
+			if (released) {
+				return;
+			}
+			released = true;
+			release(size);
+		}
+	}
+}
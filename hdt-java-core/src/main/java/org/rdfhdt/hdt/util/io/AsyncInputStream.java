@@ -0,0 +1,188 @@
+package org.rdfhdt.hdt.util.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * InputStream reading another stream in a separate thread with a read-ahead of large buffers, used to move the
+ * decompression of a stream out of the thread parsing it.
+ *
+ * @see ParallelDecompressInputStream
+ */
+public class AsyncInputStream extends InputStream {
+	/**
+	 * default size of the read-ahead buffers
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+	/**
+	 * default number of read-ahead buffers
+	 */
+	public static final int DEFAULT_BUFFERS = 4;
+	/**
+	 * time to wait for the reader thread when closing the stream, in milliseconds
+	 */
+	private static final long CLOSE_TIMEOUT = 1000;
+
+	private static class Chunk {
+		private final byte[] buffer;
+		private final int length;
+		private final Throwable error;
+
+		private Chunk(byte[] buffer, int length, Throwable error) {
+			this.buffer = buffer;
+			this.length = length;
+			this.error = error;
+		}
+	}
+
+	private static final Chunk END = new Chunk(new byte[0], 0, null);
+
+	private final InputStream source;
+	private final BlockingQueue<byte[]> free;
+	private final BlockingQueue<Chunk> filled;
+	private final Thread reader;
+	private Chunk current;
+	private int position;
+	private boolean closed;
+
+	/**
+	 * read a stream with {@link #DEFAULT_BUFFERS} buffers of {@link #DEFAULT_BUFFER_SIZE} bytes
+	 *
+	 * @param source the stream to read
+	 */
+	public AsyncInputStream(InputStream source) {
+		this(source, DEFAULT_BUFFER_SIZE, DEFAULT_BUFFERS);
+	}
+
+	/**
+	 * @param source     the stream to read
+	 * @param bufferSize size of the read-ahead buffers
+	 * @param buffers    number of read-ahead buffers
+	 */
+	public AsyncInputStream(InputStream source, int bufferSize, int buffers) {
+		if (bufferSize <= 0 || buffers <= 0) {
+			throw new IllegalArgumentException("Bad read-ahead of " + buffers + " buffers of " + bufferSize + " bytes");
+		}
+		this.source = source;
+		this.free = new ArrayBlockingQueue<>(buffers);
+		// the buffers and the end or error chunk
+		this.filled = new ArrayBlockingQueue<>(buffers + 1);
+		for (int i = 0; i < buffers; i++) {
+			free.add(new byte[bufferSize]);
+		}
+		reader = new Thread(this::readSource, "AsyncInputStream");
+		reader.setDaemon(true);
+		reader.start();
+	}
+
+	private void readSource() {
+		try {
+			while (true) {
+				byte[] buffer = free.take();
+				int length = 0;
+				int read = 0;
+				while (length < buffer.length && (read = source.read(buffer, length, buffer.length - length)) != -1) {
+					length += read;
+				}
+				if (length != 0) {
+					filled.put(new Chunk(buffer, length, null));
+				}
+				if (read == -1) {
+					filled.put(END);
+					return;
+				}
+			}
+		} catch (InterruptedException e) {
+			// closed
+		} catch (Throwable t) {
+			filled.offer(new Chunk(null, 0, t));
+		}
+	}
+
+	/**
+	 * @return false if the end of the stream is reached
+	 */
+	private boolean fill() throws IOException {
+		if (closed) {
+			throw new IOException("Stream closed");
+		}
+		if (current != null) {
+			if (position < current.length) {
+				return true;
+			}
+			if (current == END) {
+				return false;
+			}
+			free.add(current.buffer);
+			current = null;
+		}
+		Chunk chunk;
+		try {
+			chunk = filled.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while reading");
+		}
+		if (chunk.error != null) {
+			// keep the error for the next reads
+			filled.offer(chunk);
+			throw new IOException("Error while reading the stream", chunk.error);
+		}
+		current = chunk;
+		position = 0;
+		return chunk != END;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!fill()) {
+			return -1;
+		}
+		return current.buffer[position++] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		if (!fill()) {
+			return -1;
+		}
+		int count = Math.min(len, current.length - position);
+		System.arraycopy(current.buffer, position, b, off, count);
+		position += count;
+		return count;
+	}
+
+	@Override
+	public int available() {
+		return current == null ? 0 : current.length - position;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		reader.interrupt();
+		try {
+			// a read of stdin or a socket isn't interruptible, closing the source stops it
+			source.close();
+		} finally {
+			try {
+				// the reader is a daemon, don't hang if the source doesn't stop it
+				reader.join(CLOSE_TIMEOUT);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			current = null;
+			free.clear();
+			filled.clear();
+		}
+	}
+}
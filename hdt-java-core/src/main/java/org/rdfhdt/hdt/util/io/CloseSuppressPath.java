@@ -1,5 +1,8 @@
 package org.rdfhdt.hdt.util.io;
 
+import org.rdfhdt.hdt.util.io.compress.BlockCompressInputStream;
+import org.rdfhdt.hdt.util.io.compress.BlockCompressOutputStream;
+
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.Closeable;
@@ -9,9 +12,12 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
 import java.nio.file.*;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Spliterator;
 import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
 /**
  * a file that delete itself when we close it
@@ -20,17 +26,51 @@ import java.util.function.Consumer;
  */
 public class CloseSuppressPath implements Path, Closeable {
 	public static final int BUFFER_SIZE = 1 << 13;
+	private static final Path[] NO_STRIPE = new Path[0];
 	private final Path wrapper;
+	private final boolean compressed;
+	/**
+	 * the other roots of this path, see {@link #getStripes()}
+	 */
+	private final Path[] stripes;
 	private boolean isDir;
 
 	CloseSuppressPath(Path wrapper) {
+		this(wrapper, false, NO_STRIPE);
+	}
+
+	private CloseSuppressPath(Path wrapper, boolean compressed, Path[] stripes) {
 		this.wrapper = wrapper;
+		this.compressed = compressed;
+		this.stripes = stripes;
 	}
 
 	public static CloseSuppressPath of(String first, String... more) {
 		return new CloseSuppressPath(Path.of(first, more));
 	}
 
+	/**
+	 * create a path with stripes, the location isn't split, the stripe directories are separated by
+	 * {@link File#pathSeparator}.
+	 *
+	 * @param location        the directory of the path
+	 * @param stripeLocations the directories of the stripes, null or empty for no stripe
+	 * @return path
+	 * @see #getStripes()
+	 */
+	public static CloseSuppressPath ofLocations(String location, String stripeLocations) {
+		if (stripeLocations == null || stripeLocations.isEmpty()) {
+			return of(location);
+		}
+		List<Path> stripes = new ArrayList<>();
+		for (String stripe : stripeLocations.split(File.pathSeparator)) {
+			if (!stripe.isEmpty()) {
+				stripes.add(Path.of(stripe));
+			}
+		}
+		return new CloseSuppressPath(Path.of(location), false, stripes.toArray(Path[]::new));
+	}
+
 	public static CloseSuppressPath of(Path component) {
 		return component instanceof CloseSuppressPath ? (CloseSuppressPath) component : new CloseSuppressPath(component);
 	}
@@ -93,7 +133,11 @@ public class CloseSuppressPath implements Path, Closeable {
 
 	@Override
 	public CloseSuppressPath getParent() {
-		return of(wrapper.getParent());
+		Path parent = wrapper.getParent();
+		if (parent == null) {
+			return null;
+		}
+		return child(parent, Path::getParent);
 	}
 
 	@Override
@@ -133,27 +177,40 @@ public class CloseSuppressPath implements Path, Closeable {
 
 	@Override
 	public CloseSuppressPath normalize() {
-		return of(wrapper.normalize());
+		return child(wrapper.normalize(), Path::normalize);
+	}
+
+	private CloseSuppressPath child(Path path, UnaryOperator<Path> stripeMapper) {
+		if (stripes.length == 0) {
+			return new CloseSuppressPath(path, compressed, NO_STRIPE);
+		}
+		Path[] childStripes = new Path[stripes.length];
+		for (int i = 0; i < stripes.length; i++) {
+			childStripes[i] = stripeMapper.apply(stripes[i]);
+		}
+		return new CloseSuppressPath(path, compressed, childStripes);
 	}
 
 	@Override
 	public CloseSuppressPath resolve(Path other) {
-		return of(wrapper.resolve(extract(other)));
+		Path path = extract(other);
+		return child(wrapper.resolve(path), stripe -> stripe.resolve(path));
 	}
 
 	@Override
 	public CloseSuppressPath resolve(String other) {
-		return of(wrapper.resolve(other));
+		return child(wrapper.resolve(other), stripe -> stripe.resolve(other));
 	}
 
 	@Override
 	public CloseSuppressPath resolveSibling(Path other) {
-		return of(wrapper.resolveSibling(extract(other)));
+		Path path = extract(other);
+		return child(wrapper.resolveSibling(path), stripe -> stripe.resolveSibling(path));
 	}
 
 	@Override
 	public CloseSuppressPath resolveSibling(String other) {
-		return of(wrapper.resolveSibling(other));
+		return child(wrapper.resolveSibling(other), stripe -> stripe.resolveSibling(other));
 	}
 
 	@Override
@@ -168,7 +225,7 @@ public class CloseSuppressPath implements Path, Closeable {
 
 	@Override
 	public CloseSuppressPath toAbsolutePath() {
-		return of(wrapper.toAbsolutePath());
+		return child(wrapper.toAbsolutePath(), Path::toAbsolutePath);
 	}
 
 	@Override
@@ -230,6 +287,9 @@ public class CloseSuppressPath implements Path, Closeable {
 	}
 
 	public InputStream openInputStream(int bufferSize, OpenOption... options) throws IOException {
+		if (compressed) {
+			return new BlockCompressInputStream(openInputStream(options), bufferSize);
+		}
 		return new BufferedInputStream(openInputStream(options), bufferSize);
 	}
 
@@ -242,9 +302,49 @@ public class CloseSuppressPath implements Path, Closeable {
 	}
 
 	public OutputStream openOutputStream(int bufferSize, OpenOption... options) throws IOException {
+		if (compressed) {
+			return new BlockCompressOutputStream(openOutputStream(options), bufferSize);
+		}
 		return new BufferedOutputStream(openOutputStream(options), bufferSize);
 	}
 
+	/**
+	 * create a path to the same file, the buffered streams opened with this path or its resolved children are
+	 * compressed by blocks, the files have to be written and read with compressed paths
+	 *
+	 * @param compress compress the streams
+	 * @return path
+	 * @see BlockCompressOutputStream
+	 */
+	public CloseSuppressPath compressed(boolean compress) {
+		CloseSuppressPath path = new CloseSuppressPath(wrapper, compress, stripes);
+		path.isDir = isDir;
+		return path;
+	}
+
+	/**
+	 * @return if the buffered streams of this path are compressed
+	 */
+	public boolean isCompressed() {
+		return compressed;
+	}
+
+	/**
+	 * get the stripes of this path, the same relative path in each of the stripe directories given to
+	 * {@link #ofLocations(String, String)}, used to spread the temporary files over several devices. The stripes are created
+	 * by {@link #mkdirs()} and deleted by {@link #close()}.
+	 *
+	 * @return this path and its stripes, without stripes, the first element is this path
+	 */
+	public List<CloseSuppressPath> getStripes() {
+		List<CloseSuppressPath> paths = new ArrayList<>(stripes.length + 1);
+		paths.add(stripes.length == 0 ? this : new CloseSuppressPath(wrapper, compressed, NO_STRIPE));
+		for (Path stripe : stripes) {
+			paths.add(new CloseSuppressPath(stripe, compressed, NO_STRIPE));
+		}
+		return paths;
+	}
+
 	/**
 	 * close this path with a delete recurse instead of delete if exists
 	 */
@@ -254,6 +354,9 @@ public class CloseSuppressPath implements Path, Closeable {
 
 	public void mkdirs() throws IOException {
 		Files.createDirectories(this);
+		for (Path stripe : stripes) {
+			Files.createDirectories(stripe);
+		}
 	}
 
 	public Path getJavaPath() {
@@ -264,8 +367,14 @@ public class CloseSuppressPath implements Path, Closeable {
 	public void close() throws IOException {
 		if (isDir) {
 			IOUtil.deleteDirRecurse(this);
+			for (Path stripe : stripes) {
+				IOUtil.deleteDirRecurse(stripe);
+			}
 		} else {
 			Files.deleteIfExists(this);
+			for (Path stripe : stripes) {
+				Files.deleteIfExists(stripe);
+			}
 		}
 	}
 }
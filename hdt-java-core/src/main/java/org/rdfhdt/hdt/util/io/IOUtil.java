@@ -227,6 +227,31 @@ public class IOUtil {
 	}
 
 	public static InputStream getFileInputStream(String fileName, boolean uncompress) throws IOException {
+		CompressionType compression = CompressionType.NONE;
+		if (uncompress) {
+			String name = fileName.toLowerCase();
+			if (name.endsWith(".gz") || name.endsWith(".tgz")) {
+				compression = CompressionType.GZIP;
+			} else if (name.endsWith("bz2") || name.endsWith("bz")) {
+				compression = CompressionType.BZIP;
+			} else if (name.endsWith("xz")) {
+				compression = CompressionType.XZ;
+			}
+		}
+		return getFileInputStream(fileName, compression);
+	}
+
+	/**
+	 * open a file, an url or the standard input ("-") and decompress it, a local file is decompressed in parallel if
+	 * its format allows it, the other streams are decompressed in a separate thread.
+	 *
+	 * @param fileName    the file name
+	 * @param compression the compression of the file
+	 * @return decompressed stream
+	 * @throws IOException can't open the file
+	 * @see ParallelDecompressInputStream#open(Path, CompressionType)
+	 */
+	public static InputStream getFileInputStream(String fileName, CompressionType compression) throws IOException {
 		InputStream input;
 		String name = fileName.toLowerCase();
 		if (name.startsWith("http:/") || name.startsWith("https:/") || name.startsWith("ftp:/")) {
@@ -237,19 +262,9 @@ public class IOUtil {
 		} else if (name.equals("-")) {
 			input = new BufferedInputStream(System.in);
 		} else {
-			input = new BufferedInputStream(new FileInputStream(fileName));
+			return ParallelDecompressInputStream.open(Path.of(fileName), compression);
 		}
-
-		if (uncompress) {
-			if (name.endsWith(".gz") || name.endsWith(".tgz")) {
-				input = new GZIPInputStream(input);
-			} else if (name.endsWith("bz2") || name.endsWith("bz")) {
-				input = new BZip2CompressorInputStream(input, true);
-			} else if (name.endsWith("xz")) {
-				input = new XZCompressorInputStream(input, true);
-			}
-		}
-		return input;
+		return asUncompressed(input, compression);
 	}
 
 	public static BufferedReader getFileReader(String fileName) throws IOException {
@@ -347,7 +362,7 @@ public class IOUtil {
 	}
 
 	public static void decompressGzip(File src, File trgt) throws IOException {
-		try (InputStream in = new GZIPInputStream(new BufferedInputStream(new FileInputStream(src)))) {
+		try (InputStream in = ParallelDecompressInputStream.open(src.toPath(), CompressionType.GZIP)) {
 			Files.copy(in, trgt.toPath());
 		}
 	}
@@ -564,14 +579,22 @@ public class IOUtil {
 		}
 	}
 
+	/**
+	 * decompress a stream, the decompression is done in a separate thread
+	 *
+	 * @param inputStream the stream
+	 * @param type        the compression of the stream
+	 * @return decompressed stream
+	 * @throws IOException can't read the stream
+	 */
 	public static InputStream asUncompressed(InputStream inputStream, CompressionType type) throws IOException {
 		switch (type) {
 			case GZIP:
-				return new GZIPInputStream(inputStream);
+				return new AsyncInputStream(new GZIPInputStream(inputStream));
 			case BZIP:
-				return new BZip2CompressorInputStream(inputStream, true);
+				return new AsyncInputStream(new BZip2CompressorInputStream(inputStream, true));
 			case XZ:
-				return new XZCompressorInputStream(inputStream, true);
+				return new AsyncInputStream(new XZCompressorInputStream(inputStream, true));
 			case NONE:
 				return inputStream;
 		}
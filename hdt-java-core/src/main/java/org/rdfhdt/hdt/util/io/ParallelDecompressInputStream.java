@@ -0,0 +1,352 @@
+package org.rdfhdt.hdt.util.io;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+import org.apache.commons.compress.compressors.xz.XZCompressorInputStream;
+import org.rdfhdt.hdt.enums.CompressionType;
+import org.rdfhdt.hdt.exceptions.IllegalFormatException;
+import org.rdfhdt.hdt.util.concurrent.ExceptionSupplier;
+import org.tukaani.xz.SeekableFileInputStream;
+import org.tukaani.xz.SeekableXZInputStream;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * InputStream decompressing independent chunks of a compressed file in parallel and returning them in order.
+ * <p>
+ * {@link #open(Path, CompressionType)} uses it for the formats with indexed blocks, the BGZF gzip files (a gzip
+ * member per block, with its size in the header) and the xz files with multiple blocks. The other files, a single
+ * gzip member or bzip2 where the block boundaries aren't byte aligned, are decompressed by an
+ * {@link AsyncInputStream} in a separate thread.
+ */
+public class ParallelDecompressInputStream extends InputStream {
+	/**
+	 * compressed size of the BGZF members read by a chunk
+	 */
+	public static final int BGZF_CHUNK_SIZE = 1 << 20;
+	/**
+	 * uncompressed size of the xz blocks read by a chunk
+	 */
+	public static final long XZ_CHUNK_SIZE = 8L << 20;
+	/**
+	 * maximum uncompressed size of a xz block to decompress it in memory
+	 */
+	public static final long XZ_MAX_BLOCK_SIZE = 64L << 20;
+	/**
+	 * number of decompression threads used by {@link #open(Path, CompressionType)}, enough to feed a parser
+	 */
+	public static final int DEFAULT_THREADS = Math.min(8, Runtime.getRuntime().availableProcessors());
+	private static final int BGZF_HEADER_SIZE = 18;
+	private static final AtomicInteger POOL_ID = new AtomicInteger();
+
+	/**
+	 * independent part of a compressed file
+	 */
+	@FunctionalInterface
+	public interface Chunk {
+		/**
+		 * @return the decompressed chunk
+		 * @throws IOException read exception
+		 */
+		byte[] decompress() throws IOException;
+	}
+
+	/**
+	 * open a compressed file, decompressed in parallel if its format allows it or in a separate thread otherwise
+	 *
+	 * @param file the file
+	 * @param type the compression of the file
+	 * @return decompressed stream
+	 * @throws IOException can't open the file
+	 */
+	public static InputStream open(Path file, CompressionType type) throws IOException {
+		int threads = DEFAULT_THREADS;
+		switch (type) {
+			case GZIP:
+				if (threads > 1 && isBgzf(file)) {
+					return ofBgzf(file, threads);
+				}
+				return async(new GZIPInputStream(openBuffered(file), 1 << 16));
+			case BZIP:
+				return async(new BZip2CompressorInputStream(openBuffered(file), true));
+			case XZ:
+				if (threads > 1) {
+					InputStream xz = ofXz(file, threads);
+					if (xz != null) {
+						return xz;
+					}
+				}
+				return async(new XZCompressorInputStream(openBuffered(file), true));
+			case NONE:
+				return openBuffered(file);
+			default:
+				throw new IllegalArgumentException("CompressionType not yet implemented: " + type);
+		}
+	}
+
+	private static InputStream openBuffered(Path file) throws IOException {
+		return new BufferedInputStream(new FileInputStream(file.toFile()), 1 << 16);
+	}
+
+	private static InputStream async(InputStream decompressed) {
+		return new AsyncInputStream(decompressed);
+	}
+
+	private static int readUInt16(byte[] buffer, int index) {
+		return (buffer[index] & 0xFF) | (buffer[index + 1] & 0xFF) << 8;
+	}
+
+	/**
+	 * @return the size of the BGZF member at this position, -1 at the end of the file
+	 * @throws IllegalFormatException if the member isn't a BGZF member
+	 */
+	private static long bgzfMemberSize(FileChannel channel, long position) throws IOException {
+		if (position >= channel.size()) {
+			return -1;
+		}
+		byte[] header = new byte[BGZF_HEADER_SIZE];
+		readFully(channel, position, header);
+		if ((header[0] & 0xFF) != 0x1f || (header[1] & 0xFF) != 0x8b || header[2] != 8 // gzip deflate member
+				|| (header[3] & 4) == 0 || readUInt16(header, 10) < 6 // extra field
+				|| header[12] != 'B' || header[13] != 'C' || readUInt16(header, 14) != 2) { // BC subfield
+			throw new IllegalFormatException("Not a BGZF member at " + position);
+		}
+		return readUInt16(header, 16) + 1L;
+	}
+
+	private static void readFully(FileChannel channel, long position, byte[] buffer) throws IOException {
+		ByteBuffer bb = ByteBuffer.wrap(buffer);
+		while (bb.hasRemaining()) {
+			if (channel.read(bb, position + bb.position()) < 0) {
+				throw new IllegalFormatException("Unexpected end of file at " + (position + bb.position()));
+			}
+		}
+	}
+
+	/**
+	 * @param file the file
+	 * @return if the file is a BGZF gzip file, a gzip file with the size of each member in its header
+	 * @throws IOException can't read the file
+	 */
+	public static boolean isBgzf(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() < BGZF_HEADER_SIZE) {
+				return false;
+			}
+			bgzfMemberSize(channel, 0);
+			return true;
+		} catch (IllegalFormatException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * decompress a BGZF gzip file in parallel
+	 *
+	 * @param file    the file
+	 * @param threads number of decompression threads
+	 * @return decompressed stream
+	 * @throws IOException can't open the file
+	 * @see #isBgzf(Path)
+	 */
+	public static InputStream ofBgzf(Path file, int threads) throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		long[] position = {0};
+		return new ParallelDecompressInputStream(() -> {
+			long start = position[0];
+			long end = start;
+			long size;
+			// group the members of a chunk
+			while (end - start < BGZF_CHUNK_SIZE && (size = bgzfMemberSize(channel, end)) != -1) {
+				end += size;
+			}
+			if (start == end) {
+				return null;
+			}
+			position[0] = end;
+			long chunkEnd = end;
+			return () -> {
+				byte[] compressed = new byte[(int) (chunkEnd - start)];
+				readFully(channel, start, compressed);
+				try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+					return in.readAllBytes();
+				}
+			};
+		}, threads, channel);
+	}
+
+	/**
+	 * decompress a xz file in parallel, by groups of blocks
+	 *
+	 * @param file    the file
+	 * @param threads number of decompression threads
+	 * @return decompressed stream, null if the file has only one block or too big blocks
+	 * @throws IOException can't open the file
+	 */
+	public static InputStream ofXz(Path file, int threads) throws IOException {
+		int blocks;
+		long[] sizes;
+		try (SeekableXZInputStream xz = new SeekableXZInputStream(new SeekableFileInputStream(file.toFile()))) {
+			blocks = xz.getBlockCount();
+			if (blocks <= 1) {
+				return null;
+			}
+			sizes = new long[blocks];
+			for (int i = 0; i < blocks; i++) {
+				sizes[i] = xz.getBlockSize(i);
+				if (sizes[i] > XZ_MAX_BLOCK_SIZE) {
+					return null;
+				}
+			}
+		}
+		int[] nextBlock = {0};
+		return new ParallelDecompressInputStream(() -> {
+			int start = nextBlock[0];
+			if (start == blocks) {
+				return null;
+			}
+			int end = start;
+			long size = 0;
+			// group the blocks of a chunk
+			while (end < blocks && size < XZ_CHUNK_SIZE) {
+				size += sizes[end++];
+			}
+			nextBlock[0] = end;
+			int chunkSize = (int) size;
+			int chunkEnd = end;
+			return () -> {
+				byte[] data = new byte[chunkSize];
+				try (SeekableXZInputStream xz = new SeekableXZInputStream(new SeekableFileInputStream(file.toFile()))) {
+					xz.seekToBlock(start);
+					int read = xz.readNBytes(data, 0, data.length);
+					if (read != data.length) {
+						throw new IllegalFormatException("Unexpected end of the xz blocks " + start + "-" + chunkEnd + " of " + file);
+					}
+				}
+				return data;
+			};
+		}, threads, null);
+	}
+
+	private final ExceptionSupplier<Chunk, IOException> chunks;
+	private final ExecutorService pool;
+	private final ArrayDeque<Future<byte[]>> pending = new ArrayDeque<>();
+	private final int maxPending;
+	private final Closeable source;
+	private boolean end;
+	private byte[] current;
+	private int position;
+	private boolean closed;
+
+	/**
+	 * @param chunks  supplier of the chunks to decompress in order, returning null after the last one
+	 * @param threads number of decompression threads
+	 * @param source  resource to close with the stream, can be null
+	 */
+	public ParallelDecompressInputStream(ExceptionSupplier<Chunk, IOException> chunks, int threads, Closeable source) {
+		if (threads <= 0) {
+			throw new IllegalArgumentException("threads should be positive: " + threads);
+		}
+		this.chunks = chunks;
+		this.source = source;
+		// read-ahead of one chunk per thread and the one being read
+		this.maxPending = threads + 1;
+		int id = POOL_ID.incrementAndGet();
+		AtomicInteger threadId = new AtomicInteger();
+		this.pool = Executors.newFixedThreadPool(threads, r -> {
+			Thread thread = new Thread(r, "ParallelDecompress#" + id + "-" + threadId.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * @return false if the end of the stream is reached
+	 */
+	private boolean fill() throws IOException {
+		if (closed) {
+			throw new IOException("Stream closed");
+		}
+		while (current == null || position == current.length) {
+			while (!end && pending.size() < maxPending) {
+				Chunk chunk = chunks.get();
+				if (chunk == null) {
+					end = true;
+				} else {
+					pending.add(pool.submit(chunk::decompress));
+				}
+			}
+			Future<byte[]> next = pending.poll();
+			if (next == null) {
+				return false;
+			}
+			try {
+				current = next.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while reading");
+			} catch (ExecutionException e) {
+				throw new IOException("Error while decompressing a chunk", e.getCause());
+			}
+			position = 0;
+		}
+		return true;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!fill()) {
+			return -1;
+		}
+		return current[position++] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		if (!fill()) {
+			return -1;
+		}
+		int count = Math.min(len, current.length - position);
+		System.arraycopy(current, position, b, off, count);
+		position += count;
+		return count;
+	}
+
+	@Override
+	public int available() {
+		return current == null ? 0 : current.length - position;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		pool.shutdownNow();
+		pending.clear();
+		current = null;
+		if (source != null) {
+			source.close();
+		}
+	}
+}
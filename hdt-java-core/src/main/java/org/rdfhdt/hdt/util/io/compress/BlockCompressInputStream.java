@@ -0,0 +1,133 @@
+package org.rdfhdt.hdt.util.io.compress;
+
+import org.rdfhdt.hdt.exceptions.CRCException;
+import org.rdfhdt.hdt.util.crc.CRC32;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * InputStream reading the blocks written by a {@link BlockCompressOutputStream}, the CRC of each block is checked
+ */
+public class BlockCompressInputStream extends InputStream {
+	private static int readInt(byte[] buffer, int index) {
+		return (buffer[index] & 0xFF)
+				| (buffer[index + 1] & 0xFF) << 8
+				| (buffer[index + 2] & 0xFF) << 16
+				| (buffer[index + 3] & 0xFF) << 24;
+	}
+
+	private final InputStream in;
+	private final byte[] header = new byte[BlockCompressOutputStream.HEADER_SIZE];
+	private final CRC32 crc = new CRC32();
+	private byte[] buffer;
+	private byte[] compressed;
+	private int index;
+	private int count;
+	private boolean end;
+
+	/**
+	 * create a decompress stream
+	 *
+	 * @param in        the stream to read the blocks
+	 * @param blockSize the expected block size, only used to allocate the first buffers
+	 */
+	public BlockCompressInputStream(InputStream in, int blockSize) {
+		this.in = in;
+		int size = Math.max(BlockCompressOutputStream.MIN_BLOCK_SIZE, blockSize);
+		buffer = new byte[size];
+		compressed = new byte[LZBlock.maxCompressedLength(size)];
+	}
+
+	private void readFully(byte[] b, int len) throws IOException {
+		int off = 0;
+		while (off < len) {
+			int r = in.read(b, off, len - off);
+			if (r < 0) {
+				throw new EOFException("Truncated compressed block");
+			}
+			off += r;
+		}
+	}
+
+	/**
+	 * read the next block
+	 *
+	 * @return false if the end block was read
+	 */
+	private boolean readBlock() throws IOException {
+		if (end) {
+			return false;
+		}
+		readFully(header, header.length);
+		int rawSize = readInt(header, 0);
+		int storedSize = readInt(header, 4);
+		int blockCRC = readInt(header, 8);
+
+		if (rawSize == 0) {
+			end = true;
+			return false;
+		}
+		if (rawSize < 0 || storedSize < 0 || storedSize > rawSize) {
+			throw new IOException("Corrupted compressed block header");
+		}
+		if (buffer.length < rawSize) {
+			buffer = new byte[rawSize];
+		}
+
+		if (storedSize == rawSize) {
+			// stored block
+			readFully(buffer, rawSize);
+		} else {
+			if (compressed.length < storedSize) {
+				compressed = new byte[storedSize];
+			}
+			readFully(compressed, storedSize);
+			if (LZBlock.decompress(compressed, 0, storedSize, buffer, 0, rawSize) != rawSize) {
+				throw new IOException("Corrupted compressed block, bad size");
+			}
+		}
+
+		crc.reset();
+		crc.update(buffer, 0, rawSize);
+		if ((int) crc.getValue() != blockCRC) {
+			throw new CRCException("Invalid CRC of compressed block");
+		}
+		index = 0;
+		count = rawSize;
+		return true;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (index == count && !readBlock()) {
+			return -1;
+		}
+		return buffer[index++] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		if (index == count && !readBlock()) {
+			return -1;
+		}
+		int toCopy = Math.min(len, count - index);
+		System.arraycopy(buffer, index, b, off, toCopy);
+		index += toCopy;
+		return toCopy;
+	}
+
+	@Override
+	public int available() {
+		return count - index;
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+}
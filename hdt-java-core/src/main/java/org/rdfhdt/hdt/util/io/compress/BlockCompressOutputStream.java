@@ -0,0 +1,119 @@
+package org.rdfhdt.hdt.util.io.compress;
+
+import org.rdfhdt.hdt.util.crc.CRC32;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * OutputStream compressing the data by blocks with {@link LZBlock}, each block has a CRC32 of its uncompressed data,
+ * to read with {@link BlockCompressInputStream}.
+ * <p>
+ * Block format: uncompressed size (int), stored size (int), CRC32 (int), stored data. If the stored size is the
+ * uncompressed size, the block wasn't compressed. The stream ends with an empty block.
+ */
+public class BlockCompressOutputStream extends OutputStream {
+	/**
+	 * size of the block header
+	 */
+	static final int HEADER_SIZE = 12;
+	/**
+	 * minimum size of a block, smaller blocks don't compress well
+	 */
+	public static final int MIN_BLOCK_SIZE = 1 << 16;
+
+	static void writeInt(byte[] buffer, int index, int value) {
+		buffer[index] = (byte) value;
+		buffer[index + 1] = (byte) (value >>> 8);
+		buffer[index + 2] = (byte) (value >>> 16);
+		buffer[index + 3] = (byte) (value >>> 24);
+	}
+
+	private final OutputStream out;
+	private final byte[] buffer;
+	private final byte[] compressed;
+	private final int[] hashTable = LZBlock.createHashTable();
+	private final CRC32 crc = new CRC32();
+	private int count;
+	private boolean closed;
+
+	/**
+	 * create a compress stream
+	 *
+	 * @param out       the stream to write the blocks
+	 * @param blockSize the size of the blocks, at least {@link #MIN_BLOCK_SIZE}
+	 */
+	public BlockCompressOutputStream(OutputStream out, int blockSize) {
+		this.out = out;
+		int size = Math.max(MIN_BLOCK_SIZE, blockSize);
+		buffer = new byte[size];
+		compressed = new byte[HEADER_SIZE + LZBlock.maxCompressedLength(size)];
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		if (count == buffer.length) {
+			writeBlock();
+		}
+		buffer[count++] = (byte) b;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		while (len > 0) {
+			if (count == buffer.length) {
+				writeBlock();
+			}
+			int toCopy = Math.min(len, buffer.length - count);
+			System.arraycopy(b, off, buffer, count, toCopy);
+			count += toCopy;
+			off += toCopy;
+			len -= toCopy;
+		}
+	}
+
+	private void writeBlock() throws IOException {
+		if (count == 0) {
+			return;
+		}
+		crc.reset();
+		crc.update(buffer, 0, count);
+		int size = LZBlock.compress(buffer, 0, count, compressed, HEADER_SIZE, hashTable);
+		writeInt(compressed, 0, count);
+		writeInt(compressed, 8, (int) crc.getValue());
+		if (size < count) {
+			writeInt(compressed, 4, size);
+			out.write(compressed, 0, HEADER_SIZE + size);
+		} else {
+			// incompressible block, store it
+			writeInt(compressed, 4, count);
+			out.write(compressed, 0, HEADER_SIZE);
+			out.write(buffer, 0, count);
+		}
+		count = 0;
+	}
+
+	@Override
+	public void flush() throws IOException {
+		writeBlock();
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			writeBlock();
+			// end block
+			writeInt(compressed, 0, 0);
+			writeInt(compressed, 4, 0);
+			writeInt(compressed, 8, 0);
+			out.write(compressed, 0, HEADER_SIZE);
+		} finally {
+			out.close();
+		}
+	}
+}
@@ -10,17 +10,26 @@ import java.util.List;
 import java.util.function.Function;
 
 /**
- * Version of {@link org.rdfhdt.hdt.iterator.utils.MergeExceptionIterator} with {@link org.rdfhdt.hdt.triples.IndexedNode}
+ * Version of {@link org.rdfhdt.hdt.iterator.utils.MergeExceptionIterator} with {@link org.rdfhdt.hdt.triples.IndexedNode},
+ * the equal nodes are merged by index to keep the index lists of {@link CompressNodeWriter} small
  * @author Antoine Willerval
  */
 public class CompressNodeMergeIterator extends MergeExceptionIterator<IndexedNode, IOException> {
 
 	public CompressNodeMergeIterator(ExceptionIterator<IndexedNode, IOException> in1, ExceptionIterator<IndexedNode, IOException> in2) {
-		super(in1, in2, IndexedNode::compareTo);
+		super(in1, in2, CompressNodeMergeIterator::compareNodeIndex);
 	}
 
 	public static <T extends ExceptionIterator<IndexedNode, IOException>> ExceptionIterator<IndexedNode, IOException> buildOfTree(
 			T[] lst) {
-		return buildOfTree(it -> it, IndexedNode::compareTo, lst, 0, lst.length);
+		return buildOfTree(it -> it, CompressNodeMergeIterator::compareNodeIndex, lst, 0, lst.length);
+	}
+
+	private static int compareNodeIndex(IndexedNode node1, IndexedNode node2) {
+		int c = node1.compareTo(node2);
+		if (c != 0) {
+			return c;
+		}
+		return Long.compare(node1.getIndex(), node2.getIndex());
 	}
 }
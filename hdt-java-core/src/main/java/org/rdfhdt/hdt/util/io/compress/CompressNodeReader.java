@@ -26,6 +26,7 @@ public class CompressNodeReader implements ExceptionIterator<IndexedNode, IOExce
 	private final long size;
 	private long index;
 	private int delta;
+	private long postings;
 	private boolean waiting;
 	private final IndexedNode last;
 	private final ReplazableString tempString;
@@ -62,10 +63,18 @@ public class CompressNodeReader implements ExceptionIterator<IndexedNode, IOExce
 		if (waiting) {
 			return last;
 		}
-		delta = (int) VByte.decode(stream);
-		tempString.replace2(stream, delta);
-		long index = VByte.decode(stream);
-		last.setIndex(index);
+		if (postings == 0) {
+			// new node with its indexes
+			delta = (int) VByte.decode(stream);
+			tempString.replace2(stream, delta);
+			postings = VByte.decode(stream);
+			last.setIndex(VByte.decode(stream));
+		} else {
+			// same node, next index
+			delta = tempString.length();
+			last.setIndex(last.getIndex() + VByte.decodeSigned(stream));
+		}
+		postings--;
 		consumer.accept(last);
 		waiting = true;
 		return last;
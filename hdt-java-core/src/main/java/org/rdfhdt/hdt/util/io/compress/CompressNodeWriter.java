@@ -13,15 +13,25 @@ import org.rdfhdt.hdt.util.string.ReplazableString;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Arrays;
 
 /**
  * Class to write a compress node file
+ * <p>
+ * The equal consecutive nodes are written once with the list of their indexes: the number of indexes, the first
+ * index and the signed deltas with the previous indexes.
  *
  * @author Antoine Willerval
  */
 public class CompressNodeWriter implements Closeable {
+	/**
+	 * maximum number of indexes in a node list, a node with more indexes is written again
+	 */
+	static final int MAX_POSTINGS = 1 << 16;
 	private final CRCOutputStream out;
 	private final ReplazableString previousStr = new ReplazableString();
+	private long[] postings = new long[16];
+	private int postingCount;
 
 	public CompressNodeWriter(OutputStream stream, long size) throws IOException {
 		this.out = new CRCOutputStream(stream, new CRC8());
@@ -36,16 +46,47 @@ public class CompressNodeWriter implements Closeable {
 
 		// Find common part.
 		int delta = ByteStringUtil.longestCommonPrefix(previousStr, str);
+		if (postingCount != 0 && postingCount < MAX_POSTINGS && delta == str.length() && delta == previousStr.length()) {
+			// same node, only add the index
+			addPosting(index);
+			return;
+		}
+		writePostings();
 		// Write Delta in VByte
 		VByte.encode(out, delta);
 		// Write remaining
 		ByteStringUtil.append(out, str, delta);
 		out.write(0); // End of string
-		VByte.encode(out, index); // index of the node
 		previousStr.replace(str);
+		addPosting(index);
+	}
+
+	private void addPosting(long index) {
+		if (postingCount == postings.length) {
+			postings = Arrays.copyOf(postings, postingCount * 2);
+		}
+		postings[postingCount++] = index;
+	}
+
+	/**
+	 * write the indexes of the previous node
+	 */
+	private void writePostings() throws IOException {
+		if (postingCount == 0) {
+			return;
+		}
+		VByte.encode(out, postingCount);
+		long last = postings[0];
+		VByte.encode(out, last); // index of the node
+		for (int i = 1; i < postingCount; i++) {
+			VByte.encodeSigned(out, postings[i] - last);
+			last = postings[i];
+		}
+		postingCount = 0;
 	}
 
 	public void writeCRC() throws IOException {
+		writePostings();
 		out.writeCRC();
 	}
 
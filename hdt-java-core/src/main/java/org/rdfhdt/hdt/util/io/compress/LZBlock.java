@@ -0,0 +1,244 @@
+package org.rdfhdt.hdt.util.io.compress;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Fast LZ77 block codec using the LZ4 block format, a block is a list of sequences, each sequence is a token
+ * (literal length / match length), the literals, the little endian 2 bytes offset of the match and the extra match
+ * length. The last sequence only contains literals.
+ * <p>
+ * The compressor is greedy with a hash table of 4 bytes, it is designed for speed over ratio.
+ */
+public final class LZBlock {
+	/**
+	 * minimum size of a match
+	 */
+	private static final int MIN_MATCH = 4;
+	/**
+	 * the last bytes of a block are always literals
+	 */
+	private static final int LAST_LITERALS = 5;
+	/**
+	 * minimum distance between a match start and the end of the block
+	 */
+	private static final int MF_LIMIT = 12;
+	private static final int MAX_OFFSET = (1 << 16) - 1;
+	/**
+	 * log2 of the size of the hash table
+	 */
+	public static final int HASH_LOG = 12;
+	private static final int RUN_MASK = 0xF;
+
+	private LZBlock() {
+	}
+
+	/**
+	 * @param length the length of the data to compress
+	 * @return the maximum size of the compressed data
+	 */
+	public static int maxCompressedLength(int length) {
+		return length + length / 255 + 16;
+	}
+
+	/**
+	 * @return a new hash table to use with {@link #compress(byte[], int, int, byte[], int, int[])}
+	 */
+	public static int[] createHashTable() {
+		return new int[1 << HASH_LOG];
+	}
+
+	private static int readInt(byte[] buffer, int index) {
+		return (buffer[index] & 0xFF)
+				| (buffer[index + 1] & 0xFF) << 8
+				| (buffer[index + 2] & 0xFF) << 16
+				| (buffer[index + 3] & 0xFF) << 24;
+	}
+
+	private static int hash(int sequence) {
+		return (sequence * -1640531535) >>> (32 - HASH_LOG);
+	}
+
+	private static int writeLength(byte[] dst, int op, int length) {
+		for (; length >= 0xFF; length -= 0xFF) {
+			dst[op++] = (byte) 0xFF;
+		}
+		dst[op++] = (byte) length;
+		return op;
+	}
+
+	private static int writeSequence(byte[] dst, int op, byte[] src, int literalStart, int literalLength, int offset, int matchLength) {
+		int tokenIndex = op++;
+		int token;
+		if (literalLength >= RUN_MASK) {
+			token = RUN_MASK << 4;
+			op = writeLength(dst, op, literalLength - RUN_MASK);
+		} else {
+			token = literalLength << 4;
+		}
+		System.arraycopy(src, literalStart, dst, op, literalLength);
+		op += literalLength;
+
+		if (matchLength >= 0) {
+			dst[op++] = (byte) offset;
+			dst[op++] = (byte) (offset >>> 8);
+			int length = matchLength - MIN_MATCH;
+			if (length >= RUN_MASK) {
+				token |= RUN_MASK;
+				op = writeLength(dst, op, length - RUN_MASK);
+			} else {
+				token |= length;
+			}
+		}
+		dst[tokenIndex] = (byte) token;
+		return op;
+	}
+
+	/**
+	 * compress a block
+	 *
+	 * @param src       source buffer
+	 * @param srcOff    source offset
+	 * @param srcLen    source length
+	 * @param dst       destination buffer, must have at least {@link #maxCompressedLength(int)} bytes after dstOff
+	 * @param dstOff    destination offset
+	 * @param hashTable hash table created with {@link #createHashTable()}
+	 * @return the compressed size
+	 */
+	public static int compress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff, int[] hashTable) {
+		int srcEnd = srcOff + srcLen;
+		int matchLimit = srcEnd - LAST_LITERALS;
+		int mfLimit = srcEnd - MF_LIMIT;
+		int anchor = srcOff;
+		int ip = srcOff;
+		int op = dstOff;
+
+		if (srcLen >= MF_LIMIT) {
+			Arrays.fill(hashTable, -1);
+			while (ip < mfLimit) {
+				int sequence = readInt(src, ip);
+				int h = hash(sequence);
+				int ref = hashTable[h];
+				hashTable[h] = ip;
+
+				if (ref < 0 || ip - ref > MAX_OFFSET || readInt(src, ref) != sequence) {
+					// skip faster in the incompressible parts
+					ip += 1 + ((ip - anchor) >>> 6);
+					continue;
+				}
+
+				// extend the match backward
+				while (ip > anchor && ref > srcOff && src[ip - 1] == src[ref - 1]) {
+					ip--;
+					ref--;
+				}
+				// extend the match forward
+				int length = MIN_MATCH;
+				while (ip + length < matchLimit && src[ip + length] == src[ref + length]) {
+					length++;
+				}
+
+				op = writeSequence(dst, op, src, anchor, ip - anchor, ip - ref, length);
+				ip += length;
+				anchor = ip;
+
+				if (ip < mfLimit) {
+					hashTable[hash(readInt(src, ip - 2))] = ip - 2;
+				}
+			}
+		}
+
+		// last literals
+		op = writeSequence(dst, op, src, anchor, srcEnd - anchor, 0, -1);
+		return op - dstOff;
+	}
+
+	private static int checkLength(int length) throws IOException {
+		if (length < 0) {
+			throw new IOException("Corrupted block: bad length");
+		}
+		return length;
+	}
+
+	/**
+	 * decompress a block
+	 *
+	 * @param src    source buffer
+	 * @param srcOff source offset
+	 * @param srcLen compressed length
+	 * @param dst    destination buffer
+	 * @param dstOff destination offset
+	 * @param dstLen maximum decompressed length
+	 * @return the decompressed size
+	 * @throws IOException corrupted block
+	 */
+	public static int decompress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff, int dstLen) throws IOException {
+		int ip = srcOff;
+		int srcEnd = srcOff + srcLen;
+		int op = dstOff;
+		int dstEnd = dstOff + dstLen;
+
+		while (ip < srcEnd) {
+			int token = src[ip++] & 0xFF;
+
+			// literals
+			int literalLength = token >>> 4;
+			if (literalLength == RUN_MASK) {
+				int b;
+				do {
+					if (ip >= srcEnd) {
+						throw new IOException("Corrupted block: literal length after the end");
+					}
+					b = src[ip++] & 0xFF;
+					literalLength = checkLength(literalLength + b);
+				} while (b == 0xFF);
+			}
+			if (literalLength > srcEnd - ip || literalLength > dstEnd - op) {
+				throw new IOException("Corrupted block: literals after the end");
+			}
+			System.arraycopy(src, ip, dst, op, literalLength);
+			ip += literalLength;
+			op += literalLength;
+
+			if (ip == srcEnd) {
+				// last sequence
+				break;
+			}
+
+			// match
+			if (srcEnd - ip < 2) {
+				throw new IOException("Corrupted block: offset after the end");
+			}
+			int offset = (src[ip] & 0xFF) | (src[ip + 1] & 0xFF) << 8;
+			ip += 2;
+			int matchLength = token & RUN_MASK;
+			if (matchLength == RUN_MASK) {
+				int b;
+				do {
+					if (ip >= srcEnd) {
+						throw new IOException("Corrupted block: match length after the end");
+					}
+					b = src[ip++] & 0xFF;
+					matchLength = checkLength(matchLength + b);
+				} while (b == 0xFF);
+			}
+			matchLength = checkLength(matchLength + MIN_MATCH);
+
+			int ref = op - offset;
+			if (offset == 0 || ref < dstOff || matchLength > dstEnd - op) {
+				throw new IOException("Corrupted block: bad match");
+			}
+			if (offset >= matchLength) {
+				System.arraycopy(dst, ref, dst, op, matchLength);
+				op += matchLength;
+			} else {
+				// overlapping match, copy byte per byte
+				int end = op + matchLength;
+				while (op < end) {
+					dst[op++] = dst[ref++];
+				}
+			}
+		}
+		return op - dstOff;
+	}
+}
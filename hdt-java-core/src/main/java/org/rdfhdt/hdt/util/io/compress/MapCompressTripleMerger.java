@@ -10,6 +10,7 @@ import org.rdfhdt.hdt.triples.TripleID;
 import org.rdfhdt.hdt.triples.TripleIDComparator;
 import org.rdfhdt.hdt.util.ParallelSortableArrayList;
 import org.rdfhdt.hdt.util.concurrent.KWayMerger;
+import org.rdfhdt.hdt.util.concurrent.MemoryBudget;
 import org.rdfhdt.hdt.util.io.CloseSuppressPath;
 import org.rdfhdt.hdt.util.io.IOUtil;
 import org.rdfhdt.hdt.util.listener.IntermediateListener;
@@ -25,26 +26,31 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 
 /**
- * TreeWorkerObject implementation to map and merge tripleID from a compress triple file
+ * TreeWorkerObject implementation to merge the tripleID mapped by a {@link CompressTripleMapper}, the triples can
+ * be mapped by the workers with {@link #withMapper(ArrayCompressTripleMapper)}
  *
  * @author Antoine Willerval
  */
 public class MapCompressTripleMerger implements KWayMerger.KWayMergerImpl<TripleID, SizeFetcher<TripleID>> {
     private static final Logger log = LoggerFactory.getLogger(MapCompressTripleMerger.class);
+    /**
+     * estimation of the memory used by a chunk divided by its size
+     */
+    public static final double CHUNK_MEMORY_FACTOR = 1.5;
     private final CloseSuppressPath baseFileName;
     private final AsyncIteratorFetcher<TripleID> source;
-    private final CompressTripleMapper mapper;
     private final MultiThreadListener listener;
     private final TripleComponentOrder order;
     private final int bufferSize;
     private final int k;
     private final AtomicLong triplesCount = new AtomicLong();
     private final long chunkSize;
+    private MemoryBudget memoryBudget;
+    private ArrayCompressTripleMapper mapper;
 
-    public MapCompressTripleMerger(CloseSuppressPath baseFileName, AsyncIteratorFetcher<TripleID> source, CompressTripleMapper mapper, MultiThreadListener listener, TripleComponentOrder order, int bufferSize, long chunkSize, int k) {
+    public MapCompressTripleMerger(CloseSuppressPath baseFileName, AsyncIteratorFetcher<TripleID> source, MultiThreadListener listener, TripleComponentOrder order, int bufferSize, long chunkSize, int k) {
         this.baseFileName = baseFileName;
         this.source = source;
-        this.mapper = mapper;
         this.listener = listener;
         this.order = order;
         this.bufferSize = bufferSize;
@@ -52,6 +58,29 @@ public class MapCompressTripleMerger implements KWayMerger.KWayMergerImpl<Triple
         this.k = k;
     }
 
+    /**
+     * reserve the memory of the chunks from a budget while merging with workers
+     *
+     * @param memoryBudget the budget, null to use fixed chunk sizes
+     * @return this
+     */
+    public MapCompressTripleMerger withMemoryBudget(MemoryBudget memoryBudget) {
+        this.memoryBudget = memoryBudget;
+        return this;
+    }
+
+    /**
+     * map the triples of the source in the workers while creating the chunks, the random reads of the mapper are
+     * done in parallel
+     *
+     * @param mapper the mapper, null if the source is already mapped
+     * @return this
+     */
+    public MapCompressTripleMerger withMapper(ArrayCompressTripleMapper mapper) {
+        this.mapper = mapper;
+        return this;
+    }
+
     /**
      * merge these triples into a file
      *
@@ -64,6 +93,9 @@ public class MapCompressTripleMerger implements KWayMerger.KWayMergerImpl<Triple
     public TripleCompressionResult mergeToFile(int workers) throws InterruptedException, IOException, KWayMerger.KWayMergerException {
         // force to create the first file
         KWayMerger<TripleID, SizeFetcher<TripleID>> merger = new KWayMerger<>(baseFileName, source, this, Math.max(1, workers - 1), k);
+        if (memoryBudget != null) {
+            merger.withMemoryBudget(memoryBudget, chunkSize, CHUNK_MEMORY_FACTOR);
+        }
         merger.start();
         // wait for the workers to merge the sections and create the triples
         Optional<CloseSuppressPath> sections = merger.waitResult();
@@ -145,13 +177,11 @@ public class MapCompressTripleMerger implements KWayMerger.KWayMergerImpl<Triple
         listener.notifyProgress(10, "reading triples part2  " + triplesCount);
         TripleID next;
         while ((next = flux.get()) != null) {
-            TripleID mappedTriple = new TripleID(
-                    mapper.extractSubject(next.getSubject()),
-                    mapper.extractPredicate(next.getPredicate()),
-                    mapper.extractObjects(next.getObject())
-            );
-            assert mappedTriple.isValid();
-            tripleIDS.add(mappedTriple);
+            if (mapper != null) {
+                next = mapper.mapTriple(next);
+            }
+            assert next.isValid();
+            tripleIDS.add(next);
             long count = triplesCount.incrementAndGet();
             if (count % 100_000 == 0) {
                 listener.notifyProgress(10, "reading triples part2 " + triplesCount);
@@ -217,7 +247,12 @@ public class MapCompressTripleMerger implements KWayMerger.KWayMergerImpl<Triple
 
     @Override
     public SizeFetcher<TripleID> newStopFlux(Supplier<TripleID> flux) {
-        return SizeFetcher.ofTripleLong(flux, chunkSize);
+        return newStopFlux(flux, chunkSize);
+    }
+
+    @Override
+    public SizeFetcher<TripleID> newStopFlux(Supplier<TripleID> flux, long maxSize) {
+        return SizeFetcher.ofTripleLong(flux, maxSize);
     }
 
     public static class TripleFile implements Closeable {
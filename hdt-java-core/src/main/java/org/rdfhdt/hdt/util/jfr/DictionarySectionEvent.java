@@ -0,0 +1,56 @@
+package org.rdfhdt.hdt.util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of the build or the merge of a dictionary section
+ */
+@Name("org.rdfhdt.hdt.DictionarySection")
+@Label("Dictionary Section")
+@Category({"HDT", "Dictionary"})
+@Description("Build or merge of a dictionary section")
+public class DictionarySectionEvent extends Event {
+	/**
+	 * build of a section from sorted strings
+	 */
+	public static final String OPERATION_BUILD = "build";
+	/**
+	 * merge of sorted sections
+	 */
+	public static final String OPERATION_MERGE = "merge";
+
+	@Label("Operation")
+	String operation;
+	@Label("Section")
+	@Description("Name or implementation of the section")
+	String section;
+	@Label("Elements")
+	long elements;
+	@Label("Size")
+	@DataAmount
+	long size;
+
+	/**
+	 * end and commit the event if it is enabled
+	 *
+	 * @param operation the operation, {@link #OPERATION_BUILD} or {@link #OPERATION_MERGE}
+	 * @param section   the section
+	 * @param elements  the number of strings of the section
+	 * @param size      the size of the section in bytes, 0 if unknown
+	 */
+	public void finish(String operation, String section, long elements, long size) {
+		end();
+		if (shouldCommit()) {
+			this.operation = operation;
+			this.section = section;
+			this.elements = elements;
+			this.size = size;
+			commit();
+		}
+	}
+}
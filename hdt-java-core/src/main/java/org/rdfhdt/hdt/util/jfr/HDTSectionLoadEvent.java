@@ -0,0 +1,49 @@
+package org.rdfhdt.hdt.util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of the load or the map of a section of an HDT file
+ */
+@Name("org.rdfhdt.hdt.SectionLoad")
+@Label("HDT Section Load")
+@Category({"HDT", "Load"})
+@Description("Load or map of the header, the dictionary or the triples of an HDT")
+public class HDTSectionLoadEvent extends Event {
+	/**
+	 * load of the section in memory
+	 */
+	public static final String OPERATION_LOAD = "load";
+	/**
+	 * map of the section
+	 */
+	public static final String OPERATION_MAP = "map";
+
+	@Label("Operation")
+	String operation;
+	@Label("Section")
+	String section;
+	@Label("File")
+	String file;
+
+	/**
+	 * end and commit the event if it is enabled
+	 *
+	 * @param operation the operation, {@link #OPERATION_LOAD} or {@link #OPERATION_MAP}
+	 * @param section   the section
+	 * @param file      the HDT file, null for a stream
+	 */
+	public void finish(String operation, String section, Object file) {
+		end();
+		if (shouldCommit()) {
+			this.operation = operation;
+			this.section = section;
+			this.file = file == null ? null : file.toString();
+			commit();
+		}
+	}
+}
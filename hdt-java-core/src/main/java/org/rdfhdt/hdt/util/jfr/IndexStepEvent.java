@@ -0,0 +1,41 @@
+package org.rdfhdt.hdt.util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of a step of the index generation of the triples
+ */
+@Name("org.rdfhdt.hdt.IndexStep")
+@Label("Index Step")
+@Category({"HDT", "Index"})
+@Description("Step of the generation of the triple indexes")
+public class IndexStepEvent extends Event {
+	@Label("Step")
+	String step;
+	@Label("Method")
+	@Description("Index method of the step")
+	String method;
+	@Label("Triples")
+	long triples;
+
+	/**
+	 * end and commit the event if it is enabled
+	 *
+	 * @param step    the step
+	 * @param method  the index method
+	 * @param triples the number of indexed triples
+	 */
+	public void finish(String step, String method, long triples) {
+		end();
+		if (shouldCommit()) {
+			this.step = step;
+			this.method = method;
+			this.triples = triples;
+			commit();
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package org.rdfhdt.hdt.util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of a task of a {@link org.rdfhdt.hdt.util.concurrent.KWayMerger}
+ */
+@Name("org.rdfhdt.hdt.KWayMerge")
+@Label("K-Way Merge Task")
+@Category({"HDT", "Generation"})
+@Description("Creation of a sorted chunk or merge of chunks by a k-way merger")
+public class KWayMergeEvent extends Event {
+	/**
+	 * read, sort and write of a chunk
+	 */
+	public static final String TASK_CHUNK = "chunk";
+	/**
+	 * merge of chunks
+	 */
+	public static final String TASK_MERGE = "merge";
+
+	@Label("Task")
+	String task;
+	@Label("Merger")
+	@Description("Implementation of the merger")
+	String merger;
+	@Label("Inputs")
+	@Description("Number of merged chunks")
+	int inputs;
+	@Label("Height")
+	@Description("Height of the created chunk in the merge tree")
+	int height;
+
+	/**
+	 * end and commit the event if it is enabled
+	 *
+	 * @param task   the task, {@link #TASK_CHUNK} or {@link #TASK_MERGE}
+	 * @param merger the merger implementation
+	 * @param inputs the number of merged chunks, 0 for a chunk creation
+	 * @param height the height of the created chunk
+	 */
+	public void finish(String task, Class<?> merger, int inputs, int height) {
+		end();
+		if (shouldCommit()) {
+			this.task = task;
+			this.merger = merger.getName();
+			this.inputs = inputs;
+			this.height = height;
+			commit();
+		}
+	}
+}
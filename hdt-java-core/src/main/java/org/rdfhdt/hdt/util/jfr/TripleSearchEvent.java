@@ -0,0 +1,176 @@
+package org.rdfhdt.hdt.util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import org.rdfhdt.hdt.enums.ResultEstimationType;
+import org.rdfhdt.hdt.enums.TripleComponentOrder;
+import org.rdfhdt.hdt.iterator.SuppliableIteratorTripleID;
+import org.rdfhdt.hdt.iterator.TriplePositionSupplier;
+import org.rdfhdt.hdt.triples.TripleID;
+
+import java.io.Closeable;
+
+/**
+ * JFR event of a triple search, the event starts with the search and is committed when the iterator is exhausted. A
+ * search repositioned with goTo or goToStart, or closed before its end, is committed as a partial event, the events
+ * are only committed by the thread reading the iterator, an abandoned search isn't recorded.
+ */
+@Name("org.rdfhdt.hdt.TripleSearch")
+@Label("Triple Search")
+@Category({"HDT", "Query"})
+@Description("Triple pattern search, from the search to the end of the iterator")
+public class TripleSearchEvent extends Event {
+	/**
+	 * track a search, if the event isn't enabled, the iterator is returned
+	 *
+	 * @param pattern  the searched pattern
+	 * @param iterator the iterator of the search
+	 * @return the iterator to return, {@link Closeable} if the search is tracked
+	 */
+	public static SuppliableIteratorTripleID track(TripleID pattern, SuppliableIteratorTripleID iterator) {
+		TripleSearchEvent event = new TripleSearchEvent();
+		if (!event.isEnabled()) {
+			return iterator;
+		}
+		return new TrackedIterator(iterator, pattern.getPatternString(), event);
+	}
+
+	@Label("Pattern")
+	@Description("Shape of the pattern, ? for a variable")
+	String pattern;
+	@Label("Iterator")
+	@Description("Iterator used to answer the pattern")
+	String iterator;
+	@Label("Rows")
+	long rows;
+	@Label("Complete")
+	@Description("If the iterator was read until its end, false if it was repositioned or closed before its end")
+	boolean complete;
+
+	/**
+	 * iterator committing the event of its search, the event is committed by the reading thread, a tracked iterator
+	 * can be closed to commit the event of a search not read until its end
+	 */
+	private static class TrackedIterator implements SuppliableIteratorTripleID, Closeable {
+		private final SuppliableIteratorTripleID iterator;
+		private final String pattern;
+		private TripleSearchEvent event;
+		private long rows;
+
+		TrackedIterator(SuppliableIteratorTripleID iterator, String pattern, TripleSearchEvent event) {
+			this.iterator = iterator;
+			this.pattern = pattern;
+			startSearch(event);
+		}
+
+		private void startSearch(TripleSearchEvent event) {
+			this.event = event;
+			rows = 0;
+			event.begin();
+			event.pattern = pattern;
+			event.iterator = iterator.getClass().getName();
+		}
+
+		private void commitSearch(boolean complete) {
+			if (event == null) {
+				// already committed
+				return;
+			}
+			event.end();
+			if (event.shouldCommit()) {
+				event.rows = rows;
+				event.complete = complete;
+				event.commit();
+			}
+			event = null;
+		}
+
+		private void restartSearch() {
+			// commit the partial read
+			commitSearch(false);
+			startSearch(new TripleSearchEvent());
+		}
+
+		@Override
+		public boolean hasNext() {
+			boolean hasNext = iterator.hasNext();
+			if (!hasNext) {
+				commitSearch(true);
+			}
+			return hasNext;
+		}
+
+		@Override
+		public TripleID next() {
+			TripleID next = iterator.next();
+			rows++;
+			return next;
+		}
+
+		@Override
+		public boolean hasPrevious() {
+			return iterator.hasPrevious();
+		}
+
+		@Override
+		public TripleID previous() {
+			return iterator.previous();
+		}
+
+		@Override
+		public void goToStart() {
+			iterator.goToStart();
+			restartSearch();
+		}
+
+		@Override
+		public boolean canGoTo() {
+			return iterator.canGoTo();
+		}
+
+		@Override
+		public void goTo(long pos) {
+			iterator.goTo(pos);
+			restartSearch();
+		}
+
+		@Override
+		public long estimatedNumResults() {
+			return iterator.estimatedNumResults();
+		}
+
+		@Override
+		public ResultEstimationType numResultEstimation() {
+			return iterator.numResultEstimation();
+		}
+
+		@Override
+		public TripleComponentOrder getOrder() {
+			return iterator.getOrder();
+		}
+
+		@Override
+		public long getLastTriplePosition() {
+			return iterator.getLastTriplePosition();
+		}
+
+		@Override
+		public TriplePositionSupplier getLastTriplePositionSupplier() {
+			return iterator.getLastTriplePositionSupplier();
+		}
+
+		@Override
+		public void remove() {
+			iterator.remove();
+		}
+
+		@Override
+		public void close() {
+			// commit the partial read
+			commitSearch(false);
+		}
+	}
+}
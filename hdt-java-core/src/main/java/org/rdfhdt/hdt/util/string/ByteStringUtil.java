@@ -32,6 +32,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.util.Arrays;
 
 import org.rdfhdt.hdt.exceptions.NotImplementedException;
 import org.rdfhdt.hdt.util.io.BigByteBuffer;
@@ -136,6 +137,19 @@ public class ByteStringUtil {
 		return delta-from;
 	}
 
+	/**
+	 * create a string greater than all the strings starting with a prefix and smaller than the next strings,
+	 * the prefix followed by the byte 0xFF which can't be in an UTF-8 string.
+	 *
+	 * @param prefix the prefix
+	 * @return upper bound of the prefix
+	 */
+	public static ByteString prefixUpperBound(ByteString prefix) {
+		byte[] data = Arrays.copyOf(prefix.getBuffer(), prefix.length() + 1);
+		data[prefix.length()] = (byte) 0xFF;
+		return new CompactString(data);
+	}
+
 	public static int strcmp(CharSequence str, byte [] buff2, int off2) {
 		byte [] buff1;
 		int off1;
@@ -193,6 +193,31 @@ public class BitSequence375Test {
     public void testSelectNext1() {
         for (long i = 0; i < bitseq.getNumBits(); i++) {
 //			System.out.println("Pos: "+i+" => "+ (bitseq.access(i)?"1":"0")+ " Next: "+bitseq.selectNext1(i));
+            assertEquals(bitset.nextSetBit((int) i), bitseq.selectNext1(i));
+        }
+    }
+
+    @Test
+    public void testSelectPrev1() {
+        assertEquals(-1, bitseq.selectPrev1(-1));
+        for (long i = 0; i < bitseq.getNumBits(); i++) {
+            assertEquals(bitset.previousSetBit((int) i), bitseq.selectPrev1(i));
+        }
+        assertEquals(bitset.previousSetBit((int) num - 1), bitseq.selectPrev1(num * 2));
+    }
+
+    @Test
+    public void testSelectSparse() {
+        // ones separated by several empty words
+        Bitmap375 sparse = new Bitmap375(num);
+        BitSet sparseSet = new BitSet();
+        for (int i = 5; i < num; i += 317) {
+            sparse.set(i, true);
+            sparseSet.set(i);
+        }
+        for (int i = 0; i < num; i++) {
+            assertEquals(sparseSet.nextSetBit(i), sparse.selectNext1(i));
+            assertEquals(sparseSet.previousSetBit(i), sparse.selectPrev1(i));
         }
     }
 
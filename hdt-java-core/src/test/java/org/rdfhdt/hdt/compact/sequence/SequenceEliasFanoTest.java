@@ -0,0 +1,124 @@
+package org.rdfhdt.hdt.compact.sequence;
+
+import org.junit.Test;
+import org.rdfhdt.hdt.util.BitUtil;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SequenceEliasFanoTest {
+	private static SequenceLog64 createMonotone(long seed, int elements, int maxGap) {
+		Random rnd = new Random(seed);
+		SequenceLog64 seq = new SequenceLog64(64, elements);
+		long value = 0;
+		for (int i = 0; i < elements; i++) {
+			// runs of equal values and big gaps
+			if (rnd.nextInt(10) != 0) {
+				value += rnd.nextInt(maxGap);
+			}
+			if (rnd.nextInt(100) == 0) {
+				value += maxGap * 1000L;
+			}
+			seq.append(value);
+		}
+		seq.aggressiveTrimToSize();
+		return seq;
+	}
+
+	private static long nextGEQ(Sequence seq, long value) {
+		for (long i = 0; i < seq.getNumberOfElements(); i++) {
+			if (seq.get(i) >= value) {
+				return i;
+			}
+		}
+		return seq.getNumberOfElements();
+	}
+
+	private static void assertSameSequence(Sequence expected, SequenceEliasFano actual) {
+		long n = expected.getNumberOfElements();
+		assertEquals(n, actual.getNumberOfElements());
+		for (long i = 0; i < n; i++) {
+			assertEquals("get " + i, expected.get(i), actual.get(i));
+		}
+
+		PrimitiveIterator.OfLong it = actual.iterator(0, n);
+		for (long i = 0; i < n; i++) {
+			assertTrue(it.hasNext());
+			assertEquals("iterator " + i, expected.get(i), it.nextLong());
+		}
+		assertFalse(it.hasNext());
+
+		Random rnd = new Random(78);
+		for (int k = 0; k < 100 && n > 0; k++) {
+			long start = rnd.nextInt((int) n);
+			int len = rnd.nextInt((int) (n - start) + 1);
+			long[] dst = new long[len];
+			long[] exp = new long[len];
+			actual.decodeRange(start, dst, len);
+			expected.decodeRange(start, exp, len);
+			assertArrayEquals("range " + start + " " + len, exp, dst);
+		}
+	}
+
+	@Test
+	public void monotoneTest() throws IOException {
+		for (int maxGap : new int[]{1, 2, 7, 100, 100_000}) {
+			for (int elements : new int[]{0, 1, 2, 255, 256, 257, 5000}) {
+				SequenceLog64 seq = createMonotone(maxGap * 31L + elements, elements, maxGap);
+				SequenceEliasFano ef = new SequenceEliasFano(seq);
+				assertSameSequence(seq, ef);
+
+				long max = elements == 0 ? 0 : seq.get(elements - 1);
+				Random rnd = new Random(42);
+				for (int k = 0; k < 200; k++) {
+					long value = max == 0 ? rnd.nextInt(3) : (rnd.nextLong() & Long.MAX_VALUE) % (max + 2);
+					assertEquals("nextGEQ " + value, nextGEQ(seq, value), ef.nextGEQ(value));
+				}
+				for (long i = 0; i < elements; i++) {
+					assertEquals(nextGEQ(seq, seq.get(i)), ef.nextGEQ(seq.get(i)));
+				}
+
+				// saved as a log sequence
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				ef.save(out, null);
+				ByteArrayOutputStream expectedOut = new ByteArrayOutputStream();
+				seq.save(expectedOut, null);
+				assertArrayEquals(expectedOut.toByteArray(), out.toByteArray());
+
+				SequenceEliasFano loaded = new SequenceEliasFano();
+				loaded.load(new ByteArrayInputStream(out.toByteArray()), null);
+				assertSameSequence(seq, loaded);
+				assertEquals(seq.sizeOf(), loaded.sizeOf());
+			}
+		}
+	}
+
+	@Test
+	public void sizeTest() {
+		SequenceLog64 seq = createMonotone(12, 100_000, 1000);
+		SequenceEliasFano ef = new SequenceEliasFano(seq);
+		long max = seq.get(seq.getNumberOfElements() - 1);
+		// about 2 + log2(max/n) bits per element
+		long expectedBits = (2L + BitUtil.log2(max / seq.getNumberOfElements())) * seq.getNumberOfElements();
+		assertTrue(ef.getRealSize() * 8 + " / " + expectedBits, ef.getRealSize() * 8 < expectedBits * 11 / 10);
+		assertTrue(ef.getRealSize() < seq.getRealSize());
+		assertEquals(seq.size(), ef.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void notMonotoneTest() {
+		SequenceLog64 seq = new SequenceLog64(8, 3);
+		seq.append(1);
+		seq.append(5);
+		seq.append(4);
+		new SequenceEliasFano(seq);
+	}
+}
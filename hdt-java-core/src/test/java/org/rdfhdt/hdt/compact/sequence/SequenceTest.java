@@ -8,9 +8,12 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.PrimitiveIterator;
 import java.util.Random;
 
 @RunWith(Parameterized.class)
@@ -110,6 +113,43 @@ public class SequenceTest {
 		sequenceTest(32, 10_000L, true);
 	}
 
+	@Test
+	public void decodeRangeTest() throws IOException {
+		Path root = tempDir.newFolder().toPath();
+		int elements = 3_000;
+		for (int bits : new int[]{1, 7, 13, 32, 63, 64}) {
+			// the sequences can't store negative values
+			long maxMask = (~0L) >>> (Long.SIZE - Math.min(bits, 63));
+			Path mapFile = root.resolve("map" + bits + ".seq");
+			try (DynamicSequence actual = sequenceGenerator.bld.generate(root.resolve("test" + bits + ".seq").toString(), bits, elements)) {
+				Random rnd = new Random(42);
+				for (int i = 0; i < elements; i++) {
+					actual.append(rnd.nextLong() & maxMask);
+				}
+				try (OutputStream out = Files.newOutputStream(mapFile)) {
+					actual.save(out, null);
+				}
+				try (SequenceLog64Map map = new SequenceLog64Map(mapFile.toFile())) {
+					for (Sequence seq : new Sequence[]{actual, map}) {
+						long[] buffer = new long[200];
+						for (long start : new long[]{0, 1, 63, 64, 65, 1000, elements - 200}) {
+							seq.decodeRange(start, buffer, buffer.length);
+							for (int i = 0; i < buffer.length; i++) {
+								Assert.assertEquals(bits + " " + start + " " + i, actual.get(start + i), buffer[i]);
+							}
+						}
+						PrimitiveIterator.OfLong it = seq.iterator(10, elements);
+						for (long i = 10; i < elements; i++) {
+							Assert.assertTrue(it.hasNext());
+							Assert.assertEquals(actual.get(i), it.nextLong());
+						}
+						Assert.assertFalse(it.hasNext());
+					}
+				}
+			}
+		}
+	}
+
 	private static class SequenceGenerator {
 		final String name;
 		final SequenceGeneratorBuilder bld;
@@ -0,0 +1,113 @@
+package org.rdfhdt.hdt.dictionary.impl;
+
+import org.junit.Test;
+import org.rdfhdt.hdt.dictionary.Dictionary;
+import org.rdfhdt.hdt.enums.TripleComponentRole;
+import org.rdfhdt.hdt.exceptions.ParserException;
+import org.rdfhdt.hdt.hdt.HDT;
+import org.rdfhdt.hdt.hdt.HDTManager;
+import org.rdfhdt.hdt.options.HDTOptionsKeys;
+import org.rdfhdt.hdt.options.HDTSpecification;
+import org.rdfhdt.hdt.triples.TripleString;
+import org.rdfhdt.hdt.util.AbstractDictionaryTypeTest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DictionaryBloomFiltersTest extends AbstractDictionaryTypeTest {
+	private static List<TripleString> triples() {
+		return triples("s");
+	}
+
+	private static List<TripleString> triples(String subjectPrefix) {
+		List<TripleString> triples = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			triples.add(new TripleString("http://ex.org/" + subjectPrefix + i, "http://ex.org/p" + (i % 7), "http://ex.org/o" + (i % 13)));
+			triples.add(new TripleString("http://ex.org/" + subjectPrefix + i, "http://ex.org/p" + (i % 5), "\"lit" + i + "\""));
+			triples.add(new TripleString("http://ex.org/o" + (i % 13), "http://ex.org/p1", "\"" + i + "\"^^<http://www.w3.org/2001/XMLSchema#integer>"));
+		}
+		return triples;
+	}
+
+	private static void assertSameIds(Dictionary expected, Dictionary actual) {
+		assertSameIds(expected, actual, triples());
+	}
+
+	private static void assertSameIds(Dictionary expected, Dictionary actual, List<TripleString> triples) {
+		List<CharSequence> terms = new ArrayList<>();
+		for (TripleString triple : triples) {
+			terms.add(triple.getSubject());
+			terms.add(triple.getPredicate());
+			terms.add(triple.getObject());
+		}
+		terms.add("http://ex.org/none");
+		terms.add("\"none\"");
+		terms.add("\"none\"^^<http://www.w3.org/2001/XMLSchema#integer>");
+		terms.add("\"none\"^^<http://ex.org/unknown>");
+		for (CharSequence term : terms) {
+			for (TripleComponentRole role : TripleComponentRole.values()) {
+				assertEquals(term + " " + role, expected.stringToId(term, role), actual.stringToId(term, role));
+			}
+		}
+	}
+
+	@Test
+	public void bloomTest() throws IOException, ParserException {
+		Path file = createHDT(triples().iterator());
+		Path filtersFile = file.resolveSibling(file.getFileName() + DictionaryBloomFilters.FILE_SUFFIX);
+
+		HDTSpecification bloomSpec = new HDTSpecification();
+		bloomSpec.set(HDTOptionsKeys.DICTIONARY_BLOOM_FILTER_KEY, true);
+
+		try (HDT hdt = HDTManager.mapHDT(file.toAbsolutePath().toString(), null, new HDTSpecification())) {
+			// create the filters
+			try (HDT bloom = HDTManager.mapHDT(file.toAbsolutePath().toString(), null, bloomSpec)) {
+				assertTrue(Files.exists(filtersFile));
+				assertSameIds(hdt.getDictionary(), bloom.getDictionary());
+			}
+			// load the filters
+			try (HDT bloom = HDTManager.loadHDT(file.toAbsolutePath().toString(), null, bloomSpec)) {
+				assertSameIds(hdt.getDictionary(), bloom.getDictionary());
+			}
+			// invalid filters are created again
+			Files.write(filtersFile, new byte[]{1, 2, 3});
+			try (HDT bloom = HDTManager.mapHDT(file.toAbsolutePath().toString(), null, bloomSpec)) {
+				assertSameIds(hdt.getDictionary(), bloom.getDictionary());
+			}
+			assertTrue(Files.size(filtersFile) > 3);
+		}
+	}
+
+	@Test
+	public void rewrittenFileTest() throws IOException, ParserException {
+		Path file = createHDT(triples().iterator());
+		Path filtersFile = file.resolveSibling(file.getFileName() + DictionaryBloomFilters.FILE_SUFFIX);
+
+		HDTSpecification bloomSpec = new HDTSpecification();
+		bloomSpec.set(HDTOptionsKeys.DICTIONARY_BLOOM_FILTER_KEY, true);
+
+		try (HDT ignored = HDTManager.mapHDT(file.toAbsolutePath().toString(), null, bloomSpec)) {
+			assertTrue(Files.exists(filtersFile));
+		}
+
+		// rewrite the file with other subjects of the same size, the sections have the same sizes
+		List<TripleString> otherTriples = triples("t");
+		Path otherFile = createHDT(otherTriples.iterator());
+		FileTime time = Files.getLastModifiedTime(file);
+		Files.copy(otherFile, file, StandardCopyOption.REPLACE_EXISTING);
+		Files.setLastModifiedTime(file, FileTime.fromMillis(time.toMillis() + 10_000));
+
+		try (HDT hdt = HDTManager.mapHDT(file.toAbsolutePath().toString(), null, new HDTSpecification());
+			 HDT bloom = HDTManager.mapHDT(file.toAbsolutePath().toString(), null, bloomSpec)) {
+			assertSameIds(hdt.getDictionary(), bloom.getDictionary(), otherTriples);
+		}
+	}
+}
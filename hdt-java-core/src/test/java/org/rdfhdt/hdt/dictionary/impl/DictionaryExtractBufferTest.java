@@ -0,0 +1,67 @@
+package org.rdfhdt.hdt.dictionary.impl;
+
+import org.junit.Test;
+import org.rdfhdt.hdt.dictionary.DictionaryPrivate;
+import org.rdfhdt.hdt.enums.TripleComponentRole;
+import org.rdfhdt.hdt.exceptions.ParserException;
+import org.rdfhdt.hdt.hdt.HDT;
+import org.rdfhdt.hdt.hdt.HDTManager;
+import org.rdfhdt.hdt.triples.TripleString;
+import org.rdfhdt.hdt.util.AbstractDictionaryTypeTest;
+import org.rdfhdt.hdt.util.string.ReplazableString;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DictionaryExtractBufferTest extends AbstractDictionaryTypeTest {
+	private static Iterator<TripleString> triples() {
+		List<TripleString> triples = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			triples.add(new TripleString("http://ex.org/s" + (i % 30), "http://ex.org/p" + (i % 3), "\"oé" + i + "\"@fr"));
+			triples.add(new TripleString("_:b" + (i % 7), "http://ex.org/p3", "\"" + i + "\"^^<http://www.w3.org/2001/XMLSchema#integer>"));
+			triples.add(new TripleString("http://ex.org/s" + (i % 40), "http://ex.org/p4", "http://ex.org/s" + (i % 50)));
+		}
+		return triples.iterator();
+	}
+
+	private static void assertSameStrings(HDT hdt) {
+		DictionaryPrivate dictionary = (DictionaryPrivate) hdt.getDictionary();
+		// the same buffer is reused for every role and id
+		ReplazableString buffer = new ReplazableString(4);
+		long[] sizes = {
+				dictionary.getNsubjects(),
+				dictionary.getNpredicates(),
+				dictionary.getNobjects()
+		};
+		TripleComponentRole[] roles = {
+				TripleComponentRole.SUBJECT,
+				TripleComponentRole.PREDICATE,
+				TripleComponentRole.OBJECT
+		};
+		for (int i = 0; i < roles.length; i++) {
+			for (long id = 1; id <= sizes[i]; id++) {
+				assertTrue(dictionary.idToString(id, roles[i], buffer));
+				assertEquals(roles[i] + "#" + id, dictionary.idToString(id, roles[i]).toString(), buffer.toString());
+			}
+		}
+		assertFalse(dictionary.idToString(sizes[1] + 1, TripleComponentRole.PREDICATE, buffer));
+	}
+
+	@Test
+	public void extractTest() throws IOException, ParserException {
+		Path file = createHDT(triples());
+		try (HDT hdt = HDTManager.loadHDT(file.toAbsolutePath().toString())) {
+			assertSameStrings(hdt);
+		}
+		try (HDT hdt = HDTManager.mapHDT(file.toAbsolutePath().toString())) {
+			assertSameStrings(hdt);
+		}
+	}
+}
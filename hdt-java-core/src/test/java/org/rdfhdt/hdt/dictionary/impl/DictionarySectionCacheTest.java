@@ -0,0 +1,120 @@
+package org.rdfhdt.hdt.dictionary.impl;
+
+import org.junit.Test;
+import org.rdfhdt.hdt.dictionary.Dictionary;
+import org.rdfhdt.hdt.dictionary.impl.section.CachedDictionarySection;
+import org.rdfhdt.hdt.dictionary.impl.section.DictionarySectionCache;
+import org.rdfhdt.hdt.dictionary.impl.section.DictionarySectionCacheAll;
+import org.rdfhdt.hdt.enums.TripleComponentRole;
+import org.rdfhdt.hdt.exceptions.ParserException;
+import org.rdfhdt.hdt.hdt.HDT;
+import org.rdfhdt.hdt.hdt.HDTManager;
+import org.rdfhdt.hdt.options.HDTOptionsKeys;
+import org.rdfhdt.hdt.options.HDTSpecification;
+import org.rdfhdt.hdt.triples.TripleString;
+import org.rdfhdt.hdt.util.AbstractDictionaryTypeTest;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DictionarySectionCacheTest extends AbstractDictionaryTypeTest {
+	private static List<TripleString> triples() {
+		List<TripleString> triples = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			triples.add(new TripleString("http://ex.org/s" + i, "http://ex.org/p" + (i % 7), "http://ex.org/o" + (i % 13)));
+			triples.add(new TripleString("http://ex.org/s" + i, "http://ex.org/ép" + (i % 5), "\"lité😀" + i + "\""));
+			triples.add(new TripleString("http://ex.org/o" + (i % 13), "http://ex.org/p1", "\"" + i + "\"^^<http://www.w3.org/2001/XMLSchema#integer>"));
+		}
+		return triples;
+	}
+
+	private static void assertSameDictionary(Dictionary expected, Dictionary actual) {
+		List<CharSequence> terms = new ArrayList<>();
+		for (TripleString triple : triples()) {
+			terms.add(triple.getSubject());
+			terms.add(triple.getPredicate());
+			terms.add(triple.getObject());
+		}
+		terms.add("http://ex.org/none");
+		terms.add("\"none\"");
+		// twice to read the cached values
+		for (int i = 0; i < 2; i++) {
+			for (CharSequence term : terms) {
+				for (TripleComponentRole role : TripleComponentRole.values()) {
+					assertEquals(term + " " + role, expected.stringToId(term, role), actual.stringToId(term, role));
+				}
+			}
+			for (TripleComponentRole role : TripleComponentRole.values()) {
+				long max = role == TripleComponentRole.PREDICATE ? expected.getNpredicates()
+						: role == TripleComponentRole.SUBJECT ? expected.getNsubjects() : expected.getNobjects();
+				for (long id = 1; id <= max; id++) {
+					assertEquals(id + " " + role, expected.idToString(id, role).toString(), actual.idToString(id, role).toString());
+				}
+			}
+		}
+	}
+
+	private static Map<String, CachedDictionarySection> cachedSections(Dictionary dictionary) {
+		if (dictionary instanceof MultipleBaseDictionary) {
+			return ((MultipleBaseDictionary) dictionary).getCachedSections();
+		}
+		return ((BaseDictionary) dictionary).getCachedSections();
+	}
+
+	private void cacheTest(long cacheSize, long preload) throws IOException, ParserException {
+		Path file = createHDT(triples().iterator());
+
+		HDTSpecification cacheSpec = new HDTSpecification();
+		cacheSpec.set(HDTOptionsKeys.DICTIONARY_CACHE_KEY, true);
+		cacheSpec.set(HDTOptionsKeys.DICTIONARY_CACHE_SIZE_KEY, cacheSize);
+		cacheSpec.set(HDTOptionsKeys.DICTIONARY_CACHE_PRELOAD_KEY, preload);
+
+		try (HDT hdt = HDTManager.mapHDT(file.toAbsolutePath().toString(), null, new HDTSpecification())) {
+			assertTrue(cachedSections(hdt.getDictionary()).isEmpty());
+			try (HDT cached = HDTManager.mapHDT(file.toAbsolutePath().toString(), null, cacheSpec)) {
+				assertSameDictionary(hdt.getDictionary(), cached.getDictionary());
+				assertCaches(cached.getDictionary(), cacheSize, preload);
+			}
+			try (HDT cached = HDTManager.loadHDT(file.toAbsolutePath().toString(), null, cacheSpec)) {
+				assertSameDictionary(hdt.getDictionary(), cached.getDictionary());
+				assertCaches(cached.getDictionary(), cacheSize, preload);
+			}
+		}
+	}
+
+	private static void assertCaches(Dictionary dictionary, long cacheSize, long preload) {
+		Map<String, CachedDictionarySection> sections = cachedSections(dictionary);
+		assertTrue(sections.containsKey(DictionaryBloomFilters.PREDICATES));
+		assertTrue(sections.containsKey(DictionaryBloomFilters.SUBJECTS));
+		for (Map.Entry<String, CachedDictionarySection> e : sections.entrySet()) {
+			CachedDictionarySection section = e.getValue();
+			boolean small = e.getKey().equals(DictionaryBloomFilters.PREDICATES) || e.getKey().equals(DictionaryBloomFilters.SHARED);
+			if (small && section.getNumberOfElements() <= preload) {
+				assertTrue(e.getKey(), section instanceof DictionarySectionCacheAll);
+			} else {
+				assertTrue(e.getKey(), section instanceof DictionarySectionCache);
+			}
+			assertTrue(e.getKey(), section.getHits() + section.getMisses() > 0);
+			if (cacheSize > dictionary.getNumberOfElements()) {
+				// everything was read twice
+				assertTrue(e.getKey() + " " + section.getHitRate(), section.getHitRate() > 0.3);
+			}
+		}
+	}
+
+	@Test
+	public void cacheTest() throws IOException, ParserException {
+		cacheTest(1 << 16, 100_000);
+	}
+
+	@Test
+	public void smallCacheTest() throws IOException, ParserException {
+		cacheTest(4, 0);
+	}
+}
@@ -0,0 +1,118 @@
+package org.rdfhdt.hdt.dictionary.impl;
+
+import org.junit.Test;
+import org.rdfhdt.hdt.dictionary.impl.section.PFCDictionarySection;
+import org.rdfhdt.hdt.exceptions.ParserException;
+import org.rdfhdt.hdt.hdt.HDT;
+import org.rdfhdt.hdt.hdt.HDTManager;
+import org.rdfhdt.hdt.options.HDTOptionsKeys;
+import org.rdfhdt.hdt.options.HDTSpecification;
+import org.rdfhdt.hdt.triples.TripleString;
+import org.rdfhdt.hdt.triples.impl.utils.HDTTestUtils;
+import org.rdfhdt.hdt.util.string.ByteString;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LiteralValueIndexTest {
+	private static final String XSD_DECIMAL = "<http://www.w3.org/2001/XMLSchema#decimal>";
+
+	private static PFCDictionarySection section(List<String> literals) {
+		List<String> sorted = new ArrayList<>(literals);
+		Collections.sort(sorted);
+		PFCDictionarySection section = new PFCDictionarySection(new HDTSpecification());
+		section.load(sorted.stream().map(s -> (CharSequence) ByteString.of(s)).iterator(), sorted.size(), null);
+		return section;
+	}
+
+	@Test
+	public void numericTest() {
+		List<String> literals = List.of("\"1\"", "\"10\"", "\"-3\"", "\"2.5\"", "\"abc\"", "\"100\"", "\"7\"", "\"NaN\"");
+		PFCDictionarySection section = section(literals);
+		// sorted: "-3", "1", "10", "100", "2.5", "7", "NaN", "abc"
+		LiteralValueIndex index = LiteralValueIndex.build(section, XSD_DECIMAL, 100);
+
+		assertFalse(index.isIdOrdered());
+		assertEquals(6, index.getNumberOfValues());
+		assertEquals(100, index.getFirstId());
+		assertEquals(107, index.getLastId());
+
+		double last = Double.NEGATIVE_INFINITY;
+		for (long i = 0; i < index.getNumberOfValues(); i++) {
+			double value = index.getValue(i);
+			assertTrue(value >= last);
+			last = value;
+			CharSequence literal = section.extract(index.getId(i) - 99);
+			assertEquals(value, Double.parseDouble(literal.toString().replace("\"", "")), 0);
+		}
+
+		BitSet expected = new BitSet();
+		expected.set(2); // 10
+		expected.set(4); // 2.5
+		expected.set(5); // 7
+		expected.set(7); // abc, unknown value
+		assertEquals(expected, index.search(2, 10));
+	}
+
+	@Test
+	public void floatTest() {
+		LiteralValueIndex index = LiteralValueIndex.build(section(List.of("\"0.1\"", "\"0.2\"")), "<http://www.w3.org/2001/XMLSchema#float>", 1);
+
+		assertTrue(index.isIdOrdered());
+		assertEquals((double) 0.1f, index.getValue(0), 0);
+		// 0.1f is greater than 0.1
+		assertArrayEquals(new long[]{1, 2}, index.searchIdRange(0.1000000001, Double.POSITIVE_INFINITY));
+	}
+
+	@Test
+	public void dateTimeTest() {
+		List<String> literals = List.of(
+				"\"2020-01-01T00:00:00Z\"",
+				"\"2021-01-01T00:00:00\"",
+				"\"2022-06-01T10:00:00+02:00\""
+		);
+		LiteralValueIndex index = LiteralValueIndex.build(section(literals), LiteralValueIndex.DATE_TIME_TYPE, 1);
+
+		assertTrue(index.isIdOrdered());
+		assertTrue(index.isTemporal());
+		double min = Instant.parse("2020-06-01T00:00:00Z").toEpochMilli();
+		assertArrayEquals(new long[]{2, 3}, index.searchIdRange(min, Double.POSITIVE_INFINITY));
+	}
+
+	@Test
+	public void dictionaryOptionTest() throws IOException, ParserException {
+		List<TripleString> triples = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			triples.add(new TripleString("http://ex.org/s" + i, "http://ex.org/p", "\"" + i + "\"^^" + XSD_DECIMAL));
+		}
+		HDTSpecification spec = new HDTSpecification();
+		spec.set(HDTOptionsKeys.DICTIONARY_TYPE_KEY, HDTOptionsKeys.DICTIONARY_TYPE_VALUE_MULTI_OBJECTS);
+		spec.set(HDTOptionsKeys.TEMP_DICTIONARY_IMPL_KEY, HDTOptionsKeys.TEMP_DICTIONARY_IMPL_VALUE_MULT_HASH);
+		try (HDT hdt = HDTManager.generateHDT(triples.iterator(), HDTTestUtils.BASE_URI, spec, null)) {
+			// not built by default
+			assertNull(((MultipleBaseDictionary) hdt.getDictionary()).getValueIndex(XSD_DECIMAL));
+		}
+		spec.set(HDTOptionsKeys.DICTIONARY_VALUE_INDEX_KEY, true);
+		try (HDT hdt = HDTManager.generateHDT(triples.iterator(), HDTTestUtils.BASE_URI, spec, null)) {
+			LiteralValueIndex index = ((MultipleBaseDictionary) hdt.getDictionary()).getValueIndex(XSD_DECIMAL);
+			assertNotNull(index);
+			assertEquals(10, index.getNumberOfValues());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unsupportedTest() {
+		LiteralValueIndex.build(section(List.of("\"a\"")), "<http://www.w3.org/2001/XMLSchema#string>", 1);
+	}
+}
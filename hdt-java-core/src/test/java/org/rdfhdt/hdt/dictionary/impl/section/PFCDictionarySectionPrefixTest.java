@@ -0,0 +1,119 @@
+package org.rdfhdt.hdt.dictionary.impl.section;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.rdfhdt.hdt.dictionary.DictionarySectionPrivate;
+import org.rdfhdt.hdt.options.HDTSpecification;
+import org.rdfhdt.hdt.util.io.CountInputStream;
+import org.rdfhdt.hdt.util.string.ByteString;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PFCDictionarySectionPrefixTest {
+	@Rule
+	public TemporaryFolder tempDir = new TemporaryFolder();
+
+	private static List<ByteString> strings() {
+		Random rnd = new Random(42);
+		String[] bases = {"http://example.org/", "http://example.org/a", "http://ex.org/", "\"text\"", "\"été\"", "_:b"};
+		TreeSet<ByteString> set = new TreeSet<>();
+		while (set.size() < 400) {
+			StringBuilder sb = new StringBuilder(bases[rnd.nextInt(bases.length)]);
+			int len = rnd.nextInt(6);
+			for (int i = 0; i < len; i++) {
+				sb.append((char) ('a' + rnd.nextInt(3)));
+			}
+			set.add(ByteString.of(sb.toString()));
+		}
+		return new ArrayList<>(set);
+	}
+
+	private static HDTSpecification spec() {
+		HDTSpecification spec = new HDTSpecification();
+		spec.set("pfc.blocksize", "8");
+		return spec;
+	}
+
+	private static void assertPrefixes(DictionarySectionPrivate section, List<ByteString> strings) {
+		List<String> prefixes = new ArrayList<>(List.of("", "http://", "http://example.org/", "http://example.org/a",
+				"http://example.org/ab", "\"", "\"é", "_:b", "_:bc", "a", "zzz", "\u0000", "http://exa"));
+		for (ByteString str : strings) {
+			prefixes.add(str.toString());
+		}
+
+		for (String prefix : prefixes) {
+			long first = 1;
+			while (first <= strings.size() && strings.get((int) first - 1).compareTo(ByteString.of(prefix)) < 0) {
+				first++;
+			}
+			long last = first - 1;
+			while (last < strings.size() && strings.get((int) last).toString().startsWith(prefix)) {
+				last++;
+			}
+
+			long[] range = section.locatePrefixRange(prefix);
+			if (first > last) {
+				assertTrue("prefix " + prefix, range[0] > range[1]);
+			} else {
+				assertArrayEquals("prefix " + prefix, new long[]{first, last}, range);
+			}
+		}
+	}
+
+	@Test
+	public void pfcTest() {
+		List<ByteString> strings = strings();
+		PFCDictionarySection section = new PFCDictionarySection(spec());
+		section.load(strings.iterator(), strings.size(), null);
+		assertPrefixes(section, strings);
+	}
+
+	@Test
+	public void pfcBigTest() {
+		List<ByteString> strings = strings();
+		PFCDictionarySectionBig section = new PFCDictionarySectionBig(spec());
+		section.load(strings.iterator(), strings.size(), null);
+		assertPrefixes(section, strings);
+	}
+
+	@Test
+	public void pfcMapTest() throws IOException {
+		List<ByteString> strings = strings();
+		PFCDictionarySection section = new PFCDictionarySection(spec());
+		section.load(strings.iterator(), strings.size(), null);
+
+		File file = new File(tempDir.getRoot(), "section.pfc");
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+			section.save(out, null);
+		}
+
+		try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+			try (PFCDictionarySectionMap map = new PFCDictionarySectionMap(new CountInputStream(in), file)) {
+				assertPrefixes(map, strings);
+			}
+		}
+	}
+
+	@Test
+	public void emptyTest() {
+		PFCDictionarySection section = new PFCDictionarySection(spec());
+		section.load(new ArrayList<ByteString>().iterator(), 0, null);
+		long[] range = section.locatePrefixRange("a");
+		assertTrue(range[0] > range[1]);
+	}
+}
@@ -20,6 +20,7 @@ import org.rdfhdt.hdt.enums.RDFNotation;
 import org.rdfhdt.hdt.exceptions.NotFoundException;
 import org.rdfhdt.hdt.exceptions.ParserException;
 import org.rdfhdt.hdt.hdt.impl.diskimport.CompressionResult;
+import org.rdfhdt.hdt.hdt.impl.diskimport.ResumeManifest;
 import org.rdfhdt.hdt.iterator.utils.PipedCopyIterator;
 import org.rdfhdt.hdt.listener.ProgressListener;
 import org.rdfhdt.hdt.options.HDTOptions;
@@ -277,7 +278,12 @@ public class HDTManagerTest {
 						new Object[]{"slow-str2", 10, 2, 4, 2, HDTOptionsKeys.LOADER_DISK_COMPRESSION_MODE_VALUE_COMPLETE, false, dict[0], dict[1], 2, "debug.disk.slow.stream2=true"},
 						new Object[]{"slow-cfsd", 10, 2, 4, 2, HDTOptionsKeys.LOADER_DISK_COMPRESSION_MODE_VALUE_COMPLETE, false, dict[0], dict[1], 2, "debug.disk.slow.pfsd=true"},
 						new Object[]{"slow-kw-d", 10, 2, 4, 2, HDTOptionsKeys.LOADER_DISK_COMPRESSION_MODE_VALUE_COMPLETE, false, dict[0], dict[1], 2, "debug.disk.slow.kway.dict=true"},
-						new Object[]{"slow-kw-t", 10, 2, 4, 2, HDTOptionsKeys.LOADER_DISK_COMPRESSION_MODE_VALUE_COMPLETE, false, dict[0], dict[1], 2, "debug.disk.slow.kway.triple=true"}
+						new Object[]{"slow-kw-t", 10, 2, 4, 2, HDTOptionsKeys.LOADER_DISK_COMPRESSION_MODE_VALUE_COMPLETE, false, dict[0], dict[1], 2, "debug.disk.slow.kway.triple=true"},
+						new Object[]{"sort-mapper-w2", SIZE_VALUE * 8, 20, 50, 2, HDTOptionsKeys.LOADER_DISK_COMPRESSION_MODE_VALUE_COMPLETE, false, dict[0], dict[1], SIZE_VALUE, HDTOptionsKeys.LOADER_DISK_TRIPLE_MAPPER_KEY + "=" + HDTOptionsKeys.LOADER_DISK_TRIPLE_MAPPER_VALUE_SORT},
+						new Object[]{"sort-mapper-w1", SIZE_VALUE * 8, 10, 50, 1, HDTOptionsKeys.LOADER_DISK_COMPRESSION_MODE_VALUE_PARTIAL, false, dict[0], dict[1], SIZE_VALUE, HDTOptionsKeys.LOADER_DISK_TRIPLE_MAPPER_KEY + "=" + HDTOptionsKeys.LOADER_DISK_TRIPLE_MAPPER_VALUE_SORT},
+						new Object[]{"compress-temp-w2", SIZE_VALUE * 8, 20, 50, 2, HDTOptionsKeys.LOADER_DISK_COMPRESSION_MODE_VALUE_COMPLETE, false, dict[0], dict[1], SIZE_VALUE, HDTOptionsKeys.LOADER_DISK_COMPRESS_TEMP_FILES_KEY + "=true;" + HDTOptionsKeys.LOADER_DISK_TRIPLE_MAPPER_KEY + "=" + HDTOptionsKeys.LOADER_DISK_TRIPLE_MAPPER_VALUE_SORT},
+						new Object[]{"compress-temp-w1", SIZE_VALUE * 8, 10, 50, 1, HDTOptionsKeys.LOADER_DISK_COMPRESSION_MODE_VALUE_PARTIAL, false, dict[0], dict[1], SIZE_VALUE, HDTOptionsKeys.LOADER_DISK_COMPRESS_TEMP_FILES_KEY + "=true"},
+						new Object[]{"memory-budget-w2", SIZE_VALUE * 8, 20, 50, 2, HDTOptionsKeys.LOADER_DISK_COMPRESSION_MODE_VALUE_COMPLETE, false, dict[0], dict[1], SIZE_VALUE, HDTOptionsKeys.LOADER_DISK_MEMORY_BUDGET_KEY + "=true;" + HDTOptionsKeys.LOADER_DISK_TRIPLE_MAPPER_KEY + "=" + HDTOptionsKeys.LOADER_DISK_TRIPLE_MAPPER_VALUE_SORT}
 				));
 				for (int threads : new int[]{
 						// sync
@@ -965,6 +971,297 @@ public class HDTManagerTest {
 			}
 		}
 
+		@Test
+		public void resumableDiskTest() throws ParserException, IOException, NotFoundException {
+			LargeFakeDataSetStreamSupplier supplier = LargeFakeDataSetStreamSupplier
+					.createSupplierWithMaxTriples(10_000, SEED)
+					.withMaxLiteralSize(30);
+
+			spec.set(HDTOptionsKeys.LOADER_DISK_RESUMABLE_KEY, true);
+			spec.set(HDTOptionsKeys.LOADER_DISK_CHUNK_SIZE_KEY, SIZE_VALUE);
+			spec.set(HDTOptionsKeys.LOADER_DISK_COMPRESSION_WORKER_KEY, 2);
+
+			// crash after the sections checkpoint, then after the triples checkpoint
+			for (String crashMessage : new String[]{"Create mapped and sort triple file", "Create HDT header"}) {
+				supplier.reset();
+				try {
+					HDTManager.generateHDTDisk(supplier.createTripleStringStream(), HDTTestUtils.BASE_URI, spec, (level, message) -> {
+						// the messages are prefixed by the thread name
+						if (message.endsWith(crashMessage)) {
+							throw new IllegalStateException("crash");
+						}
+					});
+					fail("the generation should crash");
+				} catch (IllegalStateException e) {
+					assertEquals("crash", e.getMessage());
+				}
+				assertTrue(Files.exists(rootFolder.resolve(ResumeManifest.FILE_NAME)));
+			}
+
+			// the checkpoint contains the dictionary and the triples, the input is only read to check its size
+			supplier.reset();
+			Iterator<TripleString> stream = supplier.createTripleStringStream();
+			long[] read = new long[1];
+			Iterator<TripleString> input = new Iterator<>() {
+				@Override
+				public boolean hasNext() {
+					return stream.hasNext();
+				}
+
+				@Override
+				public TripleString next() {
+					read[0]++;
+					return stream.next();
+				}
+			};
+
+			try (HDT actual = HDTManager.generateHDTDisk(input, HDTTestUtils.BASE_URI, spec, (level, message) -> {
+				if (message.endsWith("Create sections and triple mapping") || message.endsWith("Create mapped and sort triple file")) {
+					fail("the checkpoint should be resumed: " + message);
+				}
+			})) {
+				assertEquals(10_000, read[0]);
+				supplier.reset();
+				try (HDT expected = HDTManager.generateHDT(supplier.createTripleStringStream(), HDTTestUtils.BASE_URI, spec, null)) {
+					assertEqualsHDT(expected, actual);
+				}
+			}
+		}
+
+		@Test
+		public void resumableDiskOtherInputTest() throws ParserException, IOException, NotFoundException {
+			LargeFakeDataSetStreamSupplier supplier = LargeFakeDataSetStreamSupplier
+					.createSupplierWithMaxTriples(10_000, SEED)
+					.withMaxLiteralSize(30);
+
+			spec.set(HDTOptionsKeys.LOADER_DISK_RESUMABLE_KEY, true);
+			spec.set(HDTOptionsKeys.LOADER_DISK_CHUNK_SIZE_KEY, SIZE_VALUE);
+			spec.set(HDTOptionsKeys.LOADER_DISK_COMPRESSION_WORKER_KEY, 2);
+
+			// crash after the triples checkpoint
+			try {
+				HDTManager.generateHDTDisk(supplier.createTripleStringStream(), HDTTestUtils.BASE_URI, spec, (level, message) -> {
+					if (message.endsWith("Create HDT header")) {
+						throw new IllegalStateException("crash");
+					}
+				});
+				fail("the generation should crash");
+			} catch (IllegalStateException e) {
+				assertEquals("crash", e.getMessage());
+			}
+
+			// the checkpoint of another input or base URI shouldn't be used
+			LargeFakeDataSetStreamSupplier other = LargeFakeDataSetStreamSupplier
+					.createSupplierWithMaxTriples(5_000, SEED + 1)
+					.withMaxLiteralSize(30);
+			assertResumedWithOtherInput(other, HDTTestUtils.BASE_URI);
+
+			supplier.reset();
+			try {
+				HDTManager.generateHDTDisk(supplier.createTripleStringStream(), HDTTestUtils.BASE_URI, spec, (level, message) -> {
+					if (message.endsWith("Create HDT header")) {
+						throw new IllegalStateException("crash");
+					}
+				});
+				fail("the generation should crash");
+			} catch (IllegalStateException e) {
+				assertEquals("crash", e.getMessage());
+			}
+			assertResumedWithOtherInput(supplier, HDTTestUtils.BASE_URI + "other/");
+		}
+
+		@Test
+		public void resumableDiskAppendedInputTest() throws ParserException, IOException, NotFoundException {
+			LargeFakeDataSetStreamSupplier supplier = LargeFakeDataSetStreamSupplier
+					.createSupplierWithMaxTriples(10_000, SEED)
+					.withMaxLiteralSize(30);
+
+			spec.set(HDTOptionsKeys.LOADER_DISK_RESUMABLE_KEY, true);
+			spec.set(HDTOptionsKeys.LOADER_DISK_CHUNK_SIZE_KEY, SIZE_VALUE);
+			spec.set(HDTOptionsKeys.LOADER_DISK_COMPRESSION_WORKER_KEY, 2);
+
+			// crash after the triples checkpoint
+			try {
+				HDTManager.generateHDTDisk(supplier.createTripleStringStream(), HDTTestUtils.BASE_URI, spec, (level, message) -> {
+					if (message.endsWith("Create HDT header")) {
+						throw new IllegalStateException("crash");
+					}
+				});
+				fail("the generation should crash");
+			} catch (IllegalStateException e) {
+				assertEquals("crash", e.getMessage());
+			}
+
+			// same first triples with triples appended after them
+			LargeFakeDataSetStreamSupplier appended = LargeFakeDataSetStreamSupplier
+					.createSupplierWithMaxTriples(12_000, SEED)
+					.withMaxLiteralSize(30);
+			try {
+				HDTManager.generateHDTDisk(appended.createTripleStringStream(), HDTTestUtils.BASE_URI, spec, null);
+				fail("the checkpoint of a smaller input shouldn't be used");
+			} catch (IllegalArgumentException e) {
+				// expected
+			}
+
+			// the checkpoints were dropped, the generation restarts
+			appended.reset();
+			try (HDT actual = HDTManager.generateHDTDisk(appended.createTripleStringStream(), HDTTestUtils.BASE_URI, spec, (level, message) -> {
+				if (message.contains("Resume from")) {
+					fail("the checkpoints should be dropped: " + message);
+				}
+			})) {
+				appended.reset();
+				try (HDT expected = HDTManager.generateHDT(appended.createTripleStringStream(), HDTTestUtils.BASE_URI, spec, null)) {
+					assertEqualsHDT(expected, actual);
+				}
+			}
+		}
+
+		@Test
+		public void resumableDiskAppendedFileTest() throws ParserException, IOException, NotFoundException {
+			LargeFakeDataSetStreamSupplier supplier = LargeFakeDataSetStreamSupplier
+					.createSupplierWithMaxTriples(10_000, SEED)
+					.withMaxLiteralSize(30);
+
+			spec.set(HDTOptionsKeys.LOADER_DISK_RESUMABLE_KEY, true);
+			spec.set(HDTOptionsKeys.LOADER_DISK_CHUNK_SIZE_KEY, SIZE_VALUE);
+			spec.set(HDTOptionsKeys.LOADER_DISK_COMPRESSION_WORKER_KEY, 2);
+			spec.set(HDTOptionsKeys.NT_SIMPLE_PARSER_KEY, true);
+
+			Path input = tempDir.newFolder().toPath().resolve("input.nt");
+			supplier.createNTFile(input);
+
+			// crash after the triples checkpoint
+			try {
+				HDTManager.generateHDTDisk(input.toAbsolutePath().toString(), HDTTestUtils.BASE_URI, RDFNotation.NTRIPLES, spec, (level, message) -> {
+					if (message.endsWith("Create HDT header")) {
+						throw new IllegalStateException("crash");
+					}
+				});
+				fail("the generation should crash");
+			} catch (IllegalStateException e) {
+				assertEquals("crash", e.getMessage());
+			}
+
+			// append triples to the file, its first triples don't change
+			LargeFakeDataSetStreamSupplier appended = LargeFakeDataSetStreamSupplier
+					.createSupplierWithMaxTriples(12_000, SEED)
+					.withMaxLiteralSize(30);
+			appended.createNTFile(input);
+
+			try (HDT actual = HDTManager.generateHDTDisk(input.toAbsolutePath().toString(), HDTTestUtils.BASE_URI, RDFNotation.NTRIPLES, spec, (level, message) -> {
+				if (message.contains("Resume from")) {
+					fail("the checkpoints should be dropped: " + message);
+				}
+			})) {
+				appended.reset();
+				try (HDT expected = HDTManager.generateHDT(appended.createTripleStringStream(), HDTTestUtils.BASE_URI, spec, null)) {
+					assertEqualsHDT(expected, actual);
+				}
+			}
+		}
+
+		private void assertResumedWithOtherInput(LargeFakeDataSetStreamSupplier supplier, String baseURI) throws ParserException, IOException, NotFoundException {
+			supplier.reset();
+			try (HDT actual = HDTManager.generateHDTDisk(supplier.createTripleStringStream(), baseURI, spec, null)) {
+				supplier.reset();
+				try (HDT expected = HDTManager.generateHDT(supplier.createTripleStringStream(), baseURI, spec, null)) {
+					assertEqualsHDT(expected, actual);
+				}
+			}
+		}
+
+		@Test
+		public void resumableCatTreeTest() throws ParserException, IOException, NotFoundException {
+			LargeFakeDataSetStreamSupplier supplier = LargeFakeDataSetStreamSupplier
+					.createSupplierWithMaxTriples(10_000, SEED)
+					.withMaxLiteralSize(30);
+
+			spec.set(HDTOptionsKeys.LOADER_CATTREE_RESUMABLE_KEY, true);
+			spec.set(HDTOptionsKeys.LOADER_CATTREE_LOCATION_KEY, tempDir.newFolder().getAbsolutePath());
+
+			// crash during the 7th generation
+			try {
+				HDTManager.catTree(RDFFluxStop.countLimit(1_000), HDTSupplier.memory(), supplier.createTripleStringStream(), HDTTestUtils.BASE_URI, spec, (level, message) -> {
+					if (message.startsWith("gen#7")) {
+						throw new IllegalStateException("crash");
+					}
+				});
+				fail("the generation should crash");
+			} catch (IllegalStateException e) {
+				assertEquals("crash", e.getMessage());
+			}
+
+			// the 6 first HDTs are resumed
+			supplier.reset();
+			List<Integer> generated = new ArrayList<>();
+			try (HDT actual = HDTManager.catTree(RDFFluxStop.countLimit(1_000), HDTSupplier.memory(), supplier.createTripleStringStream(), HDTTestUtils.BASE_URI, spec, (level, message) -> {
+				if (message.startsWith("gen#")) {
+					int end = 4;
+					while (end < message.length() && Character.isDigit(message.charAt(end))) {
+						end++;
+					}
+					int gen = Integer.parseInt(message.substring(4, end));
+					if (!generated.contains(gen)) {
+						generated.add(gen);
+					}
+				}
+			})) {
+				assertEquals(List.of(7, 8, 9, 10), generated);
+
+				supplier.reset();
+				try (HDT expected = HDTManager.generateHDT(supplier.createTripleStringStream(), HDTTestUtils.BASE_URI, spec, null)) {
+					assertEqualsHDT(expected, actual);
+				}
+			}
+		}
+
+		@Test
+		public void resumableCatTreeOtherInputTest() throws ParserException, IOException, NotFoundException {
+			LargeFakeDataSetStreamSupplier supplier = LargeFakeDataSetStreamSupplier
+					.createSupplierWithMaxTriples(10_000, SEED)
+					.withMaxLiteralSize(30);
+
+			spec.set(HDTOptionsKeys.LOADER_CATTREE_RESUMABLE_KEY, true);
+			spec.set(HDTOptionsKeys.LOADER_CATTREE_LOCATION_KEY, tempDir.newFolder().getAbsolutePath());
+
+			// crash during the 7th generation
+			try {
+				HDTManager.catTree(RDFFluxStop.countLimit(1_000), HDTSupplier.memory(), supplier.createTripleStringStream(), HDTTestUtils.BASE_URI, spec, (level, message) -> {
+					if (message.startsWith("gen#7")) {
+						throw new IllegalStateException("crash");
+					}
+				});
+				fail("the generation should crash");
+			} catch (IllegalStateException e) {
+				assertEquals("crash", e.getMessage());
+			}
+
+			// another input, all the HDTs are generated again
+			LargeFakeDataSetStreamSupplier other = LargeFakeDataSetStreamSupplier
+					.createSupplierWithMaxTriples(10_000, SEED + 1)
+					.withMaxLiteralSize(30);
+			List<Integer> generated = new ArrayList<>();
+			try (HDT actual = HDTManager.catTree(RDFFluxStop.countLimit(1_000), HDTSupplier.memory(), other.createTripleStringStream(), HDTTestUtils.BASE_URI, spec, (level, message) -> {
+				if (message.startsWith("gen#")) {
+					int end = 4;
+					while (end < message.length() && Character.isDigit(message.charAt(end))) {
+						end++;
+					}
+					int gen = Integer.parseInt(message.substring(4, end));
+					if (!generated.contains(gen)) {
+						generated.add(gen);
+					}
+				}
+			})) {
+				assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), generated);
+
+				other.reset();
+				try (HDT expected = HDTManager.generateHDT(other.createTripleStringStream(), HDTTestUtils.BASE_URI, spec, null)) {
+					assertEqualsHDT(expected, actual);
+				}
+			}
+		}
 	}
 
 	@Ignore("handTests")
@@ -0,0 +1,94 @@
+package org.rdfhdt.hdt.hdt.impl;
+
+import org.junit.Test;
+import org.rdfhdt.hdt.compact.sequence.SequenceLog64Map;
+import org.rdfhdt.hdt.dictionary.Dictionary;
+import org.rdfhdt.hdt.dictionary.DictionarySection;
+import org.rdfhdt.hdt.dictionary.impl.MultipleSectionDictionary;
+import org.rdfhdt.hdt.dictionary.impl.section.PFCDictionarySectionMap;
+import org.rdfhdt.hdt.exceptions.NotFoundException;
+import org.rdfhdt.hdt.exceptions.ParserException;
+import org.rdfhdt.hdt.hdt.HDT;
+import org.rdfhdt.hdt.hdt.HDTManager;
+import org.rdfhdt.hdt.options.HDTOptionsKeys;
+import org.rdfhdt.hdt.options.HDTSpecification;
+import org.rdfhdt.hdt.triples.IteratorTripleString;
+import org.rdfhdt.hdt.triples.TripleString;
+import org.rdfhdt.hdt.triples.impl.BitmapTriples;
+import org.rdfhdt.hdt.util.AbstractDictionaryTypeTest;
+import org.rdfhdt.hdt.util.LiteralsUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HDTResidencyTest extends AbstractDictionaryTypeTest {
+	private static Iterator<TripleString> triples() {
+		List<TripleString> triples = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			triples.add(new TripleString("http://ex.org/s" + (i % 10), "http://ex.org/p" + (i % 3), "\"o" + i + "\""));
+			triples.add(new TripleString("http://ex.org/s" + (i % 10), "http://ex.org/p3", "\"" + i + "\"^^<http://www.w3.org/2001/XMLSchema#integer>"));
+			triples.add(new TripleString("http://ex.org/s" + (i % 10), "http://ex.org/p4", "http://ex.org/s" + (i % 7)));
+		}
+		return triples.iterator();
+	}
+
+	private static List<String> readAll(HDT hdt, CharSequence s, CharSequence p, CharSequence o) throws NotFoundException {
+		List<String> triples = new ArrayList<>();
+		IteratorTripleString it = hdt.search(s, p, o);
+		while (it.hasNext()) {
+			triples.add(it.next().toString());
+		}
+		return triples;
+	}
+
+	@Test
+	public void residencyTest() throws IOException, ParserException, NotFoundException {
+		String file = createHDT(triples()).toAbsolutePath().toString();
+
+		HDTSpecification spec = new HDTSpecification();
+		spec.set(HDTOptionsKeys.LOAD_HDT_RESIDENCY_PREDICATES_KEY, HDTOptionsKeys.LOAD_HDT_TYPE_VALUE_LOAD);
+		spec.set(HDTOptionsKeys.LOAD_HDT_RESIDENCY_TYPED_OBJECTS_KEY, HDTOptionsKeys.LOAD_HDT_TYPE_VALUE_LOAD);
+		spec.set(HDTOptionsKeys.LOAD_HDT_RESIDENCY_TRIPLES_KEY, HDTOptionsKeys.LOAD_HDT_TYPE_VALUE_LOAD);
+
+		try (HDT expected = HDTManager.mapHDT(file);
+			 HDT actual = HDTManager.mapHDT(file, null, spec)) {
+			Dictionary dictionary = actual.getDictionary();
+			assertFalse(dictionary.getPredicates() instanceof PFCDictionarySectionMap);
+			assertTrue(dictionary.getShared() instanceof PFCDictionarySectionMap);
+			assertTrue(dictionary.getSubjects() instanceof PFCDictionarySectionMap);
+			if (dictionary instanceof MultipleSectionDictionary) {
+				for (Map.Entry<? extends CharSequence, DictionarySection> e : dictionary.getAllObjects().entrySet()) {
+					// the default objects section stays mapped, only the typed literals are loaded
+					boolean typed = !LiteralsUtils.isNoDatatype(e.getKey());
+					assertEquals(e.getKey().toString(), !typed, e.getValue() instanceof PFCDictionarySectionMap);
+				}
+			} else {
+				assertTrue(dictionary.getObjects() instanceof PFCDictionarySectionMap);
+			}
+			BitmapTriples triples = (BitmapTriples) actual.getTriples();
+			assertFalse(triples.getSeqY() instanceof SequenceLog64Map);
+			assertFalse(triples.getSeqZ() instanceof SequenceLog64Map);
+
+			String[][] patterns = {
+					{"", "", ""},
+					{"http://ex.org/s3", "", ""},
+					{"", "http://ex.org/p3", ""},
+					{"", "", "http://ex.org/s2"},
+					{"", "", "\"o42\""},
+			};
+			for (String[] pattern : patterns) {
+				assertEquals(String.join(" ", pattern),
+						readAll(expected, pattern[0], pattern[1], pattern[2]),
+						readAll(actual, pattern[0], pattern[1], pattern[2]));
+			}
+		}
+	}
+
+}
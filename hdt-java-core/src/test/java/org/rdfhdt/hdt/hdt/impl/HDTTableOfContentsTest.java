@@ -0,0 +1,79 @@
+package org.rdfhdt.hdt.hdt.impl;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.rdfhdt.hdt.exceptions.NotFoundException;
+import org.rdfhdt.hdt.exceptions.ParserException;
+import org.rdfhdt.hdt.hdt.HDT;
+import org.rdfhdt.hdt.hdt.HDTManager;
+import org.rdfhdt.hdt.options.HDTOptionsKeys;
+import org.rdfhdt.hdt.options.HDTSpecification;
+import org.rdfhdt.hdt.triples.IteratorTripleString;
+import org.rdfhdt.hdt.triples.TripleString;
+import org.rdfhdt.hdt.triples.impl.utils.HDTTestUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HDTTableOfContentsTest {
+	@Rule
+	public TemporaryFolder tempDir = new TemporaryFolder();
+
+	private static List<String> readAll(HDT hdt) throws NotFoundException {
+		List<String> triples = new ArrayList<>();
+		IteratorTripleString it = hdt.search("", "", "");
+		while (it.hasNext()) {
+			triples.add(it.next().toString());
+		}
+		assertEquals(hdt.getTriples().getNumberOfElements(), triples.size());
+		return triples;
+	}
+
+	@Test
+	public void mapTest() throws IOException, ParserException, NotFoundException {
+		File file = new File(tempDir.newFolder(), "test.hdt");
+		List<TripleString> triples = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			triples.add(new TripleString("http://ex.org/s" + (i % 10), "http://ex.org/p" + (i % 3), "\"o" + i + "\""));
+		}
+		try (HDT hdt = HDTManager.generateHDT(triples.iterator(), HDTTestUtils.BASE_URI, new HDTSpecification(), null)) {
+			hdt.saveToHDT(file.getAbsolutePath(), null);
+		}
+
+		HDTSpecification spec = new HDTSpecification();
+		spec.set(HDTOptionsKeys.LOAD_HDT_TOC_KEY, true);
+
+		List<String> expected;
+		try (HDT hdt = HDTManager.mapHDT(file.getAbsolutePath())) {
+			expected = readAll(hdt);
+		}
+
+		// first mapping, create the table
+		try (HDT hdt = HDTManager.mapHDT(file.getAbsolutePath(), null, spec)) {
+			assertEquals(expected, readAll(hdt));
+		}
+		HDTTableOfContents toc = HDTTableOfContents.load(file);
+		assertEquals(file.length(), toc.getOffset(HDTTableOfContents.TRIPLES) + toc.getLength(HDTTableOfContents.TRIPLES));
+		assertEquals(toc.getOffset(HDTTableOfContents.DICTIONARY), toc.getOffset(HDTTableOfContents.HEADER) + toc.getLength(HDTTableOfContents.HEADER));
+
+		// mapping from the table
+		try (HDT hdt = HDTManager.mapHDT(file.getAbsolutePath(), null, spec)) {
+			assertEquals(HDTTestUtils.BASE_URI, hdt.getBaseURI());
+			assertEquals(expected, readAll(hdt));
+		}
+
+		// a broken table is ignored and created again
+		Files.write(HDTTableOfContents.getFile(file).toPath(), new byte[]{'$', 'T', 'O', 'C', 0});
+		try (HDT hdt = HDTManager.mapHDT(file.getAbsolutePath(), null, spec)) {
+			assertEquals(expected, readAll(hdt));
+		}
+		assertTrue(HDTTableOfContents.load(file).hasEntry(HDTTableOfContents.TRIPLES));
+	}
+}
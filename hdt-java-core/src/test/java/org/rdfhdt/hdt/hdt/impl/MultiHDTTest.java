@@ -0,0 +1,194 @@
+package org.rdfhdt.hdt.hdt.impl;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.rdfhdt.hdt.dictionary.impl.DictionaryBloomFilters;
+import org.rdfhdt.hdt.exceptions.NotFoundException;
+import org.rdfhdt.hdt.exceptions.ParserException;
+import org.rdfhdt.hdt.hdt.HDT;
+import org.rdfhdt.hdt.hdt.HDTManager;
+import org.rdfhdt.hdt.options.HDTOptionsKeys;
+import org.rdfhdt.hdt.options.HDTSpecification;
+import org.rdfhdt.hdt.triples.IteratorTripleString;
+import org.rdfhdt.hdt.triples.TripleString;
+import org.rdfhdt.hdt.triples.impl.utils.HDTTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MultiHDTTest {
+	@Rule
+	public TemporaryFolder tempDir = new TemporaryFolder();
+
+	private static final String[][] FILES = {
+			{"http://ex.org/s1 http://ex.org/p1 http://ex.org/o1", "http://ex.org/s1 http://ex.org/p2 \"a\"", "http://ex.org/s2 http://ex.org/p1 http://ex.org/o2"},
+			{"http://ex.org/s1 http://ex.org/p1 http://ex.org/o1", "http://ex.org/s3 http://ex.org/p3 http://ex.org/s1"},
+			{"http://ex.org/s4 http://ex.org/p4 \"b\"", "http://ex.org/s2 http://ex.org/p1 http://ex.org/o2", "http://ex.org/s1 http://ex.org/p2 \"c\""},
+	};
+
+	private List<Path> createFiles() throws IOException, ParserException {
+		Path root = tempDir.newFolder().toPath();
+		List<Path> files = new ArrayList<>();
+		for (int i = 0; i < FILES.length; i++) {
+			List<TripleString> triples = new ArrayList<>();
+			for (String triple : FILES[i]) {
+				String[] split = triple.split(" ");
+				triples.add(new TripleString(split[0], split[1], split[2]));
+			}
+			Path file = root.resolve("file" + i + ".hdt");
+			try (HDT hdt = HDTManager.generateHDT(triples.iterator(), HDTTestUtils.BASE_URI, new HDTSpecification(), null)) {
+				hdt.saveToHDT(file.toAbsolutePath().toString(), null);
+			}
+			files.add(file);
+		}
+		return files;
+	}
+
+	private static Set<String> expected(String s, String p, String o) {
+		Set<String> expected = new TreeSet<>();
+		for (String[] file : FILES) {
+			for (String triple : file) {
+				String[] split = triple.split(" ");
+				if ((s.isEmpty() || s.equals(split[0])) && (p.isEmpty() || p.equals(split[1])) && (o.isEmpty() || o.equals(split[2]))) {
+					expected.add(triple);
+				}
+			}
+		}
+		return expected;
+	}
+
+	private static Set<String> search(MultiHDT hdt, String s, String p, String o) throws NotFoundException {
+		Set<String> result = new TreeSet<>();
+		IteratorTripleString it = hdt.search(s, p, o);
+		while (it.hasNext()) {
+			TripleString triple = it.next();
+			assertTrue("duplicated " + triple, result.add(triple.getSubject() + " " + triple.getPredicate() + " " + triple.getObject()));
+		}
+		return result;
+	}
+
+	@Test
+	public void searchTest() throws IOException, ParserException, NotFoundException {
+		try (MultiHDT hdt = new MultiHDT(createFiles(), new HDTSpecification())) {
+			assertEquals(3, hdt.getNumberOfFiles());
+
+			String[][] patterns = {
+					{"", "", ""},
+					{"http://ex.org/s1", "", ""},
+					{"", "http://ex.org/p1", ""},
+					{"", "", "http://ex.org/o2"},
+					{"http://ex.org/s1", "http://ex.org/p2", ""},
+					{"http://ex.org/s4", "", "\"b\""},
+					{"http://ex.org/none", "", ""},
+					{"", "http://ex.org/none", ""},
+			};
+			for (String[] pattern : patterns) {
+				assertEquals(String.join(" ", pattern), expected(pattern[0], pattern[1], pattern[2]), search(hdt, pattern[0], pattern[1], pattern[2]));
+			}
+		}
+	}
+
+	@Test
+	public void pruneTest() throws IOException, ParserException {
+		try (MultiHDT hdt = new MultiHDT(createFiles(), new HDTSpecification())) {
+			assertEquals(List.of(0, 1, 2), hdt.getCandidates("", "", ""));
+			assertEquals(List.of(1), hdt.getCandidates("", "http://ex.org/p3", ""));
+			assertEquals(List.of(2), hdt.getCandidates("http://ex.org/s4", "", ""));
+			assertEquals(List.of(0, 2), hdt.getCandidates("http://ex.org/s1", "http://ex.org/p2", ""));
+			assertTrue(hdt.getCandidates("http://ex.org/s3", "http://ex.org/p2", "").isEmpty());
+		}
+	}
+
+	@Test
+	public void nestedSearchTest() throws IOException, ParserException, NotFoundException {
+		try (MultiHDT hdt = new MultiHDT(createFiles(), new HDTSpecification())) {
+			// nested loop join with never closed inner searches
+			int count = 0;
+			IteratorTripleString outer = hdt.search("", "", "");
+			while (outer.hasNext()) {
+				TripleString triple = outer.next();
+				for (int i = 0; i < 10; i++) {
+					IteratorTripleString inner = hdt.search("", "", "");
+					assertTrue(inner.hasNext());
+					inner.next();
+				}
+				IteratorTripleString inner = hdt.search(triple.getSubject(), "", "");
+				assertTrue(inner.hasNext());
+				count++;
+			}
+			assertEquals(expected("", "", "").size(), count);
+		}
+	}
+
+	@Test
+	public void goToStartTest() throws IOException, ParserException, NotFoundException {
+		try (MultiHDT hdt = new MultiHDT(createFiles(), new HDTSpecification())) {
+			IteratorTripleString it = hdt.search("", "", "");
+			assertTrue(it.hasNext());
+			it.next();
+			it.goToStart();
+			int count = 0;
+			while (it.hasNext()) {
+				it.next();
+				count++;
+			}
+			assertEquals(expected("", "", "").size(), count);
+			assertFalse(it.hasNext());
+		}
+	}
+
+	@Test
+	public void batchTest() throws IOException, ParserException, NotFoundException {
+		// files bigger than a batch, overlapping with the previous file
+		Path root = tempDir.newFolder().toPath();
+		List<Path> files = new ArrayList<>();
+		Set<String> expected = new TreeSet<>();
+		for (int i = 0; i < 4; i++) {
+			List<TripleString> triples = new ArrayList<>();
+			for (int j = i * 1000; j < i * 1000 + MultiHDT.BATCH_SIZE * 2; j++) {
+				triples.add(new TripleString("http://ex.org/s" + (j / 3), "http://ex.org/p" + (j % 3), "http://ex.org/o" + j));
+				expected.add("http://ex.org/s" + (j / 3) + " http://ex.org/p" + (j % 3) + " http://ex.org/o" + j);
+			}
+			Path file = root.resolve("file" + i + ".hdt");
+			try (HDT hdt = HDTManager.generateHDT(triples.iterator(), HDTTestUtils.BASE_URI, new HDTSpecification(), null)) {
+				hdt.saveToHDT(file.toAbsolutePath().toString(), null);
+			}
+			files.add(file);
+		}
+
+		for (int threads = 1; threads <= 4; threads++) {
+			HDTSpecification spec = new HDTSpecification();
+			spec.set(HDTOptionsKeys.MULTI_HDT_THREADS_KEY, threads);
+			try (MultiHDT hdt = new MultiHDT(files, spec)) {
+				assertEquals("threads: " + threads, expected, search(hdt, "", "", ""));
+				assertEquals("threads: " + threads, expected("http://ex.org/p1", expected), search(hdt, "", "http://ex.org/p1", ""));
+			}
+		}
+
+		// the bloom filters are only created if asked
+		try (Stream<Path> list = Files.list(root)) {
+			assertTrue(list.noneMatch(f -> f.getFileName().toString().endsWith(DictionaryBloomFilters.FILE_SUFFIX)));
+		}
+	}
+
+	private static Set<String> expected(String predicate, Set<String> triples) {
+		Set<String> expected = new TreeSet<>();
+		for (String triple : triples) {
+			if (triple.split(" ")[1].equals(predicate)) {
+				expected.add(triple);
+			}
+		}
+		return expected;
+	}
+}
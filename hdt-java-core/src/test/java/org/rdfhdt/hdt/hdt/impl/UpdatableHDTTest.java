@@ -0,0 +1,196 @@
+package org.rdfhdt.hdt.hdt.impl;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.rdfhdt.hdt.exceptions.NotFoundException;
+import org.rdfhdt.hdt.exceptions.ParserException;
+import org.rdfhdt.hdt.hdt.HDT;
+import org.rdfhdt.hdt.hdt.HDTManager;
+import org.rdfhdt.hdt.options.HDTSpecification;
+import org.rdfhdt.hdt.triples.IteratorTripleString;
+import org.rdfhdt.hdt.triples.TripleString;
+import org.rdfhdt.hdt.triples.impl.utils.HDTTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class UpdatableHDTTest {
+	@Rule
+	public TemporaryFolder tempDir = new TemporaryFolder();
+
+	private Path createBase() throws IOException, ParserException {
+		Path file = tempDir.newFolder().toPath().resolve("base.hdt");
+		List<TripleString> triples = List.of(
+				new TripleString("http://ex.org/s1", "http://ex.org/p1", "http://ex.org/o1"),
+				new TripleString("http://ex.org/s1", "http://ex.org/p1", "\"lit\""),
+				new TripleString("http://ex.org/s2", "http://ex.org/p2", "http://ex.org/s1"),
+				new TripleString("http://ex.org/s3", "http://ex.org/p1", "http://ex.org/o1")
+		);
+		try (HDT hdt = HDTManager.generateHDT(triples.iterator(), HDTTestUtils.BASE_URI, new HDTSpecification(), null)) {
+			hdt.saveToHDT(file.toAbsolutePath().toString(), null);
+		}
+		return file;
+	}
+
+	private static Set<String> search(UpdatableHDT hdt, String s, String p, String o) throws NotFoundException {
+		Set<String> result = new TreeSet<>();
+		IteratorTripleString it = hdt.search(s, p, o);
+		while (it.hasNext()) {
+			TripleString triple = it.next();
+			assertTrue("duplicated " + triple, result.add(toString(triple)));
+		}
+		return result;
+	}
+
+	private static String toString(TripleString triple) {
+		return triple.getSubject() + " " + triple.getPredicate() + " " + triple.getObject();
+	}
+
+	@Test
+	public void updateTest() throws IOException, ParserException, NotFoundException {
+		try (UpdatableHDT hdt = new UpdatableHDT(createBase(), new HDTSpecification())) {
+			assertEquals(4, hdt.getNumberOfElements());
+
+			assertTrue(hdt.remove("http://ex.org/s1", "http://ex.org/p1", "http://ex.org/o1"));
+			assertFalse(hdt.remove("http://ex.org/s1", "http://ex.org/p1", "http://ex.org/o1"));
+			assertTrue(hdt.add("http://ex.org/s1", "http://ex.org/p3", "http://ex.org/new"));
+			assertFalse(hdt.add("http://ex.org/s1", "http://ex.org/p3", "http://ex.org/new"));
+			assertFalse(hdt.add("http://ex.org/s2", "http://ex.org/p2", "http://ex.org/s1"));
+			assertTrue(hdt.add("http://ex.org/s4", "http://ex.org/p1", "http://ex.org/o1"));
+
+			assertEquals(1, hdt.getDeletedCount());
+			assertEquals(2, hdt.getDeltaSize());
+			assertEquals(5, hdt.getNumberOfElements());
+
+			assertEquals(Set.of(
+					"http://ex.org/s1 http://ex.org/p1 \"lit\"",
+					"http://ex.org/s1 http://ex.org/p3 http://ex.org/new"
+			), search(hdt, "http://ex.org/s1", "", ""));
+			assertEquals(Set.of(
+					"http://ex.org/s3 http://ex.org/p1 http://ex.org/o1",
+					"http://ex.org/s4 http://ex.org/p1 http://ex.org/o1"
+			), search(hdt, "", "", "http://ex.org/o1"));
+
+			// re-add a deleted triple of the base
+			assertTrue(hdt.add("http://ex.org/s1", "http://ex.org/p1", "http://ex.org/o1"));
+			assertEquals(0, hdt.getDeletedCount());
+			assertTrue(hdt.remove("http://ex.org/s1", "http://ex.org/p1", "http://ex.org/o1"));
+
+			// an empty component isn't a wildcard for the updates
+			try {
+				hdt.remove("http://ex.org/s1", "", "");
+				fail("removed a triple with empty components");
+			} catch (IllegalArgumentException e) {
+				// expected
+			}
+			assertEquals(5, hdt.getNumberOfElements());
+		}
+	}
+
+	@Test
+	public void compactTest() throws IOException, ParserException, NotFoundException {
+		Path file = createBase();
+		Set<String> expected;
+		try (UpdatableHDT hdt = new UpdatableHDT(file, new HDTSpecification())) {
+			assertFalse(hdt.compact(null));
+
+			hdt.remove("http://ex.org/s1", "http://ex.org/p1", "http://ex.org/o1");
+			hdt.remove("http://ex.org/s2", "http://ex.org/p2", "http://ex.org/s1");
+			hdt.add("http://ex.org/s1", "http://ex.org/p3", "http://ex.org/new");
+			hdt.add("http://ex.org/new", "http://ex.org/p3", "\"new lit\"");
+			expected = search(hdt, "", "", "");
+
+			assertTrue(hdt.compact(null));
+			assertEquals(0, hdt.getDeletedCount());
+			assertEquals(0, hdt.getDeltaSize());
+			assertEquals(4, hdt.getBase().getTriples().getNumberOfElements());
+			assertEquals(expected, search(hdt, "", "", ""));
+
+			// updates after the compaction are applied on the new base
+			assertTrue(hdt.remove("http://ex.org/new", "http://ex.org/p3", "\"new lit\""));
+			assertEquals(1, hdt.getDeletedCount());
+			expected = search(hdt, "", "", "");
+		}
+
+		try (UpdatableHDT hdt = new UpdatableHDT(file, new HDTSpecification())) {
+			assertEquals(expected, search(hdt, "", "", ""));
+		}
+	}
+
+	@Test
+	public void compactOpenIteratorTest() throws IOException, ParserException, NotFoundException {
+		Path file = createBase();
+		try (UpdatableHDT hdt = new UpdatableHDT(file, new HDTSpecification())) {
+			Set<String> expected = search(hdt, "", "", "");
+			IteratorTripleString it = hdt.search("", "", "");
+			// started before the compaction
+			assertTrue(it.hasNext());
+			Set<String> read = new TreeSet<>();
+			read.add(toString(it.next()));
+
+			hdt.remove("http://ex.org/s1", "http://ex.org/p1", "http://ex.org/o1");
+			hdt.add("http://ex.org/s1", "http://ex.org/p3", "http://ex.org/new");
+			assertTrue(hdt.compact(null));
+
+			// the previous base is still readable by the iterator
+			while (it.hasNext()) {
+				read.add(toString(it.next()));
+			}
+			assertEquals(expected, read);
+
+			// the previous base is closed with its last iterator
+			try {
+				it.goToStart();
+				fail("restarted an iterator on a closed base");
+			} catch (IllegalStateException e) {
+				// expected
+			}
+		}
+	}
+
+	@Test
+	public void reopenTest() throws IOException, ParserException, NotFoundException {
+		Path file = createBase();
+		Set<String> expected;
+		try (UpdatableHDT hdt = new UpdatableHDT(file, new HDTSpecification())) {
+			hdt.remove("http://ex.org/s1", "http://ex.org/p1", "http://ex.org/o1");
+			hdt.add("http://ex.org/s1", "http://ex.org/p3", "http://ex.org/new");
+			hdt.add("http://ex.org/s5", "http://ex.org/p3", "\"new lit\"");
+			hdt.remove("http://ex.org/s5", "http://ex.org/p3", "\"new lit\"");
+			expected = search(hdt, "", "", "");
+		}
+
+		Path log = file.resolveSibling(file.getFileName() + UpdatableHDT.DELTA_LOG_SUFFIX);
+		// record truncated by a crash
+		long size = Files.size(log);
+		Files.write(log, new byte[]{1, 0, 0}, StandardOpenOption.APPEND);
+
+		try (UpdatableHDT hdt = new UpdatableHDT(file, new HDTSpecification())) {
+			assertEquals(size, Files.size(log));
+			assertEquals(1, hdt.getDeletedCount());
+			assertEquals(1, hdt.getDeltaSize());
+			assertEquals(expected, search(hdt, "", "", ""));
+
+			assertTrue(hdt.compact(null));
+			hdt.add("http://ex.org/s6", "http://ex.org/p3", "http://ex.org/o1");
+			expected = search(hdt, "", "", "");
+		}
+
+		try (UpdatableHDT hdt = new UpdatableHDT(file, new HDTSpecification())) {
+			assertEquals(0, hdt.getDeletedCount());
+			assertEquals(1, hdt.getDeltaSize());
+			assertEquals(expected, search(hdt, "", "", ""));
+		}
+	}
+}
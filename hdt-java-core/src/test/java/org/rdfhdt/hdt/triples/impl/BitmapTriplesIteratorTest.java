@@ -1,9 +1,23 @@
 package org.rdfhdt.hdt.triples.impl;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.rdfhdt.hdt.exceptions.ParserException;
+import org.rdfhdt.hdt.hdt.HDT;
+import org.rdfhdt.hdt.hdt.HDTManager;
+import org.rdfhdt.hdt.options.HDTSpecification;
+import org.rdfhdt.hdt.triples.IteratorTripleID;
+import org.rdfhdt.hdt.triples.TripleID;
+import org.rdfhdt.hdt.triples.TripleString;
+import org.rdfhdt.hdt.triples.impl.utils.HDTTestUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class BitmapTriplesIteratorTest {
 
@@ -23,4 +37,43 @@ public class BitmapTriplesIteratorTest {
 //		}
 	}
 
-}
\ No newline at end of file
+	private static void assertGoTo(HDT hdt, TripleID pattern) {
+		List<TripleID> expected = new ArrayList<>();
+		IteratorTripleID it = hdt.getTriples().search(pattern);
+		while (it.hasNext()) {
+			expected.add(it.next().clone());
+		}
+		for (int i = 0; i < expected.size(); i++) {
+			it = hdt.getTriples().search(pattern);
+			assertTrue(pattern.getPatternString(), it.canGoTo());
+			it.goTo(i);
+			for (int j = i; j < expected.size(); j++) {
+				assertTrue(it.hasNext());
+				assertEquals(pattern + " goTo " + i, expected.get(j), it.next());
+			}
+			assertFalse(it.hasNext());
+		}
+	}
+
+	@Test
+	public void goToTest() throws IOException, ParserException {
+		List<TripleString> triples = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			triples.add(new TripleString("http://ex.org/s" + (i % 10), "http://ex.org/p" + (i % 3), "http://ex.org/o" + i));
+			triples.add(new TripleString("http://ex.org/s" + (i % 7), "http://ex.org/p" + (i % 4), "\"" + (i % 13) + "\""));
+		}
+		try (HDT hdt = HDTManager.generateHDT(triples.iterator(), HDTTestUtils.BASE_URI, new HDTSpecification(), null)) {
+			assertGoTo(hdt, new TripleID(0, 0, 0));
+			IteratorTripleID all = hdt.getTriples().searchAll();
+			while (all.hasNext()) {
+				TripleID triple = all.next();
+				assertGoTo(hdt, new TripleID(triple.getSubject(), 0, 0));
+				assertGoTo(hdt, new TripleID(triple.getSubject(), triple.getPredicate(), 0));
+				assertGoTo(hdt, new TripleID(triple.getSubject(), triple.getPredicate(), triple.getObject()));
+			}
+			// S?O is filtered
+			assertFalse(hdt.getTriples().search(new TripleID(1, 0, 1)).canGoTo());
+		}
+	}
+
+}
@@ -18,6 +18,8 @@ import org.rdfhdt.hdt.options.ControlInformation;
 import org.rdfhdt.hdt.options.HDTOptions;
 import org.rdfhdt.hdt.options.HDTOptionsKeys;
 import org.rdfhdt.hdt.options.HDTSpecification;
+import org.rdfhdt.hdt.triples.IteratorTripleID;
+import org.rdfhdt.hdt.triples.TripleID;
 import org.rdfhdt.hdt.triples.Triples;
 import org.rdfhdt.hdt.util.LargeFakeDataSetStreamSupplier;
 import org.rdfhdt.hdt.util.io.AbstractMapMemoryTest;
@@ -26,15 +28,20 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 import static org.junit.Assert.*;
 
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
 		BitmapTriplesTest.HandTest.class,
-		BitmapTriplesTest.DynamicTest.class
+		BitmapTriplesTest.DynamicTest.class,
+		BitmapTriplesTest.SplittableTest.class
 })
 public class BitmapTriplesTest {
 
@@ -301,6 +308,72 @@ public class BitmapTriplesTest {
 		}
 	}
 
+	public static class SplittableTest extends AbstractTest {
+		private static List<TripleID> searchList(Triples triples, TripleID pattern) {
+			List<TripleID> list = new ArrayList<>();
+			IteratorTripleID it = triples.search(pattern);
+			while (it.hasNext()) {
+				list.add(it.next().clone());
+			}
+			return list;
+		}
+
+		@Test
+		public void searchSplittableTest() throws IOException, ParserException {
+			Path hdtPath = tempDir.newFolder().toPath().resolve("test.hdt");
+			LargeFakeDataSetStreamSupplier
+					.createSupplierWithMaxTriples(10_000, 42)
+					.createAndSaveFakeHDT(new HDTSpecification(), hdtPath.toAbsolutePath().toString());
+
+			try (HDT hdt = HDTManager.loadIndexedHDT(hdtPath.toAbsolutePath().toString(), null, null)) {
+				Triples triples = hdt.getTriples();
+				assertTrue(triples instanceof BitmapTriples);
+
+				TripleID triple = searchList(triples, new TripleID()).get(1234);
+				long s = triple.getSubject();
+				long p = triple.getPredicate();
+				long o = triple.getObject();
+
+				TripleID[] patterns = {
+						new TripleID(0, 0, 0),
+						new TripleID(s, 0, 0),
+						new TripleID(s, p, 0),
+						new TripleID(s, p, o),
+						new TripleID(0, p, 0),
+						new TripleID(0, 0, o),
+						new TripleID(0, p, o),
+						new TripleID(s, 0, o)
+				};
+
+				for (TripleID pattern : patterns) {
+					List<TripleID> excepted = searchList(triples, pattern);
+					assertFalse(pattern.getPatternString(), excepted.isEmpty());
+
+					List<TripleID> sequential = StreamSupport.stream(triples.searchSplittable(pattern), false)
+							.collect(Collectors.toList());
+					assertEquals(pattern.getPatternString(), excepted, sequential);
+
+					List<TripleID> parallel = StreamSupport.stream(triples.searchSplittable(pattern), true)
+							.collect(Collectors.toList());
+					assertEquals(pattern.getPatternString(), excepted, parallel);
+				}
+
+				// the results of ??? are split by position
+				Spliterator<TripleID> all = triples.searchSplittable(new TripleID());
+				assertTrue(all instanceof BitmapTriplesSpliterator);
+				assertEquals(triples.getNumberOfElements(), all.getExactSizeIfKnown());
+				Spliterator<TripleID> prefix = all.trySplit();
+				assertNotNull(prefix);
+				assertEquals(triples.getNumberOfElements(), prefix.getExactSizeIfKnown() + all.getExactSizeIfKnown());
+
+				// the results of ?P? are split by occurrence of the predicate
+				Spliterator<TripleID> predicate = triples.searchSplittable(new TripleID(0, p, 0));
+				assertTrue(predicate instanceof BitmapTriplesSpliterator);
+				assertFalse(predicate.hasCharacteristics(Spliterator.SIZED));
+			}
+		}
+	}
+
 	@Ignore("Hand tests")
 	public static class HandTest extends AbstractTest {
 		@Test
@@ -0,0 +1,68 @@
+package org.rdfhdt.hdt.util;
+
+import org.junit.Rule;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.rdfhdt.hdt.exceptions.ParserException;
+import org.rdfhdt.hdt.hdt.HDT;
+import org.rdfhdt.hdt.hdt.HDTManager;
+import org.rdfhdt.hdt.options.HDTOptionsKeys;
+import org.rdfhdt.hdt.options.HDTSpecification;
+import org.rdfhdt.hdt.triples.TripleString;
+import org.rdfhdt.hdt.triples.impl.utils.HDTTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * extend this class to run a test with the four section and the multiple section dictionaries, the test creates its
+ * HDT files with {@link #createHDT(Iterator)}
+ */
+@RunWith(Parameterized.class)
+public abstract class AbstractDictionaryTypeTest {
+	@Parameterized.Parameters(name = "{0}")
+	public static Collection<Object[]> params() {
+		return List.of(
+				new Object[]{HDTOptionsKeys.DICTIONARY_TYPE_VALUE_FOUR_SECTION, HDTOptionsKeys.TEMP_DICTIONARY_IMPL_VALUE_HASH},
+				new Object[]{HDTOptionsKeys.DICTIONARY_TYPE_VALUE_MULTI_OBJECTS, HDTOptionsKeys.TEMP_DICTIONARY_IMPL_VALUE_MULT_HASH}
+		);
+	}
+
+	@Parameterized.Parameter
+	public String dictionaryType;
+	@Parameterized.Parameter(1)
+	public String tempDictionaryImpl;
+
+	@Rule
+	public TemporaryFolder tempDir = new TemporaryFolder();
+
+	/**
+	 * @return the generation spec with the dictionary of the test
+	 */
+	protected HDTSpecification createSpec() {
+		HDTSpecification spec = new HDTSpecification();
+		spec.set(HDTOptionsKeys.DICTIONARY_TYPE_KEY, dictionaryType);
+		spec.set(HDTOptionsKeys.TEMP_DICTIONARY_IMPL_KEY, tempDictionaryImpl);
+		return spec;
+	}
+
+	/**
+	 * generate an HDT with the dictionary of the test and save it in a new temp folder
+	 *
+	 * @param triples the triples of the HDT
+	 * @return the HDT file
+	 * @throws IOException     io exception
+	 * @throws ParserException parsing exception
+	 */
+	protected Path createHDT(Iterator<TripleString> triples) throws IOException, ParserException {
+		Path file = tempDir.newFolder().toPath().resolve("test.hdt");
+		try (HDT hdt = HDTManager.generateHDT(triples, HDTTestUtils.BASE_URI, createSpec(), null)) {
+			hdt.saveToHDT(file.toAbsolutePath().toString(), null);
+		}
+		return file;
+	}
+}
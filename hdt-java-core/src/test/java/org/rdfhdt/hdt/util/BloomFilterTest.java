@@ -0,0 +1,25 @@
+package org.rdfhdt.hdt.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+public class BloomFilterTest {
+	@Test
+	public void falsePositiveTest() {
+		BloomFilter filter = BloomFilter.create(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filter.add("http://ex.org/in" + i);
+		}
+		for (int i = 0; i < 10_000; i++) {
+			assertTrue(filter.mightContain("http://ex.org/in" + i));
+		}
+		int falsePositives = 0;
+		for (int i = 0; i < 10_000; i++) {
+			if (filter.mightContain("http://ex.org/out" + i)) {
+				falsePositives++;
+			}
+		}
+		assertTrue("false positives: " + falsePositives, falsePositives < 300);
+	}
+}
@@ -0,0 +1,114 @@
+package org.rdfhdt.hdt.util;
+
+import org.junit.Test;
+import org.rdfhdt.hdt.triples.IndexedNode;
+import org.rdfhdt.hdt.util.string.ByteString;
+import org.rdfhdt.hdt.util.string.CompactString;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class IndexedNodeArenaTest {
+	private static List<IndexedNode> nodes(Random random, int count) {
+		String[] prefixes = {"", "http://example.org/", "http://example.org/resource/", "\"", "_:b", "é😀"};
+		List<IndexedNode> nodes = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			StringBuilder sb = new StringBuilder(prefixes[random.nextInt(prefixes.length)]);
+			int len = random.nextInt(8);
+			for (int j = 0; j < len; j++) {
+				sb.append((char) (random.nextBoolean() ? 'a' + random.nextInt(3) : 0xe0 + random.nextInt(3)));
+			}
+			nodes.add(new IndexedNode(new CompactString(sb), i + 1));
+		}
+		return nodes;
+	}
+
+	private static void assertSorted(List<IndexedNode> expected, IndexedNodeArena arena) {
+		Map<Long, String> nodeOfIndex = new HashMap<>();
+		for (IndexedNode node : expected) {
+			nodeOfIndex.put(node.getIndex(), node.getNode().toString());
+		}
+		// stable sort, the equal nodes are sorted by index
+		expected.sort(Comparator.naturalOrder());
+		assertEquals(expected.size(), arena.size());
+		Iterator<IndexedNode> it = arena.iterator();
+		for (IndexedNode node : expected) {
+			IndexedNode actual = it.next();
+			assertEquals(node.getNode().toString(), actual.getNode().toString());
+			assertEquals(node.getIndex(), actual.getIndex());
+			// the index should be moved with its node
+			assertEquals(nodeOfIndex.get(actual.getIndex()), actual.getNode().toString());
+		}
+		assertFalse(it.hasNext());
+	}
+
+	private void sortTest(int count, int pageSize, boolean parallel) {
+		List<IndexedNode> nodes = nodes(new Random(count * 31L + pageSize), count);
+		IndexedNodeArena arena = new IndexedNodeArena(pageSize);
+		for (IndexedNode node : nodes) {
+			arena.add(node.getNode(), node.getIndex());
+		}
+		if (parallel) {
+			arena.parallelSort();
+		} else {
+			arena.sort();
+		}
+		assertSorted(nodes, arena);
+	}
+
+	@Test
+	public void sortTest() {
+		sortTest(0, 16, false);
+		sortTest(1, 16, false);
+		sortTest(15, 16, false);
+		sortTest(1000, 16, false);
+		sortTest(1000, IndexedNodeArena.DEFAULT_PAGE_SIZE, false);
+	}
+
+	@Test
+	public void parallelSortTest() {
+		sortTest(20_000, 1 << 12, true);
+	}
+
+	@Test
+	public void parallelSortLongPrefixTest() {
+		// long shared prefix, the parallel sort shouldn't use a task per byte of the prefix
+		String prefix = "\"" + "a".repeat(8_000);
+		Random random = new Random(42);
+		List<IndexedNode> nodes = new ArrayList<>();
+		for (int i = 0; i < 10_000; i++) {
+			nodes.add(new IndexedNode(new CompactString(prefix + random.nextInt(100)), i + 1));
+		}
+		IndexedNodeArena arena = new IndexedNodeArena();
+		for (IndexedNode node : nodes) {
+			arena.add(node.getNode(), node.getIndex());
+		}
+		arena.parallelSort();
+		assertSorted(nodes, arena);
+	}
+
+	@Test
+	public void bigNodeTest() {
+		IndexedNodeArena arena = new IndexedNodeArena(8);
+		ByteString big = new CompactString("http://example.org/a/very/long/node/bigger/than/a/page");
+		arena.add(big, 1);
+		arena.add(new CompactString("http://example.org/"), 2);
+		arena.add(big, 3);
+		arena.sort();
+		assertEquals("http://example.org/", arena.getNode(0).toString());
+		assertEquals(2, arena.getIndex(0));
+		assertEquals(big.toString(), arena.getNode(1).toString());
+		assertEquals(big.toString(), arena.getNode(2).toString());
+		arena.clear();
+		assertEquals(0, arena.size());
+		assertEquals(0, arena.getBytes());
+	}
+}
@@ -16,6 +16,7 @@ import org.rdfhdt.hdt.util.io.IOUtil;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.Files;
 import java.util.*;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -60,7 +61,23 @@ public class KWayMergerTest {
 
     @Test
     public void simpleMerge() throws IOException, KWayMerger.KWayMergerException, InterruptedException {
-        try (CloseSuppressPath root = CloseSuppressPath.of(tempDir.newFolder().toPath())) {
+        merge(CloseSuppressPath.of(tempDir.newFolder().toPath()));
+    }
+
+    @Test
+    public void stripedMerge() throws IOException, KWayMerger.KWayMergerException, InterruptedException {
+        CloseSuppressPath root = CloseSuppressPath.ofLocations(
+                tempDir.newFolder().toString(), tempDir.newFolder().toString()
+        ).resolve("merge");
+        merge(root);
+        // all the chunks should be deleted
+        for (CloseSuppressPath stripe : root.getStripes()) {
+            assertFalse(Files.exists(stripe));
+        }
+    }
+
+    private void merge(CloseSuppressPath location) throws IOException, KWayMerger.KWayMergerException, InterruptedException {
+        try (CloseSuppressPath root = location) {
             root.closeWithDeleteRecurse();
 
             Random rnd = new Random(64);
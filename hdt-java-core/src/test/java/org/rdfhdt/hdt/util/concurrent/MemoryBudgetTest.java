@@ -0,0 +1,79 @@
+package org.rdfhdt.hdt.util.concurrent;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MemoryBudgetTest {
+	@Test
+	public void reserveTest() throws InterruptedException {
+		MemoryBudget budget = new MemoryBudget(100);
+
+		MemoryBudget.Reservation r1 = budget.reserve(10, 60);
+		assertEquals(60, r1.getSize());
+		assertEquals(60, budget.getUsed());
+
+		// only 40 available, the reservation is reduced
+		MemoryBudget.Reservation r2 = budget.reserve(10, 60);
+		assertEquals(40, r2.getSize());
+		assertEquals(0, budget.getAvailable());
+
+		r1.close();
+		// closing twice doesn't release twice
+		r1.close();
+		assertEquals(40, budget.getUsed());
+
+		r2.close();
+		assertEquals(0, budget.getUsed());
+
+		// min above the capacity, wait for an empty budget
+		try (MemoryBudget.Reservation r3 = budget.reserve(1000, 1000)) {
+			assertEquals(100, r3.getSize());
+		}
+		assertEquals(0, budget.getUsed());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void badReserveTest() throws InterruptedException {
+		new MemoryBudget(100).reserve(20, 10);
+	}
+
+	@Test
+	public void waitTest() throws InterruptedException {
+		MemoryBudget budget = new MemoryBudget(100);
+		MemoryBudget.Reservation r1 = budget.reserve(90, 90);
+
+		long[] size = new long[1];
+		Thread thread = new Thread(() -> {
+			try (MemoryBudget.Reservation r2 = budget.reserve(50, 80)) {
+				size[0] = r2.getSize();
+			} catch (InterruptedException e) {
+				throw new AssertionError(e);
+			}
+		}, "MemoryBudgetTest");
+		thread.start();
+
+		// not enough memory, the thread should wait
+		thread.join(200);
+		assertTrue(thread.isAlive());
+
+		r1.close();
+		thread.join();
+		assertFalse(thread.isAlive());
+		assertEquals(80, size[0]);
+		assertEquals(0, budget.getUsed());
+	}
+
+	@Test
+	public void capacityTest() throws InterruptedException {
+		MemoryBudget budget = new MemoryBudget(100);
+		MemoryBudget.Reservation r1 = budget.reserve(100, 100);
+		budget.setCapacity(50);
+		// the reservations are kept
+		assertEquals(0, budget.getAvailable());
+		r1.close();
+		assertEquals(50, budget.getAvailable());
+	}
+}
@@ -4,9 +4,13 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 
 import static org.junit.Assert.*;
 
@@ -51,4 +55,98 @@ public class CloseSuppressPathTest {
         // known unresolvable issue
         assertNotEquals(path, CloseSuppressPath.of(path));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void compressedStreamTest() throws IOException {
+        Path path = tempDir.getRoot().toPath();
+
+        CloseSuppressPath root = CloseSuppressPath.of(path).compressed(true);
+        assertTrue(root.isCompressed());
+        CloseSuppressPath test = root.resolve("test");
+        assertTrue(test.isCompressed());
+        assertFalse(root.compressed(false).resolve("test").isCompressed());
+
+        byte[] data = new byte[100_000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) ("http://example.org/".charAt(i % 19) + i / 10_000);
+        }
+        try (OutputStream out = test.openOutputStream(1024)) {
+            out.write(data);
+            out.write(42);
+        }
+        assertTrue(Files.size(test) < data.length / 2);
+
+        try (InputStream in = test.openInputStream(1024)) {
+            assertArrayEquals(data, in.readNBytes(data.length));
+            assertEquals(42, in.read());
+            assertEquals(-1, in.read());
+        }
+    }
+
+    @Test
+    public void stripesTest() throws IOException {
+        Path path1 = tempDir.newFolder().toPath();
+        Path path2 = tempDir.newFolder().toPath();
+
+        CloseSuppressPath root = CloseSuppressPath.ofLocations(path1.toString(), path2.toString()).resolve("root");
+        assertEquals(path1.resolve("root"), root.getJavaPath());
+        root.closeWithDeleteRecurse();
+        root.mkdirs();
+
+        List<CloseSuppressPath> stripes = root.resolve("dir").getStripes();
+        assertEquals(2, stripes.size());
+        assertEquals(path1.resolve("root").resolve("dir"), stripes.get(0).getJavaPath());
+        assertEquals(path2.resolve("root").resolve("dir"), stripes.get(1).getJavaPath());
+        assertEquals(1, stripes.get(1).getStripes().size());
+
+        assertTrue(Files.exists(path2.resolve("root")));
+        Files.writeString(root.getStripes().get(1).resolve("test"), "test");
+
+        root.close();
+        assertFalse(Files.exists(path1.resolve("root")));
+        assertFalse(Files.exists(path2.resolve("root")));
+    }
+
+    @Test
+    public void stripeLocationsTest() throws IOException {
+        Path path1 = tempDir.newFolder().toPath();
+        Path path2 = tempDir.newFolder().toPath();
+        Path path3 = tempDir.newFolder().toPath();
+
+        // the location isn't split
+        String location = path1.resolve("a" + File.pathSeparator + "b").toString();
+        CloseSuppressPath root = CloseSuppressPath.ofLocations(location, null);
+        assertEquals(Path.of(location), root.getJavaPath());
+        assertEquals(1, root.getStripes().size());
+
+        root = CloseSuppressPath.ofLocations(location, path2 + File.pathSeparator + path3);
+        List<CloseSuppressPath> stripes = root.getStripes();
+        assertEquals(3, stripes.size());
+        assertEquals(Path.of(location), stripes.get(0).getJavaPath());
+        assertEquals(path2, stripes.get(1).getJavaPath());
+        assertEquals(path3, stripes.get(2).getJavaPath());
+    }
+
+    @Test
+    public void keepStripesTest() throws IOException {
+        Path path1 = tempDir.newFolder().toPath();
+        Path path2 = tempDir.newFolder().toPath();
+
+        CloseSuppressPath root = CloseSuppressPath.ofLocations(path1.toString(), path2.toString())
+                .compressed(true)
+                .resolve("root");
+
+        for (CloseSuppressPath path : List.of(
+                root.resolve("dir").getParent(),
+                root.resolve("dir").resolve("..").normalize(),
+                root.toAbsolutePath()
+        )) {
+            assertTrue(path.isCompressed());
+            List<CloseSuppressPath> stripes = path.getStripes();
+            assertEquals(2, stripes.size());
+            assertEquals(path1.resolve("root").toAbsolutePath(), stripes.get(0).getJavaPath().toAbsolutePath());
+            assertEquals(path2.resolve("root").toAbsolutePath(), stripes.get(1).getJavaPath().toAbsolutePath());
+        }
+        assertNull(CloseSuppressPath.of(Path.of("file")).getParent());
+    }
+}
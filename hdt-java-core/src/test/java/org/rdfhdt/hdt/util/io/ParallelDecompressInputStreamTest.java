@@ -0,0 +1,205 @@
+package org.rdfhdt.hdt.util.io;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.rdfhdt.hdt.enums.CompressionType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ParallelDecompressInputStreamTest {
+	@Rule
+	public TemporaryFolder tempDir = new TemporaryFolder();
+
+	private static byte[] createData(long seed, int size) {
+		Random rnd = new Random(seed);
+		StringBuilder sb = new StringBuilder();
+		while (sb.length() < size) {
+			sb.append("<http://ex.org/s").append(rnd.nextInt(1000)).append("> <http://ex.org/p")
+					.append(rnd.nextInt(10)).append("> \"").append(rnd.nextLong()).append("\" .\n");
+		}
+		return sb.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static void writeUInt16(OutputStream out, int value) throws IOException {
+		out.write(value & 0xFF);
+		out.write((value >>> 8) & 0xFF);
+	}
+
+	private static void writeUInt32(OutputStream out, long value) throws IOException {
+		writeUInt16(out, (int) (value & 0xFFFF));
+		writeUInt16(out, (int) ((value >>> 16) & 0xFFFF));
+	}
+
+	/**
+	 * write the data as BGZF members of at most blockSize bytes
+	 */
+	private static void writeBgzf(Path file, byte[] data, int blockSize) throws IOException {
+		try (OutputStream out = Files.newOutputStream(file)) {
+			byte[] compressed = new byte[blockSize * 2 + 64];
+			for (int start = 0; start < data.length; start += blockSize) {
+				int len = Math.min(blockSize, data.length - start);
+				Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+				deflater.setInput(data, start, len);
+				deflater.finish();
+				int clen = deflater.deflate(compressed);
+				assertTrue(deflater.finished());
+				deflater.end();
+				CRC32 crc = new CRC32();
+				crc.update(data, start, len);
+
+				out.write(new byte[]{0x1f, (byte) 0x8b, 8, 4, 0, 0, 0, 0, 0, (byte) 0xff});
+				writeUInt16(out, 6);
+				out.write('B');
+				out.write('C');
+				writeUInt16(out, 2);
+				// header, data, crc and size
+				writeUInt16(out, 18 + clen + 8 - 1);
+				out.write(compressed, 0, clen);
+				writeUInt32(out, crc.getValue());
+				writeUInt32(out, len);
+			}
+		}
+	}
+
+	private static byte[] readAll(InputStream stream) throws IOException {
+		try (InputStream is = stream) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[1000];
+			int r;
+			// mix the single byte and buffered reads
+			while ((r = is.read()) != -1) {
+				out.write(r);
+				if ((r = is.read(buffer)) == -1) {
+					break;
+				}
+				out.write(buffer, 0, r);
+			}
+			return out.toByteArray();
+		}
+	}
+
+	@Test
+	public void bgzfTest() throws IOException {
+		byte[] data = createData(42, 5_000_000);
+		Path file = tempDir.getRoot().toPath().resolve("test.nt.gz");
+		writeBgzf(file, data, 60_000);
+
+		assertTrue(ParallelDecompressInputStream.isBgzf(file));
+		// BGZF is a valid gzip file
+		try (InputStream is = new GZIPInputStream(Files.newInputStream(file))) {
+			assertArrayEquals(data, is.readAllBytes());
+		}
+		for (int threads : new int[]{1, 2, 4}) {
+			assertArrayEquals(data, readAll(ParallelDecompressInputStream.ofBgzf(file, threads)));
+		}
+		assertArrayEquals(data, readAll(ParallelDecompressInputStream.open(file, CompressionType.GZIP)));
+		assertArrayEquals(data, readAll(IOUtil.getFileInputStream(file.toString())));
+	}
+
+	@Test
+	public void gzipTest() throws IOException {
+		byte[] data = createData(34, 3_000_000);
+		Path file = tempDir.getRoot().toPath().resolve("test.nt.gz");
+		try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+			out.write(data);
+		}
+		assertFalse(ParallelDecompressInputStream.isBgzf(file));
+		assertArrayEquals(data, readAll(ParallelDecompressInputStream.open(file, CompressionType.GZIP)));
+		assertArrayEquals(data, readAll(IOUtil.getFileInputStream(file.toString())));
+		assertArrayEquals(data, readAll(IOUtil.getFileInputStream(file.toString(), CompressionType.GZIP)));
+		// read without decompression
+		assertArrayEquals(Files.readAllBytes(file), readAll(IOUtil.getFileInputStream(file.toString(), false)));
+	}
+
+	@Test
+	public void asyncTest() throws IOException {
+		byte[] data = createData(12, 100_000);
+		for (int bufferSize : new int[]{1, 7, 1000, 1 << 20}) {
+			for (int buffers : new int[]{1, 2, 4}) {
+				assertArrayEquals(data, readAll(new AsyncInputStream(new ByteArrayInputStream(data), bufferSize, buffers)));
+			}
+		}
+		assertEquals(-1, new AsyncInputStream(new ByteArrayInputStream(new byte[0])).read());
+	}
+
+	@Test
+	public void asyncErrorTest() throws IOException {
+		byte[] data = createData(12, 100_000);
+		InputStream failing = new InputStream() {
+			int read;
+
+			@Override
+			public int read() throws IOException {
+				if (read == 5000) {
+					throw new IOException("test error");
+				}
+				return data[read++] & 0xFF;
+			}
+		};
+		try (InputStream is = new AsyncInputStream(failing, 100, 2)) {
+			is.readAllBytes();
+			fail("the error should be thrown");
+		} catch (IOException e) {
+			assertEquals("test error", e.getCause().getMessage());
+		}
+	}
+
+	@Test
+	public void asyncCloseTest() throws IOException {
+		// close before the end of an infinite stream
+		InputStream is = new AsyncInputStream(new InputStream() {
+			@Override
+			public int read() {
+				return 1;
+			}
+		}, 100, 2);
+		assertEquals(1, is.read());
+		is.close();
+	}
+
+	@Test(timeout = 10_000)
+	public void asyncBlockedCloseTest() throws IOException {
+		// source blocked in a read ignoring the interruptions, like stdin or a socket, until it is closed
+		CountDownLatch closed = new CountDownLatch(1);
+		InputStream is = new AsyncInputStream(new InputStream() {
+			@Override
+			public int read() {
+				while (true) {
+					try {
+						closed.await();
+						return -1;
+					} catch (InterruptedException e) {
+						// ignore
+					}
+				}
+			}
+
+			@Override
+			public void close() {
+				closed.countDown();
+			}
+		}, 100, 2);
+		is.close();
+		assertEquals(0, closed.getCount());
+	}
+}
@@ -0,0 +1,123 @@
+package org.rdfhdt.hdt.util.io.compress;
+
+import org.junit.Test;
+import org.rdfhdt.hdt.exceptions.CRCException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BlockCompressStreamTest {
+	private static byte[] compress(byte[] data, int blockSize) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (OutputStream stream = new BlockCompressOutputStream(out, blockSize)) {
+			// mix single byte and array writes
+			int split = data.length / 3;
+			for (int i = 0; i < split; i++) {
+				stream.write(data[i]);
+			}
+			stream.write(data, split, data.length - split);
+		}
+		return out.toByteArray();
+	}
+
+	private static byte[] decompress(byte[] data) throws IOException {
+		try (InputStream stream = new BlockCompressInputStream(new ByteArrayInputStream(data), 0)) {
+			return stream.readAllBytes();
+		}
+	}
+
+	private static byte[] textData(int size) {
+		StringBuilder sb = new StringBuilder();
+		Random random = new Random(42);
+		while (sb.length() < size) {
+			sb.append("<http://example.org/resource/").append(random.nextInt(1000)).append("> ");
+		}
+		return Arrays.copyOf(sb.toString().getBytes(StandardCharsets.UTF_8), size);
+	}
+
+	private static void assertRoundTrip(byte[] data, int blockSize) throws IOException {
+		byte[] compressed = compress(data, blockSize);
+		assertArrayEquals(data, decompress(compressed));
+	}
+
+	@Test
+	public void emptyTest() throws IOException {
+		assertRoundTrip(new byte[0], 0);
+		assertRoundTrip(new byte[]{1, 2, 3}, 0);
+	}
+
+	@Test
+	public void textTest() throws IOException {
+		byte[] data = textData(1_000_000);
+		byte[] compressed = compress(data, 0);
+		assertTrue("bad ratio " + compressed.length, compressed.length < data.length / 2);
+		assertArrayEquals(data, decompress(compressed));
+		assertRoundTrip(data, 1 << 20);
+	}
+
+	@Test
+	public void randomTest() throws IOException {
+		byte[] data = new byte[300_000];
+		new Random(34).nextBytes(data);
+		byte[] compressed = compress(data, 0);
+		// stored blocks
+		assertTrue(compressed.length <= data.length + 5 * BlockCompressOutputStream.HEADER_SIZE + BlockCompressOutputStream.HEADER_SIZE);
+		assertArrayEquals(data, decompress(compressed));
+	}
+
+	@Test
+	public void repeatTest() throws IOException {
+		byte[] data = new byte[200_000];
+		Arrays.fill(data, (byte) 'a');
+		for (int i = 0; i < data.length; i += 1000) {
+			data[i] = (byte) i;
+		}
+		byte[] compressed = compress(data, 0);
+		assertTrue(compressed.length < data.length / 50);
+		assertArrayEquals(data, decompress(compressed));
+	}
+
+	@Test
+	public void blockTest() throws IOException {
+		Random random = new Random(56);
+		int[] hashTable = LZBlock.createHashTable();
+		for (int size = 0; size < 200; size++) {
+			byte[] data = new byte[size];
+			for (int i = 0; i < size; i++) {
+				data[i] = (byte) ('a' + random.nextInt(3));
+			}
+			byte[] compressed = new byte[LZBlock.maxCompressedLength(size) + 2];
+			int length = LZBlock.compress(data, 0, size, compressed, 2, hashTable);
+			byte[] decompressed = new byte[size];
+			assertEquals(size, LZBlock.decompress(compressed, 2, length, decompressed, 0, size));
+			assertArrayEquals(data, decompressed);
+		}
+	}
+
+	@Test(expected = CRCException.class)
+	public void crcTest() throws IOException {
+		byte[] data = new byte[1000];
+		new Random(12).nextBytes(data);
+		byte[] compressed = compress(data, 0);
+		// stored block, corrupt the data
+		compressed[BlockCompressOutputStream.HEADER_SIZE + 10]++;
+		decompress(compressed);
+	}
+
+	@Test(expected = EOFException.class)
+	public void truncatedTest() throws IOException {
+		byte[] compressed = compress(textData(10_000), 0);
+		decompress(Arrays.copyOf(compressed, compressed.length - BlockCompressOutputStream.HEADER_SIZE));
+	}
+}
@@ -5,9 +5,12 @@ import org.junit.Test;
 import org.rdfhdt.hdt.triples.IndexedNode;
 import org.rdfhdt.hdt.util.concurrent.ExceptionThread;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -254,4 +257,81 @@ public class CompressNodeTest {
 				}, "MergeTest")
 		).startAll().joinAndCrashIfRequired();
 	}
+
+	@Test
+	public void writeReadDuplicatesTest() throws IOException {
+		List<IndexedNode> nodes = new ArrayList<>();
+		nodes.add(new IndexedNode("", 12));
+		nodes.add(new IndexedNode("", 4));
+		nodes.add(new IndexedNode("http://example.org/p", 1));
+		for (int i = 0; i < CompressNodeWriter.MAX_POSTINGS + 10; i++) {
+			nodes.add(new IndexedNode("http://example.org/p1", 2 + i * 3L));
+		}
+		// unsorted indexes
+		nodes.add(new IndexedNode("http://example.org/p2", 42));
+		nodes.add(new IndexedNode("http://example.org/p2", 8));
+		nodes.add(new IndexedNode("http://example.org/p2", 1L << 40));
+		nodes.add(new IndexedNode("http://example.org/p3", 3));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		CompressUtil.writeCompressedSection(nodes, out, null);
+
+		CompressNodeReader reader = new CompressNodeReader(new ByteArrayInputStream(out.toByteArray()));
+		Assert.assertEquals(nodes.size(), reader.getSize());
+		CharSequence previous = null;
+		for (IndexedNode excepted : nodes) {
+			Assert.assertTrue(reader.hasNext());
+			IndexedNode actual = reader.next();
+			Assert.assertEquals(excepted.getIndex(), actual.getIndex());
+			CompressTest.assertCharSequenceEquals("indexed node", excepted.getNode(), actual.getNode());
+			if (previous != null && previous.toString().equals(excepted.getNode().toString())) {
+				Assert.assertEquals(excepted.getNode().length(), reader.lastDelta());
+			}
+			previous = excepted.getNode();
+		}
+		Assert.assertFalse(reader.hasNext());
+		reader.checkComplete();
+		// the duplicated node is written once per list with small index deltas
+		Assert.assertTrue(out.size() < (CompressNodeWriter.MAX_POSTINGS + 10) * 2);
+	}
+
+	@Test
+	public void mergeDuplicatesTest() throws IOException {
+		List<IndexedNode> nodes1 = Arrays.asList(
+				new IndexedNode("a", 1),
+				new IndexedNode("b", 2),
+				new IndexedNode("b", 7),
+				new IndexedNode("c", 3)
+		);
+		List<IndexedNode> nodes2 = Arrays.asList(
+				new IndexedNode("b", 4),
+				new IndexedNode("b", 5),
+				new IndexedNode("c", 6)
+		);
+		List<IndexedNode> merged = Arrays.asList(
+				new IndexedNode("a", 1),
+				new IndexedNode("b", 2),
+				new IndexedNode("b", 4),
+				new IndexedNode("b", 5),
+				new IndexedNode("b", 7),
+				new IndexedNode("c", 3),
+				new IndexedNode("c", 6)
+		);
+		ByteArrayOutputStream out1 = new ByteArrayOutputStream();
+		CompressUtil.writeCompressedSection(nodes1, out1, null);
+		ByteArrayOutputStream out2 = new ByteArrayOutputStream();
+		CompressUtil.writeCompressedSection(nodes2, out2, null);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		CompressUtil.mergeCompressedSection(new ByteArrayInputStream(out1.toByteArray()), new ByteArrayInputStream(out2.toByteArray()), out, null);
+
+		CompressNodeReader reader = new CompressNodeReader(new ByteArrayInputStream(out.toByteArray()));
+		Assert.assertEquals(merged.size(), reader.getSize());
+		for (IndexedNode excepted : merged) {
+			IndexedNode actual = reader.next();
+			Assert.assertEquals(excepted.getIndex(), actual.getIndex());
+			CompressTest.assertCharSequenceEquals("merged node", excepted.getNode(), actual.getNode());
+		}
+		Assert.assertFalse(reader.hasNext());
+		reader.checkComplete();
+	}
 }
@@ -0,0 +1,139 @@
+package org.rdfhdt.hdt.util.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.rdfhdt.hdt.exceptions.ParserException;
+import org.rdfhdt.hdt.hdt.HDT;
+import org.rdfhdt.hdt.options.HDTOptions;
+import org.rdfhdt.hdt.triples.IteratorTripleID;
+import org.rdfhdt.hdt.triples.TripleID;
+import org.rdfhdt.hdt.util.LargeFakeDataSetStreamSupplier;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TripleSearchEventTest {
+	@Rule
+	public TemporaryFolder tempDir = new TemporaryFolder();
+
+	@Test
+	public void searchTest() throws IOException, ParserException {
+		Path dump = tempDir.newFile("search.jfr").toPath();
+		long count;
+		try (HDT hdt = LargeFakeDataSetStreamSupplier.createSupplierWithMaxTriples(1000, 42).createFakeHDT(HDTOptions.of())) {
+			try (Recording recording = new Recording()) {
+				recording.enable("org.rdfhdt.hdt.TripleSearch").withoutThreshold();
+				recording.start();
+
+				IteratorTripleID it = hdt.getTriples().search(new TripleID());
+				count = 0;
+				while (it.hasNext()) {
+					it.next();
+					count++;
+				}
+				// the event should be committed only once
+				assertFalse(it.hasNext());
+
+				// not exhausted and not closed, the search isn't recorded
+				IteratorTripleID partial = hdt.getTriples().search(new TripleID(1, 0, 0));
+				partial.hasNext();
+
+				recording.stop();
+				recording.dump(dump);
+				assertTrue(partial.hasNext());
+			}
+			assertEquals(hdt.getTriples().getNumberOfElements(), count);
+		}
+
+		List<RecordedEvent> events = RecordingFile.readAllEvents(dump).stream()
+				.filter(e -> e.getEventType().getName().equals("org.rdfhdt.hdt.TripleSearch"))
+				.collect(Collectors.toList());
+		assertEquals(1, events.size());
+		RecordedEvent event = events.get(0);
+		assertEquals("???", event.getString("pattern"));
+		assertEquals(count, event.getLong("rows"));
+		assertTrue(event.getBoolean("complete"));
+	}
+
+	@Test
+	public void closeTest() throws IOException, ParserException {
+		Path dump = tempDir.newFile("search.jfr").toPath();
+		try (HDT hdt = LargeFakeDataSetStreamSupplier.createSupplierWithMaxTriples(1000, 42).createFakeHDT(HDTOptions.of())) {
+			try (Recording recording = new Recording()) {
+				recording.enable("org.rdfhdt.hdt.TripleSearch").withoutThreshold();
+				recording.start();
+
+				IteratorTripleID it = hdt.getTriples().search(new TripleID());
+				for (int i = 0; i < 10; i++) {
+					it.next();
+				}
+				// the partial read is recorded by the close
+				assertTrue(it instanceof Closeable);
+				((Closeable) it).close();
+				// already committed
+				while (it.hasNext()) {
+					it.next();
+				}
+				((Closeable) it).close();
+
+				recording.stop();
+				recording.dump(dump);
+			}
+		}
+
+		List<RecordedEvent> events = RecordingFile.readAllEvents(dump).stream()
+				.filter(e -> e.getEventType().getName().equals("org.rdfhdt.hdt.TripleSearch"))
+				.collect(Collectors.toList());
+		assertEquals(1, events.size());
+		assertEquals(10, events.get(0).getLong("rows"));
+		assertFalse(events.get(0).getBoolean("complete"));
+	}
+
+	@Test
+	public void goToStartTest() throws IOException, ParserException {
+		Path dump = tempDir.newFile("search.jfr").toPath();
+		long count;
+		try (HDT hdt = LargeFakeDataSetStreamSupplier.createSupplierWithMaxTriples(1000, 42).createFakeHDT(HDTOptions.of())) {
+			try (Recording recording = new Recording()) {
+				recording.enable("org.rdfhdt.hdt.TripleSearch").withoutThreshold();
+				recording.start();
+
+				IteratorTripleID it = hdt.getTriples().search(new TripleID());
+				for (int i = 0; i < 10; i++) {
+					it.next();
+				}
+				// the partial read is recorded and a new read starts
+				it.goToStart();
+				count = 0;
+				while (it.hasNext()) {
+					it.next();
+					count++;
+				}
+
+				recording.stop();
+				recording.dump(dump);
+			}
+			assertEquals(hdt.getTriples().getNumberOfElements(), count);
+		}
+
+		List<RecordedEvent> events = RecordingFile.readAllEvents(dump).stream()
+				.filter(e -> e.getEventType().getName().equals("org.rdfhdt.hdt.TripleSearch"))
+				.collect(Collectors.toList());
+		assertEquals(2, events.size());
+		assertEquals(10, events.get(0).getLong("rows"));
+		assertFalse(events.get(0).getBoolean("complete"));
+		assertEquals(count, events.get(1).getLong("rows"));
+		assertTrue(events.get(1).getBoolean("complete"));
+	}
+}
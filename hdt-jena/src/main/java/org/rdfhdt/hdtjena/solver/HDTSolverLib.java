@@ -27,11 +27,13 @@
 package org.rdfhdt.hdtjena.solver;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
+import java.util.function.LongPredicate;
 import java.util.function.Predicate;
 
 import org.apache.jena.atlas.iterator.Iter;
@@ -61,6 +63,24 @@ public class HDTSolverLib
 	
     protected static QueryIterator execute(HDTGraph graph, BasicPattern pattern, QueryIterator input,
     										Predicate<Tuple<HDTId>> filter, ExecutionContext execCxt)
+    {
+    	return execute(graph, pattern, input, filter, Collections.emptyMap(), execCxt);
+    }
+
+    protected static QueryIterator execute(HDTGraph graph, BasicPattern pattern, QueryIterator input,
+    										Predicate<Tuple<HDTId>> filter, Map<Var, LongPredicate> objectFilters,
+    										ExecutionContext execCxt)
+    {
+    	return execute(graph, pattern, input, filter, objectFilters, 0, execCxt);
+    }
+
+    /**
+     * Execute a BGP without its first results, the results are skipped in the last triple pattern, with the exact
+     * counts of its searches instead of creating the bindings when possible.
+     */
+    protected static QueryIterator execute(HDTGraph graph, BasicPattern pattern, QueryIterator input,
+    										Predicate<Tuple<HDTId>> filter, Map<Var, LongPredicate> objectFilters,
+    										long offset, ExecutionContext execCxt)
     {
     	numBGPs++;
     	
@@ -77,9 +97,10 @@ public class HDTSolverLib
         	addVarAppearance(mapVar, triplePattern.getObject(), TripleComponentRole.OBJECT);
         }
 
-        for ( Triple triplePattern : pattern )
+        for ( int i = 0 ; i < pattern.size() ; i++ )
         {
-            chain = solve(graph, triplePattern, chain, filter, mapVar, execCxt) ;
+            long stageOffset = i == pattern.size() - 1 ? offset : 0 ;
+            chain = solve(graph, pattern.get(i), chain, filter, objectFilters, mapVar, stageOffset, execCxt) ;
             chain = IterAbortable.makeAbortable(chain, killList) ; 
         }
         
@@ -107,10 +128,10 @@ public class HDTSolverLib
 
     
     private static Iterator<BindingHDTId> solve(HDTGraph graph, Triple tuple, Iterator<BindingHDTId> chain, 
-    											Predicate<Tuple<HDTId>> filter, Map<Var, VarAppearance> mapVar,
-                                                 ExecutionContext execCxt)
+    											Predicate<Tuple<HDTId>> filter, Map<Var, LongPredicate> objectFilters,
+    											Map<Var, VarAppearance> mapVar, long offset, ExecutionContext execCxt)
     {
-        return new StageMatchTripleID(graph, chain, tuple, execCxt, mapVar) ;
+        return new StageMatchTripleID(graph, chain, tuple, execCxt, mapVar, objectFilters, offset) ;
     }
     
 
@@ -0,0 +1,273 @@
+package org.rdfhdt.hdtjena.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.rdfhdt.hdt.dictionary.Dictionary;
+import org.rdfhdt.hdt.enums.TripleComponentRole;
+import org.rdfhdt.hdt.hdt.HDTVocabulary;
+import org.rdfhdt.hdtjena.HDTGraph;
+import org.rdfhdt.hdtjena.NodeDictionary;
+import org.rdfhdt.hdtjena.bindings.BindingHDTNode;
+import org.rdfhdt.hdtjena.bindings.HDTId;
+
+/**
+ * Maps the values of the bindings to one long per RDF term of the HDT, to compare and hash them without creating the
+ * Jena nodes.
+ * <p>
+ * A term has a single id even if it is bound in different roles: the shared subjects/objects have the same id as
+ * subject and as object and a predicate also used as subject or object gets its subject/object id. The id is
+ * {@code (dictionaryId << 2) | section}, 0 is an unbound variable and -1 a term outside the HDT.
+ * <p>
+ * The four section dictionaries sort each section by the bytes of the strings, the IRIs (or the blank nodes) of the
+ * same section can be ordered with their ids, the literals are ordered by value and need to be decoded.
+ */
+public class HDTTermIds {
+	public static final long UNBOUND = 0;
+	public static final long NOT_FOUND = -1;
+
+	private static final int SECTION_SHARED = 0;
+	private static final int SECTION_SUBJECTS = 1;
+	private static final int SECTION_OBJECTS = 2;
+	private static final int SECTION_PREDICATES = 3;
+
+	private static final int KIND_IRI = 0;
+	private static final int KIND_BLANK = 1;
+	private static final int KIND_LITERAL = 2;
+
+	private final NodeDictionary nodeDictionary;
+	private final Dictionary dictionary;
+	private final long nshared;
+	private final Map<Long, Long> predicateIds = new HashMap<>();
+	// ranges [start, end[ of the literal and blank ids of each section, null if the ids aren't ordered
+	private final long[][] literalRanges;
+	private final long[][] blankRanges;
+
+	public HDTTermIds(HDTGraph graph) {
+		this.nodeDictionary = graph.getNodeDictionary();
+		this.dictionary = graph.getHDT().getDictionary();
+		this.nshared = dictionary.getNshared();
+		if (HDTVocabulary.DICTIONARY_TYPE_FOUR_SECTION.equals(dictionary.getType())) {
+			literalRanges = new long[4][];
+			blankRanges = new long[4][];
+		} else {
+			literalRanges = null;
+			blankRanges = null;
+		}
+	}
+
+	/**
+	 * @return id of the value of a variable in a binding, {@link #UNBOUND} or {@link #NOT_FOUND}
+	 */
+	public long termId(Binding binding, Var var) {
+		if (binding instanceof BindingHDTNode) {
+			HDTId id = ((BindingHDTNode) binding).getHDTId(var);
+			if (id != null && id.exists() && id.getRole() != null && id.getDictionary() == nodeDictionary) {
+				return termId(id.getValue(), id.getRole());
+			}
+		}
+		Node node = binding.get(var);
+		if (node == null) {
+			return UNBOUND;
+		}
+		return termId(node);
+	}
+
+	/**
+	 * fill the ids of the values of variables in a binding
+	 */
+	public void termIds(Binding binding, List<Var> vars, long[] ids) {
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = termId(binding, vars.get(i));
+		}
+	}
+
+	private long termId(long id, TripleComponentRole role) {
+		switch (role) {
+			case SUBJECT:
+				return id << 2 | (id <= nshared ? SECTION_SHARED : SECTION_SUBJECTS);
+			case OBJECT:
+				return id << 2 | (id <= nshared ? SECTION_SHARED : SECTION_OBJECTS);
+			case PREDICATE:
+				return predicateIds.computeIfAbsent(id, this::predicateTermId);
+			default:
+				return NOT_FOUND;
+		}
+	}
+
+	private long predicateTermId(long id) {
+		long soId = soTermId(dictionary.idToString(id, TripleComponentRole.PREDICATE).toString());
+		return soId != NOT_FOUND ? soId : id << 2 | SECTION_PREDICATES;
+	}
+
+	private long soTermId(String str) {
+		long id = nodeDictionary.getIntID(str, TripleComponentRole.SUBJECT);
+		if (id > 0) {
+			return termId(id, TripleComponentRole.SUBJECT);
+		}
+		id = nodeDictionary.getIntID(str, TripleComponentRole.OBJECT);
+		if (id > 0) {
+			return termId(id, TripleComponentRole.OBJECT);
+		}
+		return NOT_FOUND;
+	}
+
+	private long termId(Node node) {
+		String str = NodeDictionary.nodeToStr(node);
+		long soId = soTermId(str);
+		if (soId != NOT_FOUND) {
+			return soId;
+		}
+		long id = nodeDictionary.getIntID(str, TripleComponentRole.PREDICATE);
+		return id > 0 ? id << 2 | SECTION_PREDICATES : NOT_FOUND;
+	}
+
+	/**
+	 * key to hash the values of variables in a binding, two bindings have equal keys if they bind the same terms
+	 *
+	 * @param ids buffer for the ids, of the size of vars
+	 */
+	public Object key(Binding binding, List<Var> vars, long[] ids) {
+		termIds(binding, vars, ids);
+		boolean found = true;
+		for (long id : ids) {
+			if (id == NOT_FOUND) {
+				found = false;
+				break;
+			}
+		}
+		if (found) {
+			return ids.length == 1 ? (Object) ids[0] : new IdTuple(ids.clone());
+		}
+		// the terms outside the HDT can't be equal to a term of the HDT
+		List<Object> key = new ArrayList<>(ids.length);
+		for (int i = 0; i < ids.length; i++) {
+			key.add(ids[i] == NOT_FOUND ? binding.get(vars.get(i)) : (Object) ids[i]);
+		}
+		return key;
+	}
+
+	/**
+	 * compare two term ids with the order of their terms, without decoding them
+	 *
+	 * @return the comparison, or null if the terms need to be decoded to be compared
+	 */
+	public Integer compareIds(long id1, long id2) {
+		if (id1 == id2 && id1 != NOT_FOUND) {
+			return 0;
+		}
+		if (id1 == UNBOUND) {
+			return -1;
+		}
+		if (id2 == UNBOUND) {
+			return 1;
+		}
+		if (literalRanges == null || id1 == NOT_FOUND || id2 == NOT_FOUND) {
+			return null;
+		}
+		int section = (int) (id1 & 3);
+		if (section != (id2 & 3)) {
+			return null;
+		}
+		int kind = kind(section, id1 >>> 2);
+		if (kind == KIND_LITERAL || kind != kind(section, id2 >>> 2)) {
+			return null;
+		}
+		return Long.compare(id1, id2);
+	}
+
+	private int kind(int section, long id) {
+		long[] literals = literalRanges[section];
+		if (literals == null) {
+			literals = literalRanges[section] = range(section, "\"", "#");
+			blankRanges[section] = range(section, "_:", "_;");
+		}
+		if (id >= literals[0] && id < literals[1]) {
+			return KIND_LITERAL;
+		}
+		long[] blanks = blankRanges[section];
+		if (id >= blanks[0] && id < blanks[1]) {
+			return KIND_BLANK;
+		}
+		return KIND_IRI;
+	}
+
+	/**
+	 * @return the range of ids of the strings starting with a prefix in a section, end is the first string after
+	 * the prefix
+	 */
+	private long[] range(int section, String prefix, String end) {
+		long first;
+		long last;
+		TripleComponentRole role;
+		switch (section) {
+			case SECTION_SHARED:
+				first = 1;
+				last = nshared;
+				role = TripleComponentRole.SUBJECT;
+				break;
+			case SECTION_SUBJECTS:
+				first = nshared + 1;
+				last = dictionary.getNsubjects();
+				role = TripleComponentRole.SUBJECT;
+				break;
+			case SECTION_OBJECTS:
+				first = nshared + 1;
+				last = dictionary.getNobjects();
+				role = TripleComponentRole.OBJECT;
+				break;
+			default:
+				first = 1;
+				last = dictionary.getNpredicates();
+				role = TripleComponentRole.PREDICATE;
+				break;
+		}
+		return new long[]{
+				lowerBound(first, last, role, prefix),
+				lowerBound(first, last, role, end)
+		};
+	}
+
+	/**
+	 * @return the first id of [first, last] with a string greater or equal to value, last + 1 if there is none
+	 */
+	private long lowerBound(long first, long last, TripleComponentRole role, String value) {
+		long low = first;
+		long high = last + 1;
+		while (low < high) {
+			long mid = (low + high) >>> 1;
+			if (dictionary.idToString(mid, role).toString().compareTo(value) < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	private static final class IdTuple {
+		private final long[] ids;
+		private final int hash;
+
+		private IdTuple(long[] ids) {
+			this.ids = ids;
+			this.hash = Arrays.hashCode(ids);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof IdTuple && Arrays.equals(ids, ((IdTuple) obj).ids);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+}
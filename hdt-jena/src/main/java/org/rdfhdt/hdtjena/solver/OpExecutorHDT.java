@@ -26,6 +26,11 @@
 
 package org.rdfhdt.hdtjena.solver;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongPredicate;
 import java.util.function.Predicate;
 
 import org.apache.jena.atlas.lib.tuple.Tuple;
@@ -35,18 +40,31 @@ import org.rdfhdt.hdtjena.HDTJenaConstants;
 import org.rdfhdt.hdtjena.bindings.HDTId;
 
 import org.apache.jena.graph.Graph;
+import org.apache.jena.query.ARQ;
+import org.apache.jena.query.SortCondition;
 import org.apache.jena.sparql.ARQInternalErrorException;
 import org.apache.jena.sparql.algebra.Op;
+import org.apache.jena.sparql.algebra.OpVars;
 import org.apache.jena.sparql.algebra.op.OpBGP;
 import org.apache.jena.sparql.algebra.op.OpDistinct;
 import org.apache.jena.sparql.algebra.op.OpFilter;
+import org.apache.jena.sparql.algebra.op.OpGroup;
+import org.apache.jena.sparql.algebra.op.OpOrder;
+import org.apache.jena.sparql.algebra.op.OpPath;
+import org.apache.jena.sparql.algebra.op.OpProject;
 import org.apache.jena.sparql.algebra.op.OpReduced;
+import org.apache.jena.sparql.algebra.op.OpSlice;
 import org.apache.jena.sparql.algebra.optimize.TransformFilterPlacement;
 import org.apache.jena.sparql.core.BasicPattern;
 import org.apache.jena.sparql.core.Substitute;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.core.VarExprList;
 import org.apache.jena.sparql.engine.ExecutionContext;
 import org.apache.jena.sparql.engine.QueryIterator;
 import org.apache.jena.sparql.engine.iterator.QueryIterPeek;
+import org.apache.jena.sparql.engine.iterator.QueryIterProject;
+import org.apache.jena.sparql.engine.iterator.QueryIterRoot;
+import org.apache.jena.sparql.engine.iterator.QueryIterSlice;
 import org.apache.jena.sparql.engine.main.OpExecutor;
 import org.apache.jena.sparql.engine.main.OpExecutorFactory;
 import org.apache.jena.sparql.engine.main.QC;
@@ -70,15 +88,72 @@ public class OpExecutorHDT extends OpExecutor {
     @Override
     protected QueryIterator execute(OpDistinct opDistinct, QueryIterator input)
     {
-    	// FIXME: Add to context duplicates property.
-        return super.execute(opDistinct, input) ;
+        if ( ! isForHDT || ! ( input instanceof QueryIterRoot ) )
+            return super.execute(opDistinct, input) ;
+        return executeDistinct(opDistinct.getSubOp(), input) ;
     }
     
     @Override
     protected QueryIterator execute(OpReduced opReduced, QueryIterator input)
     {
-    	// FIXME: Add to context duplicates property.
-        return super.execute(opReduced, input) ;
+        if ( ! isForHDT || ! ( input instanceof QueryIterRoot ) )
+            return super.execute(opReduced, input) ;
+        // The duplicates can be removed, do it like DISTINCT
+        return executeDistinct(opReduced.getSubOp(), input) ;
+    }
+    
+    /** Remove the duplicates on the HDT ids, before the projection to keep the ids of the bindings */
+    private QueryIterator executeDistinct(Op subOp, QueryIterator input)
+    {
+        HDTGraph graph = (HDTGraph)execCxt.getActiveGraph() ;
+        if ( subOp instanceof OpProject )
+        {
+            // (distinct (project vars X)) is (project vars (distinct-on-vars X))
+            OpProject opProject = (OpProject)subOp ;
+            QueryIterator qIter = executeOp(opProject.getSubOp(), input) ;
+            qIter = new QueryIterDistinctHDT(qIter, opProject.getVars(), graph, execCxt) ;
+            return new QueryIterProject(qIter, opProject.getVars(), execCxt) ;
+        }
+        QueryIterator qIter = executeOp(subOp, input) ;
+        return new QueryIterDistinctHDT(qIter, new ArrayList<>(OpVars.visibleVars(subOp)), graph, execCxt) ;
+    }
+    
+    @Override
+    protected QueryIterator execute(OpGroup opGroup, QueryIterator input)
+    {
+        if ( ! isForHDT || ! ( input instanceof QueryIterRoot ) )
+            return super.execute(opGroup, input) ;
+        
+        // Only GROUP BY variables, the expressions are evaluated by ARQ
+        VarExprList groupVars = opGroup.getGroupVars() ;
+        if ( groupVars.isEmpty() )
+            return super.execute(opGroup, input) ;
+        for ( Var var : groupVars.getVars() )
+        {
+            if ( groupVars.getExpr(var) != null )
+                return super.execute(opGroup, input) ;
+        }
+        
+        HDTGraph graph = (HDTGraph)execCxt.getActiveGraph() ;
+        QueryIterator qIter = executeOp(opGroup.getSubOp(), input) ;
+        return new QueryIterGroupHDT(qIter, groupVars.getVars(), opGroup.getAggregators(), graph, execCxt) ;
+    }
+    
+    @Override
+    protected QueryIterator execute(OpOrder opOrder, QueryIterator input)
+    {
+        // Only ORDER BY variables, in memory
+        if ( ! isForHDT || execCxt.getContext().isDefined(ARQ.spillToDiskThreshold) )
+            return super.execute(opOrder, input) ;
+        for ( SortCondition condition : opOrder.getConditions() )
+        {
+            if ( ! condition.getExpression().isVariable() )
+                return super.execute(opOrder, input) ;
+        }
+        
+        HDTGraph graph = (HDTGraph)execCxt.getActiveGraph() ;
+        QueryIterator qIter = executeOp(opOrder.getSubOp(), input) ;
+        return new QueryIterSortHDT(qIter, opOrder.getConditions(), graph, execCxt) ;
     }
     
     @Override
@@ -103,6 +178,53 @@ public class OpExecutorHDT extends OpExecutor {
         return super.execute(opFilter, input) ;
     }
 
+    @Override
+    protected QueryIterator execute(OpSlice opSlice, QueryIterator input)
+    {
+        // Only for a slice of the whole results, not one per input binding
+        if ( ! isForHDT || opSlice.getStart() <= 0 || ! ( input instanceof QueryIterRoot ) )
+            return super.execute(opSlice, input) ;
+        
+        Op subOp = opSlice.getSubOp() ;
+        
+        // (slice (project (bgp ...))), the projection keeps the number of results
+        if ( subOp instanceof OpProject && isSliceableBGP(((OpProject)subOp).getSubOp()) )
+        {
+            OpProject opProject = (OpProject)subOp ;
+            Op slice = new OpSlice(opProject.getSubOp(), opSlice.getStart(), opSlice.getLength()) ;
+            return executeOp(new OpProject(slice, opProject.getVars()), input) ;
+        }
+        
+        // (slice (bgp ...)), skip the first results in the triple searches
+        if ( isSliceableBGP(subOp) )
+        {
+            HDTGraph graph = (HDTGraph)execCxt.getActiveGraph() ;
+            QueryIterator qIter = executeSlice(graph, ((OpBGP)subOp).getPattern(), input, opSlice.getStart(), execCxt) ;
+            return new QueryIterSlice(qIter, 0, opSlice.getLength(), execCxt) ;
+        }
+        
+        return super.execute(opSlice, input) ;
+    }
+    
+    private static boolean isSliceableBGP(Op op)
+    {
+        return OpBGP.isBGP(op) && ! ((OpBGP)op).getPattern().isEmpty() ;
+    }
+
+    @Override
+    protected QueryIterator execute(OpPath opPath, QueryIterator input)
+    {
+        if ( ! isForHDT )
+            return super.execute(opPath, input) ;
+        
+        // (path ?s p* ?o) and (path ?s p+ ?o) on the HDT ids
+        HDTGraph graph = (HDTGraph)execCxt.getActiveGraph() ;
+        QueryIterator qIter = QueryIterPathHDT.create(input, opPath.getTriplePath(), graph, execCxt) ;
+        if ( qIter == null )
+            return super.execute(opPath, input) ;
+        return qIter ;
+    }
+
     // ---- Triple patterns
     
     @Override
@@ -124,6 +246,28 @@ public class OpExecutorHDT extends OpExecutor {
         return optimizeExecuteTriples(graph, input, opBGP.getPattern(), exprs, execCxt) ;
     }
 
+	/** Execute a BGP without its first results, the BGP is reordered like in {@link #optimizeExecuteTriples} */
+	private static QueryIterator executeSlice(HDTGraph graph, BasicPattern pattern, QueryIterator input,
+			long offset, ExecutionContext execCxt) {
+		if ( ! input.hasNext() )
+			return input ;
+		
+		if ( pattern.size() >= 2 )
+		{
+			ReorderTransformation transform = graph.getReorderTransform() ;
+			if ( transform != null )
+			{
+				QueryIterPeek peek = QueryIterPeek.create(input, execCxt) ;
+				input = peek ;
+				pattern = reorder(pattern, peek, transform) ;
+			}
+		}
+		
+		Explain.explain("Execute", pattern, execCxt.getContext()) ;
+		Predicate<Tuple<HDTId>> filter = execCxt.getContext().get(HDTJenaConstants.FILTER_SYMBOL) ;
+		return HDTSolverLib.execute(graph, pattern, input, filter, Collections.emptyMap(), offset, execCxt) ;
+	}
+
 	private static QueryIterator optimizeExecuteTriples(HDTGraph graph,
 			QueryIterator input, BasicPattern pattern, ExprList exprs,
 			ExecutionContext execCxt) {
@@ -146,16 +290,23 @@ public class OpExecutorHDT extends OpExecutor {
 	        // -- Filter placement
 	            
 	        Op op ;
-	        if ( exprs != null )
+	        Map<Var, LongPredicate> objectFilters ;
+	        if ( exprs != null ) {
 	            op = TransformFilterPlacement.transform(exprs, pattern) ;
-	        else
+	            // range and prefix filters, checked on the ids before the FILTER
+	            Map<Var, LongPredicate> filters = new HashMap<>(ValueRangeFilter.extract(exprs, graph)) ;
+	            PrefixFilter.extract(exprs, graph).forEach((v, f) -> filters.merge(v, f, LongPredicate::and)) ;
+	            objectFilters = filters ;
+	        } else {
 	            op = new OpBGP(pattern) ;
+	            objectFilters = Collections.emptyMap() ;
+	        }
 	        
-	        return plainExecute(op, input, execCxt) ;
+	        return plainExecute(op, input, objectFilters, execCxt) ;
 	}
 	
     /** Execute without modification of the op - does <b>not</b> apply special graph name translations */ 
-    private static QueryIterator plainExecute(Op op, QueryIterator input, ExecutionContext execCxt)
+    private static QueryIterator plainExecute(Op op, QueryIterator input, Map<Var, LongPredicate> objectFilters, ExecutionContext execCxt)
     {
         // -- Execute
         // Switch to a non-reordering executor
@@ -163,7 +314,10 @@ public class OpExecutorHDT extends OpExecutor {
         // so we need to do a full execution step, not go straight to the SolverLib.
         
         ExecutionContext ec2 = new ExecutionContext(execCxt) ;
-        ec2.setExecutor(plainFactory) ;
+        if ( objectFilters.isEmpty() )
+            ec2.setExecutor(plainFactory) ;
+        else
+            ec2.setExecutor(cxt -> new OpExecutorPlainHDT(cxt, objectFilters)) ;
 
         // Solve without going through this executor again.
         // There would be issues of nested patterns but this is only a
@@ -208,11 +362,18 @@ public class OpExecutorHDT extends OpExecutor {
     private static class OpExecutorPlainHDT extends OpExecutor
     {
         final Predicate<Tuple<HDTId>> filter;
+        final Map<Var, LongPredicate> objectFilters;
         
 		public OpExecutorPlainHDT(ExecutionContext execCxt)
+        {
+            this(execCxt, Collections.emptyMap()) ;
+        }
+
+		public OpExecutorPlainHDT(ExecutionContext execCxt, Map<Var, LongPredicate> objectFilters)
         {
             super(execCxt) ;
             filter = execCxt.getContext().get(HDTJenaConstants.FILTER_SYMBOL);
+            this.objectFilters = objectFilters;
         }
         
         @Override
@@ -225,7 +386,7 @@ public class OpExecutorHDT extends OpExecutor {
                 BasicPattern bgp = opBGP.getPattern() ;
                 Explain.explain("Execute", bgp, execCxt.getContext()) ;
                 // Triple-backed (but may be named as explicit default graph).
-                return HDTSolverLib.execute((HDTGraph)g, bgp, input, filter, execCxt) ;
+                return HDTSolverLib.execute((HDTGraph)g, bgp, input, filter, objectFilters, execCxt) ;
             }
             Log.warn(this, "Non-HDTGraph passed to OpExecutorPlainHDT") ;
             return super.execute(opBGP, input) ;
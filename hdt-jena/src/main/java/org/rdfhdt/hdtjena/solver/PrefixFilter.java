@@ -0,0 +1,142 @@
+package org.rdfhdt.hdtjena.solver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongPredicate;
+
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.expr.E_LogicalAnd;
+import org.apache.jena.sparql.expr.E_Str;
+import org.apache.jena.sparql.expr.E_StrStartsWith;
+import org.apache.jena.sparql.expr.Expr;
+import org.apache.jena.sparql.expr.ExprList;
+import org.apache.jena.sparql.expr.NodeValue;
+import org.rdfhdt.hdt.dictionary.Dictionary;
+import org.rdfhdt.hdt.dictionary.DictionarySection;
+import org.rdfhdt.hdt.dictionary.impl.MultipleBaseDictionary;
+import org.rdfhdt.hdt.exceptions.NotImplementedException;
+import org.rdfhdt.hdt.util.LiteralsUtils;
+import org.rdfhdt.hdtjena.HDTGraph;
+
+/**
+ * Object id filter created from the {@code STRSTARTS(str(?x), "http://example.org/")} FILTERs of a query, the
+ * IRIs starting with the prefix being contiguous in the dictionary sections, the filter is a set of id ranges
+ * found with {@link DictionarySection#locatePrefixRange(CharSequence)}.
+ *
+ * The filter is conservative, the literals are always accepted, the FILTER still has to be evaluated after.
+ */
+public class PrefixFilter implements LongPredicate {
+
+	/**
+	 * Extract the prefix filters of an expression list.
+	 * @param exprs the filter expressions, all of them must be true
+	 * @param graph the graph
+	 * @return filter by variable, empty if the sections of the dictionary can't search prefixes
+	 */
+	public static Map<Var, LongPredicate> extract(ExprList exprs, HDTGraph graph) {
+		if(exprs == null) {
+			return Collections.emptyMap();
+		}
+		Dictionary dictionary = graph.getHDT().getDictionary();
+		Map<Var, LongPredicate> filters = new HashMap<>();
+		try {
+			for(Expr expr : exprs) {
+				addFilters(expr, dictionary, filters);
+			}
+		} catch (NotImplementedException e) {
+			// the sections of this dictionary can't search prefixes
+			return Collections.emptyMap();
+		}
+		return filters;
+	}
+
+	private static void addFilters(Expr expr, Dictionary dictionary, Map<Var, LongPredicate> filters) {
+		if(expr instanceof E_LogicalAnd) {
+			addFilters(((E_LogicalAnd) expr).getArg1(), dictionary, filters);
+			addFilters(((E_LogicalAnd) expr).getArg2(), dictionary, filters);
+			return;
+		}
+		if(!(expr instanceof E_StrStartsWith)) {
+			return;
+		}
+		E_StrStartsWith func = (E_StrStartsWith) expr;
+		Expr arg1 = func.getArg1();
+		Expr arg2 = func.getArg2();
+		if(!arg2.isConstant()) {
+			return;
+		}
+		NodeValue value = arg2.getConstant();
+		if(!value.isString()) {
+			return;
+		}
+
+		Var var;
+		boolean iris;
+		if(arg1 instanceof E_Str && ((E_Str) arg1).getArg().isVariable()) {
+			// str(?x), the IRIs and the literals can match
+			var = ((E_Str) arg1).getArg().asVar();
+			iris = true;
+		} else if(arg1.isVariable()) {
+			// ?x, only the literals can match
+			var = arg1.asVar();
+			iris = false;
+		} else {
+			return;
+		}
+
+		PrefixFilter filter = new PrefixFilter(dictionary, value.getString(), iris);
+		filters.merge(var, filter, LongPredicate::and);
+	}
+
+	// [first, last] object ids accepted by the filter
+	private final List<long[]> ranges = new ArrayList<>();
+
+	private PrefixFilter(Dictionary dictionary, String prefix, boolean iris) {
+		// the shared section only contains IRIs and blank nodes
+		if(iris) {
+			addRange(dictionary.getShared().locatePrefixRange(prefix), 0);
+		}
+		long offset = dictionary.getNshared();
+		if(dictionary instanceof MultipleBaseDictionary) {
+			for(Map.Entry<? extends CharSequence, DictionarySection> e : dictionary.getAllObjects().entrySet()) {
+				DictionarySection section = e.getValue();
+				if(LiteralsUtils.isNoDatatype(e.getKey())) {
+					addSectionRanges(section, prefix, iris, offset);
+				} else {
+					// typed literals
+					addRange(new long[] {1, section.getNumberOfElements()}, offset);
+				}
+				offset += section.getNumberOfElements();
+			}
+		} else {
+			addSectionRanges(dictionary.getObjects(), prefix, iris, offset);
+		}
+	}
+
+	private void addSectionRanges(DictionarySection section, String prefix, boolean iris, long offset) {
+		if(iris) {
+			addRange(section.locatePrefixRange(prefix), offset);
+		}
+		// the literals are sorted together, let the FILTER check their lexical form
+		addRange(section.locatePrefixRange("\""), offset);
+	}
+
+	private void addRange(long[] range, long offset) {
+		if(range[0] <= range[1]) {
+			ranges.add(new long[] {range[0] + offset, range[1] + offset});
+		}
+	}
+
+	@Override
+	public boolean test(long objectId) {
+		for(long[] range : ranges) {
+			if(objectId >= range[0] && objectId <= range[1]) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,50 @@
+package org.rdfhdt.hdtjena.solver;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.ExecutionContext;
+import org.apache.jena.sparql.engine.QueryIterator;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.iterator.QueryIterProcessBinding;
+import org.rdfhdt.hdtjena.HDTGraph;
+import org.rdfhdt.hdtjena.util.LongHashSet;
+
+/**
+ * DISTINCT on the HDT ids of the variables instead of the Jena nodes, see {@link HDTTermIds}.
+ */
+public class QueryIterDistinctHDT extends QueryIterProcessBinding
+{
+	private final HDTTermIds termIds;
+	private final List<Var> vars;
+	private final long[] ids;
+	// keys of a single variable with a term of the HDT
+	private final LongHashSet seenIds = new LongHashSet();
+	private final Set<Object> seen = new HashSet<>();
+
+	/**
+	 * @param vars the variables of the bindings to compare
+	 */
+	public QueryIterDistinctHDT(QueryIterator input, List<Var> vars, HDTGraph graph, ExecutionContext execCxt)
+	{
+		super(input, execCxt);
+		this.termIds = new HDTTermIds(graph);
+		this.vars = vars;
+		this.ids = new long[vars.size()];
+	}
+
+	@Override
+	public Binding accept(Binding binding)
+	{
+		if ( vars.size() == 1 )
+		{
+			long id = termIds.termId(binding, vars.get(0));
+			if ( id != HDTTermIds.NOT_FOUND )
+				// UNBOUND is 0
+				return seenIds.add(id + 1) ? binding : null;
+		}
+		return seen.add(termIds.key(binding, vars, ids)) ? binding : null;
+	}
+}
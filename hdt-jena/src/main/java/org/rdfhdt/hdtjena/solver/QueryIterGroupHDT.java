@@ -0,0 +1,126 @@
+package org.rdfhdt.hdtjena.solver;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.ExecutionContext;
+import org.apache.jena.sparql.engine.QueryIterator;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.binding.BindingBuilder;
+import org.apache.jena.sparql.engine.iterator.QueryIter1;
+import org.apache.jena.sparql.expr.ExprAggregator;
+import org.apache.jena.sparql.expr.ExprEvalException;
+import org.apache.jena.sparql.expr.NodeValue;
+import org.apache.jena.sparql.expr.aggregate.Accumulator;
+import org.rdfhdt.hdtjena.HDTGraph;
+
+/**
+ * GROUP BY variables on the HDT ids of the variables instead of the Jena nodes, see {@link HDTTermIds}. The values of
+ * the group variables are only created once per group.
+ */
+public class QueryIterGroupHDT extends QueryIter1
+{
+	private final HDTTermIds termIds;
+	private final List<Var> groupVars;
+	private final List<ExprAggregator> aggregators;
+	private Iterator<Binding> results;
+
+	private static class Group
+	{
+		private final Binding first;
+		private final Accumulator[] accumulators;
+
+		private Group(Binding first, List<ExprAggregator> aggregators)
+		{
+			this.first = first;
+			this.accumulators = new Accumulator[aggregators.size()];
+			for ( int i = 0 ; i < accumulators.length ; i++ )
+				accumulators[i] = aggregators.get(i).getAggregator().createAccumulator();
+		}
+	}
+
+	/**
+	 * @param groupVars   the group variables, without expressions
+	 * @param aggregators the aggregators of the groups
+	 */
+	public QueryIterGroupHDT(QueryIterator input, List<Var> groupVars, List<ExprAggregator> aggregators,
+							 HDTGraph graph, ExecutionContext execCxt)
+	{
+		super(input, execCxt);
+		this.termIds = new HDTTermIds(graph);
+		this.groupVars = groupVars;
+		this.aggregators = aggregators;
+	}
+
+	private Iterator<Binding> results()
+	{
+		if ( results == null )
+			results = calc();
+		return results;
+	}
+
+	private Iterator<Binding> calc()
+	{
+		Map<Object, Group> groups = new LinkedHashMap<>();
+		long[] ids = new long[groupVars.size()];
+		QueryIterator input = getInput();
+		while ( input.hasNext() )
+		{
+			Binding binding = input.next();
+			Group group = groups.computeIfAbsent(termIds.key(binding, groupVars, ids), key -> new Group(binding, aggregators));
+			for ( Accumulator accumulator : group.accumulators )
+				accumulator.accumulate(binding, getExecContext());
+		}
+
+		List<Binding> output = new ArrayList<>(groups.size());
+		for ( Group group : groups.values() )
+		{
+			BindingBuilder builder = BindingBuilder.create();
+			for ( Var var : groupVars )
+			{
+				Node node = group.first.get(var);
+				if ( node != null )
+					builder.set(var, node);
+			}
+			for ( int i = 0 ; i < group.accumulators.length ; i++ )
+			{
+				try {
+					NodeValue value = group.accumulators[i].getValue();
+					if ( value != null )
+						builder.set(aggregators.get(i).getVar(), value.asNode());
+				} catch (ExprEvalException ex) {
+					// no value for this aggregator
+				}
+			}
+			output.add(builder.build());
+		}
+		return output.iterator();
+	}
+
+	@Override
+	protected boolean hasNextBinding()
+	{
+		return results().hasNext();
+	}
+
+	@Override
+	protected Binding moveToNextBinding()
+	{
+		return results().next();
+	}
+
+	@Override
+	protected void requestSubCancel()
+	{
+	}
+
+	@Override
+	protected void closeSubIterator()
+	{
+	}
+}
@@ -0,0 +1,331 @@
+package org.rdfhdt.hdtjena.solver;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.sparql.core.TriplePath;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.ExecutionContext;
+import org.apache.jena.sparql.engine.QueryIterator;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.sparql.engine.iterator.QueryIterNullIterator;
+import org.apache.jena.sparql.engine.iterator.QueryIterPath;
+import org.apache.jena.sparql.engine.iterator.QueryIterPlainWrapper;
+import org.apache.jena.sparql.engine.iterator.QueryIterRepeatApply;
+import org.apache.jena.sparql.engine.iterator.QueryIterSingleton;
+import org.apache.jena.sparql.path.P_Inverse;
+import org.apache.jena.sparql.path.P_Link;
+import org.apache.jena.sparql.path.P_OneOrMore1;
+import org.apache.jena.sparql.path.P_ReverseLink;
+import org.apache.jena.sparql.path.P_ZeroOrMore1;
+import org.apache.jena.sparql.path.Path;
+import org.rdfhdt.hdt.enums.TripleComponentRole;
+import org.rdfhdt.hdt.triples.IteratorTripleID;
+import org.rdfhdt.hdt.triples.TripleID;
+import org.rdfhdt.hdt.triples.Triples;
+import org.rdfhdt.hdtjena.HDTGraph;
+import org.rdfhdt.hdtjena.NodeDictionary;
+import org.rdfhdt.hdtjena.bindings.BindingHDTId;
+import org.rdfhdt.hdtjena.bindings.BindingHDTNode;
+import org.rdfhdt.hdtjena.bindings.HDTId;
+import org.rdfhdt.hdtjena.util.LongQueue;
+import org.rdfhdt.hdtjena.util.SparseBitmap;
+
+/**
+ * Evaluate the transitive paths {@code p*} and {@code p+} with a breadth first search on the HDT ids, the Jena nodes
+ * are only created for the results.
+ * <p>
+ * The shared subjects/objects have the same id in both roles: a term reached as an object is expanded as a subject if
+ * it is in the shared section, the other objects have no triples as subject (and the other way for the inverse
+ * paths).
+ */
+public class QueryIterPathHDT extends QueryIterRepeatApply
+{
+	private final TriplePath triplePath;
+	private final Node subject;
+	private final Node object;
+	private final boolean zeroLength;
+	private final NodeDictionary dictionary;
+	private final Triples triples;
+	private final long nshared;
+	private final long predicateId;
+
+	private QueryIterPathHDT(QueryIterator input, TriplePath triplePath, Node subject, Node predicate, Node object,
+			boolean zeroLength, HDTGraph graph, ExecutionContext execCxt)
+	{
+		super(input, execCxt);
+		this.triplePath = triplePath;
+		this.subject = subject;
+		this.object = object;
+		this.zeroLength = zeroLength;
+		this.dictionary = graph.getNodeDictionary();
+		this.triples = graph.getHDT().getTriples();
+		this.nshared = graph.getHDT().getDictionary().getNshared();
+		this.predicateId = dictionary.getIntID(predicate, TripleComponentRole.PREDICATE);
+	}
+
+	/**
+	 * @return the iterator of the path, null if the path isn't a transitive path of a single predicate
+	 */
+	public static QueryIterator create(QueryIterator input, TriplePath triplePath, HDTGraph graph,
+			ExecutionContext execCxt)
+	{
+		Node subject = triplePath.getSubject();
+		Node object = triplePath.getObject();
+		Path path = triplePath.getPath();
+		boolean inverse = false;
+		while ( path instanceof P_Inverse )
+		{
+			inverse = ! inverse;
+			path = ((P_Inverse)path).getSubPath();
+		}
+		boolean zeroLength;
+		if ( path instanceof P_ZeroOrMore1 )
+		{
+			zeroLength = true;
+			path = ((P_ZeroOrMore1)path).getSubPath();
+		}
+		else if ( path instanceof P_OneOrMore1 )
+		{
+			zeroLength = false;
+			path = ((P_OneOrMore1)path).getSubPath();
+		}
+		else
+			return null;
+		// (^p)* is ^(p*)
+		while ( path instanceof P_Inverse )
+		{
+			inverse = ! inverse;
+			path = ((P_Inverse)path).getSubPath();
+		}
+		Node predicate;
+		if ( path instanceof P_Link )
+			predicate = ((P_Link)path).getNode();
+		else if ( path instanceof P_ReverseLink )
+		{
+			inverse = ! inverse;
+			predicate = ((P_ReverseLink)path).getNode();
+		}
+		else
+			return null;
+
+		if ( inverse )
+			return new QueryIterPathHDT(input, triplePath, object, predicate, subject, zeroLength, graph, execCxt);
+		return new QueryIterPathHDT(input, triplePath, subject, predicate, object, zeroLength, graph, execCxt);
+	}
+
+	@Override
+	protected QueryIterator nextStage(Binding binding)
+	{
+		Node s = Var.lookup(binding, subject);
+		Node o = Var.lookup(binding, object);
+		if ( s.isVariable() && o.isVariable() )
+		{
+			// p* needs all the nodes of the graph
+			if ( zeroLength || s.equals(o) )
+				return new QueryIterPath(triplePath, QueryIterSingleton.create(binding, getExecContext()), getExecContext());
+			return QueryIterPlainWrapper.create(new AllPaths(binding, Var.alloc(s), Var.alloc(o)), getExecContext());
+		}
+
+		// search from the bound end
+		boolean forward = ! s.isVariable();
+		Node from = forward ? subject : object;
+		Node fromValue = forward ? s : o;
+		Node toValue = forward ? o : s;
+		TripleComponentRole fromRole = forward ? TripleComponentRole.SUBJECT : TripleComponentRole.OBJECT;
+		TripleComponentRole toRole = forward ? TripleComponentRole.OBJECT : TripleComponentRole.SUBJECT;
+		long start = termId(binding, from, fromValue, fromRole);
+
+		if ( ! toValue.isVariable() )
+		{
+			if ( zeroLength && fromValue.equals(toValue) )
+				return QueryIterSingleton.create(binding, getExecContext());
+			long target = termId(binding, forward ? object : subject, toValue, toRole);
+			if ( start > 0 && target > 0 && predicateId > 0 )
+			{
+				Closure closure = new Closure(start, forward);
+				while ( closure.hasNext() )
+				{
+					if ( closure.nextLong() == target )
+						return QueryIterSingleton.create(binding, getExecContext());
+				}
+			}
+			return QueryIterNullIterator.create(getExecContext());
+		}
+
+		Var toVar = Var.alloc(toValue);
+		Binding startBinding;
+		if ( ! zeroLength )
+			startBinding = null;
+		else if ( start > 0 )
+			startBinding = bind(binding, toVar, new HDTId(start, fromRole, dictionary));
+		else
+			// the term isn't in the graph with this role, but it is a path of length 0
+			startBinding = BindingFactory.binding(binding, toVar, fromValue);
+		PrimitiveIterator.OfLong reached = start > 0 && predicateId > 0 ? new Closure(start, forward) : null;
+		return QueryIterPlainWrapper.create(new Iterator<Binding>() {
+			private Binding first = startBinding;
+
+			@Override
+			public boolean hasNext()
+			{
+				return first != null || ( reached != null && reached.hasNext() );
+			}
+
+			@Override
+			public Binding next()
+			{
+				if ( first != null )
+				{
+					Binding next = first;
+					first = null;
+					return next;
+				}
+				if ( reached == null )
+					throw new NoSuchElementException();
+				return bind(binding, toVar, new HDTId(reached.nextLong(), toRole, dictionary));
+			}
+		}, getExecContext());
+	}
+
+	/** id of a bound end of the path, using the id of the binding if it has one */
+	private long termId(Binding binding, Node node, Node value, TripleComponentRole role)
+	{
+		if ( node.isVariable() && binding instanceof BindingHDTNode )
+		{
+			HDTId id = ((BindingHDTNode)binding).getHDTId(Var.alloc(node));
+			if ( id != null && id.getRole() != null )
+				return NodeDictionary.translate(dictionary, id, role);
+		}
+		return dictionary.getIntID(value, role);
+	}
+
+	private static Binding bind(Binding parent, Var var, HDTId id)
+	{
+		BindingHDTId idBinding = new BindingHDTId(parent);
+		idBinding.put(var, id);
+		return new BindingHDTNode(idBinding);
+	}
+
+	private static Binding bind(Binding parent, Var var1, HDTId id1, Var var2, HDTId id2)
+	{
+		BindingHDTId idBinding = new BindingHDTId(parent);
+		idBinding.put(var1, id1);
+		idBinding.put(var2, id2);
+		return new BindingHDTNode(idBinding);
+	}
+
+	/**
+	 * The terms reachable from a start term with one or more triples of the predicate, each term is returned once.
+	 * The ids are objects for a forward search, subjects for a backward search.
+	 */
+	private class Closure implements PrimitiveIterator.OfLong
+	{
+		private final boolean forward;
+		private final SparseBitmap visited = new SparseBitmap();
+		private final LongQueue queue = new LongQueue();
+		private IteratorTripleID current;
+		private long next;
+		private boolean hasNext;
+
+		private Closure(long start, boolean forward)
+		{
+			this.forward = forward;
+			if ( zeroLength && start <= nshared )
+				// already returned as the path of length 0
+				visited.add(start);
+			current = search(start);
+		}
+
+		private IteratorTripleID search(long id)
+		{
+			if ( forward )
+				return triples.search(new TripleID(id, predicateId, 0));
+			return triples.search(new TripleID(0, predicateId, id));
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			while ( ! hasNext )
+			{
+				if ( current.hasNext() )
+				{
+					TripleID triple = current.next();
+					long id = forward ? triple.getObject() : triple.getSubject();
+					if ( visited.add(id) )
+					{
+						// only the shared terms have triples in the other role
+						if ( id <= nshared )
+							queue.add(id);
+						next = id;
+						hasNext = true;
+					}
+				}
+				else if ( ! queue.isEmpty() )
+					current = search(queue.poll());
+				else
+					return false;
+			}
+			return true;
+		}
+
+		@Override
+		public long nextLong()
+		{
+			if ( ! hasNext() )
+				throw new NoSuchElementException();
+			hasNext = false;
+			return next;
+		}
+	}
+
+	/** {@code ?s p+ ?o}: the closure of each subject of the predicate */
+	private class AllPaths implements Iterator<Binding>
+	{
+		private final Binding parent;
+		private final Var subjectVar;
+		private final Var objectVar;
+		private final IteratorTripleID subjects;
+		private final SparseBitmap seenSubjects = new SparseBitmap();
+		private HDTId currentSubject;
+		private Closure closure;
+
+		private AllPaths(Binding parent, Var subjectVar, Var objectVar)
+		{
+			this.parent = parent;
+			this.subjectVar = subjectVar;
+			this.objectVar = objectVar;
+			this.subjects = predicateId > 0 ? triples.search(new TripleID(0, predicateId, 0)) : null;
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			while ( closure == null || ! closure.hasNext() )
+			{
+				if ( subjects == null || ! subjects.hasNext() )
+					return false;
+				long s = subjects.next().getSubject();
+				if ( seenSubjects.add(s) )
+				{
+					currentSubject = new HDTId(s, TripleComponentRole.SUBJECT, dictionary);
+					closure = new Closure(s, true);
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public Binding next()
+		{
+			if ( ! hasNext() )
+				throw new NoSuchElementException();
+			HDTId o = new HDTId(closure.nextLong(), TripleComponentRole.OBJECT, dictionary);
+			return bind(parent, subjectVar, currentSubject, objectVar, o);
+		}
+	}
+}
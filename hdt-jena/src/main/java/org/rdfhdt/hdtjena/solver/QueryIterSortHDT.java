@@ -0,0 +1,117 @@
+package org.rdfhdt.hdtjena.solver;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.jena.query.Query;
+import org.apache.jena.query.SortCondition;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.ExecutionContext;
+import org.apache.jena.sparql.engine.QueryIterator;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.iterator.QueryIter1;
+import org.apache.jena.sparql.expr.NodeValue;
+import org.rdfhdt.hdtjena.HDTGraph;
+
+/**
+ * ORDER BY variables comparing the HDT ids of the terms of a same dictionary section, the other terms are decoded and
+ * compared like ARQ, see {@link HDTTermIds#compareIds(long, long)}.
+ */
+public class QueryIterSortHDT extends QueryIter1
+{
+	private final HDTTermIds termIds;
+	private final List<Var> vars = new ArrayList<>();
+	private final boolean[] descending;
+	private Iterator<Binding> results;
+
+	private class Row
+	{
+		private final Binding binding;
+		private final long[] ids;
+		private final NodeValue[] values;
+
+		private Row(Binding binding)
+		{
+			this.binding = binding;
+			this.ids = new long[vars.size()];
+			this.values = new NodeValue[vars.size()];
+			termIds.termIds(binding, vars, ids);
+		}
+
+		private NodeValue value(int i)
+		{
+			if ( values[i] == null )
+				values[i] = NodeValue.makeNode(binding.get(vars.get(i)));
+			return values[i];
+		}
+	}
+
+	/**
+	 * @param conditions the sort conditions, on variables only
+	 */
+	public QueryIterSortHDT(QueryIterator input, List<SortCondition> conditions, HDTGraph graph, ExecutionContext execCxt)
+	{
+		super(input, execCxt);
+		this.termIds = new HDTTermIds(graph);
+		this.descending = new boolean[conditions.size()];
+		for ( int i = 0 ; i < conditions.size() ; i++ )
+		{
+			SortCondition condition = conditions.get(i);
+			vars.add(condition.getExpression().asVar());
+			descending[i] = condition.getDirection() == Query.ORDER_DESCENDING;
+		}
+	}
+
+	private int compare(Row row1, Row row2)
+	{
+		for ( int i = 0 ; i < descending.length ; i++ )
+		{
+			Integer cmp = termIds.compareIds(row1.ids[i], row2.ids[i]);
+			int x = cmp != null ? cmp : NodeValue.compareAlways(row1.value(i), row2.value(i));
+			if ( x != 0 )
+				return descending[i] ? -x : x;
+		}
+		return 0;
+	}
+
+	private Iterator<Binding> results()
+	{
+		if ( results == null )
+		{
+			List<Row> rows = new ArrayList<>();
+			QueryIterator input = getInput();
+			while ( input.hasNext() )
+				rows.add(new Row(input.next()));
+			// stable sort, like ARQ
+			rows.sort(this::compare);
+			List<Binding> sorted = new ArrayList<>(rows.size());
+			for ( Row row : rows )
+				sorted.add(row.binding);
+			results = sorted.iterator();
+		}
+		return results;
+	}
+
+	@Override
+	protected boolean hasNextBinding()
+	{
+		return results().hasNext();
+	}
+
+	@Override
+	protected Binding moveToNextBinding()
+	{
+		return results().next();
+	}
+
+	@Override
+	protected void requestSubCancel()
+	{
+	}
+
+	@Override
+	protected void closeSubIterator()
+	{
+	}
+}
@@ -33,6 +33,7 @@ import org.apache.jena.shared.PrefixMapping;
 import org.apache.jena.sparql.core.Var;
 import org.apache.jena.sparql.engine.ExecutionContext;
 import org.apache.jena.sparql.engine.iterator.QueryIterTriplePattern;
+import org.rdfhdt.hdt.enums.ResultEstimationType;
 import org.rdfhdt.hdt.enums.TripleComponentRole;
 import org.rdfhdt.hdt.iterator.utils.RepeatApplyIterator;
 import org.rdfhdt.hdt.triples.IteratorTripleID;
@@ -44,9 +45,11 @@ import org.rdfhdt.hdtjena.bindings.BindingHDTId;
 import org.rdfhdt.hdtjena.bindings.HDTId;
 import org.rdfhdt.hdtjena.util.VarAppearance;
 
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.function.Function;
+import java.util.function.LongPredicate;
 
 /**
  * For each input binding, emits all tuples matching a triple pattern.  See {@link QueryIterTriplePattern}.
@@ -65,10 +68,31 @@ public class StageMatchTripleID extends RepeatApplyIterator<BindingHDTId>
     private final Var[] var = new Var[3];
     private final boolean[] varIsSO = new boolean[3];
     private final long numSharedSO;
+    // filter on the object ids, null for no filter
+    private final LongPredicate objectFilter;
+    // results to skip, over all the input bindings
+    private long offset;
+    // if the number of triples of a search is its number of bindings
+    private final boolean countTriples;
     
     public StageMatchTripleID(HDTGraph graph, Iterator<BindingHDTId> input, Triple patternTuple, ExecutionContext execCxt, Map<Var, VarAppearance> mapVar)
+    {
+        this(graph, input, patternTuple, execCxt, mapVar, Collections.emptyMap());
+    }
+
+    public StageMatchTripleID(HDTGraph graph, Iterator<BindingHDTId> input, Triple patternTuple, ExecutionContext execCxt, Map<Var, VarAppearance> mapVar, Map<Var, LongPredicate> objectFilters)
+    {
+        this(graph, input, patternTuple, execCxt, mapVar, objectFilters, 0);
+    }
+
+    /**
+     * @param offset number of results to skip, the first results of all the input bindings are skipped using the
+     *               exact counts and {@link IteratorTripleID#goTo(long)} of the searches when possible
+     */
+    public StageMatchTripleID(HDTGraph graph, Iterator<BindingHDTId> input, Triple patternTuple, ExecutionContext execCxt, Map<Var, VarAppearance> mapVar, Map<Var, LongPredicate> objectFilters, long offset)
     {
         super(input);
+        this.offset = offset;
         this.dictionary = graph.getNodeDictionary();
         this.triples = graph.getHDT().getTriples();
 		PrefixMapping prefixMap = NodeDictionary.getMapping(execCxt);
@@ -100,6 +124,11 @@ public class StageMatchTripleID extends RepeatApplyIterator<BindingHDTId>
         	varIsSO[2] = mapVar.get(var[2]).isSubjectObject();
         }
         this.patternID = new TripleID(subject,predicate,object);
+        this.objectFilter = var[2] != null ? objectFilters.get(var[2]) : null;
+        // no filter on the triples and no variable repeated in the pattern
+        this.countTriples = !varIsSO[0] && !varIsSO[2] && objectFilter == null
+                && (var[0] == null || (!var[0].equals(var[1]) && !var[0].equals(var[2])))
+                && (var[1] == null || !var[1].equals(var[2]));
     }
     
     @Override
@@ -129,6 +158,20 @@ public class StageMatchTripleID extends RepeatApplyIterator<BindingHDTId>
         
         // Do the search
         IteratorTripleID iterTripleIDSearch = triples.search(patternID);
+
+        // Skip the whole search or jump inside it
+        if(offset > 0 && countTriples && iterTripleIDSearch.numResultEstimation() == ResultEstimationType.EXACT) {
+        	long count = iterTripleIDSearch.estimatedNumResults();
+        	if(count <= offset) {
+        		offset -= count;
+        		return Iter.nullIter();
+        	}
+        	if(iterTripleIDSearch.canGoTo()) {
+        		iterTripleIDSearch.goTo(offset);
+        		offset = 0;
+        	}
+        }
+
         Iter<TripleID> it = Iter.iter(iterTripleIDSearch);
  
 //      // FIXME: Allow a filter here.     
@@ -144,6 +187,11 @@ public class StageMatchTripleID extends RepeatApplyIterator<BindingHDTId>
         }
         
         
+        // Filter the objects with the range filters of the query
+        if(objectFilter != null) {
+        	it = it.filter(t -> objectFilter.test(t.getObject()));
+        }
+        
         // Map TripleID to BindingHDTId
         Function<TripleID, BindingHDTId> binder = triple -> {
 			BindingHDTId output = new BindingHDTId(input) ;
@@ -161,7 +209,13 @@ public class StageMatchTripleID extends RepeatApplyIterator<BindingHDTId>
 			return output;
 		};
         
-        return it.map(binder).removeNulls();
+        Iterator<BindingHDTId> results = it.map(binder).removeNulls();
+
+        // Skip the remaining results one by one
+        for(; offset > 0 && results.hasNext(); offset--) {
+        	results.next();
+        }
+        return results;
     }
 
     private static long translateBinding(BindingHDTId input, Var var, NodeDictionary dictionary, TripleComponentRole role) {
@@ -0,0 +1,215 @@
+package org.rdfhdt.hdtjena.solver;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.function.LongPredicate;
+
+import javax.xml.datatype.XMLGregorianCalendar;
+
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.expr.E_Equals;
+import org.apache.jena.sparql.expr.E_GreaterThan;
+import org.apache.jena.sparql.expr.E_GreaterThanOrEqual;
+import org.apache.jena.sparql.expr.E_LessThan;
+import org.apache.jena.sparql.expr.E_LessThanOrEqual;
+import org.apache.jena.sparql.expr.E_LogicalAnd;
+import org.apache.jena.sparql.expr.Expr;
+import org.apache.jena.sparql.expr.ExprFunction2;
+import org.apache.jena.sparql.expr.ExprList;
+import org.apache.jena.sparql.expr.NodeValue;
+import org.rdfhdt.hdt.dictionary.Dictionary;
+import org.rdfhdt.hdt.dictionary.impl.LiteralValueIndex;
+import org.rdfhdt.hdt.dictionary.impl.MultipleBaseDictionary;
+import org.rdfhdt.hdtjena.HDTGraph;
+
+/**
+ * Object id filter created from the range FILTERs of a query ({@code ?x > 42}, {@code ?d <= "2020-01-01T00:00:00Z"^^xsd:dateTime}),
+ * the ranges are converted into id ranges or id sets with the {@link LiteralValueIndex} of the datatype sections, so
+ * the triples can be rejected without creating the nodes.
+ *
+ * The filter is checked on the object ids of the matched triples, it doesn't restrict the triple searches. It is
+ * conservative, ids outside the indexed sections are accepted, the FILTER still has to be evaluated after. The value
+ * indexes are only built if the HDT is loaded with
+ * {@link org.rdfhdt.hdt.options.HDTOptionsKeys#DICTIONARY_VALUE_INDEX_KEY}.
+ */
+public class ValueRangeFilter implements LongPredicate {
+
+	/**
+	 * Extract the range filters of an expression list.
+	 * @param exprs the filter expressions, all of them must be true
+	 * @param graph the graph
+	 * @return filter by variable, empty if the dictionary of the graph doesn't have datatype sections
+	 */
+	public static Map<Var, LongPredicate> extract(ExprList exprs, HDTGraph graph) {
+		if(exprs == null) {
+			return Collections.emptyMap();
+		}
+		Dictionary dictionary = graph.getHDT().getDictionary();
+		if(!(dictionary instanceof MultipleBaseDictionary)) {
+			return Collections.emptyMap();
+		}
+		Map<Var, Range> ranges = new HashMap<>();
+		for(Expr expr : exprs) {
+			addRanges(expr, ranges);
+		}
+
+		Map<Var, LongPredicate> filters = new HashMap<>();
+		for(Map.Entry<Var, Range> e : ranges.entrySet()) {
+			Range range = e.getValue();
+			if(range.invalid) {
+				continue;
+			}
+			ValueRangeFilter filter = new ValueRangeFilter((MultipleBaseDictionary) dictionary, range);
+			if(!filter.sections.isEmpty()) {
+				filters.put(e.getKey(), filter);
+			}
+		}
+		return filters;
+	}
+
+	private static void addRanges(Expr expr, Map<Var, Range> ranges) {
+		if(expr instanceof E_LogicalAnd) {
+			addRanges(((E_LogicalAnd) expr).getArg1(), ranges);
+			addRanges(((E_LogicalAnd) expr).getArg2(), ranges);
+			return;
+		}
+		boolean greater;
+		boolean lower;
+		if(expr instanceof E_Equals) {
+			greater = true;
+			lower = true;
+		} else if(expr instanceof E_GreaterThan || expr instanceof E_GreaterThanOrEqual) {
+			greater = true;
+			lower = false;
+		} else if(expr instanceof E_LessThan || expr instanceof E_LessThanOrEqual) {
+			greater = false;
+			lower = true;
+		} else {
+			return;
+		}
+
+		ExprFunction2 func = (ExprFunction2) expr;
+		Expr arg1 = func.getArg1();
+		Expr arg2 = func.getArg2();
+		Var var;
+		NodeValue value;
+		if(arg1.isVariable() && arg2.isConstant()) {
+			var = arg1.asVar();
+			value = arg2.getConstant();
+		} else if(arg2.isVariable() && arg1.isConstant()) {
+			// 42 < ?x is ?x > 42
+			var = arg2.asVar();
+			value = arg1.getConstant();
+			if(greater != lower) {
+				greater = !greater;
+				lower = !lower;
+			}
+		} else {
+			return;
+		}
+
+		Range range = ranges.computeIfAbsent(var, v -> new Range());
+		String datatype;
+		double bound;
+		if(value.isNumber()) {
+			datatype = null;
+			bound = value.getDouble();
+		} else if(value.isDateTime() || value.isDate()) {
+			datatype = value.isDateTime() ? LiteralValueIndex.DATE_TIME_TYPE : LiteralValueIndex.DATE_TYPE;
+			XMLGregorianCalendar cal = value.getDateTime();
+			bound = cal.toGregorianCalendar(TimeZone.getTimeZone("UTC"), null, null).getTimeInMillis();
+		} else {
+			range.invalid = true;
+			return;
+		}
+
+		if(range.set && !(datatype == null ? range.datatype == null : datatype.equals(range.datatype))) {
+			// numeric and temporal constraints on the same variable, not handled
+			range.invalid = true;
+			return;
+		}
+		range.set = true;
+		range.datatype = datatype;
+		if(greater) {
+			range.min = Math.max(range.min, bound);
+		}
+		if(lower) {
+			range.max = Math.min(range.max, bound);
+		}
+	}
+
+	private static class Range {
+		boolean set;
+		boolean invalid;
+		// null for the numeric types
+		String datatype;
+		double min = Double.NEGATIVE_INFINITY;
+		double max = Double.POSITIVE_INFINITY;
+	}
+
+	private static class Section {
+		final long firstId;
+		final long lastId;
+		// ids of the section in the range, null if the section is sorted by value
+		final BitSet ids;
+		// id range of the values in the range if the section is sorted by value
+		final long minId;
+		final long maxId;
+
+		Section(LiteralValueIndex index, Range range) {
+			this.firstId = index.getFirstId();
+			this.lastId = index.getLastId();
+			if(index.isIdOrdered()) {
+				// a value range is an id range, no set to build
+				long[] idRange = index.searchIdRange(range.min, range.max);
+				this.ids = null;
+				this.minId = idRange[0];
+				this.maxId = idRange[1];
+			} else {
+				this.ids = index.search(range.min, range.max);
+				this.minId = firstId;
+				this.maxId = lastId;
+			}
+		}
+
+		boolean test(long objectId) {
+			if(ids == null) {
+				return objectId >= minId && objectId <= maxId;
+			}
+			return ids.get((int) (objectId - firstId));
+		}
+	}
+
+	private final List<Section> sections = new ArrayList<>();
+
+	private ValueRangeFilter(MultipleBaseDictionary dictionary, Range range) {
+		for(CharSequence datatype : dictionary.getAllObjects().keySet()) {
+			boolean match = range.datatype == null
+					? LiteralValueIndex.isNumeric(datatype)
+					: range.datatype.equals(datatype.toString());
+			if(!match) {
+				continue;
+			}
+			LiteralValueIndex index = dictionary.getValueIndex(datatype);
+			if(index != null) {
+				sections.add(new Section(index, range));
+			}
+		}
+	}
+
+	@Override
+	public boolean test(long objectId) {
+		for(Section section : sections) {
+			if(objectId >= section.firstId && objectId <= section.lastId) {
+				return section.test(objectId);
+			}
+		}
+		// not an indexed section, let the FILTER decide
+		return true;
+	}
+}
@@ -0,0 +1,103 @@
+package org.rdfhdt.hdtjena.util;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash set of positive longs, without boxing.
+ */
+public class LongHashSet {
+	private static final int MIN_CAPACITY = 16;
+
+	private long[] table;
+	private int size;
+	private int mask;
+
+	public LongHashSet() {
+		this(MIN_CAPACITY);
+	}
+
+	/**
+	 * @param expectedSize number of elements to store without resizing
+	 */
+	public LongHashSet(int expectedSize) {
+		int capacity = MIN_CAPACITY;
+		while (capacity < expectedSize * 2L) {
+			capacity <<= 1;
+		}
+		table = new long[capacity];
+		mask = capacity - 1;
+	}
+
+	private static int hash(long value) {
+		long h = value * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	/**
+	 * add a value to the set
+	 *
+	 * @param value the value, strictly positive
+	 * @return true if the value wasn't already in the set
+	 */
+	public boolean add(long value) {
+		if (value <= 0) {
+			throw new IllegalArgumentException("Only positive values can be stored: " + value);
+		}
+		int i = hash(value) & mask;
+		long current;
+		while ((current = table[i]) != 0) {
+			if (current == value) {
+				return false;
+			}
+			i = (i + 1) & mask;
+		}
+		table[i] = value;
+		if (++size * 2 > table.length) {
+			rehash();
+		}
+		return true;
+	}
+
+	/**
+	 * @param value the value
+	 * @return true if the value is in the set
+	 */
+	public boolean contains(long value) {
+		if (value <= 0) {
+			return false;
+		}
+		int i = hash(value) & mask;
+		long current;
+		while ((current = table[i]) != 0) {
+			if (current == value) {
+				return true;
+			}
+			i = (i + 1) & mask;
+		}
+		return false;
+	}
+
+	private void rehash() {
+		long[] old = table;
+		table = new long[old.length << 1];
+		mask = table.length - 1;
+		for (long value : old) {
+			if (value != 0) {
+				int i = hash(value) & mask;
+				while (table[i] != 0) {
+					i = (i + 1) & mask;
+				}
+				table[i] = value;
+			}
+		}
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public void clear() {
+		Arrays.fill(table, 0);
+		size = 0;
+	}
+}
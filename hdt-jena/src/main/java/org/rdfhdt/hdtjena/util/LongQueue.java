@@ -0,0 +1,47 @@
+package org.rdfhdt.hdtjena.util;
+
+import java.util.NoSuchElementException;
+
+/**
+ * FIFO queue of longs in a circular array, without boxing.
+ */
+public class LongQueue {
+	private long[] elements = new long[16];
+	private int head;
+	private int size;
+
+	public void add(long value) {
+		if (size == elements.length) {
+			long[] newElements = new long[elements.length * 2];
+			int first = elements.length - head;
+			System.arraycopy(elements, head, newElements, 0, first);
+			System.arraycopy(elements, 0, newElements, first, head);
+			elements = newElements;
+			head = 0;
+		}
+		elements[(head + size) & (elements.length - 1)] = value;
+		size++;
+	}
+
+	/**
+	 * @return the first value of the queue
+	 * @throws NoSuchElementException if the queue is empty
+	 */
+	public long poll() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		long value = elements[head];
+		head = (head + 1) & (elements.length - 1);
+		size--;
+		return value;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public int size() {
+		return size;
+	}
+}
@@ -0,0 +1,60 @@
+package org.rdfhdt.hdtjena.util;
+
+/**
+ * Bitmap of positive longs allocated by pages, only the pages with a value set use memory.
+ */
+public class SparseBitmap {
+	// 2^16 bits by page
+	private static final int PAGE_SHIFT = 16;
+	private static final long PAGE_MASK = (1L << PAGE_SHIFT) - 1;
+
+	private long[][] pages = new long[16][];
+	private long cardinality;
+
+	/**
+	 * set a bit
+	 *
+	 * @param value the index of the bit, positive
+	 * @return true if the bit wasn't already set
+	 */
+	public boolean add(long value) {
+		int page = (int) (value >>> PAGE_SHIFT);
+		if (page >= pages.length) {
+			long[][] newPages = new long[Math.max(page + 1, pages.length * 2)][];
+			System.arraycopy(pages, 0, newPages, 0, pages.length);
+			pages = newPages;
+		}
+		long[] words = pages[page];
+		if (words == null) {
+			words = pages[page] = new long[1 << (PAGE_SHIFT - 6)];
+		}
+		int bit = (int) (value & PAGE_MASK);
+		long mask = 1L << bit;
+		if ((words[bit >>> 6] & mask) != 0) {
+			return false;
+		}
+		words[bit >>> 6] |= mask;
+		cardinality++;
+		return true;
+	}
+
+	/**
+	 * @param value the index of the bit, positive
+	 * @return true if the bit is set
+	 */
+	public boolean contains(long value) {
+		int page = (int) (value >>> PAGE_SHIFT);
+		if (page >= pages.length || pages[page] == null) {
+			return false;
+		}
+		int bit = (int) (value & PAGE_MASK);
+		return (pages[page][bit >>> 6] & (1L << bit)) != 0;
+	}
+
+	/**
+	 * @return the number of bits set
+	 */
+	public long cardinality() {
+		return cardinality;
+	}
+}
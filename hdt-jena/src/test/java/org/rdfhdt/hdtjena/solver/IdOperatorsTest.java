@@ -0,0 +1,119 @@
+package org.rdfhdt.hdtjena.solver;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.rdfhdt.hdt.hdt.HDT;
+import org.rdfhdt.hdt.hdt.HDTManager;
+import org.rdfhdt.hdt.options.HDTSpecification;
+import org.rdfhdt.hdt.triples.TripleString;
+import org.rdfhdt.hdtjena.HDTGraph;
+
+/**
+ * Compare the DISTINCT, GROUP BY and ORDER BY on the HDT ids with ARQ on a memory model.
+ */
+public class IdOperatorsTest {
+	private static final String PREFIX = "PREFIX ex: <http://ex.org/> ";
+
+	HDT hdt;
+	Model hdtModel;
+	Model memModel;
+
+	@Before
+	public void setUp() throws Exception {
+		List<TripleString> triples = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			// shared, subject only and object only IRIs, blank nodes and literals
+			triples.add(new TripleString("http://ex.org/s" + (i % 30), "http://ex.org/p" + (i % 4), "http://ex.org/s" + (i % 45)));
+			triples.add(new TripleString("http://ex.org/s" + (i % 20), "http://ex.org/link", "http://ex.org/p" + (i % 3)));
+			triples.add(new TripleString("_:b" + (i % 9), "http://ex.org/p1", "http://ex.org/Z" + (i % 11)));
+			triples.add(new TripleString("http://ex.org/s" + (i % 25), "http://ex.org/value", "\"" + (i % 37) + "\"^^<http://www.w3.org/2001/XMLSchema#integer>"));
+			triples.add(new TripleString("http://ex.org/s" + (i % 15), "http://ex.org/label", "\"label" + (i % 17) + "\"@en"));
+			triples.add(new TripleString("http://ex.org/s" + (i % 12), "http://ex.org/other", "_:b" + (i % 5)));
+		}
+		hdt = HDTManager.generateHDT(triples.iterator(), "http://ex.org/", new HDTSpecification(), null);
+		hdtModel = ModelFactory.createModelForGraph(new HDTGraph(hdt));
+		memModel = ModelFactory.createDefaultModel();
+		memModel.add(hdtModel);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		hdt.close();
+	}
+
+	private static List<String> select(Model model, String query) {
+		List<String> results = new ArrayList<>();
+		try (QueryExecution exec = QueryExecutionFactory.create(PREFIX + query, model)) {
+			ResultSet rs = exec.execSelect();
+			while (rs.hasNext()) {
+				QuerySolution solution = rs.next();
+				StringBuilder sb = new StringBuilder();
+				for (String var : rs.getResultVars()) {
+					sb.append(var).append('=');
+					if (solution.get(var) != null) {
+						// the blank node labels aren't the same in the two models
+						sb.append(solution.get(var).isAnon() ? "_:" : solution.get(var).toString());
+					}
+					sb.append(' ');
+				}
+				results.add(sb.toString());
+			}
+		}
+		return results;
+	}
+
+	private void assertSameResults(String query, boolean ordered) {
+		List<String> expected = select(memModel, query);
+		List<String> actual = select(hdtModel, query);
+		if (!ordered) {
+			Collections.sort(expected);
+			Collections.sort(actual);
+		}
+		assertEquals(query, expected, actual);
+	}
+
+	@Test
+	public void distinctTest() {
+		assertSameResults("SELECT DISTINCT ?s { ?s ?p ?o }", false);
+		assertSameResults("SELECT DISTINCT ?o { ?s ?p ?o }", false);
+		assertSameResults("SELECT DISTINCT ?p { ?s ?p ?o }", false);
+		assertSameResults("SELECT DISTINCT ?s ?p { ?s ?p ?o }", false);
+		assertSameResults("SELECT DISTINCT * { ?s ex:p0 ?o }", false);
+		// the same terms bound as predicate and as object
+		assertSameResults("SELECT DISTINCT ?x { { ?s ?x ?o } UNION { ?s ex:link ?x } }", false);
+		assertSameResults("SELECT REDUCED ?s { ?s ?p ?o }", false);
+		assertSameResults("SELECT DISTINCT ?s ?o { ?s ex:p1 ?o OPTIONAL { ?o ex:value ?v } }", false);
+	}
+
+	@Test
+	public void groupTest() {
+		assertSameResults("SELECT ?s (COUNT(*) AS ?c) { ?s ?p ?o } GROUP BY ?s", false);
+		assertSameResults("SELECT ?p (COUNT(DISTINCT ?s) AS ?c) (SAMPLE(?o) AS ?x) { ?s ?p ?o } GROUP BY ?p HAVING (COUNT(*) > 3)", false);
+		assertSameResults("SELECT ?s (SUM(?v) AS ?sum) (MAX(?v) AS ?max) { ?s ex:value ?v } GROUP BY ?s", false);
+		assertSameResults("SELECT ?s ?p (COUNT(?o) AS ?c) { ?s ?p ?o } GROUP BY ?s ?p", false);
+		assertSameResults("SELECT ?o (COUNT(*) AS ?c) { ?s ex:nothing ?o } GROUP BY ?o", false);
+	}
+
+	@Test
+	public void orderTest() {
+		assertSameResults("SELECT ?o { ?s ?p ?o } ORDER BY ?o", true);
+		assertSameResults("SELECT ?o { ?s ?p ?o } ORDER BY DESC(?o)", true);
+		assertSameResults("SELECT ?v { ?s ex:value ?v } ORDER BY ?v", true);
+		assertSameResults("SELECT ?s ?p { ?s ?p ?o } ORDER BY ?s DESC(?p)", true);
+		assertSameResults("SELECT ?s ?v { ?s ex:p0 ?o OPTIONAL { ?o ex:value ?v } } ORDER BY ?v ?s", true);
+		assertSameResults("SELECT DISTINCT ?o { ?s ?p ?o } ORDER BY ?o LIMIT 20 OFFSET 5", true);
+	}
+}
@@ -0,0 +1,112 @@
+package org.rdfhdt.hdtjena.solver;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.rdfhdt.hdt.hdt.HDT;
+import org.rdfhdt.hdt.hdt.HDTManager;
+import org.rdfhdt.hdt.options.HDTSpecification;
+import org.rdfhdt.hdt.triples.TripleString;
+import org.rdfhdt.hdtjena.HDTGraph;
+
+/**
+ * Compare the transitive paths on the HDT ids with ARQ on a memory model.
+ */
+public class PathTest {
+	private static final String PREFIX = "PREFIX ex: <http://ex.org/> ";
+
+	HDT hdt;
+	Model hdtModel;
+	Model memModel;
+
+	@Before
+	public void setUp() throws Exception {
+		List<TripleString> triples = new ArrayList<>();
+		// a taxonomy with a cycle, leaves only used as objects and roots only used as subjects
+		for (int i = 1; i < 60; i++) {
+			triples.add(new TripleString("http://ex.org/c" + i, "http://ex.org/broader", "http://ex.org/c" + (i / 3)));
+		}
+		triples.add(new TripleString("http://ex.org/c0", "http://ex.org/broader", "http://ex.org/c5"));
+		triples.add(new TripleString("http://ex.org/leaf", "http://ex.org/broader", "http://ex.org/c40"));
+		triples.add(new TripleString("http://ex.org/c50", "http://ex.org/broader", "http://ex.org/top"));
+		for (int i = 0; i < 30; i++) {
+			triples.add(new TripleString("http://ex.org/i" + i, "http://ex.org/type", "http://ex.org/c" + (i * 2)));
+			triples.add(new TripleString("http://ex.org/c" + i, "http://ex.org/label", "\"c" + i + "\""));
+		}
+		hdt = HDTManager.generateHDT(triples.iterator(), "http://ex.org/", new HDTSpecification(), null);
+		hdtModel = ModelFactory.createModelForGraph(new HDTGraph(hdt));
+		memModel = ModelFactory.createDefaultModel();
+		memModel.add(hdtModel);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		hdt.close();
+	}
+
+	private static List<String> select(Model model, String query) {
+		List<String> results = new ArrayList<>();
+		try (QueryExecution exec = QueryExecutionFactory.create(PREFIX + query, model)) {
+			ResultSet rs = exec.execSelect();
+			while (rs.hasNext()) {
+				QuerySolution solution = rs.next();
+				StringBuilder sb = new StringBuilder();
+				rs.getResultVars().forEach(v -> sb.append(v).append('=').append(solution.get(v)).append(' '));
+				results.add(sb.toString());
+			}
+		}
+		Collections.sort(results);
+		return results;
+	}
+
+	private void assertSameResults(String query) {
+		assertEquals(query, select(memModel, query), select(hdtModel, query));
+	}
+
+	@Test
+	public void boundStartTest() {
+		for (String start : new String[]{"ex:c0", "ex:c7", "ex:c40", "ex:leaf", "ex:top", "ex:unknown", "\"c3\""}) {
+			assertSameResults("SELECT * { " + start + " ex:broader* ?o }");
+			assertSameResults("SELECT * { " + start + " ex:broader+ ?o }");
+			assertSameResults("SELECT * { ?s ex:broader* " + start + " }");
+			assertSameResults("SELECT * { ?s ex:broader+ " + start + " }");
+			assertSameResults("SELECT * { " + start + " ^ex:broader+ ?o }");
+			assertSameResults("SELECT * { ?s ^ex:broader* " + start + " }");
+		}
+	}
+
+	@Test
+	public void boundBothTest() {
+		assertSameResults("ASK { ex:c40 ex:broader+ ex:c0 }");
+		assertSameResults("SELECT * { ex:c40 ex:broader+ ex:c1 }");
+		assertSameResults("SELECT * { ex:c40 ex:broader+ ex:c40 }");
+		assertSameResults("SELECT * { ex:c40 ex:broader* ex:c40 }");
+		assertSameResults("SELECT * { ex:c0 ex:broader+ ex:c0 }");
+		assertSameResults("SELECT * { ex:top ex:broader+ ex:c0 }");
+		assertSameResults("SELECT * { ex:unknown ex:broader* ex:unknown }");
+	}
+
+	@Test
+	public void joinTest() {
+		assertSameResults("SELECT * { ?i ex:type ?c . ?c ex:broader* ?o }");
+		assertSameResults("SELECT * { ?i ex:type ?c . ?o ex:broader+ ?c }");
+		assertSameResults("SELECT * { ?c ex:label ?l . ?c ex:broader+ ?o . ?o ex:label ?l2 }");
+		assertSameResults("SELECT * { ?s ex:broader+ ?o }");
+		assertSameResults("SELECT * { ?s ex:type+ ?o }");
+		assertSameResults("SELECT * { ?s ex:nothing+ ?o }");
+		assertSameResults("SELECT * { ex:c7 ex:nothing* ?o }");
+		assertSameResults("SELECT * { ?s ex:broader* ?s }");
+	}
+}
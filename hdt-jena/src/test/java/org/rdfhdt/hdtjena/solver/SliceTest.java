@@ -0,0 +1,95 @@
+package org.rdfhdt.hdtjena.solver;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.rdfhdt.hdt.hdt.HDT;
+import org.rdfhdt.hdt.hdt.HDTManager;
+import org.rdfhdt.hdt.options.HDTSpecification;
+import org.rdfhdt.hdt.triples.TripleString;
+import org.rdfhdt.hdtjena.HDTGraph;
+
+public class SliceTest {
+	private static final String PREFIX = "PREFIX ex: <http://ex.org/> ";
+
+	HDT hdt;
+	Model model;
+
+	@Before
+	public void setUp() throws Exception {
+		List<TripleString> triples = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			triples.add(new TripleString("http://ex.org/s" + (i % 40), "http://ex.org/p" + (i % 3), "http://ex.org/s" + (i % 70)));
+			triples.add(new TripleString("http://ex.org/s" + (i % 25), "http://ex.org/name", "\"name" + i + "\""));
+		}
+		hdt = HDTManager.generateHDT(triples.iterator(), "http://ex.org/", new HDTSpecification(), null);
+		model = ModelFactory.createModelForGraph(new HDTGraph(hdt));
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		hdt.close();
+	}
+
+	private List<String> select(String query) {
+		List<String> results = new ArrayList<>();
+		try (QueryExecution exec = QueryExecutionFactory.create(PREFIX + query, model)) {
+			ResultSet rs = exec.execSelect();
+			while (rs.hasNext()) {
+				QuerySolution solution = rs.next();
+				StringBuilder sb = new StringBuilder();
+				rs.getResultVars().forEach(v -> sb.append(v).append('=').append(solution.get(v)).append(' '));
+				results.add(sb.toString());
+			}
+		}
+		return results;
+	}
+
+	private void assertSlices(String query) {
+		List<String> all = select(query);
+		for (int offset : new int[]{0, 1, 7, 40, all.size() - 1, all.size(), all.size() + 10}) {
+			for (int limit : new int[]{0, 1, 5, 100}) {
+				List<String> expected = all.subList(Math.min(offset, all.size()), Math.min(offset + limit, all.size()));
+				assertEquals(query + " OFFSET " + offset + " LIMIT " + limit, expected, select(query + " OFFSET " + offset + " LIMIT " + limit));
+			}
+			List<String> expected = all.subList(Math.min(offset, all.size()), all.size());
+			assertEquals(query + " OFFSET " + offset, expected, select(query + " OFFSET " + offset));
+		}
+	}
+
+	@Test
+	public void triplePatternTest() {
+		assertSlices("SELECT * { ?s ?p ?o }");
+		assertSlices("SELECT ?o { ?s ?p ?o }");
+		assertSlices("SELECT * { ex:s3 ?p ?o }");
+		assertSlices("SELECT * { ex:s3 ex:p0 ?o }");
+		assertSlices("SELECT * { ?s ex:p1 ?o }");
+		assertSlices("SELECT * { ?s ?p ex:s5 }");
+		assertSlices("SELECT * { ?s ?p ?s }");
+	}
+
+	@Test
+	public void bgpTest() {
+		assertSlices("SELECT * { ?s ex:name ?n . ?s ?p ?o }");
+		assertSlices("SELECT ?n { ?s ex:p0 ?o . ?o ex:name ?n }");
+		assertSlices("SELECT * { ?s ex:p0 ?o . ?o ex:p1 ?o2 . ?o2 ex:name ?n }");
+	}
+
+	@Test
+	public void notPushedTest() {
+		assertSlices("SELECT DISTINCT ?s { ?s ?p ?o }");
+		assertSlices("SELECT * { ?s ?p ?o FILTER (?p != ex:name) }");
+		assertSlices("SELECT * { ?s ?p ?o } ORDER BY ?o");
+	}
+}
@@ -0,0 +1,141 @@
+package org.rdfhdt.hdtjena.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.rdfhdt.hdt.dictionary.impl.LiteralValueIndex;
+import org.rdfhdt.hdt.dictionary.impl.MultipleBaseDictionary;
+import org.rdfhdt.hdt.hdt.HDT;
+import org.rdfhdt.hdt.hdt.HDTManager;
+import org.rdfhdt.hdt.options.HDTOptionsKeys;
+import org.rdfhdt.hdt.options.HDTSpecification;
+import org.rdfhdt.hdt.triples.TripleString;
+import org.rdfhdt.hdtjena.HDTGraph;
+
+/**
+ * Compare the range FILTERs checked with the value indexes of the HDT dictionary with ARQ on a memory model.
+ */
+public class ValueRangeFilterTest {
+	private static final String XSD = "http://www.w3.org/2001/XMLSchema#";
+	private static final String PREFIX = "PREFIX ex: <http://ex.org/> PREFIX xsd: <" + XSD + "> ";
+
+	HDT hdt;
+	Model hdtModel;
+	Model memModel;
+
+	@Before
+	public void setUp() throws Exception {
+		List<TripleString> triples = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			// the lexical order of the integers and the decimals isn't their value order
+			triples.add(new TripleString("http://ex.org/s" + i, "http://ex.org/value", "\"" + (i * 7 % 23 - 5) + "\"^^<" + XSD + "integer>"));
+			triples.add(new TripleString("http://ex.org/s" + i, "http://ex.org/value", "\"" + (i % 13) + ".25\"^^<" + XSD + "decimal>"));
+			triples.add(new TripleString("http://ex.org/s" + i, "http://ex.org/value", "\"" + (i % 9) * 1.5 + "E0\"^^<" + XSD + "double>"));
+			triples.add(new TripleString("http://ex.org/s" + i, "http://ex.org/date", "\"20" + (10 + i % 15) + "-0" + (1 + i % 9) + "-15T12:00:00Z\"^^<" + XSD + "dateTime>"));
+			triples.add(new TripleString("http://ex.org/s" + i, "http://ex.org/label", "\"label" + i + "\""));
+		}
+		// the lexical order of the floats is their value order, 0.1f is greater than 0.1
+		for (int i = 1; i < 10; i++) {
+			triples.add(new TripleString("http://ex.org/f" + i, "http://ex.org/value", "\"0." + i + "\"^^<" + XSD + "float>"));
+		}
+		// not a number
+		triples.add(new TripleString("http://ex.org/bad", "http://ex.org/value", "\"abc\"^^<" + XSD + "integer>"));
+
+		HDTSpecification spec = new HDTSpecification();
+		spec.set(HDTOptionsKeys.DICTIONARY_TYPE_KEY, HDTOptionsKeys.DICTIONARY_TYPE_VALUE_MULTI_OBJECTS);
+		spec.set(HDTOptionsKeys.TEMP_DICTIONARY_IMPL_KEY, HDTOptionsKeys.TEMP_DICTIONARY_IMPL_VALUE_MULT_HASH);
+		spec.set(HDTOptionsKeys.DICTIONARY_VALUE_INDEX_KEY, true);
+		hdt = HDTManager.generateHDT(triples.iterator(), "http://ex.org/", spec, null);
+		hdtModel = ModelFactory.createModelForGraph(new HDTGraph(hdt));
+		memModel = ModelFactory.createDefaultModel();
+		memModel.add(hdtModel);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		hdt.close();
+	}
+
+	private static List<String> select(Model model, String query) {
+		List<String> results = new ArrayList<>();
+		try (QueryExecution exec = QueryExecutionFactory.create(PREFIX + query, model)) {
+			ResultSet rs = exec.execSelect();
+			while (rs.hasNext()) {
+				QuerySolution solution = rs.next();
+				StringBuilder sb = new StringBuilder();
+				for (String var : rs.getResultVars()) {
+					sb.append(var).append('=').append(solution.get(var)).append(' ');
+				}
+				results.add(sb.toString());
+			}
+		}
+		return results;
+	}
+
+	private void assertSameResults(String query) {
+		List<String> expected = select(memModel, query);
+		List<String> actual = select(hdtModel, query);
+		Collections.sort(expected);
+		Collections.sort(actual);
+		assertEquals(query, expected, actual);
+	}
+
+	@Test
+	public void indexTest() {
+		MultipleBaseDictionary dictionary = (MultipleBaseDictionary) hdt.getDictionary();
+		LiteralValueIndex floats = dictionary.getValueIndex("<" + XSD + "float>");
+		assertNotNull(floats);
+		assertTrue(floats.isIdOrdered());
+		LiteralValueIndex integers = dictionary.getValueIndex("<" + XSD + "integer>");
+		assertNotNull(integers);
+		assertFalse(integers.isIdOrdered());
+	}
+
+	@Test
+	public void numericTest() {
+		assertSameResults("SELECT ?s ?v { ?s ex:value ?v FILTER(?v > 10) }");
+		assertSameResults("SELECT ?s ?v { ?s ex:value ?v FILTER(?v >= 3.25) }");
+		assertSameResults("SELECT ?s ?v { ?s ex:value ?v FILTER(?v < 2) }");
+		assertSameResults("SELECT ?s ?v { ?s ex:value ?v FILTER(?v <= -2) }");
+		assertSameResults("SELECT ?s ?v { ?s ex:value ?v FILTER(?v > -3 && ?v < 5) }");
+		assertSameResults("SELECT ?s ?v { ?s ex:value ?v FILTER(4 < ?v) }");
+		assertSameResults("SELECT ?s ?v { ?s ex:value ?v FILTER(?v = 7) }");
+		assertSameResults("SELECT ?s ?v { ?s ex:value ?v FILTER(?v = 4.5e0) }");
+		assertSameResults("SELECT ?s ?v { ?s ex:value ?v ; ex:label ?l FILTER(?v >= 1 && ?v <= 6) }");
+		assertSameResults("SELECT ?s { ?s ex:value ?v FILTER(?v > 100) }");
+	}
+
+	@Test
+	public void floatTest() {
+		// the floats are compared with their float value, 0.1f and 0.3f are above their decimal value
+		assertSameResults("SELECT ?s ?v { ?s ex:value ?v FILTER(?v >= 0.1000000001) }");
+		assertSameResults("SELECT ?s ?v { ?s ex:value ?v FILTER(?v > 0.1) }");
+		assertSameResults("SELECT ?s ?v { ?s ex:value ?v FILTER(?v < 0.3) }");
+		assertSameResults("SELECT ?s ?v { ?s ex:value ?v FILTER(?v > 0.30000000001 && ?v < 0.5) }");
+		assertSameResults("SELECT ?s ?v { ?s ex:value ?v FILTER(?v = \"0.5\"^^xsd:float) }");
+		assertSameResults("SELECT ?s ?v { ?s ex:value ?v FILTER(?v > \"0.2\"^^xsd:float) }");
+	}
+
+	@Test
+	public void dateTimeTest() {
+		assertSameResults("SELECT ?s ?d { ?s ex:date ?d FILTER(?d > \"2015-01-01T00:00:00Z\"^^xsd:dateTime) }");
+		assertSameResults("SELECT ?s ?d { ?s ex:date ?d FILTER(?d >= \"2012-03-15T12:00:00Z\"^^xsd:dateTime && ?d < \"2020-01-01T00:00:00+02:00\"^^xsd:dateTime) }");
+		// numeric and temporal constraints on the same variable
+		assertSameResults("SELECT ?s ?d { ?s ex:date ?d FILTER(?d > \"2015-01-01T00:00:00Z\"^^xsd:dateTime && ?d > 3) }");
+	}
+}